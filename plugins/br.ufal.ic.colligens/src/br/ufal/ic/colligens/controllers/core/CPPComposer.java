@@ -282,6 +282,8 @@ public class CPPComposer extends PPComposerExtensionClass {
 				}
 			}
 		}
+
+		checkPendingAnnotations();
 	}
 
 	/**
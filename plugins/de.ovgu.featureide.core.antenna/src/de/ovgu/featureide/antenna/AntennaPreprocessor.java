@@ -380,6 +380,8 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 				}
 			}
 		}
+
+		checkPendingAnnotations();
 	}
 
 	/**
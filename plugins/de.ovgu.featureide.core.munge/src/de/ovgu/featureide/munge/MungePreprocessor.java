@@ -262,6 +262,8 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 				setMarkersNotConcreteFeatures(line, res, j + 1);
 			}
 		}
+
+		checkPendingAnnotations();
 	}
 
 	/**
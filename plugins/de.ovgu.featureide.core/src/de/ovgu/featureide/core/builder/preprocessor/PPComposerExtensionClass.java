@@ -42,22 +42,18 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.NodeReader;
-import org.prop4j.Not;
-import org.prop4j.SatSolver;
-import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.core.CorePlugin;
 import de.ovgu.featureide.core.builder.ComposerExtensionClass;
+import de.ovgu.featureide.fm.core.analysis.PresenceConditionChecker;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
-import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.explanations.preprocessors.InvariantPresenceConditionExplanation;
 import de.ovgu.featureide.fm.core.explanations.preprocessors.InvariantPresenceConditionExplanationCreator;
 import de.ovgu.featureide.fm.core.explanations.preprocessors.PreprocessorExplanationCreatorFactory;
@@ -111,6 +107,11 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 */
 	protected IFeatureModel featureModel;
 
+	/**
+	 * Checks the presence conditions of all annotations. Created in {@link #prepareFullBuild(Path)} from the CNF of the feature model.
+	 */
+	protected PresenceConditionChecker presenceConditionChecker;
+
 	/**
 	 * {@code true}, if the feature model is void, {@code false} otherwise
 	 */
@@ -162,6 +163,26 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	/** contains all used features at any source file **/
 	protected HashSet<String> usedFeatures = new HashSet<>();
 
+	/**
+	 * An annotation whose presence condition is checked by {@link #checkPendingAnnotations()}.
+	 */
+	private static final class PendingAnnotation {
+
+		private final Node[] expressionStack;
+		private final int lineNumber;
+		private final IFile res;
+
+		private PendingAnnotation(Node[] expressionStack, int lineNumber, IFile res) {
+			this.expressionStack = expressionStack;
+			this.lineNumber = lineNumber;
+			this.res = res;
+		}
+
+	}
+
+	/** Annotations that were found by {@link #checkContradictionOrTautology(int, IFile)} but not checked yet. */
+	private final List<PendingAnnotation> pendingAnnotations = new ArrayList<>();
+
 	/**
 	 * Sets the name of the plug-in
 	 *
@@ -209,12 +230,10 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 			patternIsConcreteFeature = Pattern.compile(concreteFeatures.substring(0, concreteFeatures.length() - 1));
 		}
 
-		// create expression of feature model
-		try {
-			voidFeatureModel = !new SatSolver(AdvancedNodeCreator.createNodes(featureModel), 1000).hasSolution();
-		} catch (final TimeoutException e) {
-			voidFeatureModel = false;
-		}
+		// create checker for the feature model
+		pendingAnnotations.clear();
+		presenceConditionChecker = new PresenceConditionChecker(persistentFormula);
+		voidFeatureModel = presenceConditionChecker.isVoidFeatureModel();
 
 		featureList = Functional.toList(FeatureUtils.extractFeatureNames(featureModel.getFeatures()));
 
@@ -230,60 +249,25 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 * @return the status of the annotation
 	 */
 	protected AnnotationStatus isContradictionOrTautology() {
-		final Node expression = expressionStack.peek();
-
-		Node nestedExpressions = null;
-		if (expressionStack.size() > 1) {
-			Node[] children = expressionStack.toArray(new Node[expressionStack.size()]);
-			children = Arrays.copyOfRange(children, 1, children.length); // Exclude the topmost expression because it is examined separately.
-			nestedExpressions = new And(children);
-		}
-
-		try {
-			return isContradictionOrTautology(expression, AdvancedNodeCreator.createNodes(featureModel), nestedExpressions);
-		} catch (final TimeoutException e) {
-			CorePlugin.getDefault().logError(e);
-			return AnnotationStatus.NORMAL;
-		}
+		return getAnnotationStatus(presenceConditionChecker.check(expressionStack.toArray(new Node[expressionStack.size()])));
 	}
 
-	private AnnotationStatus isContradictionOrTautology(Node expression, Node featureModel, Node nestedExpressions) throws TimeoutException {
-		if (voidFeatureModel) {
+	private static AnnotationStatus getAnnotationStatus(PresenceConditionChecker.Status status) {
+		switch (status) {
+		case VOID:
 			return AnnotationStatus.VOID;
-		}
-
-		/*
-		 * -SAT(expression)
-		 */
-		if (!new SatSolver(expression, 1000).hasSolution()) {
+		case CONTRADICTION:
 			return AnnotationStatus.CONTRADICTION;
-		}
-
-		/*
-		 * -SAT(-expression)
-		 */
-		if (!new SatSolver(new Not(expression), 1000).hasSolution()) {
+		case TAUTOLOGY:
 			return AnnotationStatus.TAUTOLOGY;
-		}
-
-		final Node context = (nestedExpressions != null) ? new And(featureModel, nestedExpressions) : featureModel;
-
-		/*
-		 * -SAT(FM & nestedExpressions & expression)
-		 */
-		if (!new SatSolver(new And(context, expression), 1000).hasSolution()) {
+		case DEAD:
 			return AnnotationStatus.DEAD;
-		}
-
-		/*
-		 * TAUT(FM & nestedExpressions => expression) = -SAT(-(FM & nestedExpressions => expression)) = -SAT(-(-(FM & nestedExpressions) | expression)) =
-		 * -SAT(-(-FM | -nestedExpressions | expression)) = -SAT(FM & nestedExpressions & -expression)
-		 */
-		if (!new SatSolver(new And(context, new Not(expression)), 1000).hasSolution()) {
+		case SUPERFLUOUS:
 			return AnnotationStatus.SUPERFLUOUS;
+		case NORMAL:
+		default:
+			return AnnotationStatus.NORMAL;
 		}
-
-		return AnnotationStatus.NORMAL;
 	}
 
 	/**
@@ -294,6 +278,10 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 * @param res file path
 	 */
 	protected void setMarkersOnContradictionOrTautology(AnnotationStatus status, int lineNumber, IFile res) {
+		setMarkersOnContradictionOrTautology(status, expressionStack.toArray(new Node[expressionStack.size()]), lineNumber, res);
+	}
+
+	private void setMarkersOnContradictionOrTautology(AnnotationStatus status, Node[] expressionStack, int lineNumber, IFile res) {
 		String message;
 		switch (status) {
 		case NORMAL:
@@ -320,7 +308,7 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 		case SUPERFLUOUS:
 			positive = true;
 		case DEAD:
-			final InvariantPresenceConditionExplanation explanation = getInvariantExpressionExplanation(positive);
+			final InvariantPresenceConditionExplanation explanation = getInvariantExpressionExplanation(expressionStack, positive);
 			if ((explanation != null) && (explanation.getReasons() != null) && !explanation.getReasons().isEmpty()) {
 				message += System.lineSeparator();
 				message += explanation.getWriter().getString();
@@ -334,14 +322,15 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	}
 
 	/**
-	 * Returns an explanation for why the expression currently on top of the expression stack is a contradiction or a tautology.
+	 * Returns an explanation for why the expression on top of the given expression stack is a contradiction or a tautology.
 	 *
+	 * @param expressionStack the expression stack, starting with the topmost expression
 	 * @param tautology true if the expression to explain is a tautology; false if it is a contradiction
 	 * @return an explanation
 	 */
-	private InvariantPresenceConditionExplanation getInvariantExpressionExplanation(boolean tautology) {
+	private InvariantPresenceConditionExplanation getInvariantExpressionExplanation(Node[] expressionStack, boolean tautology) {
 		invariantExpressionExplanationCreator.setFeatureModel(featureModel);
-		final List<Node> reverseExpressionStack = new ArrayList<>(expressionStack);
+		final List<Node> reverseExpressionStack = new ArrayList<>(Arrays.asList(expressionStack));
 		Collections.reverse(reverseExpressionStack); // Iteration order of Stack is from bottom to top instead of top to bottom.
 		invariantExpressionExplanationCreator.setExpressionStack(reverseExpressionStack);
 		invariantExpressionExplanationCreator.setTautology(tautology);
@@ -351,15 +340,35 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	/**
 	 * <p> Checks whether the expression in the given line is a tautology or a contradiction. If so, a marker is added to the given line. </p>
 	 *
-	 * <p> It is assumed that the expression to check is on top of the expression stack. </p>
+	 * <p> It is assumed that the expression to check is on top of the expression stack. The check is deferred until {@link #checkPendingAnnotations()} is
+	 * called, such that all annotations of a file are checked at once. </p>
 	 *
 	 * @param lineNumber line number of the expression
 	 * @param res file containing the expression
 	 */
 	protected void checkContradictionOrTautology(int lineNumber, IFile res) {
 		findLiterals(expressionStack.peek());
-		final AnnotationStatus status = isContradictionOrTautology();
-		setMarkersOnContradictionOrTautology(status, lineNumber, res);
+		pendingAnnotations.add(new PendingAnnotation(expressionStack.toArray(new Node[expressionStack.size()]), lineNumber, res));
+	}
+
+	/**
+	 * Checks the presence conditions of all annotations that were passed to {@link #checkContradictionOrTautology(int, IFile)} in parallel and sets the
+	 * markers. Should be called after all lines of a file are processed.
+	 */
+	protected void checkPendingAnnotations() {
+		if (pendingAnnotations.isEmpty()) {
+			return;
+		}
+		final List<Node[]> expressionStacks = new ArrayList<>(pendingAnnotations.size());
+		for (final PendingAnnotation annotation : pendingAnnotations) {
+			expressionStacks.add(annotation.expressionStack);
+		}
+		final List<PresenceConditionChecker.Status> statuses = presenceConditionChecker.check(expressionStacks);
+		for (int i = 0; i < statuses.size(); i++) {
+			final PendingAnnotation annotation = pendingAnnotations.get(i);
+			setMarkersOnContradictionOrTautology(getAnnotationStatus(statuses.get(i)), annotation.expressionStack, annotation.lineNumber, annotation.res);
+		}
+		pendingAnnotations.clear();
 	}
 
 	private void findLiterals(Node ppExpression) {
@@ -465,6 +474,7 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 * Feature Model<br> -A used Feature is abstract
 	 */
 	protected void setModelMarkers() {
+		checkPendingAnnotations();
 		removeModelMarkers();
 		final ArrayList<String> unusedConcrete = new ArrayList<>();
 		final ArrayList<String> usedAbstract = new ArrayList<>();
@@ -20,19 +20,14 @@
  */
 package de.ovgu.featureide.fm.attributes.format;
 
-import static de.ovgu.featureide.fm.core.localization.StringTable.COMMENTS;
-import static de.ovgu.featureide.fm.core.localization.StringTable.WRONG_SYNTAX;
-
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.NodeList;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import de.ovgu.featureide.fm.attributes.base.AbstractFeatureAttributeFactory;
 import de.ovgu.featureide.fm.attributes.base.IFeatureAttribute;
@@ -53,7 +48,7 @@ import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.LazyReader;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
-import de.ovgu.featureide.fm.core.io.xml.XMLFeatureModelTags;
+import de.ovgu.featureide.fm.core.io.xml.IndentingXMLStreamWriter;
 import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
 
 /**
@@ -84,56 +79,48 @@ public class XmlExtendedFeatureModelFormat extends XmlFeatureModelFormat impleme
 	}
 
 	@Override
-	protected void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException {
-		object.reset();
-
-		factory = FMFactoryManager.getInstance().getFactory(object);
-
-		for (final Element e : getElement(doc, EXTENDED_FEATURE_MODEL, false)) {
-			parseStruct(getElement(e, STRUCT, false));
-			parseConstraints(getElement(e, CONSTRAINTS, true));
-			parseComments(getElement(e, COMMENTS, true));
-			parseFeatureOrder(getElement(e, FEATURE_ORDER, true));
-			parseFeatureModelProperties(getElement(e, PROPERTIES, true));
-		}
+	protected void readStream(XMLStreamReader reader, List<Problem> warnings) throws XMLStreamException, UnsupportedModelException {
+		super.readStream(reader, warnings);
 
 		handleRecursiveAttributes();
 
-		if (object.getStructure().getRoot() == null) {
-			throw new UnsupportedModelException(WRONG_SYNTAX, 1);
-		}
 		// handle recursive attributes
 		List<IFeatureAttribute> recursiveAttributes = getRecursiveAttributes();
 		for (IFeatureAttribute att : recursiveAttributes) {
 			recurseAttributesWithLookup(att.getFeature(), att);
 		}
+	}
 
-		warnings.addAll(localProblems);
+	@Override
+	protected String getRootElementName() {
+		return EXTENDED_FEATURE_MODEL;
 	}
 
-	protected void createFeatureAttributes(Document doc, Element fnode, IFeature feature) {
+	protected void createFeatureAttributes(IndentingXMLStreamWriter writer, IFeature feature) throws XMLStreamException {
 		if (feature instanceof ExtendedFeature) {
 			if ((((ExtendedFeature) feature).getAttributes() != null) && !((ExtendedFeature) feature).getAttributes().isEmpty()) {
 				// Write FeatureAttributes into the XML
 				for (final IFeatureAttribute featureAttribute : ((ExtendedFeature) feature).getAttributes()) {
-					final Element attributeNode;
 					if (featureAttribute.isRecursive() && !featureAttribute.isHeadOfRecursiveAttribute()) {
-						createRecursedAttribute(doc, fnode, featureAttribute);
+						createRecursedAttribute(writer, featureAttribute);
 					} else {
-						attributeNode = doc.createElement(XMLFeatureModelTags.ATTRIBUTE);
-						attributeNode.setAttribute(XMLFeatureModelTags.NAME, featureAttribute.getName());
-						attributeNode.setAttribute(XMLFeatureModelTags.ATTRIBUTE_TYPE, featureAttribute.getType());
-						if (featureAttribute.getValue() != null) {
-							attributeNode.setAttribute(XMLFeatureModelTags.ATTRIBUTE_VALUE, featureAttribute.getValue().toString());
+						// Attributes are written in alphabetical order
+						writer.startElement(ATTRIBUTE);
+						if (featureAttribute.isConfigurable()) {
+							writer.attribute(ATTRIBUTE_CONFIGURABLE, TRUE);
 						}
-						attributeNode.setAttribute(XMLFeatureModelTags.ATTRIBUTE_UNIT, featureAttribute.getUnit());
+						writer.attribute(NAME, featureAttribute.getName());
 						if (featureAttribute.isRecursive()) {
-							attributeNode.setAttribute(XMLFeatureModelTags.ATTRIBUTE_RECURSIVE, XMLFeatureModelTags.TRUE);
+							writer.attribute(ATTRIBUTE_RECURSIVE, TRUE);
 						}
-						if (featureAttribute.isConfigurable()) {
-							attributeNode.setAttribute(XMLFeatureModelTags.ATTRIBUTE_CONFIGURABLE, XMLFeatureModelTags.TRUE);
+						writer.attribute(ATTRIBUTE_TYPE, featureAttribute.getType());
+						if (featureAttribute.getUnit() != null) {
+							writer.attribute(ATTRIBUTE_UNIT, featureAttribute.getUnit());
+						}
+						if (featureAttribute.getValue() != null) {
+							writer.attribute(ATTRIBUTE_VALUE, featureAttribute.getValue().toString());
 						}
-						fnode.appendChild(attributeNode);
+						writer.endElement();
 					}
 				}
 			}
@@ -143,81 +130,45 @@ public class XmlExtendedFeatureModelFormat extends XmlFeatureModelFormat impleme
 	/**
 	 * Adds a feature attribute that is recursive but not the holder of the original recursive attribute to the xml-document
 	 * 
-	 * @param doc XML-document that is supposed to be edited
-	 * @param fnode parent node
+	 * @param writer writer, whose last started element is the parent node
 	 * @param att recursed feature attribute that is supposed to be added
 	 */
-	private void createRecursedAttribute(Document doc, Element fnode, IFeatureAttribute att) {
-		final Element attributeNode = doc.createElement(XMLFeatureModelTags.ATTRIBUTE);
+	private void createRecursedAttribute(IndentingXMLStreamWriter writer, IFeatureAttribute att) throws XMLStreamException {
 		if (att.getValue() == null) {
 			return;
 		}
-		attributeNode.setAttribute(XMLFeatureModelTags.NAME, att.getName());
-		attributeNode.setAttribute(XMLFeatureModelTags.ATTRIBUTE_VALUE, att.getValue().toString());
-		fnode.appendChild(attributeNode);
+		writer.startElement(ATTRIBUTE);
+		writer.attribute(NAME, att.getName());
+		writer.attribute(ATTRIBUTE_VALUE, att.getValue().toString());
+		writer.endElement();
 	}
 
 	@Override
-	protected void writeDocument(Document doc) {
-		final Element root = doc.createElement(EXTENDED_FEATURE_MODEL);
-		doc.appendChild(root);
-
-		writeProperties(doc, root);
-		writeFeatures(doc, root);
-		writeConstraints(doc, root);
-		writeComments(doc, root);
-		writeFeatureOrder(doc, root);
+	protected void writeFeatureProperties(IndentingXMLStreamWriter writer, IFeature feat) throws XMLStreamException {
+		super.writeFeatureProperties(writer, feat);
+		createFeatureAttributes(writer, feat);
 	}
 
 	@Override
-	protected void writeFeatureProperties(Document doc, Element node, IFeature feat, final Element fnod) {
-		addDescription(doc, feat.getProperty().getDescription(), fnod);
-		addProperties(doc, feat.getCustomProperties(), fnod);
-		writeAttributes(node, fnod, feat);
-		createFeatureAttributes(doc, fnod, feat);
-	}
-
-	protected void parseFeatures(NodeList nodeList, IFeature parent) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			final String nodeName = e.getNodeName();
-			switch (nodeName) {
-			case DESCRIPTION:
-				parseDescription(parent, e);
-				break;
-			case GRAPHICS:
-				parseProperty(parent.getCustomProperties(), e, GRAPHICS);
-				break;
-			case PROPERTY:
-				parseProperty(parent.getCustomProperties(), e, null);
-				break;
-			case ATTRIBUTE:
-				parseAttribute(parent, e);
-				break;
-			case AND:
-			case OR:
-			case ALT:
-			case FEATURE:
-				parseFeature(parent, e, nodeName);
-				break;
-			default:
-				throwWarning("Unknown feature type: " + nodeName, e);
-			}
+	protected void parseFeatureChild(XMLStreamReader reader, IFeature feature, String nodeName) throws XMLStreamException, UnsupportedModelException {
+		if (nodeName.equals(ATTRIBUTE)) {
+			parseAttribute(feature, reader);
+		} else {
+			super.parseFeatureChild(reader, feature, nodeName);
 		}
 	}
 
-	protected void parseAttribute(IFeature parent, final Element element) throws UnsupportedModelException {
-		if (element.hasAttributes()) {
-			final NamedNodeMap nodeMapFeatureAttribute = element.getAttributes();
+	protected void parseAttribute(IFeature parent, final XMLStreamReader reader) throws XMLStreamException, UnsupportedModelException {
+		if (reader.getAttributeCount() > 0) {
 			String configurable = null;
 			String recursive = null;
 			String name = null;
 			String unit = null;
 			String value = null;
 			String type = null;
-			for (int i = 0; i < nodeMapFeatureAttribute.getLength(); i++) {
-				final org.w3c.dom.Node node = nodeMapFeatureAttribute.item(i);
-				final String attributeName = node.getNodeName();
-				final String attributeValue = node.getNodeValue();
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				final String attributeName = reader.getAttributeLocalName(i);
+				final String attributeValue = reader.getAttributeValue(i);
 
 				if (attributeName.equals(ATTRIBUTE_CONFIGURABLE)) {
 					configurable = attributeValue;
@@ -232,7 +183,7 @@ public class XmlExtendedFeatureModelFormat extends XmlFeatureModelFormat impleme
 				} else if (attributeName.equals(ATTRIBUTE_TYPE)) {
 					type = attributeValue;
 				} else {
-					throwError("Unknown feature attribute: " + attributeName, element);
+					throwError("Unknown feature attribute: " + attributeName, reader);
 				}
 			}
 			// TODO ATTRIBUTE Error marker for missing name and/or type
@@ -251,6 +202,7 @@ public class XmlExtendedFeatureModelFormat extends XmlFeatureModelFormat impleme
 				}
 			}
 		}
+		skipElement(reader);
 	}
 
 	private void addLookUpEntry(String featureName, String attributeName, String value) {
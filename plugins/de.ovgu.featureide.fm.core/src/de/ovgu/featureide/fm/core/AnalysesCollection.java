@@ -33,6 +33,7 @@ import de.ovgu.featureide.fm.core.analysis.ConstraintProperties;
 import de.ovgu.featureide.fm.core.analysis.FeatureModelProperties;
 import de.ovgu.featureide.fm.core.analysis.FeatureProperties;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseDelta;
 import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
@@ -50,9 +51,16 @@ import de.ovgu.featureide.fm.core.analysis.cnf.analysis.IndependentRedundancyAna
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.IndeterminedAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.RemoveRedundancyAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.ACreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ClauseDeltaCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.EmptyCNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FMAnalyzerCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureTreeCNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FormulaArtifactCache;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FormulaArtifactCache.Artifact;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ModalImplicationGraphCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.SolutionPoolCreator;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
@@ -155,11 +163,23 @@ public class AnalysesCollection {
 		private boolean enabled = true;
 
 		private AnalysisResult<R> analysisResult;
+		private volatile AnalysisWrapper<R, A> previousWrapper;
 
 		private final Class<A> analysis;
+		private final Artifact<R> artifact;
 
 		public AnalysisWrapper(Class<A> analysis) {
+			this(analysis, null);
+		}
+
+		/**
+		 * @param analysis the class of the analysis
+		 * @param artifact the format for storing the result in the {@link FeatureModelFormula#getArtifactCache() artifact cache} (may be {@code null}).
+		 *        Must only be used for analyses that solely depend on the feature model.
+		 */
+		public AnalysisWrapper(Class<A> analysis, Artifact<R> artifact) {
 			this.analysis = analysis;
+			this.artifact = artifact;
 		}
 
 		public R getResult() {
@@ -173,26 +193,35 @@ public class AnalysesCollection {
 
 			AnalysisResult<R> curAnalysisResult;
 			Object curSyncObject;
+			FeatureModelFormula curFormula;
 			synchronized (this) {
 				curAnalysisResult = this.analysisResult;
 				curSyncObject = this.syncObject;
+				curFormula = this.formula;
 			}
 
 			synchronized (curSyncObject) {
+				if (curAnalysisResult == null) {
+					// Another thread may have computed the result while this thread was waiting for the lock
+					synchronized (this) {
+						if ((curSyncObject == this.syncObject) && (curFormula == this.formula)) {
+							curAnalysisResult = this.analysisResult;
+						}
+					}
+				}
 				this.monitor = monitor != null ? monitor : new NullMonitor<>();
 				R result = null;
 				if (curAnalysisResult == null) {
-					final AbstractAnalysis<R> analysisInstance = createNewAnalysis();
 					try {
-						result = LongRunningWrapper.runMethod(analysisInstance, this.monitor);
-						curAnalysisResult = result == null ? null : analysisInstance.getResult();
+						curAnalysisResult = loadOrComputeResult(this.monitor);
+						result = curAnalysisResult == null ? null : curAnalysisResult.getResult();
 					} catch (final MethodCancelException e) {
 
 					} catch (final Exception e) {
 						Logger.logError(e);
 					}
 					synchronized (this) {
-						if (curSyncObject == this.syncObject) {
+						if ((curSyncObject == this.syncObject) && (curFormula == this.formula)) {
 							this.analysisResult = curAnalysisResult;
 						}
 					}
@@ -204,10 +233,58 @@ public class AnalysesCollection {
 			}
 		}
 
-		private A createNewAnalysis() {
+		private AnalysisResult<R> loadOrComputeResult(IMonitor<R> monitor) throws Exception {
+			final FormulaArtifactCache cache = formula.getArtifactCache();
+			if ((artifact == null) || (cache == null)) {
+				return computeResult(monitor);
+			}
+			final R cachedResult = cache.load(formula.getArtifactKey(), artifact);
+			if (cachedResult != null) {
+				monitor.done();
+				return new AnalysisResult<>(analysis.getName(), new LiteralSet(), cachedResult);
+			}
+			final AnalysisResult<R> result = computeResult(monitor);
+			if ((result != null) && (result.getResult() != null)) {
+				cache.store(formula.getArtifactKey(), artifact, result.getResult());
+			}
+			return result;
+		}
+
+		/**
+		 * Computes a new result for the current formula. Subclasses may override this method to derive the result from the result of the previous formula
+		 * (see {@link #getPreviousWrapper()}).
+		 *
+		 * @param monitor the monitor for the computation
+		 * @return the new result or {@code null} if the analysis could not be executed.
+		 */
+		protected AnalysisResult<R> computeResult(IMonitor<R> monitor) throws Exception {
+			final A analysisInstance = createNewAnalysis();
+			final R result = LongRunningWrapper.runMethod(analysisInstance, monitor);
+			return result == null ? null : analysisInstance.getResult();
+		}
+
+		/**
+		 * @return the result of this analysis if it was already computed, {@code null} otherwise.
+		 */
+		public synchronized AnalysisResult<R> getCachedResult() {
+			return analysisResult;
+		}
+
+		/**
+		 * @return the corresponding analysis of the {@link FeatureModelFormula#getPreviousFormula() previous formula} or {@code null} if there is none.
+		 */
+		protected AnalysisWrapper<R, A> getPreviousWrapper() {
+			return previousWrapper;
+		}
+
+		protected A createNewAnalysis() {
 			try {
 				final CNF cnf = getCNF();
 				final A newInstance = analysis.getConstructor(CNF.class).newInstance(cnf);
+				if (cnf == formula.getCNF()) {
+					// All analyses of the same CNF share their solutions
+					newInstance.setSolutionPool(formula.getElement(new SolutionPoolCreator()));
+				}
 				configureAnalysis(cnf, newInstance);
 				return newInstance;
 			} catch (
@@ -224,7 +301,7 @@ public class AnalysesCollection {
 
 		protected void configureAnalysis(CNF cnf, A analysis) {}
 
-		public void setFormula(FeatureModelFormula formula) {
+		public synchronized void setFormula(FeatureModelFormula formula) {
 			this.formula = formula;
 		}
 
@@ -288,6 +365,130 @@ public class AnalysesCollection {
 
 	}
 
+	static final class CoreDeadAnalysisWrapper extends AnalysisWrapper<LiteralSet, CoreDeadAnalysis> {
+
+		private final AnalysisWrapper<Boolean, HasSolutionAnalysis> validAnalysis;
+
+		private CoreDeadAnalysisWrapper(AnalysisWrapper<Boolean, HasSolutionAnalysis> validAnalysis) {
+			super(CoreDeadAnalysis.class, FormulaArtifactCache.CORE_DEAD);
+			this.validAnalysis = validAnalysis;
+		}
+
+		@Override
+		protected void configureAnalysis(CNF cnf, CoreDeadAnalysis analysis) {
+			analysis.setNumberOfThreads(CoreDeadAnalysis.getDefaultNumberOfThreads(cnf.getVariables().size()));
+		}
+
+		/**
+		 * Updates the result of the previous formula, if the formula was changed by only adding or only removing clauses. Otherwise, all variables are
+		 * analyzed.
+		 */
+		@Override
+		protected AnalysisResult<LiteralSet> computeResult(IMonitor<LiteralSet> monitor) throws Exception {
+			final CoreDeadAnalysisWrapper previousWrapper = (CoreDeadAnalysisWrapper) getPreviousWrapper();
+			if (previousWrapper != null) {
+				final AnalysisResult<LiteralSet> previousResult = previousWrapper.getCachedResult();
+				final AnalysisResult<Boolean> previousValidResult = previousWrapper.validAnalysis.getCachedResult();
+				if ((previousResult != null) && (previousValidResult != null) && previousValidResult.getResult()) {
+					final ClauseDelta delta = formula.getElement(new ClauseDeltaCreator());
+					if (delta != null) {
+						if (delta.isEmpty()) {
+							return previousResult;
+						}
+						final LiteralSet previousCoreDead = delta.adapt(previousResult.getResult());
+						if (delta.isAdditionOnly()) {
+							// All previous core and dead features remain core and dead
+							if (Boolean.TRUE.equals(validAnalysis.getResult())) {
+								final CoreDeadAnalysis analysis = createNewAnalysis();
+								final int[] remainingVariables = new int[delta.getNewVariables().size()];
+								int count = 0;
+								for (int var = 1; var <= remainingVariables.length; var++) {
+									if (!previousCoreDead.containsVariable(var)) {
+										remainingVariables[count++] = var;
+									}
+								}
+								analysis.setAssumptions(previousCoreDead);
+								analysis.setVariables(new LiteralSet(Arrays.copyOf(remainingVariables, count)));
+								final LiteralSet newCoreDead = LongRunningWrapper.runMethod(analysis, monitor);
+								if (newCoreDead != null) {
+									final int[] previousLiterals = previousCoreDead.getLiterals();
+									final int[] newLiterals = newCoreDead.getLiterals();
+									final int[] literals = Arrays.copyOf(previousLiterals, previousLiterals.length + newLiterals.length);
+									System.arraycopy(newLiterals, 0, literals, previousLiterals.length, newLiterals.length);
+									return new AnalysisResult<>(previousResult.getId(), previousResult.getAssumptions(), new LiteralSet(literals));
+								}
+								return null;
+							}
+						} else if (delta.isRemovalOnly()) {
+							// Only previous core and dead features can still be core or dead
+							final CoreDeadAnalysis analysis = createNewAnalysis();
+							analysis.setVariables(previousCoreDead.getVariables());
+							final LiteralSet result = LongRunningWrapper.runMethod(analysis, monitor);
+							return result == null ? null : analysis.getResult();
+						}
+					}
+				}
+			}
+			return super.computeResult(monitor);
+		}
+	}
+
+	static final class AtomicSetAnalysisWrapper extends AnalysisWrapper<List<LiteralSet>, AtomicSetAnalysis> {
+
+		private AtomicSetAnalysisWrapper() {
+			super(AtomicSetAnalysis.class, FormulaArtifactCache.ATOMIC_SETS);
+		}
+
+		@Override
+		protected void configureAnalysis(CNF cnf, AtomicSetAnalysis analysis) {
+			analysis.setNumberOfThreads(CoreDeadAnalysis.getDefaultNumberOfThreads(cnf.getVariables().size()));
+			// Only use an existing graph, building a new one takes longer than the analysis
+			final ModalImplicationGraph mig = formula.getCachedElement(new ModalImplicationGraphCreator());
+			if ((mig != null) && (mig.getAdjList().size() == (2 * cnf.getVariables().size()))) {
+				analysis.setModalImplicationGraph(mig);
+			}
+		}
+
+		/**
+		 * Uses the result of the previous formula, if the formula was changed by only adding or only removing clauses. If clauses were added, all previous
+		 * atomic sets are still atomic. If clauses were removed, all new atomic sets are subsets of the previous atomic sets.
+		 */
+		@Override
+		protected AnalysisResult<List<LiteralSet>> computeResult(IMonitor<List<LiteralSet>> monitor) throws Exception {
+			final AnalysisWrapper<List<LiteralSet>, AtomicSetAnalysis> previousWrapper = getPreviousWrapper();
+			if (previousWrapper != null) {
+				final AnalysisResult<List<LiteralSet>> previousResult = previousWrapper.getCachedResult();
+				// An empty result indicates a void feature model
+				if ((previousResult != null) && (previousResult.getResult() != null) && !previousResult.getResult().isEmpty()) {
+					final ClauseDelta delta = formula.getElement(new ClauseDeltaCreator());
+					if (delta != null) {
+						if (delta.isEmpty()) {
+							return previousResult;
+						}
+						final List<LiteralSet> previousSets = previousResult.getResult();
+						final List<LiteralSet> adaptedSets = new ArrayList<>(previousSets.size());
+						for (final LiteralSet previousSet : previousSets) {
+							adaptedSets.add(delta.adapt(previousSet));
+						}
+						if (delta.isAdditionOnly()) {
+							final AtomicSetAnalysis analysis = createNewAnalysis();
+							analysis.setKnownAtomicSets(adaptedSets.subList(1, adaptedSets.size()));
+							final List<LiteralSet> result = LongRunningWrapper.runMethod(analysis, monitor);
+							return result == null ? null : analysis.getResult();
+						} else if (delta.isRemovalOnly()) {
+							// Previous core and dead features can only be atomic with each other
+							final AtomicSetAnalysis analysis = createNewAnalysis();
+							analysis.setCandidateAtomicSets(adaptedSets);
+							final List<LiteralSet> result = LongRunningWrapper.runMethod(analysis, monitor);
+							return result == null ? null : analysis.getResult();
+						}
+					}
+				}
+			}
+			return super.computeResult(monitor);
+		}
+	}
+
 	static final class IndeterminesAnalzsisWrapper extends AnalysisWrapper<LiteralSet, IndeterminedAnalysis> {
 
 		private IndeterminesAnalzsisWrapper(Class<IndeterminedAnalysis> analysis) {
@@ -324,6 +525,25 @@ public class AnalysesCollection {
 			analysis.setClauseGroupSize(clauseGroupSize);
 		}
 
+		/**
+		 * Reuses the result of the previous formula, if neither the formula nor the analyzed constraints have changed.
+		 */
+		@Override
+		protected AnalysisResult<List<LiteralSet>> computeResult(IMonitor<List<LiteralSet>> monitor) throws Exception {
+			final ConstraintAnalysisWrapper<A> previousWrapper = (ConstraintAnalysisWrapper<A>) getPreviousWrapper();
+			if (previousWrapper != null) {
+				final AnalysisResult<List<LiteralSet>> previousResult = previousWrapper.getCachedResult();
+				if ((previousResult != null) && (constraintClauses != null) && constraintClauses.equals(previousWrapper.constraintClauses)
+					&& Arrays.equals(clauseGroupSize, previousWrapper.clauseGroupSize)) {
+					final ClauseDelta delta = formula.getElement(new ClauseDeltaCreator(cnfCreator));
+					if ((delta != null) && delta.isEmpty()) {
+						return previousResult;
+					}
+				}
+			}
+			return super.computeResult(monitor);
+		}
+
 	}
 
 	static class AConstraintAnalysisWrapper<R, A extends AbstractAnalysis<R>> extends AnalysisWrapper<R, A> {
@@ -331,7 +551,7 @@ public class AnalysesCollection {
 		protected ArrayList<LiteralSet> constraintClauses;
 		protected int[] clauseGroupSize;
 
-		private final ACreator<CNF> cnfCreator;
+		protected final ACreator<CNF> cnfCreator;
 
 		private AConstraintAnalysisWrapper(Class<A> analysis, ACreator<CNF> cnfCreator) {
 			super(analysis);
@@ -390,8 +610,8 @@ public class AnalysesCollection {
 
 	private FeatureModelFormula formula;
 	final AnalysisWrapper<Boolean, HasSolutionAnalysis> validAnalysis = new AnalysisWrapper<>(HasSolutionAnalysis.class);
-	final AnalysisWrapper<List<LiteralSet>, AtomicSetAnalysis> atomicSetAnalysis = new AnalysisWrapper<>(AtomicSetAnalysis.class);
-	final AnalysisWrapper<LiteralSet, CoreDeadAnalysis> coreDeadAnalysis = new AnalysisWrapper<>(CoreDeadAnalysis.class);
+	final AnalysisWrapper<List<LiteralSet>, AtomicSetAnalysis> atomicSetAnalysis = new AtomicSetAnalysisWrapper();
+	final AnalysisWrapper<LiteralSet, CoreDeadAnalysis> coreDeadAnalysis = new CoreDeadAnalysisWrapper(validAnalysis);
 	final FalseOptionalAnalysisWrapper foAnalysis = new FalseOptionalAnalysisWrapper();
 	final AnalysisWrapper<LiteralSet, IndeterminedAnalysis> determinedAnalysis = new IndeterminesAnalzsisWrapper(IndeterminedAnalysis.class);
 	final ConstraintAnalysisWrapper<RemoveRedundancyAnalysis> constraintRedundancyAnalysis =
@@ -440,12 +660,27 @@ public class AnalysesCollection {
 
 	}
 
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	void init(FeatureModelFormula formula) {
 		this.formula = formula;
 		for (final AnalysisWrapper<?, ?> analysisWrapper : list) {
 			analysisWrapper.setFormula(formula);
 		}
 
+		final FeatureModelFormula previousFormula = formula.getPreviousFormula();
+		final FeatureModelAnalyzer previousAnalyzer = previousFormula == null ? null : previousFormula.getCachedElement(new FMAnalyzerCreator());
+		if (previousAnalyzer != null) {
+			final Iterator<AnalysisWrapper<?, ? extends AbstractAnalysis<? extends Object>>> thisAnalysesIterator = list.iterator();
+			final Iterator<AnalysisWrapper<?, ? extends AbstractAnalysis<? extends Object>>> previousAnalysesIterator =
+				previousAnalyzer.getAnalysesCollection().list.iterator();
+			while (thisAnalysesIterator.hasNext()) {
+				final AnalysisWrapper previousWrapper = previousAnalysesIterator.next();
+				thisAnalysesIterator.next().previousWrapper = previousWrapper;
+				// Only keep one previous version
+				previousWrapper.previousWrapper = null;
+			}
+		}
+
 		deadFeatureExplanationCreator.setFeatureModel(formula.getFeatureModel());
 		falseOptionalFeatureExplanationCreator.setFeatureModel(formula.getFeatureModel());
 		redundantConstraintExplanationCreator.setFeatureModel(formula.getFeatureModel());
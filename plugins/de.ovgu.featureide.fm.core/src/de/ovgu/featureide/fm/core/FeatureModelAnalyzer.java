@@ -23,8 +23,11 @@ package de.ovgu.featureide.fm.core;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import javax.annotation.CheckForNull;
@@ -59,12 +62,18 @@ import de.ovgu.featureide.fm.core.explanations.fm.FalseOptionalFeatureExplanatio
 import de.ovgu.featureide.fm.core.explanations.fm.FalseOptionalFeatureExplanationCreator;
 import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanationCreator;
+import de.ovgu.featureide.fm.core.explanations.fm.impl.gmus.FeatureModelGroupMusOracle;
+import de.ovgu.featureide.fm.core.explanations.fm.impl.gmus.GroupMusDeadFeatureExplanationCreator;
+import de.ovgu.featureide.fm.core.explanations.fm.impl.gmus.GroupMusFalseOptionalFeatureExplanationCreator;
+import de.ovgu.featureide.fm.core.explanations.fm.impl.gmus.GroupMusRedundantConstraintExplanationCreator;
 import de.ovgu.featureide.fm.core.filter.FeatureSetFilter;
 import de.ovgu.featureide.fm.core.filter.OptionalFeatureFilter;
 import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+import de.ovgu.featureide.fm.core.job.util.TaskGraph;
+import de.ovgu.featureide.fm.core.job.util.TaskGraph.Task;
 
 /**
  * A collection of methods for working with {@link IFeatureModel} will replace the corresponding methods in {@link IFeatureModel}
@@ -82,6 +91,8 @@ public class FeatureModelAnalyzer implements IEventListener {
 
 	private final AnalysesCollection analysesCollection;
 
+	private ExecutorService executor = CoreDeadAnalysis.DEFAULT_EXECUTOR;
+
 	public void reset() {
 		analysesCollection.reset(formula);
 	}
@@ -234,6 +245,16 @@ public class FeatureModelAnalyzer implements IEventListener {
 
 	public List<IConstraint> getAnomalyConstraints(IMonitor<List<Anomalies>> monitor) {
 		monitor.checkCancel();
+		final boolean[] relevantConstraint = getRelevantConstraints();
+		monitor.checkCancel();
+		return getAnomalyConstraints(relevantConstraint, monitor);
+	}
+
+	public List<IConstraint> getAnomalyConstraints(boolean[] relevantConstraint, IMonitor<List<Anomalies>> monitor) {
+		return setAnomalies(getAnomalies(relevantConstraint, monitor));
+	}
+
+	private boolean[] getRelevantConstraints() {
 		int i = 0;
 		final boolean[] relevantConstraint = new boolean[constraints.size()];
 		for (final IConstraint constraint : constraints) {
@@ -243,13 +264,21 @@ public class FeatureModelAnalyzer implements IEventListener {
 			}
 			i++;
 		}
-		monitor.checkCancel();
-		return getAnomalyConstraints(relevantConstraint, monitor);
+		return relevantConstraint;
 	}
 
-	public List<IConstraint> getAnomalyConstraints(boolean[] relevantConstraint, IMonitor<List<Anomalies>> monitor) {
+	private List<Anomalies> getAnomalies(boolean[] relevantConstraint, IMonitor<List<Anomalies>> monitor) {
 		analysesCollection.constraintAnomaliesAnalysis.setRelevantConstraint(relevantConstraint);
-		final List<Anomalies> result = analysesCollection.constraintAnomaliesAnalysis.getResult(monitor);
+		return analysesCollection.constraintAnomaliesAnalysis.getResult(monitor);
+	}
+
+	/**
+	 * Stores the false-optional and dead features caused by each constraint in its {@link ConstraintProperties}.
+	 *
+	 * @param result the result of the constraint anomalies analysis
+	 * @return the constraints that cause anomalies
+	 */
+	private List<IConstraint> setAnomalies(List<Anomalies> result) {
 		if ((result == null) || result.isEmpty()) {
 			return Collections.emptyList();
 		}
@@ -326,9 +355,11 @@ public class FeatureModelAnalyzer implements IEventListener {
 
 			updateFeatureModel(monitor);
 
-			updateFeatures(monitor);
-
-			updateConstraints(monitor);
+			// feature and constraint analyses are independent of each other, except for the constraint anomalies
+			final TaskGraph taskGraph = new TaskGraph(executor);
+			final List<Task<?>> featureTasks = addFeatureTasks(taskGraph, monitor);
+			addConstraintTasks(taskGraph, featureTasks, monitor);
+			executeTasks(taskGraph, monitor);
 		} finally {
 			monitor.done();
 		}
@@ -336,6 +367,29 @@ public class FeatureModelAnalyzer implements IEventListener {
 		return analysesCollection;
 	}
 
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets the executor that is used by {@link #analyzeFeatureModel(IMonitor)} to run independent analyses concurrently.
+	 *
+	 * @param executor the executor; if {@code null}, all analyses are run consecutively in the calling thread.
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	private void executeTasks(TaskGraph taskGraph, IMonitor<Boolean> monitor) {
+		try {
+			taskGraph.execute(monitor.subTask(taskGraph.getWork()));
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final Exception e) {
+			Logger.logError(e);
+		}
+	}
+
 	public void updateConstraints() {
 		updateConstraints(null);
 	}
@@ -345,6 +399,14 @@ public class FeatureModelAnalyzer implements IEventListener {
 			if (monitor == null) {
 				monitor = new NullMonitor<>();
 			}
+			final TaskGraph taskGraph = new TaskGraph(executor);
+			addConstraintTasks(taskGraph, Collections.<Task<?>> emptyList(), monitor);
+			executeTasks(taskGraph, monitor);
+		}
+	}
+
+	private void addConstraintTasks(TaskGraph taskGraph, List<Task<?>> featureTasks, IMonitor<Boolean> monitor) {
+		if (analysesCollection.isCalculateConstraints()) {
 			monitor.checkCancel();
 			// set default values for constraint properties
 			for (final IConstraint constraint : constraints) {
@@ -358,34 +420,41 @@ public class FeatureModelAnalyzer implements IEventListener {
 			monitor.checkCancel();
 			final FeatureModelProperties properties = getFeatureModelProperties();
 			if (properties.hasStatus(FeatureModelStatus.VOID)) {
-				final List<IConstraint> voidConstraints = getVoidConstraints(monitor.subTask(2));
-				for (final IConstraint constraint : voidConstraints) {
-					getConstraintProperties(constraint).setStatus(ConstraintStatus.VOID);
-				}
-				monitor.checkCancel();
-				final List<IConstraint> contradictoryConstraints = getContradictoryConstraints(monitor.subTask(2));
-				for (final IConstraint constraint : contradictoryConstraints) {
-					getConstraintProperties(constraint).setStatus(ConstraintStatus.UNSATISFIABLE);
-				}
+				final Task<List<IConstraint>> voidTask = taskGraph.addTask(2, m -> getVoidConstraints(m.subTask(1)), voidConstraints -> {
+					for (final IConstraint constraint : voidConstraints) {
+						getConstraintProperties(constraint).setStatus(ConstraintStatus.VOID);
+					}
+				});
+				taskGraph.<List<IConstraint>> addTask(2, m -> getContradictoryConstraints(m.subTask(1)), contradictoryConstraints -> {
+					for (final IConstraint constraint : contradictoryConstraints) {
+						getConstraintProperties(constraint).setStatus(ConstraintStatus.UNSATISFIABLE);
+					}
+				}, voidTask);
 				monitor.worked(15);
 			} else {
 				// get constraint anomalies
-				final List<IConstraint> redundantConstraints = getRedundantConstraints(monitor.subTask(2));
-				for (final IConstraint constraint : redundantConstraints) {
-					getConstraintProperties(constraint).setStatus(ConstraintStatus.REDUNDANT);
-				}
-				monitor.checkCancel();
-				final List<IConstraint> tautologyConstraints = getTautologyConstraints(monitor.subTask(2));
-				for (final IConstraint constraint : tautologyConstraints) {
-					getConstraintProperties(constraint).setStatus(ConstraintStatus.TAUTOLOGY);
-				}
-
-				if (!redundantConstraints.isEmpty() || !tautologyConstraints.isEmpty()) {
-					properties.setStatus(FeatureModelStatus.ANOMALIES);
-				}
+				final Task<List<IConstraint>> redundantTask = taskGraph.addTask(2, m -> getRedundantConstraints(m.subTask(1)), redundantConstraints -> {
+					for (final IConstraint constraint : redundantConstraints) {
+						getConstraintProperties(constraint).setStatus(ConstraintStatus.REDUNDANT);
+					}
+					if (!redundantConstraints.isEmpty()) {
+						properties.setStatus(FeatureModelStatus.ANOMALIES);
+					}
+				});
+				final Task<List<IConstraint>> tautologyTask = taskGraph.addTask(2, m -> getTautologyConstraints(m.subTask(1)), tautologyConstraints -> {
+					for (final IConstraint constraint : tautologyConstraints) {
+						getConstraintProperties(constraint).setStatus(ConstraintStatus.TAUTOLOGY);
+					}
+					if (!tautologyConstraints.isEmpty()) {
+						properties.setStatus(FeatureModelStatus.ANOMALIES);
+					}
+				}, redundantTask);
 
-				monitor.checkCancel();
-				getAnomalyConstraints(monitor.subTask(10));
+				// the anomaly analysis reuses the results of the core/dead and false-optional analyses
+				final List<Task<?>> anomalyDependencies = new ArrayList<>(featureTasks);
+				anomalyDependencies.add(redundantTask);
+				anomalyDependencies.add(tautologyTask);
+				taskGraph.<List<Anomalies>> addTask(10, m -> getAnomalies(getRelevantConstraints(), m.subTask(1)), this::setAnomalies, anomalyDependencies);
 			}
 		}
 	}
@@ -414,6 +483,15 @@ public class FeatureModelAnalyzer implements IEventListener {
 			if (monitor == null) {
 				monitor = new NullMonitor<>();
 			}
+			final TaskGraph taskGraph = new TaskGraph(executor);
+			addFeatureTasks(taskGraph, monitor);
+			executeTasks(taskGraph, monitor);
+		}
+	}
+
+	private List<Task<?>> addFeatureTasks(TaskGraph taskGraph, IMonitor<Boolean> monitor) {
+		final List<Task<?>> featureTasks = new ArrayList<>();
+		if (analysesCollection.isCalculateFeatures()) {
 			monitor.checkCancel();
 			// set default values for feature properties
 			for (final IFeature feature : featureModel.getFeatures()) {
@@ -449,25 +527,26 @@ public class FeatureModelAnalyzer implements IEventListener {
 				monitor.worked(3);
 			} else {
 				// get feature anomalies
-				final List<IFeature> deadFeatures = getDeadFeatures(monitor.subTask(1));
-				for (final IFeature feature : deadFeatures) {
-					getFeatureProperties(feature).setStatus(FeatureStatus.DEAD);
-				}
-				monitor.checkCancel();
-				final List<IFeature> falseOptionalFeatures = getFalseOptionalFeatures(monitor.subTask(1));
-				for (final IFeature feature : falseOptionalFeatures) {
-					getFeatureProperties(feature).setStatus(FeatureStatus.FALSE_OPTIONAL);
-				}
-				monitor.checkCancel();
-				final List<IFeature> indeterminedHiddenFeatures = getIndeterminedHiddenFeatures(monitor.subTask(1));
-				for (final IFeature feature : indeterminedHiddenFeatures) {
-					getFeatureProperties(feature).setStatus(FeatureStatus.INDETERMINATE_HIDDEN);
-				}
-				if (!deadFeatures.isEmpty() || !falseOptionalFeatures.isEmpty() || !indeterminedHiddenFeatures.isEmpty()) {
-					properties.setStatus(FeatureModelStatus.ANOMALIES);
-				}
+				final Task<List<IFeature>> deadTask =
+					taskGraph.addTask(1, m -> getDeadFeatures(m.subTask(1)), deadFeatures -> setFeatureStatus(deadFeatures, FeatureStatus.DEAD));
+				final Task<List<IFeature>> falseOptionalTask = taskGraph.addTask(1, m -> getFalseOptionalFeatures(m.subTask(1)),
+						falseOptionalFeatures -> setFeatureStatus(falseOptionalFeatures, FeatureStatus.FALSE_OPTIONAL));
+				taskGraph.<List<IFeature>> addTask(1, m -> getIndeterminedHiddenFeatures(m.subTask(1)),
+						indeterminedHiddenFeatures -> setFeatureStatus(indeterminedHiddenFeatures, FeatureStatus.INDETERMINATE_HIDDEN));
+				featureTasks.add(deadTask);
+				featureTasks.add(falseOptionalTask);
 			}
 		}
+		return featureTasks;
+	}
+
+	private void setFeatureStatus(List<IFeature> features, FeatureStatus status) {
+		for (final IFeature feature : features) {
+			getFeatureProperties(feature).setStatus(status);
+		}
+		if (!features.isEmpty()) {
+			getFeatureModelProperties().setStatus(FeatureModelStatus.ANOMALIES);
+		}
 	}
 
 	// TODO implement as analysis
@@ -587,6 +666,94 @@ public class FeatureModelAnalyzer implements IEventListener {
 		}
 	}
 
+	/**
+	 * Explains all dead features, false-optional features, and redundant constraints of the feature model in one pass. All explanations are computed with the
+	 * same incremental {@link FeatureModelGroupMusOracle group MUS oracle}, instead of one oracle per type of anomaly. The explanations are remembered, such
+	 * that {@link #getExplanation(IFeatureModelElement)} returns them without further computation. The anomalies are taken from the last
+	 * {@link #analyzeFeatureModel(IMonitor) analysis}.
+	 *
+	 * @param monitor a monitor for tracking the progress; may be null
+	 * @return the explanation for each anomalous feature and constraint
+	 */
+	public Map<IFeatureModelElement, Explanation<?>> explainAnomalies(IMonitor<?> monitor) {
+		if (monitor == null) {
+			monitor = new NullMonitor<>();
+		}
+		try {
+			final List<IFeature> deadFeatures = new ArrayList<>();
+			final List<IFeature> falseOptionalFeatures = new ArrayList<>();
+			for (final IFeature feature : featureModel.getFeatures()) {
+				final FeatureProperties featureProperties = getFeatureProperties(feature);
+				if (featureProperties != null) {
+					if (featureProperties.hasStatus(FeatureStatus.DEAD)) {
+						deadFeatures.add(feature);
+					} else if (featureProperties.hasStatus(FeatureStatus.FALSE_OPTIONAL)) {
+						falseOptionalFeatures.add(feature);
+					}
+				}
+			}
+			final List<IConstraint> redundantConstraints = new ArrayList<>();
+			for (final IConstraint constraint : constraints) {
+				final ConstraintProperties constraintProperties = getConstraintProperties(constraint);
+				if ((constraintProperties != null) && constraintProperties.hasStatus(ConstraintStatus.REDUNDANT)) {
+					redundantConstraints.add(constraint);
+				}
+			}
+			monitor.setRemainingWork(deadFeatures.size() + falseOptionalFeatures.size() + redundantConstraints.size());
+
+			final Map<IFeatureModelElement, Explanation<?>> explanations = new LinkedHashMap<>();
+			if ((deadFeatures.size() + falseOptionalFeatures.size() + redundantConstraints.size()) == 0) {
+				return explanations;
+			}
+			final FeatureModelGroupMusOracle oracle = new FeatureModelGroupMusOracle(featureModel);
+
+			final GroupMusDeadFeatureExplanationCreator deadCreator = new GroupMusDeadFeatureExplanationCreator();
+			deadCreator.setFeatureModel(featureModel);
+			deadCreator.setOracle(oracle);
+			for (final IFeature feature : deadFeatures) {
+				synchronized (feature) {
+					deadCreator.setSubject(feature);
+					final DeadFeatureExplanation explanation = deadCreator.getExplanation();
+					getFeatureProperties(feature).setDeadExplanation(explanation);
+					analysesCollection.deadFeatureExplanations.put(feature, explanation);
+					explanations.put(feature, explanation);
+				}
+				monitor.step();
+			}
+
+			final GroupMusFalseOptionalFeatureExplanationCreator falseOptionalCreator = new GroupMusFalseOptionalFeatureExplanationCreator();
+			falseOptionalCreator.setFeatureModel(featureModel);
+			falseOptionalCreator.setOracle(oracle);
+			for (final IFeature feature : falseOptionalFeatures) {
+				synchronized (feature) {
+					falseOptionalCreator.setSubject(feature);
+					final FalseOptionalFeatureExplanation explanation = falseOptionalCreator.getExplanation();
+					getFeatureProperties(feature).setFalseOptionalExplanation(explanation);
+					analysesCollection.falseOptionalFeatureExplanations.put(feature, explanation);
+					explanations.put(feature, explanation);
+				}
+				monitor.step();
+			}
+
+			final GroupMusRedundantConstraintExplanationCreator redundantCreator = new GroupMusRedundantConstraintExplanationCreator();
+			redundantCreator.setFeatureModel(featureModel);
+			redundantCreator.setOracle(oracle);
+			for (final IConstraint constraint : redundantConstraints) {
+				synchronized (constraint) {
+					redundantCreator.setSubject(constraint);
+					final RedundantConstraintExplanation explanation = redundantCreator.getExplanation();
+					getConstraintProperties(constraint).setRedundantExplanation(explanation);
+					analysesCollection.redundantConstraintExplanations.put(constraint, explanation);
+					explanations.put(constraint, explanation);
+				}
+				monitor.step();
+			}
+			return explanations;
+		} finally {
+			monitor.done();
+		}
+	}
+
 	/**
 	 * <p> Returns whether the conjunction of A always implies the disjunction of B in the current feature model. </p>
 	 *
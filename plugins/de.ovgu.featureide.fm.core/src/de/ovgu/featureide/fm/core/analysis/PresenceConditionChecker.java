@@ -0,0 +1,421 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.prop4j.And;
+import org.prop4j.Node;
+import org.prop4j.NodeInterner;
+import org.prop4j.Not;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SatSolverBackends;
+import de.ovgu.featureide.fm.core.editing.NodeCreator;
+
+/**
+ * Checks the presence conditions of preprocessor annotations against a feature model.<br> <br> A presence condition is given as an expression stack, i.e.,
+ * the expression of an annotation followed by the expressions of all enclosing annotations (the context). All queries are answered by solvers that are created
+ * once from the {@link CNF} of the feature model. The literals of unit clauses are passed as assumptions, the remaining clauses of a query are added
+ * temporarily. Expressions and contexts are {@link NodeInterner interned}, such that the results of structurally equal presence conditions and their
+ * conjunctive normal forms are only computed once.<br> <br> Multiple presence conditions can be {@link #check(List) checked} in parallel (see
+ * {@link #setNumberOfThreads(int)}). Each thread uses its own solvers, which are kept for later queries. This class is thread-safe.
+ *
+ * @author FeatureIDE Team
+ */
+public class PresenceConditionChecker {
+
+	/**
+	 * The result of a check.
+	 */
+	public enum Status {
+		/** The presence condition is satisfiable but not a tautology. */
+		NORMAL,
+		/** The feature model is void. */
+		VOID,
+		/** The presence condition is a contradiction with respect to the feature model and the context. */
+		DEAD,
+		/** The presence condition is a tautology with respect to the feature model and the context. */
+		SUPERFLUOUS,
+		/** The expression in and of itself is a contradiction. */
+		CONTRADICTION,
+		/** The expression in and of itself is a tautology. */
+		TAUTOLOGY,
+	}
+
+	/**
+	 * Identifies a presence condition by its interned expression and context.
+	 */
+	private static final class Key {
+
+		private final Node expression;
+		private final Node context;
+
+		private Key(Node expression, Node context) {
+			this.expression = expression;
+			this.context = context;
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * System.identityHashCode(expression)) + System.identityHashCode(context);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return (expression == other.expression) && (context == other.context);
+		}
+
+	}
+
+	/**
+	 * The solvers of one thread.
+	 */
+	private final class Worker {
+
+		/** Contains the clauses of the feature model. */
+		private final ISatSolver modelSolver = SatSolverBackends.getDefault().createModifiableSolver(cnf);
+		/** Contains no clauses. */
+		private final ISatSolver emptySolver = SatSolverBackends.getDefault().createModifiableSolver(new CNF(cnf, false));
+
+	}
+
+	private final CNF cnf;
+	private final IVariables variables;
+	private final boolean voidFeatureModel;
+
+	private final NodeInterner interner = new NodeInterner();
+	private final Map<Key, Status> statuses = new ConcurrentHashMap<>();
+	private final Map<Node, Status> expressionStatuses = new ConcurrentHashMap<>();
+	private final ConcurrentLinkedDeque<Worker> idleWorkers = new ConcurrentLinkedDeque<>();
+
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Creates a checker for the CNF of the given formula.
+	 *
+	 * @param formula the formula of the feature model
+	 */
+	public PresenceConditionChecker(FeatureModelFormula formula) {
+		this(formula.getCNF());
+	}
+
+	/**
+	 * Creates a checker for the given CNF.
+	 *
+	 * @param cnf the CNF of the feature model
+	 */
+	public PresenceConditionChecker(CNF cnf) {
+		this.cnf = cnf;
+		variables = cnf.getVariables();
+		boolean voidFeatureModel;
+		try {
+			final Worker worker = new Worker();
+			voidFeatureModel = worker.modelSolver.hasSolution() == SatResult.FALSE;
+			if (!voidFeatureModel) {
+				idleWorkers.add(worker);
+			}
+		} catch (final RuntimeContradictionException e) {
+			voidFeatureModel = true;
+		}
+		this.voidFeatureModel = voidFeatureModel;
+	}
+
+	public boolean isVoidFeatureModel() {
+		return voidFeatureModel;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the maximum number of presence conditions that are checked at once by {@link #check(List)}.
+	 *
+	 * @param numberOfThreads the number of threads
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	/**
+	 * Checks the given presence condition.
+	 *
+	 * @param expressionStack the expression of the annotation, followed by the expressions of all enclosing annotations
+	 * @return the status of the presence condition
+	 */
+	public Status check(Node... expressionStack) {
+		if (voidFeatureModel) {
+			return Status.VOID;
+		}
+		final Key key = createKey(expressionStack);
+		Status status = statuses.get(key);
+		if (status == null) {
+			final Worker worker = acquireWorker();
+			try {
+				status = check(worker, key);
+			} finally {
+				idleWorkers.addFirst(worker);
+			}
+			statuses.put(key, status);
+		}
+		return status;
+	}
+
+	/**
+	 * Checks the given presence conditions in parallel.
+	 *
+	 * @param expressionStacks the expression stacks of all presence conditions (see {@link #check(Node...)})
+	 * @return the status of each presence condition in the same order
+	 */
+	public List<Status> check(List<Node[]> expressionStacks) {
+		final int size = expressionStacks.size();
+		final int threads = Math.min(numberOfThreads, size);
+		if (threads <= 1) {
+			final List<Status> result = new ArrayList<>(size);
+			for (final Node[] expressionStack : expressionStacks) {
+				result.add(check(expressionStack));
+			}
+			return result;
+		}
+		final List<Callable<Status>> tasks = new ArrayList<>(size);
+		for (final Node[] expressionStack : expressionStacks) {
+			tasks.add(new Callable<Status>() {
+
+				@Override
+				public Status call() {
+					return check(expressionStack);
+				}
+			});
+		}
+		final Status[] result = new Status[size];
+		Arrays.fill(result, Status.NORMAL);
+		final ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			final List<Future<Status>> futures = pool.invokeAll(tasks);
+			for (int i = 0; i < size; i++) {
+				result[i] = futures.get(i).get();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final ExecutionException e) {
+			Logger.logError(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+		return Arrays.asList(result);
+	}
+
+	private Key createKey(Node[] expressionStack) {
+		synchronized (interner) {
+			final Node expression = interner.intern(expressionStack[0]);
+			final Node context = expressionStack.length > 1 ? interner.intern(new And(Arrays.copyOfRange(expressionStack, 1, expressionStack.length))) : null;
+			return new Key(expression, context);
+		}
+	}
+
+	private Worker acquireWorker() {
+		final Worker worker = idleWorkers.pollFirst();
+		return worker != null ? worker : new Worker();
+	}
+
+	private Status check(Worker worker, Key key) {
+		if (!containsOnlyKnownVariables(key.expression) || ((key.context != null) && !containsOnlyKnownVariables(key.context))) {
+			return checkWithNodes(key);
+		}
+
+		Status expressionStatus = expressionStatuses.get(key.expression);
+		if (expressionStatus == null) {
+			// -SAT(expression)
+			if (hasSolution(worker.emptySolver, getClauses(key.expression, false, null)) == SatResult.FALSE) {
+				expressionStatus = Status.CONTRADICTION;
+			}
+			// -SAT(-expression)
+			else if (hasSolution(worker.emptySolver, getClauses(key.expression, true, null)) == SatResult.FALSE) {
+				expressionStatus = Status.TAUTOLOGY;
+			} else {
+				expressionStatus = Status.NORMAL;
+			}
+			expressionStatuses.put(key.expression, expressionStatus);
+		}
+		if (expressionStatus != Status.NORMAL) {
+			return expressionStatus;
+		}
+
+		// -SAT(FM & context & expression)
+		if (hasSolution(worker.modelSolver, getClauses(key.expression, false, key.context)) == SatResult.FALSE) {
+			return Status.DEAD;
+		}
+		// -SAT(FM & context & -expression)
+		if (hasSolution(worker.modelSolver, getClauses(key.expression, true, key.context)) == SatResult.FALSE) {
+			return Status.SUPERFLUOUS;
+		}
+		return Status.NORMAL;
+	}
+
+	private boolean containsOnlyKnownVariables(Node node) {
+		return getUnknownVariables(node).isEmpty();
+	}
+
+	private List<String> getUnknownVariables(Node node) {
+		final List<String> names;
+		synchronized (interner) {
+			names = new ArrayList<>(interner.getUniqueContainedFeatures(node));
+		}
+		final List<String> unknownNames = new ArrayList<>();
+		for (final String name : names) {
+			if ((variables.getVariable(name) == 0) && !NodeCreator.varTrue.equals(name) && !NodeCreator.varFalse.equals(name)) {
+				unknownNames.add(name);
+			}
+		}
+		return unknownNames;
+	}
+
+	private List<LiteralSet> getClauses(Node expression, boolean negated, Node context) {
+		return getClauses(variables, expression, negated, context);
+	}
+
+	private List<LiteralSet> getClauses(IVariables variables, Node expression, boolean negated, Node context) {
+		final Node cnfNode;
+		synchronized (interner) {
+			Node node = negated ? new Not(expression) : expression;
+			if (context != null) {
+				node = new And(context, node);
+			}
+			cnfNode = interner.getCNF(node);
+		}
+		return Nodes.convert(variables, cnfNode);
+	}
+
+	/**
+	 * Checks whether the clauses of the solver together with the given clauses are satisfiable. The given clauses are removed afterwards.
+	 */
+	private static SatResult hasSolution(ISatSolver solver, List<LiteralSet> clauses) {
+		final List<LiteralSet> remainingClauses = new ArrayList<>();
+		final List<Integer> assumptions = new ArrayList<>();
+		for (final LiteralSet clause : clauses) {
+			final int[] literals = clause.getLiterals();
+			if ((literals.length == 0) || ((literals.length == 1) && (literals[0] == 0))) {
+				return SatResult.FALSE;
+			} else if (literals.length == 1) {
+				assumptions.add(literals[0]);
+			} else {
+				remainingClauses.add(clause);
+			}
+		}
+		final int[] assumptionArray = new int[assumptions.size()];
+		for (int i = 0; i < assumptionArray.length; i++) {
+			assumptionArray[i] = assumptions.get(i);
+		}
+		if (remainingClauses.isEmpty()) {
+			return solver.hasSolution(assumptionArray);
+		}
+		try {
+			solver.addClauses(remainingClauses);
+		} catch (final RuntimeContradictionException e) {
+			return SatResult.FALSE;
+		}
+		try {
+			return solver.hasSolution(assumptionArray);
+		} finally {
+			solver.removeLastClauses(remainingClauses.size());
+		}
+	}
+
+	/**
+	 * Checks presence conditions that contain variables which are not part of the feature model. These variables are not constrained by the feature model.
+	 * Thus, the checks are done by solvers for a copy of the CNF whose variables are extended by the unknown variables.
+	 */
+	private Status checkWithNodes(Key key) {
+		final LinkedHashSet<String> names = new LinkedHashSet<>();
+		final String[] knownNames = variables.getNames();
+		names.addAll(Arrays.asList(knownNames).subList(1, knownNames.length));
+		names.addAll(getUnknownVariables(key.expression));
+		if (key.context != null) {
+			names.addAll(getUnknownVariables(key.context));
+		}
+		final Variables extendedVariables = new Variables(names);
+		final CNF extendedCNF = cnf.adapt(extendedVariables);
+
+		final ISatSolver emptySolver = SatSolverBackends.getDefault().createModifiableSolver(new CNF(extendedCNF, false));
+		// -SAT(expression)
+		if (hasSolution(emptySolver, getClauses(extendedVariables, key.expression, false, null)) == SatResult.FALSE) {
+			return Status.CONTRADICTION;
+		}
+		// -SAT(-expression)
+		if (hasSolution(emptySolver, getClauses(extendedVariables, key.expression, true, null)) == SatResult.FALSE) {
+			return Status.TAUTOLOGY;
+		}
+
+		final ISatSolver modelSolver = SatSolverBackends.getDefault().createModifiableSolver(extendedCNF);
+		// -SAT(FM & context & expression)
+		if (hasSolution(modelSolver, getClauses(extendedVariables, key.expression, false, key.context)) == SatResult.FALSE) {
+			return Status.DEAD;
+		}
+		// -SAT(FM & context & -expression)
+		if (hasSolution(modelSolver, getClauses(extendedVariables, key.expression, true, key.context)) == SatResult.FALSE) {
+			return Status.SUPERFLUOUS;
+		}
+		return Status.NORMAL;
+	}
+
+	/**
+	 * @return the number of distinct presence conditions that were checked so far
+	 */
+	public int getNumberOfCheckedPresenceConditions() {
+		return statuses.size();
+	}
+
+	/**
+	 * Removes all memoized results.
+	 */
+	public void clear() {
+		synchronized (interner) {
+			interner.clear();
+		}
+		statuses.clear();
+		expressionStatuses.clear();
+	}
+
+}
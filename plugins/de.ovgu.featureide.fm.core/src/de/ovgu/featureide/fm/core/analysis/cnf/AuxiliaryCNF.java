@@ -0,0 +1,62 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import java.util.List;
+
+/**
+ * Represents an instance of a satisfiability problem in CNF that contains auxiliary variables (e.g., from a {@link TseitinTransformer Tseitin
+ * transformation}).<br> <br> The {@link #getVariables() variables} of this CNF only contain the regular variables. The clauses may additionally contain the
+ * auxiliary variables, which are described by the {@link #getInternalVariables() internal variables}. Thus, solvers consider all variables, but their solutions
+ * are projected onto the regular variables.
+ *
+ * @author FeatureIDE Team
+ */
+public class AuxiliaryCNF extends CNF {
+
+	private static final long serialVersionUID = -3474466744446300838L;
+
+	protected final AuxiliaryVariables auxiliaryVariables;
+
+	public AuxiliaryCNF(Variables mapping, AuxiliaryVariables auxiliaryVariables, List<LiteralSet> clauses) {
+		super(mapping, clauses);
+		this.auxiliaryVariables = auxiliaryVariables;
+	}
+
+	/**
+	 * Copy constructor. <br> Can either copy or neglect old clauses (no deep copy).
+	 */
+	public AuxiliaryCNF(AuxiliaryCNF oldSatInstance, boolean copyClauses) {
+		super(oldSatInstance, copyClauses);
+		auxiliaryVariables = oldSatInstance.auxiliaryVariables;
+	}
+
+	@Override
+	public AuxiliaryVariables getInternalVariables() {
+		return auxiliaryVariables;
+	}
+
+	@Override
+	public AuxiliaryCNF clone() {
+		return new AuxiliaryCNF(this, true);
+	}
+
+}
@@ -0,0 +1,144 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Variables used for mapping an {@link AuxiliaryCNF}.<br> <br> The auxiliary variables follow the regular variables of the CNF. They are only known to the
+ * solver and are removed from all converted solutions, such that solutions consist of the regular variables only.
+ *
+ * @author FeatureIDE Team
+ */
+public class AuxiliaryVariables implements IInternalVariables, Serializable {
+
+	private static final long serialVersionUID = 6106563713413562493L;
+
+	protected final int numberOfVariables;
+	protected final String[] auxiliaryNames;
+
+	public AuxiliaryVariables(int numberOfVariables, Collection<String> auxiliaryNames) {
+		this.numberOfVariables = numberOfVariables;
+		this.auxiliaryNames = auxiliaryNames.toArray(new String[auxiliaryNames.size()]);
+	}
+
+	/**
+	 * @return the number of regular variables
+	 */
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	/**
+	 * @return the number of auxiliary variables
+	 */
+	public int getNumberOfAuxiliaryVariables() {
+		return auxiliaryNames.length;
+	}
+
+	/**
+	 * @param literal a literal of the CNF
+	 * @return whether the variable of the literal is an auxiliary variable
+	 */
+	public boolean isAuxiliary(int literal) {
+		return Math.abs(literal) > numberOfVariables;
+	}
+
+	/**
+	 * @param literal a literal of an auxiliary variable
+	 * @return the name of the auxiliary variable
+	 */
+	public String getAuxiliaryName(int literal) {
+		return auxiliaryNames[Math.abs(literal) - numberOfVariables - 1];
+	}
+
+	@Override
+	public boolean checkClause(LiteralSet orgClause) {
+		return true;
+	}
+
+	@Override
+	public LiteralSet convertToInternal(LiteralSet orgClause) {
+		return orgClause;
+	}
+
+	@Override
+	public int[] convertToInternal(int[] orgLiterals) {
+		return orgLiterals;
+	}
+
+	@Override
+	public int convertToInternal(int orgLiteral) {
+		return orgLiteral;
+	}
+
+	@Override
+	public LiteralSet convertToOriginal(LiteralSet internalClause) {
+		final int[] literals = internalClause.getLiterals();
+		final int[] convertedLiterals = convertToOriginal(literals);
+		return convertedLiterals == literals ? internalClause : new LiteralSet(convertedLiterals, internalClause.getOrder(), false);
+	}
+
+	/**
+	 * {@inheritDoc}<br> <br> Removes all literals of auxiliary variables. Returns the given array, if it contains no such literal.
+	 */
+	@Override
+	public int[] convertToOriginal(int[] internalLiterals) {
+		int count = 0;
+		for (final int literal : internalLiterals) {
+			if (!isAuxiliary(literal)) {
+				count++;
+			}
+		}
+		if (count == internalLiterals.length) {
+			return internalLiterals;
+		}
+		final int[] convertedLiterals = new int[count];
+		int i = 0;
+		for (final int literal : internalLiterals) {
+			if (!isAuxiliary(literal)) {
+				convertedLiterals[i++] = literal;
+			}
+		}
+		return convertedLiterals;
+	}
+
+	@Override
+	public int convertToOriginal(int internalLiteral) {
+		return internalLiteral;
+	}
+
+	/**
+	 * @return the number of regular and auxiliary variables
+	 */
+	@Override
+	public int size() {
+		return numberOfVariables + auxiliaryNames.length;
+	}
+
+	@Override
+	public String toString() {
+		return "AuxiliaryVariables\n\tnumberOfVariables=" + numberOfVariables + "\n\tauxiliaryNames=" + Arrays.toString(auxiliaryNames);
+	}
+
+}
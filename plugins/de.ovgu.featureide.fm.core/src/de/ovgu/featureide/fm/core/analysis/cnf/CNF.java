@@ -71,7 +71,7 @@ public class CNF implements Serializable {
 	 */
 	public CNF(CNF oldSatInstance, boolean copyClauses) {
 		variables = oldSatInstance.variables.clone();
-		clauses = copyClauses ? new ClauseList(oldSatInstance.clauses) : new ClauseList();
+		clauses = copyClauses ? new ClauseList(oldSatInstance.getClauses()) : new ClauseList();
 	}
 
 	public void addClause(LiteralSet clause) {
@@ -112,8 +112,9 @@ public class CNF implements Serializable {
 	public CNF normalize() {
 		if (isSliced()) {
 			final SlicedVariables slicedVariables = (SlicedVariables) variables;
-			final ClauseList newClauses = new ClauseList(clauses.size());
-			for (final LiteralSet literalSet : clauses) {
+			final ClauseList clauseList = getClauses();
+			final ClauseList newClauses = new ClauseList(clauseList.size());
+			for (final LiteralSet literalSet : clauseList) {
 				newClauses.add(variables.convertToInternal(literalSet));
 			}
 			final ArrayList<String> names = new ArrayList<>(variables.size());
@@ -141,7 +142,7 @@ public class CNF implements Serializable {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = (prime * result) + ((clauses == null) ? 0 : clauses.hashCode());
+		result = (prime * result) + getClauses().hashCode();
 		result = (prime * result) + ((variables == null) ? 0 : variables.hashCode());
 		return result;
 	}
@@ -155,11 +156,7 @@ public class CNF implements Serializable {
 			return false;
 		}
 		final CNF other = (CNF) obj;
-		if (clauses == null) {
-			if (other.clauses != null) {
-				return false;
-			}
-		} else if (!clauses.equals(other.clauses)) {
+		if (!getClauses().equals(other.getClauses())) {
 			return false;
 		}
 		if (variables == null) {
@@ -174,12 +171,13 @@ public class CNF implements Serializable {
 
 	@Override
 	public String toString() {
-		return "CNF\n\tvariables=" + variables + "\n\tclauses=" + clauses;
+		return "CNF\n\tvariables=" + variables + "\n\tclauses=" + getClauses();
 	}
 
 	public String getClauseString() {
 		final StringBuilder sb = new StringBuilder();
-		for (final LiteralSet clause : clauses) {
+		final ClauseList clauseList = getClauses();
+		for (final LiteralSet clause : clauseList) {
 			sb.append("(");
 			final List<String> literals = variables.convertToString(clause, true, true, true);
 			for (final String literal : literals) {
@@ -191,7 +189,7 @@ public class CNF implements Serializable {
 			}
 			sb.append("), ");
 		}
-		if (!clauses.isEmpty()) {
+		if (!clauseList.isEmpty()) {
 			sb.delete(sb.length() - 2, sb.length());
 		}
 		return sb.toString();
@@ -225,8 +223,9 @@ public class CNF implements Serializable {
 	}
 
 	private ClauseList createAdaptedClauseList(IVariables newVariables) {
-		final ClauseList newClauses = new ClauseList(clauses.size());
-		for (final LiteralSet oldClause : clauses) {
+		final ClauseList clauseList = getClauses();
+		final ClauseList newClauses = new ClauseList(clauseList.size());
+		for (final LiteralSet oldClause : clauseList) {
 			newClauses.add(oldClause.adapt(variables, newVariables));
 		}
 		return newClauses;
@@ -0,0 +1,175 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+
+/**
+ * Clause-level difference between two versions of a {@link CNF}. All clauses are adapted to the variables of the new {@link CNF}.<br> Analyses can use the
+ * delta to update previous results instead of computing them from scratch. For instance, if clauses are only added, each core or dead feature of the old
+ * formula is still core or dead in the new formula.
+ *
+ * @author FeatureIDE Team
+ */
+public class ClauseDelta {
+
+	private final IVariables oldVariables;
+	private final IVariables newVariables;
+
+	private final List<LiteralSet> addedClauses;
+	private final List<LiteralSet> removedClauses;
+
+	private final boolean sameVariables;
+	private final boolean removedVariables;
+
+	/**
+	 * Computes the difference between two formulas.
+	 *
+	 * @param oldCNF the formula before the change
+	 * @param newCNF the formula after the change
+	 */
+	public ClauseDelta(CNF oldCNF, CNF newCNF) {
+		oldVariables = oldCNF.getVariables();
+		newVariables = newCNF.getVariables();
+		sameVariables = Arrays.equals(oldVariables.getNames(), newVariables.getNames());
+
+		final HashSet<LiteralSet> oldClauses = new HashSet<>();
+		boolean removedVariables = false;
+		for (final LiteralSet clause : oldCNF.getClauses()) {
+			final LiteralSet adaptedClause = adapt(clause);
+			if (adaptedClause.size() == clause.size()) {
+				oldClauses.add(adaptedClause);
+			} else {
+				removedVariables = true;
+			}
+		}
+		if (!removedVariables) {
+			removedVariables = !Arrays.asList(newVariables.getNames()).containsAll(Arrays.asList(oldVariables.getNames()));
+		}
+		this.removedVariables = removedVariables;
+
+		final ArrayList<LiteralSet> addedClauses = new ArrayList<>();
+		final HashSet<LiteralSet> newClauses = new HashSet<>();
+		for (final LiteralSet clause : newCNF.getClauses()) {
+			// The literals of cached clauses are not guaranteed to be sorted
+			final LiteralSet sortedClause = new LiteralSet(clause, Order.NATURAL);
+			if (newClauses.add(sortedClause) && !oldClauses.contains(sortedClause)) {
+				addedClauses.add(sortedClause);
+			}
+		}
+		oldClauses.removeAll(newClauses);
+
+		this.addedClauses = Collections.unmodifiableList(addedClauses);
+		removedClauses = Collections.unmodifiableList(new ArrayList<>(oldClauses));
+	}
+
+	/**
+	 * Adapts literals of the old formula to the variables of the new formula. Literals of variables that are not contained in the new formula are omitted.
+	 *
+	 * @param oldLiterals literals with respect to the old variables
+	 * @return a new literal set with respect to the new variables
+	 */
+	public LiteralSet adapt(LiteralSet oldLiterals) {
+		final int[] literals = oldLiterals.getLiterals();
+		final int[] newLiterals = new int[literals.length];
+		int count = 0;
+		for (final int literal : literals) {
+			final int newLiteral = newVariables.getVariable(oldVariables.getName(literal), literal > 0);
+			if (newLiteral != 0) {
+				newLiterals[count++] = newLiteral;
+			}
+		}
+		return new LiteralSet(Arrays.copyOf(newLiterals, count));
+	}
+
+	public IVariables getOldVariables() {
+		return oldVariables;
+	}
+
+	public IVariables getNewVariables() {
+		return newVariables;
+	}
+
+	/**
+	 * @return all clauses that are contained in the new, but not in the old formula.
+	 */
+	public List<LiteralSet> getAddedClauses() {
+		return addedClauses;
+	}
+
+	/**
+	 * @return all clauses that are contained in the old, but not in the new formula. Clauses containing variables that were removed are omitted (see
+	 *         {@link #hasRemovedVariables()}).
+	 */
+	public List<LiteralSet> getRemovedClauses() {
+		return removedClauses;
+	}
+
+	/**
+	 * @return {@code true} if both formulas have the same variables in the same order, i.e., old and new literals are identical.
+	 */
+	public boolean hasSameVariables() {
+		return sameVariables;
+	}
+
+	/**
+	 * @return {@code true} if the old formula contains variables that are not contained in the new formula.
+	 */
+	public boolean hasRemovedVariables() {
+		return removedVariables;
+	}
+
+	/**
+	 * @return {@code true} if both formulas are identical (except for the order of their clauses).
+	 */
+	public boolean isEmpty() {
+		return sameVariables && addedClauses.isEmpty() && removedClauses.isEmpty();
+	}
+
+	/**
+	 * @return {@code true} if the new formula can be derived from the old formula by only adding clauses (and variables). In this case, the new formula implies
+	 *         the old formula.
+	 */
+	public boolean isAdditionOnly() {
+		return removedClauses.isEmpty() && !removedVariables;
+	}
+
+	/**
+	 * @return {@code true} if the new formula can be derived from the old formula by only removing clauses (and variables). In this case, the old formula
+	 *         implies the new formula.
+	 */
+	public boolean isRemovalOnly() {
+		return addedClauses.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "ClauseDelta [added=" + addedClauses.size() + ", removed=" + removedClauses.size() + ", sameVariables=" + sameVariables + ", removedVariables="
+			+ removedVariables + "]";
+	}
+
+}
@@ -0,0 +1,187 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+
+/**
+ * Represents an instance of a satisfiability problem in CNF without creating an object for each clause.<br> <br> The literals of all clauses are stored
+ * consecutively in one array, keeping the literal order of each clause. A second array holds the start index of each clause (see
+ * {@link #getClauseStart(int)} and {@link #getClauseEnd(int)}). Consumers that only read the clauses (e.g., solvers) should use these methods in conjunction
+ * with {@link #getLiteralArray()}.<br> <b>Note:</b> {@link #getClauses()} creates a new {@link ClauseList} for each call. Modifications of this list are not
+ * reflected in this CNF.
+ *
+ * @author FeatureIDE Team
+ */
+public class CompactCNF extends CNF {
+
+	private static final long serialVersionUID = 4207213744567513268L;
+
+	private int[] literals;
+	private int[] clauseStarts;
+	private int numberOfClauses;
+
+	public CompactCNF(Variables mapping) {
+		this(mapping, 16, 64);
+	}
+
+	/**
+	 * @param mapping the variables
+	 * @param expectedNumberOfClauses initial capacity for clauses
+	 * @param expectedNumberOfLiterals initial capacity for literals (summed over all clauses)
+	 */
+	public CompactCNF(Variables mapping, int expectedNumberOfClauses, int expectedNumberOfLiterals) {
+		super(mapping);
+		literals = new int[Math.max(expectedNumberOfLiterals, 1)];
+		clauseStarts = new int[Math.max(expectedNumberOfClauses, 1) + 1];
+	}
+
+	/**
+	 * Copy constructor. <br> Converts an arbitrary CNF into a compact representation. The variables are copied as well.
+	 */
+	public CompactCNF(CNF oldSatInstance) {
+		super(oldSatInstance, false);
+		if (oldSatInstance instanceof CompactCNF) {
+			final CompactCNF oldCompactCNF = (CompactCNF) oldSatInstance;
+			numberOfClauses = oldCompactCNF.numberOfClauses;
+			clauseStarts = Arrays.copyOf(oldCompactCNF.clauseStarts, numberOfClauses + 1);
+			literals = Arrays.copyOf(oldCompactCNF.literals, Math.max(oldCompactCNF.getNumberOfLiterals(), 1));
+		} else {
+			final ClauseList oldClauses = oldSatInstance.getClauses();
+			int numberOfLiterals = 0;
+			for (final LiteralSet clause : oldClauses) {
+				numberOfLiterals += clause.size();
+			}
+			literals = new int[Math.max(numberOfLiterals, 1)];
+			clauseStarts = new int[oldClauses.size() + 1];
+			addClauses(oldClauses);
+		}
+	}
+
+	@Override
+	public void addClause(LiteralSet clause) {
+		addClause(clause.getLiterals());
+	}
+
+	/**
+	 * Adds a clause. The given array is copied and not modified.
+	 *
+	 * @param clauseLiterals the literals of the clause
+	 */
+	public void addClause(int... clauseLiterals) {
+		addClause(clauseLiterals, clauseLiterals.length);
+	}
+
+	/**
+	 * Adds a clause consisting of the first literals of the given array. The array is copied and not modified. Thus, it can be reused by the caller.
+	 *
+	 * @param clauseLiterals the literals of the clause
+	 * @param length the number of literals of the clause
+	 */
+	public void addClause(int[] clauseLiterals, int length) {
+		final int start = clauseStarts[numberOfClauses];
+		final int end = start + length;
+		if (end > literals.length) {
+			literals = Arrays.copyOf(literals, Math.max(end, literals.length << 1));
+		}
+		if ((numberOfClauses + 2) > clauseStarts.length) {
+			clauseStarts = Arrays.copyOf(clauseStarts, clauseStarts.length << 1);
+		}
+		System.arraycopy(clauseLiterals, 0, literals, start, length);
+		clauseStarts[++numberOfClauses] = end;
+	}
+
+	@Override
+	public void addClauses(Collection<LiteralSet> clauses) {
+		for (final LiteralSet clause : clauses) {
+			addClause(clause.getLiterals());
+		}
+	}
+
+	public int getNumberOfClauses() {
+		return numberOfClauses;
+	}
+
+	public int getNumberOfLiterals() {
+		return clauseStarts[numberOfClauses];
+	}
+
+	/**
+	 * @return the index of the first literal of the given clause within {@link #getLiteralArray()}.
+	 */
+	public int getClauseStart(int clauseIndex) {
+		return clauseStarts[clauseIndex];
+	}
+
+	/**
+	 * @return the index after the last literal of the given clause within {@link #getLiteralArray()}.
+	 */
+	public int getClauseEnd(int clauseIndex) {
+		return clauseStarts[clauseIndex + 1];
+	}
+
+	public int getClauseLength(int clauseIndex) {
+		return clauseStarts[clauseIndex + 1] - clauseStarts[clauseIndex];
+	}
+
+	/**
+	 * Returns the backing array of all literals. <b>The array must not be modified.</b> It may be longer than the actual number of literals (see
+	 * {@link #getNumberOfLiterals()}).
+	 *
+	 * @return the literals of all clauses
+	 */
+	public int[] getLiteralArray() {
+		return literals;
+	}
+
+	/**
+	 * @return a new {@link LiteralSet} containing the literals of the given clause.
+	 */
+	public LiteralSet getClause(int clauseIndex) {
+		return new LiteralSet(Arrays.copyOfRange(literals, clauseStarts[clauseIndex], clauseStarts[clauseIndex + 1]), Order.UNORDERED, false);
+	}
+
+	/**
+	 * Reduces the size of the internal arrays to the actual number of clauses and literals.
+	 */
+	public void trimToSize() {
+		literals = Arrays.copyOf(literals, Math.max(getNumberOfLiterals(), 1));
+		clauseStarts = Arrays.copyOf(clauseStarts, numberOfClauses + 1);
+	}
+
+	@Override
+	public ClauseList getClauses() {
+		final ClauseList clauseList = new ClauseList(numberOfClauses);
+		for (int i = 0; i < numberOfClauses; i++) {
+			clauseList.add(getClause(i));
+		}
+		return clauseList;
+	}
+
+	@Override
+	public CompactCNF clone() {
+		return new CompactCNF(this);
+	}
+
+}
@@ -126,8 +126,8 @@ public class SlicedVariables extends Variables {
 
 	@Override
 	public int getVariable(String varName) {
-		final Integer var = varToInt.get(varName);
-		return var == null ? 0 : orgToInternal[var] == 0 ? 0 : var;
+		final int var = super.getVariable(varName);
+		return orgToInternal[var] == 0 ? 0 : var;
 	}
 
 	@Override
@@ -0,0 +1,247 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+
+/**
+ * Bounded pool of solutions of a {@link CNF} that can be shared by multiple analyses.<br> <br> The pool is indexed by literal. For each literal, it stores a
+ * bit set (column) that marks all solutions containing the literal. Thus, finding a solution that contains a given set of literals takes time proportional to
+ * the number of literals and not to the number of stored solutions. If the pool is full, the oldest solution is replaced.<br> <br> All solutions in a pool
+ * must satisfy the same {@link CNF}. This class is thread-safe.
+ *
+ * @author FeatureIDE Team
+ */
+public class SolutionPool {
+
+	private final int numberOfVariables;
+	private final int capacity;
+	private final int numberOfWords;
+
+	/**
+	 * One bit set for each literal. The index of the column of a literal is computed by {@link #getColumnIndex(int)}.
+	 */
+	private final long[][] columns;
+	private final int[][] solutions;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private int size = 0;
+	private int nextIndex = 0;
+
+	public SolutionPool(int numberOfVariables) {
+		this(numberOfVariables, ISatSolver.MAX_SOLUTION_BUFFER);
+	}
+
+	/**
+	 * @param numberOfVariables the number of variables of the {@link CNF}
+	 * @param capacity the maximum number of stored solutions
+	 */
+	public SolutionPool(int numberOfVariables, int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(String.valueOf(capacity));
+		}
+		this.numberOfVariables = numberOfVariables;
+		this.capacity = capacity;
+		numberOfWords = ((capacity - 1) >>> 6) + 1;
+		columns = new long[numberOfVariables << 1][numberOfWords];
+		solutions = new int[capacity][];
+	}
+
+	private int getColumnIndex(int literal) {
+		return ((Math.abs(literal) - 1) << 1) + (literal > 0 ? 1 : 0);
+	}
+
+	/**
+	 * Adds a solution to the pool. If the pool is full, the oldest solution is removed.
+	 *
+	 * @param solution the solution as returned by {@link ISatSolver#getSolution()}. The array is copied.
+	 */
+	public void add(int[] solution) {
+		if (solution.length != numberOfVariables) {
+			throw new IllegalArgumentException("Expected " + numberOfVariables + " variables, but solution contains " + solution.length);
+		}
+		final int[] copy = Arrays.copyOf(solution, solution.length);
+		lock.writeLock().lock();
+		try {
+			final int index = nextIndex;
+			final int word = index >>> 6;
+			final long mask = 1L << index;
+			for (int i = 0; i < copy.length; i++) {
+				final int literal = copy[i];
+				final int negativeColumn = i << 1;
+				if (literal > 0) {
+					columns[negativeColumn][word] &= ~mask;
+					columns[negativeColumn + 1][word] |= mask;
+				} else if (literal < 0) {
+					columns[negativeColumn][word] |= mask;
+					columns[negativeColumn + 1][word] &= ~mask;
+				} else {
+					columns[negativeColumn][word] &= ~mask;
+					columns[negativeColumn + 1][word] &= ~mask;
+				}
+			}
+			solutions[index] = copy;
+			nextIndex = (index + 1) % capacity;
+			if (size < capacity) {
+				size++;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Computes the bit set of all solutions that contain the given literals. Must be called while holding the read lock.
+	 *
+	 * @return the bit set or {@code null} if a literal does not belong to a variable of the pool.
+	 */
+	private long[] getMatches(int[] literals) {
+		final long[] matches = new long[numberOfWords];
+		if (literals.length == 0) {
+			for (int i = 0; i < size; i++) {
+				matches[i >>> 6] |= 1L << i;
+			}
+			return matches;
+		}
+		for (final int literal : literals) {
+			if ((literal == 0) || (Math.abs(literal) > numberOfVariables)) {
+				return null;
+			}
+		}
+		System.arraycopy(columns[getColumnIndex(literals[0])], 0, matches, 0, numberOfWords);
+		for (int i = 1; i < literals.length; i++) {
+			final long[] column = columns[getColumnIndex(literals[i])];
+			long any = 0;
+			for (int j = 0; j < numberOfWords; j++) {
+				any |= (matches[j] &= column[j]);
+			}
+			if (any == 0) {
+				break;
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * @param literals the literals
+	 * @return {@code true} if the pool contains a solution that contains all given literals.
+	 */
+	public boolean containsSolution(int... literals) {
+		lock.readLock().lock();
+		try {
+			final long[] matches = getMatches(literals);
+			if (matches != null) {
+				for (final long word : matches) {
+					if (word != 0) {
+						return true;
+					}
+				}
+			}
+			return false;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @param literals the literals
+	 * @return a solution that contains all given literals or {@code null} if there is none. <b>The returned array must not be modified.</b>
+	 */
+	public int[] findSolution(int... literals) {
+		return findSolution(literals, null);
+	}
+
+	/**
+	 * Returns a solution that contains all given literals and is accepted by the given filter. The filter is tested only for solutions that contain all
+	 * literals. Thus, it can be used for checks that cannot be expressed by literals, for instance, whether a solution satisfies some additional clauses.
+	 *
+	 * @param literals the literals
+	 * @param filter the filter (may be {@code null})
+	 * @return the solution or {@code null} if there is none. <b>The returned array must not be modified.</b>
+	 */
+	public int[] findSolution(int[] literals, Predicate<int[]> filter) {
+		lock.readLock().lock();
+		try {
+			final long[] matches = getMatches(literals);
+			if (matches != null) {
+				for (int i = 0; i < numberOfWords; i++) {
+					for (long word = matches[i]; word != 0; word &= word - 1) {
+						final int[] solution = solutions[(i << 6) + Long.numberOfTrailingZeros(word)];
+						if ((filter == null) || filter.test(solution)) {
+							return solution;
+						}
+					}
+				}
+			}
+			return null;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @param literals the literals
+	 * @return all solutions that contain all given literals. <b>The returned arrays must not be modified.</b>
+	 */
+	public List<int[]> getSolutions(int... literals) {
+		lock.readLock().lock();
+		try {
+			final List<int[]> matchingSolutions = new ArrayList<>();
+			final long[] matches = getMatches(literals);
+			if (matches != null) {
+				for (int i = 0; i < numberOfWords; i++) {
+					for (long word = matches[i]; word != 0; word &= word - 1) {
+						matchingSolutions.add(solutions[(i << 6) + Long.numberOfTrailingZeros(word)]);
+					}
+				}
+			}
+			return matchingSolutions;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+}
@@ -0,0 +1,472 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.prop4j.And;
+import org.prop4j.AtLeast;
+import org.prop4j.AtMost;
+import org.prop4j.Choose;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.fm.core.editing.NodeCreator;
+
+/**
+ * Converts propositional formulas into clauses without an exponential growth of the number of clauses.<br> <br> A formula whose conjunctive normal form
+ * consists of at most {@link #getMaximumNumberOfClauses() a given number of clauses} is converted as usual by distributing disjunctions over conjunctions (see
+ * {@link Nodes#convert(IVariables, Node)}). For all other formulas, an auxiliary variable is introduced for each compound sub formula. As in the
+ * transformation of Plaisted and Greenbaum, only the implications that are required by the polarity of a sub formula are encoded. Cardinality constraints
+ * ({@link AtMost}, {@link AtLeast}, and {@link Choose}) are encoded with a sequential counter. Thus, the number of clauses is linear in the size of the formula
+ * (and in the bounds of its cardinality constraints).<br> <br> The resulting clauses are equisatisfiable to the formulas. Moreover, the solutions of the
+ * clauses, restricted to the regular variables, are exactly the solutions of the formulas. The auxiliary variables are hidden by an {@link AuxiliaryCNF}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TseitinTransformer {
+
+	public static final String AUXILIARY_PREFIX = "__tseitin_";
+
+	public static final long DEFAULT_MAXIMUM_NUMBER_OF_CLAUSES = 64;
+
+	private static final int POSITIVE = 1;
+	private static final int NEGATIVE = 2;
+	private static final int BOTH = POSITIVE | NEGATIVE;
+
+	private final Variables variables;
+	private final ClauseList clauses = new ClauseList();
+	private final List<String> auxiliaryNames = new ArrayList<>();
+
+	private long maximumNumberOfClauses = DEFAULT_MAXIMUM_NUMBER_OF_CLAUSES;
+	private int trueLiteral = 0;
+
+	/**
+	 * Creates a new transformer.
+	 *
+	 * @param variables the regular variables, which must contain all variables of the formulas that are added
+	 */
+	public TseitinTransformer(Variables variables) {
+		this.variables = variables;
+	}
+
+	public long getMaximumNumberOfClauses() {
+		return maximumNumberOfClauses;
+	}
+
+	/**
+	 * Sets the maximum number of clauses for which a formula is converted without auxiliary variables.
+	 *
+	 * @param maximumNumberOfClauses the maximum number of clauses. If negative, auxiliary variables are introduced for all formulas.
+	 */
+	public void setMaximumNumberOfClauses(long maximumNumberOfClauses) {
+		this.maximumNumberOfClauses = maximumNumberOfClauses;
+	}
+
+	/**
+	 * @return the number of auxiliary variables that were introduced so far
+	 */
+	public int getNumberOfAuxiliaryVariables() {
+		return auxiliaryNames.size();
+	}
+
+	/**
+	 * Adds clauses over the regular variables.
+	 *
+	 * @param clauses the clauses
+	 */
+	public void addClauses(Collection<LiteralSet> clauses) {
+		this.clauses.addAll(clauses);
+	}
+
+	/**
+	 * Adds the clauses of the given formula.
+	 *
+	 * @param node the formula
+	 * @throws IllegalArgumentException if the formula contains an unknown variable or operator
+	 */
+	public void addFormula(Node node) throws IllegalArgumentException {
+		if (estimateNumberOfClauses(node) <= maximumNumberOfClauses) {
+			clauses.addAll(Nodes.convert(variables, node));
+		} else if (node instanceof And) {
+			for (final Node child : node.getChildren()) {
+				addFormula(child);
+			}
+		} else if (node instanceof Or) {
+			addClause(getLiterals(node.getChildren(), POSITIVE));
+		} else if (node instanceof Implies) {
+			final Node[] children = node.getChildren();
+			addClause(-getLiteral(children[0], NEGATIVE), getLiteral(children[1], POSITIVE));
+		} else if (isCardinality(node)) {
+			addCardinality(0, node, getLiterals(node.getChildren(), BOTH));
+		} else {
+			addClause(getLiteral(node, POSITIVE));
+		}
+	}
+
+	/**
+	 * Creates a CNF containing all clauses that were added so far.
+	 *
+	 * @return an {@link AuxiliaryCNF} if auxiliary variables were introduced, a {@link CNF} otherwise
+	 */
+	public CNF createCNF() {
+		if (auxiliaryNames.isEmpty()) {
+			return new CNF(variables, new ClauseList(clauses));
+		}
+		return new AuxiliaryCNF(variables, new AuxiliaryVariables(variables.size(), auxiliaryNames), new ClauseList(clauses));
+	}
+
+	/**
+	 * Computes the number of clauses of the conjunctive normal form of the given formula, if disjunctions are distributed over conjunctions. Does not consider
+	 * any simplifications (e.g., the removal of tautologies). Thus, the result is an upper bound.
+	 *
+	 * @param node the formula
+	 * @return the number of clauses or {@link Long#MAX_VALUE} if the number exceeds this value
+	 * @throws IllegalArgumentException if the formula contains an unknown operator
+	 */
+	public static long estimateNumberOfClauses(Node node) throws IllegalArgumentException {
+		return countClauses(node)[0];
+	}
+
+	/**
+	 * @return the number of clauses of the formula and of its negation
+	 */
+	private static long[] countClauses(Node node) {
+		if (node instanceof Literal) {
+			return new long[] { 1, 1 };
+		}
+		final Node[] children = node.getChildren();
+		if (node instanceof Not) {
+			final long[] count = countClauses(children[0]);
+			return new long[] { count[1], count[0] };
+		} else if ((node instanceof And) || (node instanceof Or)) {
+			long sum = 0;
+			long product = 1;
+			for (final Node child : children) {
+				final long[] count = countClauses(child);
+				sum = add(sum, (node instanceof And) ? count[0] : count[1]);
+				product = multiply(product, (node instanceof And) ? count[1] : count[0]);
+			}
+			return (node instanceof And) ? new long[] { sum, product } : new long[] { product, sum };
+		} else if (node instanceof Implies) {
+			final long[] count0 = countClauses(children[0]);
+			final long[] count1 = countClauses(children[1]);
+			return new long[] { multiply(count0[1], count1[0]), add(count0[0], count1[1]) };
+		} else if (node instanceof Equals) {
+			final long[] count0 = countClauses(children[0]);
+			final long[] count1 = countClauses(children[1]);
+			return new long[] { add(multiply(count0[1], count1[0]), multiply(count0[0], count1[1])),
+				add(multiply(count0[0], count1[0]), multiply(count0[1], count1[1])) };
+		} else if (isCardinality(node)) {
+			long maxPositive = 0;
+			long maxNegative = 0;
+			for (final Node child : children) {
+				final long[] count = countClauses(child);
+				maxPositive = Math.max(maxPositive, count[0]);
+				maxNegative = Math.max(maxNegative, count[1]);
+			}
+			final int n = children.length;
+			final int lower = getLowerBound(node);
+			final int upper = getUpperBound(node);
+			// At most upper: one clause of negated children for each subset of size upper + 1 (at least lower analogously)
+			final long atMost = multiply(binomial(n, upper + 1), power(maxNegative, upper + 1));
+			final long atLeast = multiply(binomial(n, (n - lower) + 1), power(maxPositive, (n - lower) + 1));
+			// Negation: at least upper + 1 or at most lower - 1
+			final long notAtMost = multiply(binomial(n, n - upper), power(maxPositive, n - upper));
+			final long notAtLeast = multiply(binomial(n, lower), power(maxNegative, lower));
+			return new long[] { add(atMost, atLeast), multiply(notAtMost, notAtLeast) };
+		}
+		throw new IllegalArgumentException(node.getClass().getSimpleName());
+	}
+
+	private static long add(long a, long b) {
+		return (a > (Long.MAX_VALUE - b)) ? Long.MAX_VALUE : a + b;
+	}
+
+	private static long multiply(long a, long b) {
+		return ((a == 0) || (b <= (Long.MAX_VALUE / a))) ? a * b : Long.MAX_VALUE;
+	}
+
+	private static long power(long base, int exponent) {
+		long result = 1;
+		for (int i = 0; (i < exponent) && (result != Long.MAX_VALUE); i++) {
+			result = multiply(result, base);
+		}
+		return result;
+	}
+
+	private static long binomial(int n, int k) {
+		if ((k < 0) || (k > n)) {
+			return 0;
+		}
+		k = Math.min(k, n - k);
+		double result = 1;
+		for (int i = 0; i < k; i++) {
+			result = (result * (n - i)) / (i + 1);
+		}
+		return result >= Long.MAX_VALUE ? Long.MAX_VALUE : Math.round(result);
+	}
+
+	private static boolean isCardinality(Node node) {
+		return (node instanceof AtMost) || (node instanceof AtLeast) || (node instanceof Choose);
+	}
+
+	private static int getLowerBound(Node node) {
+		if (node instanceof AtLeast) {
+			return ((AtLeast) node).min;
+		} else if (node instanceof Choose) {
+			return ((Choose) node).n;
+		} else {
+			return 0;
+		}
+	}
+
+	private static int getUpperBound(Node node) {
+		if (node instanceof AtMost) {
+			return ((AtMost) node).max;
+		} else if (node instanceof Choose) {
+			return ((Choose) node).n;
+		} else {
+			return node.getChildren().length;
+		}
+	}
+
+	private static int flip(int polarity) {
+		return ((polarity & POSITIVE) << 1) | ((polarity & NEGATIVE) >> 1);
+	}
+
+	private int[] getLiterals(Node[] nodes, int polarity) {
+		final int[] literals = new int[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			literals[i] = getLiteral(nodes[i], polarity);
+		}
+		return literals;
+	}
+
+	/**
+	 * Returns a literal that represents the given formula. If the polarity is positive, the literal implies the formula. If the polarity is negative, the
+	 * formula implies the literal.
+	 */
+	private int getLiteral(Node node, int polarity) {
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			final String name = String.valueOf(literal.var);
+			final int variable;
+			if (NodeCreator.varTrue.equals(name)) {
+				variable = getTrueLiteral();
+			} else if (NodeCreator.varFalse.equals(name)) {
+				variable = -getTrueLiteral();
+			} else {
+				variable = variables.getVariable(name);
+				if (variable == 0) {
+					throw new IllegalArgumentException(name);
+				}
+			}
+			return literal.positive ? variable : -variable;
+		}
+		final Node[] children = node.getChildren();
+		if (node instanceof Not) {
+			return -getLiteral(children[0], flip(polarity));
+		} else if (node instanceof And) {
+			return getAndLiteral(getLiterals(children, polarity), polarity);
+		} else if (node instanceof Or) {
+			return getOrLiteral(getLiterals(children, polarity), polarity);
+		} else if (node instanceof Implies) {
+			return getOrLiteral(new int[] { -getLiteral(children[0], flip(polarity)), getLiteral(children[1], polarity) }, polarity);
+		} else if (node instanceof Equals) {
+			final int literal0 = getLiteral(children[0], BOTH);
+			final int literal1 = getLiteral(children[1], BOTH);
+			final int auxiliary = newAuxiliaryVariable();
+			if ((polarity & POSITIVE) != 0) {
+				addClause(-auxiliary, -literal0, literal1);
+				addClause(-auxiliary, literal0, -literal1);
+			}
+			if ((polarity & NEGATIVE) != 0) {
+				addClause(auxiliary, literal0, literal1);
+				addClause(auxiliary, -literal0, -literal1);
+			}
+			return auxiliary;
+		} else if (isCardinality(node)) {
+			final int[] literals = getLiterals(children, BOTH);
+			final int auxiliary = newAuxiliaryVariable();
+			if ((polarity & POSITIVE) != 0) {
+				addCardinality(auxiliary, node, literals);
+			}
+			if ((polarity & NEGATIVE) != 0) {
+				addNegatedCardinality(-auxiliary, node, literals);
+			}
+			return auxiliary;
+		}
+		throw new IllegalArgumentException(node.getClass().getSimpleName());
+	}
+
+	private int getAndLiteral(int[] literals, int polarity) {
+		if (literals.length == 1) {
+			return literals[0];
+		}
+		final int auxiliary = newAuxiliaryVariable();
+		if ((polarity & POSITIVE) != 0) {
+			for (final int literal : literals) {
+				addClause(-auxiliary, literal);
+			}
+		}
+		if ((polarity & NEGATIVE) != 0) {
+			final int[] clause = new int[literals.length + 1];
+			for (int i = 0; i < literals.length; i++) {
+				clause[i] = -literals[i];
+			}
+			clause[literals.length] = auxiliary;
+			addClause(clause);
+		}
+		return auxiliary;
+	}
+
+	private int getOrLiteral(int[] literals, int polarity) {
+		final int[] negatedLiterals = new int[literals.length];
+		for (int i = 0; i < literals.length; i++) {
+			negatedLiterals[i] = -literals[i];
+		}
+		return -getAndLiteral(negatedLiterals, flip(polarity));
+	}
+
+	/**
+	 * Adds clauses such that the given gate implies the cardinality constraint.
+	 *
+	 * @param gate a literal or {@code 0} if the constraint must always be satisfied
+	 */
+	private void addCardinality(int gate, Node node, int[] literals) {
+		addAtMost(gate, getUpperBound(node), literals);
+		addAtMost(gate, literals.length - getLowerBound(node), negate(literals));
+	}
+
+	/**
+	 * Adds clauses such that the given gate implies the negation of the cardinality constraint.
+	 */
+	private void addNegatedCardinality(int gate, Node node, int[] literals) {
+		final int lower = getLowerBound(node);
+		final int upper = getUpperBound(node);
+		final boolean tooFew = lower > 0;
+		final boolean tooMany = upper < literals.length;
+		if (tooFew && tooMany) {
+			final int tooFewLiteral = newAuxiliaryVariable();
+			final int tooManyLiteral = newAuxiliaryVariable();
+			addClause(-gate, tooFewLiteral, tooManyLiteral);
+			addAtMost(tooFewLiteral, lower - 1, literals);
+			addAtMost(tooManyLiteral, literals.length - upper - 1, negate(literals));
+		} else if (tooFew) {
+			addAtMost(gate, lower - 1, literals);
+		} else if (tooMany) {
+			addAtMost(gate, literals.length - upper - 1, negate(literals));
+		} else {
+			addClause(-gate);
+		}
+	}
+
+	/**
+	 * Adds clauses such that the given gate implies that at most k of the given literals are true. Uses the sequential counter of Sinz, where the
+	 * auxiliary variable {@code counter[i][j]} is true if at least {@code j + 1} of the first {@code i + 1} literals are true. Only the clauses that detect an
+	 * overflow of the counter depend on the gate.
+	 *
+	 * @param gate a literal or {@code 0} if the constraint must always be satisfied
+	 */
+	private void addAtMost(int gate, int k, int[] literals) {
+		final int n = literals.length;
+		if (k >= n) {
+			return;
+		} else if (k < 0) {
+			addClause(-(gate == 0 ? getTrueLiteral() : gate));
+		} else if (k == 0) {
+			for (final int literal : literals) {
+				addClause(-gate, -literal);
+			}
+		} else {
+			final int[][] counter = new int[n - 1][k];
+			for (int i = 0; i < (n - 1); i++) {
+				for (int j = 0; j < k; j++) {
+					counter[i][j] = newAuxiliaryVariable();
+				}
+			}
+			addClause(-literals[0], counter[0][0]);
+			for (int j = 1; j < k; j++) {
+				addClause(-counter[0][j]);
+			}
+			for (int i = 1; i < (n - 1); i++) {
+				addClause(-literals[i], counter[i][0]);
+				addClause(-counter[i - 1][0], counter[i][0]);
+				for (int j = 1; j < k; j++) {
+					addClause(-literals[i], -counter[i - 1][j - 1], counter[i][j]);
+					addClause(-counter[i - 1][j], counter[i][j]);
+				}
+				addClause(-gate, -literals[i], -counter[i - 1][k - 1]);
+			}
+			addClause(-gate, -literals[n - 1], -counter[n - 2][k - 1]);
+		}
+	}
+
+	private static int[] negate(int[] literals) {
+		final int[] negatedLiterals = new int[literals.length];
+		for (int i = 0; i < literals.length; i++) {
+			negatedLiterals[i] = -literals[i];
+		}
+		return negatedLiterals;
+	}
+
+	private int getTrueLiteral() {
+		if (trueLiteral == 0) {
+			trueLiteral = newAuxiliaryVariable();
+			addClause(trueLiteral);
+		}
+		return trueLiteral;
+	}
+
+	private int newAuxiliaryVariable() {
+		auxiliaryNames.add(AUXILIARY_PREFIX + auxiliaryNames.size());
+		return variables.size() + auxiliaryNames.size();
+	}
+
+	/**
+	 * Adds a clause. Ignores the literal {@code 0} (i.e., a missing gate), duplicate literals, and tautologies.
+	 */
+	private void addClause(int... literals) {
+		final int[] sortedLiterals = Arrays.copyOf(literals, literals.length);
+		Arrays.sort(sortedLiterals);
+		for (final int literal : sortedLiterals) {
+			if ((literal < 0) && (Arrays.binarySearch(sortedLiterals, -literal) >= 0)) {
+				return;
+			}
+		}
+		int count = 0;
+		for (final int literal : sortedLiterals) {
+			if ((literal != 0) && ((count == 0) || (sortedLiterals[count - 1] != literal))) {
+				sortedLiterals[count++] = literal;
+			}
+		}
+		clauses.add(new LiteralSet(Arrays.copyOf(sortedLiterals, count)));
+	}
+
+}
@@ -24,10 +24,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
 import de.ovgu.featureide.fm.core.functional.Functional;
@@ -42,16 +39,20 @@ public class Variables implements Serializable, IVariables, IInternalVariables {
 	private static final long serialVersionUID = -1767212780361483105L;
 
 	protected final String[] intToVar;
-	protected final Map<String, Integer> varToInt;
+	/**
+	 * Hash table (open addressing with linear probing) that maps the hash code of a variable name to the variable's index in {@link #intToVar}. Uses less
+	 * memory than a map with boxed integers, especially for a large number of variables.
+	 */
+	protected final int[] varToInt;
 
 	public Variables() {
 		intToVar = new String[0];
-		varToInt = Collections.emptyMap();
+		varToInt = new int[0];
 	}
 
 	public Variables(Collection<String> varNameList) {
 		intToVar = new String[varNameList.size() + 1];
-		varToInt = new LinkedHashMap<>((int) (1.5 * varNameList.size()));
+		varToInt = new int[Integer.highestOneBit(Math.max(varNameList.size(), 1)) << 2];
 
 		int index = 0;
 		for (final String feature : varNameList) {
@@ -59,14 +60,54 @@ public class Variables implements Serializable, IVariables, IInternalVariables {
 			if (name == null) {
 				throw new RuntimeException();
 			}
-			varToInt.put(name, ++index);
-			intToVar[index] = name;
+			intToVar[++index] = name;
+			putIndex(index);
 		}
 	}
 
 	protected Variables(Variables oldSatMapping) {
 		intToVar = Arrays.copyOf(oldSatMapping.intToVar, oldSatMapping.intToVar.length);
-		varToInt = new LinkedHashMap<>(oldSatMapping.varToInt);
+		varToInt = Arrays.copyOf(oldSatMapping.varToInt, oldSatMapping.varToInt.length);
+	}
+
+	private int getSlot(String varName) {
+		final int hash = varName.hashCode();
+		return (hash ^ (hash >>> 16)) & (varToInt.length - 1);
+	}
+
+	private void putIndex(int index) {
+		final String varName = intToVar[index];
+		for (int slot = getSlot(varName);; slot = (slot + 1) & (varToInt.length - 1)) {
+			final int otherIndex = varToInt[slot];
+			if ((otherIndex == 0) || intToVar[otherIndex].equals(varName)) {
+				varToInt[slot] = index;
+				return;
+			}
+		}
+	}
+
+	private int findSlot(String varName) {
+		if (varToInt.length == 0) {
+			return -1;
+		}
+		for (int slot = getSlot(varName);; slot = (slot + 1) & (varToInt.length - 1)) {
+			final int index = varToInt[slot];
+			if (index == 0) {
+				return -1;
+			} else if (intToVar[index].equals(varName)) {
+				return slot;
+			}
+		}
+	}
+
+	private void removeSlot(int slot) {
+		varToInt[slot] = 0;
+		// Reinsert all following entries of the same cluster
+		for (int nextSlot = (slot + 1) & (varToInt.length - 1); varToInt[nextSlot] != 0; nextSlot = (nextSlot + 1) & (varToInt.length - 1)) {
+			final int index = varToInt[nextSlot];
+			varToInt[nextSlot] = 0;
+			putIndex(index);
+		}
 	}
 
 	@Override
@@ -121,7 +162,7 @@ public class Variables implements Serializable, IVariables, IInternalVariables {
 		final int[] literals = new int[variableNameCollection.size()];
 		int i = 0;
 		for (final String varName : variableNameCollection) {
-			literals[i++] = varToInt.get(varName);
+			literals[i++] = getVariable(varName);
 		}
 		return new LiteralSet(literals);
 	}
@@ -132,7 +173,7 @@ public class Variables implements Serializable, IVariables, IInternalVariables {
 		final int[] literals = new int[variableNameCollection.size()];
 		int i = 0;
 		for (final String varName : variableNameCollection) {
-			literals[i++] = sign ? varToInt.get(varName) : -varToInt.get(varName);
+			literals[i++] = getVariable(varName, sign);
 		}
 		return new LiteralSet(literals);
 	}
@@ -146,7 +187,7 @@ public class Variables implements Serializable, IVariables, IInternalVariables {
 		final int[] literals = new int[(includeNegative && includePositive) ? 2 * variableNameCollection.size() : variableNameCollection.size()];
 		int i = 0;
 		for (final String varName : variableNameCollection) {
-			final int var = varToInt.get(varName);
+			final int var = getVariable(varName);
 			if (includeNegative) {
 				literals[i++] = -var;
 			}
@@ -169,8 +210,8 @@ public class Variables implements Serializable, IVariables, IInternalVariables {
 
 	@Override
 	public int getVariable(String varName) {
-		final Integer var = varToInt.get(varName);
-		return var == null ? 0 : var;
+		final int slot = findSlot(varName);
+		return slot < 0 ? 0 : varToInt[slot];
 	}
 
 	@Override
@@ -267,10 +308,16 @@ public class Variables implements Serializable, IVariables, IInternalVariables {
 
 	@Override
 	public void renameVariable(String oldName, String newName) {
-		final Integer index = varToInt.remove(oldName);
-		if (index != null) {
-			varToInt.put(newName, index);
+		final int slot = findSlot(oldName);
+		if (slot >= 0) {
+			final int index = varToInt[slot];
+			removeSlot(slot);
+			final int newSlot = findSlot(newName);
+			if (newSlot >= 0) {
+				removeSlot(newSlot);
+			}
 			intToVar[index] = newName;
+			putIndex(index);
 		}
 	}
 
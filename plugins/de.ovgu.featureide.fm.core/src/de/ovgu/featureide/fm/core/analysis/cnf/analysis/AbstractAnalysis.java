@@ -20,14 +20,16 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
-import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.SolutionPool;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SatSolverBackends;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
@@ -49,6 +51,8 @@ public abstract class AbstractAnalysis<T> implements IAnalysis<T> {
 	private boolean throwTimeoutException = true;
 	private int timeout = 1000;
 
+	private SolutionPool solutionPool = null;
+
 	private T result = null;
 
 	public AbstractAnalysis(CNF satInstance) {
@@ -57,7 +61,7 @@ public abstract class AbstractAnalysis<T> implements IAnalysis<T> {
 
 	protected ISatSolver initSolver(CNF satInstance) {
 		try {
-			return new AdvancedSatSolver(satInstance);
+			return SatSolverBackends.getDefault().createSolver(satInstance);
 		} catch (final RuntimeContradictionException e) {
 			return null;
 		}
@@ -126,6 +130,48 @@ public abstract class AbstractAnalysis<T> implements IAnalysis<T> {
 		return new AnalysisResult<>(this.getClass().getName(), assumptions, result);
 	}
 
+	public SolutionPool getSolutionPool() {
+		return solutionPool;
+	}
+
+	/**
+	 * Attaches this analysis to a pool of solutions. The analysis adds all solutions it finds to the pool and uses the solutions of the pool to skip calls to
+	 * the solver. The pool can be shared by multiple analyses, if all of them use the same {@link CNF}.
+	 *
+	 * @param solutionPool the pool or {@code null} (default)
+	 */
+	public void setSolutionPool(SolutionPool solutionPool) {
+		this.solutionPool = solutionPool;
+	}
+
+	/**
+	 * Adds a solution to the {@link #getSolutionPool() solution pool}, if there is one.
+	 *
+	 * @param solution the solution (may be {@code null})
+	 */
+	protected final void addSolution(int[] solution) {
+		if ((solutionPool != null) && (solution != null)) {
+			solutionPool.add(solution);
+		}
+	}
+
+	/**
+	 * Checks whether the {@link #getSolutionPool() solution pool} contains a solution that contains the given literals and all {@link #getAssumptions()
+	 * assumptions}.
+	 *
+	 * @param literals the literals
+	 * @return {@code true} if such a solution is known, {@code false} if there is none or if there is no solution pool.
+	 */
+	protected final boolean containsSolution(int... literals) {
+		if (solutionPool == null) {
+			return false;
+		}
+		final int[] assumedLiterals = assumptions.getLiterals();
+		final int[] query = Arrays.copyOf(assumedLiterals, assumedLiterals.length + literals.length);
+		System.arraycopy(literals, 0, query, assumedLiterals.length, literals.length);
+		return solutionPool.containsSolution(query);
+	}
+
 	public Random getRandom() {
 		return random;
 	}
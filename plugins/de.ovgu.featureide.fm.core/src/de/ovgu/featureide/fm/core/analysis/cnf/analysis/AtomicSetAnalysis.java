@@ -20,24 +20,63 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.Vertex;
 import de.ovgu.featureide.fm.core.base.util.RingList;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
- * Finds atomic sets.
+ * Finds atomic sets.<br> <br> The first element of the result contains all core and dead literals (see {@link CoreDeadAnalysis}). Each following element is
+ * an atomic set, i.e., a maximal set of literals that are equivalent in every valid configuration. Atomic sets are ordered by their smallest variable. The
+ * sign of each literal is the opposite of its value in the first solution with the {@link SelectionStrategy#POSITIVE positive selection strategy}.<br>
+ * <br> The atomic sets are computed as follows:
+ * <ol>
+ * <li>Variables whose literals are in the same strongly connected component of the implication graph are atomic by definition. The graph is given by the
+ * strong edges of a {@link #setModalImplicationGraph(ModalImplicationGraph) modal implication graph} or, if there is none, by the binary clauses of the
+ * CNF.</li>
+ * <li>The remaining groups are partitioned by their values in all solutions that the solver found so far and all solutions of the
+ * {@link #getSolutionPool() solution pool}. Groups can only be atomic if they have the same values in all solutions.</li>
+ * <li>All groups within the same partition are verified by the solver. Each solution that is found during the verification further splits the partition.
+ * Different partitions are verified in parallel (see {@link #setNumberOfThreads(int)}).</li>
+ * </ol>
+ * Known atomic sets and candidates, for instance, from the result for a previous version of the formula, can be used to skip parts of the computation (see
+ * {@link #setKnownAtomicSets(List)} and {@link #setCandidateAtomicSets(List)}).
  *
  * @author Sebastian Krieter
  */
 public class AtomicSetAnalysis extends AVariableAnalysis<List<LiteralSet>> {
 
+	private static final int SOLUTION_LIST_SIZE = 1000;
+
+	private int numberOfThreads = 1;
+	private ExecutorService executor = CoreDeadAnalysis.DEFAULT_EXECUTOR;
+	private ModalImplicationGraph modalImplicationGraph = null;
+	private List<LiteralSet> knownAtomicSets = null;
+	private List<LiteralSet> candidateAtomicSets = null;
+
+	private int[] model;
+	private int[] parents;
+
 	public AtomicSetAnalysis(ISatSolver solver) {
 		super(solver);
 	}
@@ -46,152 +85,605 @@ public class AtomicSetAnalysis extends AVariableAnalysis<List<LiteralSet>> {
 		super(satInstance);
 	}
 
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that are used to find core and dead features and to verify atomic sets. If greater than one, the work is distributed among
+	 * clones of the solver (see {@link ISatSolver#clone()}). Note that a clone only contains the clauses of the solver's {@link CNF}, thus, clauses that were
+	 * added to the solver directly are not considered by the clones.
+	 *
+	 * @param numberOfThreads the number of threads (default is {@code 1}).
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets the executor that runs the workers if more than one thread is used (see {@link #setNumberOfThreads(int)}). It is also used by the nested
+	 * {@link CoreDeadAnalysis}. The executor is not shut down by this analysis.
+	 *
+	 * @param executor the executor; if {@code null}, all work is done in the calling thread.
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	public ModalImplicationGraph getModalImplicationGraph() {
+		return modalImplicationGraph;
+	}
+
+	/**
+	 * Sets a modal implication graph of the analyzed CNF. Its strong edges are used to find atomic sets without calling the solver.
+	 *
+	 * @param modalImplicationGraph the graph or {@code null} to use only the binary clauses of the CNF (default)
+	 */
+	public void setModalImplicationGraph(ModalImplicationGraph modalImplicationGraph) {
+		this.modalImplicationGraph = modalImplicationGraph;
+	}
+
+	public List<LiteralSet> getKnownAtomicSets() {
+		return knownAtomicSets;
+	}
+
+	/**
+	 * Sets sets of variables that are known to be atomic (e.g., the atomic sets of a formula with less clauses). These variables are not verified by the
+	 * solver. Core and dead variables within the given sets are ignored.
+	 *
+	 * @param knownAtomicSets the sets or {@code null} (default)
+	 */
+	public void setKnownAtomicSets(List<LiteralSet> knownAtomicSets) {
+		this.knownAtomicSets = knownAtomicSets;
+	}
+
+	public List<LiteralSet> getCandidateAtomicSets() {
+		return candidateAtomicSets;
+	}
+
+	/**
+	 * Sets an upper bound for the atomic sets (e.g., the atomic sets and core and dead features of a formula with more clauses). Variables can only be in the
+	 * same atomic set if they are contained in the same given set. Variables that are not contained in any given set are considered to be in an atomic set on
+	 * their own.
+	 *
+	 * @param candidateAtomicSets the sets or {@code null} (default)
+	 */
+	public void setCandidateAtomicSets(List<LiteralSet> candidateAtomicSets) {
+		this.candidateAtomicSets = candidateAtomicSets;
+	}
+
 	@Override
 	public List<LiteralSet> analyze(IMonitor<List<LiteralSet>> monitor) throws Exception {
 		final List<LiteralSet> result = new ArrayList<>();
+		monitor.setRemainingWork(2);
 
 		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
-		final int[] model1 = solver.findSolution();
-		solver.useSolutionList(1000);
+		model = solver.findSolution();
+		if (model == null) {
+			return result;
+		}
+		addSolution(model);
+		solver.useSolutionList(SOLUTION_LIST_SIZE);
+		solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+		final int[] model2 = solver.findSolution();
+		addSolution(model2);
 
-		if (model1 != null) {
-			solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
-			final int[] model2 = solver.findSolution();
-			solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		final CoreDeadAnalysis coreDeadAnalysis = new CoreDeadAnalysis(solver);
+		coreDeadAnalysis.setNumberOfThreads(numberOfThreads);
+		coreDeadAnalysis.setExecutor(executor);
+		coreDeadAnalysis.setRandom(getRandom());
+		coreDeadAnalysis.setTimeout(getTimeout());
+		coreDeadAnalysis.setSolutionPool(getSolutionPool());
+		// The assumptions are already pushed to the solver
+		coreDeadAnalysis.setAssumptions(assumptions);
+		coreDeadAnalysis.analyze(monitor.subTask(1));
+		if (coreDeadAnalysis.isTimeoutOccured()) {
+			reportTimeout();
+		}
 
-			final byte[] done = new byte[model1.length];
+		final int fixedSize = solver.getAssignmentSize();
+		final int[] fixedLiterals = solver.getAssignmentArray(0, fixedSize);
+		result.add(new LiteralSet(fixedLiterals));
 
-			final int[] model1Copy = Arrays.copyOf(model1, model1.length);
+		final boolean[] fixed = new boolean[model.length + 1];
+		for (final int literal : fixedLiterals) {
+			fixed[Math.abs(literal)] = true;
+		}
 
-			LiteralSet.resetConflicts(model1Copy, model2);
-			for (int i = 0; i < model1Copy.length; i++) {
-				final int varX = model1Copy[i];
-				if (varX != 0) {
-					solver.assignmentPush(-varX);
-					switch (solver.hasSolution()) {
-					case FALSE:
-						done[i] = 2;
-						solver.assignmentReplaceLast(varX);
-						break;
-					case TIMEOUT:
-						solver.assignmentPop();
-						reportTimeout();
-						break;
-					case TRUE:
-						solver.assignmentPop();
-						LiteralSet.resetConflicts(model1Copy, solver.getSolution());
-						solver.shuffleOrder(getRandom());
-						break;
+		initGroups(fixed);
+		final List<int[]> partitions = partition(fixed, model2);
+
+		final List<int[]> groups = new ArrayList<>();
+		final List<int[]> unverifiedPartitions = new ArrayList<>();
+		for (final int[] partition : partitions) {
+			if (partition.length == 1) {
+				groups.add(partition);
+			} else {
+				unverifiedPartitions.add(partition);
+			}
+		}
+		if ((numberOfThreads > 1) && (executor != null) && (unverifiedPartitions.size() > 1)) {
+			groups.addAll(verifyParallel(monitor, unverifiedPartitions));
+		} else {
+			for (final int[] partition : unverifiedPartitions) {
+				monitor.checkCancel();
+				groups.addAll(verify(solver, getRandom(), partition));
+			}
+		}
+		monitor.step();
+
+		result.addAll(toAtomicSets(fixed, groups));
+		return result;
+	}
+
+	private int find(int variable) {
+		int root = variable;
+		while (parents[root] != root) {
+			root = parents[root];
+		}
+		while (parents[variable] != root) {
+			final int next = parents[variable];
+			parents[variable] = root;
+			variable = next;
+		}
+		return root;
+	}
+
+	private void union(int variable1, int variable2) {
+		final int root1 = find(variable1);
+		final int root2 = find(variable2);
+		if (root1 < root2) {
+			parents[root2] = root1;
+		} else if (root2 < root1) {
+			parents[root1] = root2;
+		}
+	}
+
+	/**
+	 * Groups all variables that are known to be atomic. The root of each group is its smallest variable.
+	 */
+	private void initGroups(boolean[] fixed) {
+		parents = new int[model.length + 1];
+		for (int i = 0; i < parents.length; i++) {
+			parents[i] = i;
+		}
+		for (final int[] component : getStronglyConnectedComponents()) {
+			final int firstVariable = Math.abs(component[0]);
+			for (int i = 1; i < component.length; i++) {
+				union(firstVariable, Math.abs(component[i]));
+			}
+		}
+		if (knownAtomicSets != null) {
+			for (final LiteralSet atomicSet : knownAtomicSets) {
+				int firstVariable = 0;
+				for (final int literal : atomicSet.getLiterals()) {
+					final int variable = Math.abs(literal);
+					if ((variable < fixed.length) && !fixed[variable]) {
+						if (firstVariable == 0) {
+							firstVariable = variable;
+						} else {
+							union(firstVariable, variable);
+						}
 					}
 				}
 			}
-			final int fixedSize = solver.getAssignmentSize();
-			result.add(new LiteralSet(solver.getAssignmentArray(0, fixedSize)));
+		}
+	}
 
-			solver.setSelectionStrategy(SelectionStrategy.RANDOM);
+	/**
+	 * Partitions the roots of all groups by their values in all known solutions and by the candidate atomic sets.
+	 *
+	 * @return the partitions containing the roots of the groups in ascending order
+	 */
+	private List<int[]> partition(boolean[] fixed, int[] model2) {
+		final int[] partitionIds = new int[model.length + 1];
+		int numberOfPartitions = 1;
+		if (candidateAtomicSets != null) {
+			Arrays.fill(partitionIds, -1);
+			for (final LiteralSet candidates : candidateAtomicSets) {
+				for (final int literal : candidates.getLiterals()) {
+					final int variable = Math.abs(literal);
+					if (variable < partitionIds.length) {
+						partitionIds[variable] = numberOfPartitions;
+					}
+				}
+				numberOfPartitions++;
+			}
+			for (int variable = 1; variable < partitionIds.length; variable++) {
+				if (partitionIds[variable] < 0) {
+					partitionIds[variable] = numberOfPartitions++;
+				}
+			}
+		}
 
-			for (int i = 0; i < model1.length; i++) {
-				if (done[i] == 0) {
-					done[i] = 2;
+		final RingList<int[]> solutions = solver.getSolutionList();
+		final List<int[]> allSolutions = new ArrayList<>(solutions.size() + 1);
+		if (model2 != null) {
+			allSolutions.add(model2);
+		}
+		for (int i = 0; i < solutions.size(); i++) {
+			allSolutions.add(solutions.get(i));
+		}
+		if (getSolutionPool() != null) {
+			allSolutions.addAll(getSolutionPool().getSolutions(assumptions.getLiterals()));
+		}
+		for (final int[] solution : allSolutions) {
+			final int[] newPartitionIds = new int[numberOfPartitions << 1];
+			Arrays.fill(newPartitionIds, -1);
+			int numberOfNewPartitions = 0;
+			for (int variable = 1; variable < partitionIds.length; variable++) {
+				if (!fixed[variable] && (parents[variable] == variable)) {
+					final int key = (partitionIds[variable] << 1) + (solution[variable - 1] == model[variable - 1] ? 1 : 0);
+					if (newPartitionIds[key] < 0) {
+						newPartitionIds[key] = numberOfNewPartitions++;
+					}
+					partitionIds[variable] = newPartitionIds[key];
+				}
+			}
+			numberOfPartitions = numberOfNewPartitions;
+		}
 
-					// int c = 0;
-					int[] xModel0 = Arrays.copyOf(model1, model1.length);
+		final int[] partitionSizes = new int[numberOfPartitions];
+		for (int variable = 1; variable < partitionIds.length; variable++) {
+			if (!fixed[variable] && (find(variable) == variable)) {
+				partitionSizes[partitionIds[variable]]++;
+			}
+		}
+		final int[][] partitions = new int[numberOfPartitions][];
+		for (int i = 0; i < numberOfPartitions; i++) {
+			partitions[i] = new int[partitionSizes[i]];
+		}
+		Arrays.fill(partitionSizes, 0);
+		for (int variable = 1; variable < partitionIds.length; variable++) {
+			if (!fixed[variable] && (parents[variable] == variable)) {
+				final int partitionId = partitionIds[variable];
+				partitions[partitionId][partitionSizes[partitionId]++] = variable;
+			}
+		}
+		final List<int[]> partitionList = new ArrayList<>(numberOfPartitions);
+		for (final int[] partition : partitions) {
+			if (partition.length > 0) {
+				partitionList.add(partition);
+			}
+		}
+		return partitionList;
+	}
 
-					final int mx0 = xModel0[i];
-					solver.assignmentPush(mx0);
-					final RingList<int[]> solutions = solver.getSolutionList();
+	/**
+	 * Returns the literal of the given variable that is equivalent to the literals of all other variables in the same atomic set.
+	 */
+	private int getLiteral(int variable) {
+		return -model[variable - 1];
+	}
 
-					inner: for (int j = i + 1; j < xModel0.length; j++) {
-						final int my0 = xModel0[j];
-						if ((my0 != 0) && (done[j] == 0)) {
-							for (int k = 1; k < solutions.size(); k++) {
-								final int[] solution = solutions.get(k);
-								final int mxI = solution[i];
-								final int myI = solution[j];
-								if ((mx0 == mxI) != (my0 == myI)) {
-									continue inner;
-								}
-							}
+	/**
+	 * Splits the given partition into atomic groups.
+	 *
+	 * @param solver the solver
+	 * @param random the random number generator for shuffling the order of the solver
+	 * @param partition the roots of the groups in ascending order
+	 * @return the roots of the atomic groups
+	 */
+	private List<int[]> verify(ISatSolver solver, Random random, int[] partition) {
+		final List<int[]> atomicGroups = new ArrayList<>();
+		final Deque<int[]> partitions = new ArrayDeque<>();
+		partitions.add(partition);
+		while (!partitions.isEmpty()) {
+			final int[] roots = partitions.poll();
+			if (roots.length == 1) {
+				atomicGroups.add(roots);
+				continue;
+			}
+			// 0 = unknown, 1 = implied by the first root, 2 = equivalent to the first root, -1 = not equivalent to the first root
+			final byte[] states = new byte[roots.length];
+			final int literal = getLiteral(roots[0]);
+			states[0] = 2;
 
-							solver.assignmentPush(-my0);
-
-							switch (solver.hasSolution()) {
-							case FALSE:
-								done[j] = 1;
-								break;
-							case TIMEOUT:
-								reportTimeout();
-								break;
-							case TRUE:
-								LiteralSet.resetConflicts(xModel0, solver.getSolution());
-								solver.shuffleOrder(getRandom());
-								break;
-							}
-							solver.assignmentPop();
-						}
+			solver.assignmentPush(literal);
+			for (int i = 1; i < roots.length; i++) {
+				if (states[i] == 0) {
+					solver.assignmentPush(-getLiteral(roots[i]));
+					final SatResult satResult = solver.hasSolution();
+					solver.assignmentPop();
+					switch (satResult) {
+					case FALSE:
+						states[i] = 1;
+						break;
+					case TIMEOUT:
+						states[i] = -1;
+						reportTimeout();
+						break;
+					case TRUE:
+						states[i] = -1;
+						addSolution(solver.getSolution());
+						excludeConflicts(roots, states, i + 1, solver.getSolution());
+						solver.shuffleOrder(random);
+						break;
 					}
+				}
+			}
+			solver.assignmentPop();
 
+			solver.assignmentPush(-literal);
+			for (int i = 1; i < roots.length; i++) {
+				if (states[i] == 1) {
+					solver.assignmentPush(getLiteral(roots[i]));
+					final SatResult satResult = solver.hasSolution();
 					solver.assignmentPop();
-					solver.assignmentPush(-mx0);
-
-					switch (solver.hasSolution()) {
+					switch (satResult) {
 					case FALSE:
+						states[i] = 2;
 						break;
 					case TIMEOUT:
-						for (int j = i + 1; j < xModel0.length; j++) {
-							done[j] = 0;
-						}
+						states[i] = -1;
 						reportTimeout();
 						break;
 					case TRUE:
-						xModel0 = solver.getSolution();
+						states[i] = -1;
+						addSolution(solver.getSolution());
+						excludeConflicts(roots, states, i + 1, solver.getSolution());
+						solver.shuffleOrder(random);
 						break;
 					}
+				}
+			}
+			solver.assignmentPop();
 
-					for (int j = i + 1; j < xModel0.length; j++) {
-						if (done[j] == 1) {
-							final int my0 = xModel0[j];
-							if (my0 != 0) {
-								solver.assignmentPush(-my0);
-
-								switch (solver.hasSolution()) {
-								case FALSE:
-									done[j] = 2;
-									solver.assignmentReplaceLast(my0);
-									break;
-								case TIMEOUT:
-									done[j] = 0;
-									solver.assignmentPop();
-									reportTimeout();
-									break;
-								case TRUE:
-									done[j] = 0;
-									LiteralSet.resetConflicts(xModel0, solver.getSolution());
-									solver.shuffleOrder(getRandom());
-									solver.assignmentPop();
-									break;
-								}
-							} else {
-								done[j] = 0;
-							}
+			int numberOfEquivalentRoots = 0;
+			for (final byte state : states) {
+				if (state == 2) {
+					numberOfEquivalentRoots++;
+				}
+			}
+			final int[] equivalentRoots = new int[numberOfEquivalentRoots];
+			final int[] remainingRoots = new int[roots.length - numberOfEquivalentRoots];
+			int equivalentIndex = 0;
+			int remainingIndex = 0;
+			for (int i = 0; i < roots.length; i++) {
+				if (states[i] == 2) {
+					equivalentRoots[equivalentIndex++] = roots[i];
+				} else {
+					remainingRoots[remainingIndex++] = roots[i];
+				}
+			}
+			atomicGroups.add(equivalentRoots);
+			if (remainingRoots.length > 0) {
+				partitions.add(remainingRoots);
+			}
+		}
+		return atomicGroups;
+	}
+
+	/**
+	 * Marks all roots from the given index that have a different value than the first root in the given solution.
+	 */
+	private void excludeConflicts(int[] roots, byte[] states, int fromIndex, int[] solution) {
+		final boolean firstValue = solution[roots[0] - 1] == getLiteral(roots[0]);
+		for (int i = fromIndex; i < roots.length; i++) {
+			if ((states[i] >= 0) && ((solution[roots[i] - 1] == getLiteral(roots[i])) != firstValue)) {
+				states[i] = -1;
+			}
+		}
+	}
+
+	private List<int[]> verifyParallel(IMonitor<List<LiteralSet>> monitor, List<int[]> partitions) throws Exception {
+		final List<int[]> sortedPartitions = new ArrayList<>(partitions);
+		// Start with the largest partitions for a better load balance
+		Collections.sort(sortedPartitions, new Comparator<int[]>() {
+			@Override
+			public int compare(int[] o1, int[] o2) {
+				return o2.length - o1.length;
+			}
+		});
+
+		final AtomicInteger nextIndex = new AtomicInteger();
+		final int numberOfWorkers = Math.min(numberOfThreads, sortedPartitions.size());
+		final List<Future<List<int[]>>> futures = new ArrayList<>(numberOfWorkers);
+		try {
+			for (int i = 0; i < numberOfWorkers; i++) {
+				final ISatSolver workerSolver = solver.clone();
+				final Random workerRandom = new Random(getRandom().nextLong());
+				workerSolver.setTimeout(getTimeout());
+				workerSolver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+				futures.add(executor.submit(() -> {
+					final List<int[]> atomicGroups = new ArrayList<>();
+					for (int index = nextIndex.getAndIncrement(); index < sortedPartitions.size(); index = nextIndex.getAndIncrement()) {
+						atomicGroups.addAll(verify(workerSolver, workerRandom, sortedPartitions.get(index)));
+					}
+					return atomicGroups;
+				}));
+			}
+			final List<int[]> atomicGroups = new ArrayList<>();
+			for (final Future<List<int[]>> future : futures) {
+				while (true) {
+					try {
+						atomicGroups.addAll(future.get(100, TimeUnit.MILLISECONDS));
+						break;
+					} catch (final TimeoutException e) {
+						monitor.checkCancel();
+					} catch (final ExecutionException e) {
+						final Throwable cause = e.getCause();
+						if (cause instanceof Exception) {
+							throw (Exception) cause;
+						} else if (cause instanceof Error) {
+							throw (Error) cause;
 						}
+						throw e;
 					}
+				}
+			}
+			return atomicGroups;
+		} finally {
+			// Let the remaining workers stop after their current partition
+			nextIndex.set(sortedPartitions.size());
+			for (final Future<List<int[]>> future : futures) {
+				future.cancel(true);
+			}
+		}
+	}
 
-					result.add(new LiteralSet(solver.getAssignmentArray(fixedSize, solver.getAssignmentSize())));
-					solver.assignmentClear(fixedSize);
+	/**
+	 * Expands the given atomic groups to atomic sets.
+	 */
+	private List<LiteralSet> toAtomicSets(boolean[] fixed, List<int[]> atomicGroups) {
+		final int[] atomicGroupIndex = new int[model.length + 1];
+		for (int i = 0; i < atomicGroups.size(); i++) {
+			for (final int root : atomicGroups.get(i)) {
+				atomicGroupIndex[root] = i;
+			}
+		}
+		final int[] sizes = new int[atomicGroups.size()];
+		for (int variable = 1; variable < parents.length; variable++) {
+			if (!fixed[variable]) {
+				sizes[atomicGroupIndex[find(variable)]]++;
+			}
+		}
+		final int[][] literals = new int[atomicGroups.size()][];
+		for (int i = 0; i < literals.length; i++) {
+			literals[i] = new int[sizes[i]];
+		}
+		Arrays.fill(sizes, 0);
+		final int[] order = new int[atomicGroups.size()];
+		int numberOfAtomicSets = 0;
+		for (int variable = 1; variable < parents.length; variable++) {
+			if (!fixed[variable]) {
+				final int index = atomicGroupIndex[find(variable)];
+				if (sizes[index] == 0) {
+					// Atomic sets are ordered by their smallest variable
+					order[numberOfAtomicSets++] = index;
 				}
+				literals[index][sizes[index]++] = getLiteral(variable);
 			}
 		}
-		return result;
+		final List<LiteralSet> atomicSets = new ArrayList<>(numberOfAtomicSets);
+		for (int i = 0; i < numberOfAtomicSets; i++) {
+			atomicSets.add(new LiteralSet(literals[order[i]]));
+		}
+		return atomicSets;
+	}
+
+	/**
+	 * Computes the strongly connected components of the implication graph (using Tarjan's algorithm). The nodes of the graph are the literals of all variables
+	 * and an edge from literal a to literal b means that a implies b.
+	 *
+	 * @return all components with more than one literal
+	 */
+	private List<int[]> getStronglyConnectedComponents() {
+		final int numberOfNodes = model.length << 1;
+		final int[][] edges = getImplicationEdges();
+
+		final List<int[]> components = new ArrayList<>();
+		final int[] indices = new int[numberOfNodes];
+		final int[] lowLinks = new int[numberOfNodes];
+		final boolean[] onStack = new boolean[numberOfNodes];
+		final int[] stack = new int[numberOfNodes];
+		final int[] callStack = new int[numberOfNodes];
+		final int[] edgeIndices = new int[numberOfNodes];
+		int stackSize = 0;
+		int index = 1;
+
+		for (int start = 0; start < numberOfNodes; start++) {
+			if (indices[start] != 0) {
+				continue;
+			}
+			int callStackSize = 0;
+			callStack[callStackSize++] = start;
+			indices[start] = lowLinks[start] = index++;
+			stack[stackSize++] = start;
+			onStack[start] = true;
+			while (callStackSize > 0) {
+				final int node = callStack[callStackSize - 1];
+				final int[] nodeEdges = edges[node];
+				if (edgeIndices[node] < nodeEdges.length) {
+					final int next = nodeEdges[edgeIndices[node]++];
+					if (indices[next] == 0) {
+						indices[next] = lowLinks[next] = index++;
+						stack[stackSize++] = next;
+						onStack[next] = true;
+						callStack[callStackSize++] = next;
+					} else if (onStack[next]) {
+						lowLinks[node] = Math.min(lowLinks[node], indices[next]);
+					}
+				} else {
+					callStackSize--;
+					if (callStackSize > 0) {
+						final int parent = callStack[callStackSize - 1];
+						lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[node]);
+					}
+					if (lowLinks[node] == indices[node]) {
+						int size = 0;
+						while (stack[stackSize - 1 - size] != node) {
+							size++;
+						}
+						size++;
+						if (size > 1) {
+							final int[] component = new int[size];
+							for (int i = 0; i < size; i++) {
+								component[i] = getLiteralOfNode(stack[stackSize - size + i]);
+							}
+							components.add(component);
+						}
+						for (int i = 0; i < size; i++) {
+							onStack[stack[--stackSize]] = false;
+						}
+					}
+				}
+			}
+		}
+		return components;
+	}
+
+	private static int getNode(int literal) {
+		return ((Math.abs(literal) - 1) << 1) + (literal < 0 ? 0 : 1);
+	}
+
+	private static int getLiteralOfNode(int node) {
+		final int variable = (node >> 1) + 1;
+		return (node & 1) == 0 ? -variable : variable;
 	}
 
-	// private void updateSolver(int c) {
-	// if ((c % 2 == 0)) {
-	// solver.setSelectionStrategy(SelectionStrategy.RANDOM);
-	// } else {
-	// solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
-	// solver.shuffleOrder();
-	// }
-	// }
+	private int[][] getImplicationEdges() {
+		final int numberOfNodes = model.length << 1;
+		final int[][] edges = new int[numberOfNodes][];
+		if ((modalImplicationGraph != null) && (modalImplicationGraph.getAdjList().size() == numberOfNodes)) {
+			for (int node = 0; node < numberOfNodes; node++) {
+				final Vertex vertex = modalImplicationGraph.getAdjList().get(node);
+				final int[] strongEdges = vertex.getStrongEdges();
+				final int[] nodeEdges = new int[strongEdges.length];
+				for (int i = 0; i < strongEdges.length; i++) {
+					nodeEdges[i] = getNode(strongEdges[i]);
+				}
+				edges[node] = nodeEdges;
+			}
+		} else {
+			final List<LiteralSet> clauses = solver.getSatInstance().getClauses();
+			final int[] degrees = new int[numberOfNodes];
+			for (final LiteralSet clause : clauses) {
+				if (clause.size() == 2) {
+					final int[] literals = clause.getLiterals();
+					degrees[getNode(-literals[0])]++;
+					degrees[getNode(-literals[1])]++;
+				}
+			}
+			for (int node = 0; node < numberOfNodes; node++) {
+				edges[node] = new int[degrees[node]];
+			}
+			Arrays.fill(degrees, 0);
+			for (final LiteralSet clause : clauses) {
+				if (clause.size() == 2) {
+					final int[] literals = clause.getLiterals();
+					final int node0 = getNode(-literals[0]);
+					final int node1 = getNode(-literals[1]);
+					edges[node0][degrees[node0]++] = getNode(literals[1]);
+					edges[node1][degrees[node1]++] = getNode(literals[0]);
+				}
+			}
+		}
+		return edges;
+	}
 
 }
@@ -29,8 +29,8 @@ import java.util.Objects;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
-import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModifiableSatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SatSolverBackends;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
@@ -75,7 +75,7 @@ public class CauseAnalysis extends AClauseAnalysis<List<CauseAnalysis.Anomalies>
 	@Override
 	protected ISatSolver initSolver(CNF satInstance) {
 		try {
-			return new ModifiableSatSolver(satInstance);
+			return SatSolverBackends.getDefault().createModifiableSolver(satInstance);
 		} catch (final RuntimeContradictionException e) {
 			return null;
 		}
@@ -20,18 +20,31 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import org.sat4j.core.VecInt;
 import org.sat4j.specs.IteratorInt;
 
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
-import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModifiableSatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SatSolverBackends;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
@@ -41,6 +54,26 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
  */
 public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 
+	/**
+	 * Default executor for analyses that distribute their work among clones of a solver (e.g., this analysis and {@link AtomicSetAnalysis}) and for running
+	 * independent analyses concurrently (see {@link FeatureModelAnalyzer}). Uses daemon threads, so it does not prevent the JVM from shutting down. The pool is
+	 * not bounded, as jobs wait for nested jobs on the same executor.
+	 */
+	public static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+		final Thread thread = new Thread(runnable, "SolverAnalysis");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Minimum number of variables per thread. For smaller models the overhead of cloning the solver outweighs the parallel speed up.
+	 */
+	public static final int MIN_VARIABLES_PER_THREAD = 256;
+
+	private int numberOfThreads = 1;
+
+	private ExecutorService executor = DEFAULT_EXECUTOR;
+
 	public CoreDeadAnalysis(ISatSolver solver) {
 		this(solver, null);
 	}
@@ -64,10 +97,50 @@ public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 		return analyze1(monitor);
 	}
 
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that are used to test the candidate variables. If greater than one, the candidates are distributed among clones of the
+	 * solver (see {@link ISatSolver#clone()}). Note that a clone only contains the clauses of the solver's {@link CNF}, thus, clauses that were added to the
+	 * solver directly are not considered by the clones.
+	 *
+	 * @param numberOfThreads the number of threads (default is {@code 1}).
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	/**
+	 * Returns the number of threads that pays off for the given number of variables, i.e., one thread per {@link #MIN_VARIABLES_PER_THREAD} variables, but
+	 * not more than there are processors.
+	 *
+	 * @param numberOfVariables the number of variables of the analyzed formula
+	 * @return the number of threads
+	 */
+	public static int getDefaultNumberOfThreads(int numberOfVariables) {
+		return Math.min(Runtime.getRuntime().availableProcessors(), numberOfVariables / MIN_VARIABLES_PER_THREAD);
+	}
+
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets the executor that runs the workers if more than one thread is used (see {@link #setNumberOfThreads(int)}). The executor is not shut down by this
+	 * analysis.
+	 *
+	 * @param executor the executor; if {@code null}, all candidates are tested in the calling thread.
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
 	@Override
 	protected ISatSolver initSolver(CNF satInstance) {
 		try {
-			return new ModifiableSatSolver(satInstance);
+			return SatSolverBackends.getDefault().createModifiableSolver(satInstance);
 		} catch (final RuntimeContradictionException e) {
 			return null;
 		}
@@ -192,8 +265,10 @@ public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 		int[] model1 = solver.findSolution();
 
 		if (model1 != null) {
+			addSolution(model1);
 			solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
 			final int[] model2 = solver.findSolution();
+			addSolution(model2);
 
 			if (variables != null) {
 				final int[] model3 = new int[model1.length];
@@ -211,8 +286,22 @@ public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 			}
 
 			LiteralSet.resetConflicts(model1, model2);
-			solver.setSelectionStrategy(model1,
-					model1.length > (new LiteralSet(model2, Order.INDEX, false).countNegative() + new LiteralSet(model1, Order.INDEX, false).countNegative()));
+			// Skip all candidates that have a different value in a known solution
+			if (getSolutionPool() != null) {
+				for (int i = 0; i < model1.length; i++) {
+					if ((model1[i] != 0) && containsSolution(-model1[i])) {
+						model1[i] = 0;
+					}
+				}
+			}
+			final boolean min =
+				model1.length > (new LiteralSet(model2, Order.INDEX, false).countNegative() + new LiteralSet(model1, Order.INDEX, false).countNegative());
+			solver.setSelectionStrategy(model1, min);
+
+			if ((numberOfThreads > 1) && (executor != null)) {
+				analyzeParallel(monitor, model1, min);
+				return new LiteralSet(solver.getAssignmentArray(initialAssignmentLength, solver.getAssignmentSize()));
+			}
 
 			for (int i = 0; i < model1.length; i++) {
 				final int varX = model1[i];
@@ -229,7 +318,9 @@ public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 						break;
 					case TRUE:
 						solver.assignmentPop();
-						LiteralSet.resetConflicts(model1, solver.getSolution());
+						final int[] solution = solver.getSolution();
+						addSolution(solution);
+						LiteralSet.resetConflicts(model1, solution);
 						solver.shuffleOrder(getRandom());
 						break;
 					}
@@ -240,4 +331,166 @@ public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 		return new LiteralSet(solver.getAssignmentArray(initialAssignmentLength, solver.getAssignmentSize()));
 	}
 
+	/**
+	 * Candidate variables and found core and dead literals that are shared among all workers of {@link CoreDeadAnalysis#analyzeParallel}.
+	 */
+	private static final class CandidatePool {
+
+		private final AtomicIntegerArray candidates;
+		private final AtomicIntegerArray foundLiterals;
+		private final AtomicInteger foundCount = new AtomicInteger();
+		private final AtomicInteger nextIndex = new AtomicInteger();
+		private final AtomicBoolean stopped = new AtomicBoolean();
+
+		private CandidatePool(int[] model) {
+			candidates = new AtomicIntegerArray(model);
+			foundLiterals = new AtomicIntegerArray(model.length);
+		}
+
+		/**
+		 * @return the index of the next candidate that is not yet tested or {@code -1} if there is none.
+		 */
+		private int nextIndex() {
+			if (stopped.get()) {
+				return -1;
+			}
+			final int index = nextIndex.getAndIncrement();
+			return index < candidates.length() ? index : -1;
+		}
+
+		private int getCandidate(int index) {
+			return candidates.get(index);
+		}
+
+		/**
+		 * Removes all candidates that are not contained in the given solution.
+		 */
+		private void resetConflicts(int[] solution) {
+			for (int i = 0; i < solution.length; i++) {
+				final int candidate = candidates.get(i);
+				if ((candidate != 0) && (candidate != solution[i])) {
+					candidates.set(i, 0);
+				}
+			}
+		}
+
+		private void addFoundLiteral(int literal) {
+			// Each candidate is tested only once, so there are at most candidates.length() found literals
+			foundLiterals.set(foundCount.getAndIncrement(), literal);
+		}
+
+		/**
+		 * @return the found literal with the given index or {@code 0} if it is not (yet) available.
+		 */
+		private int getFoundLiteral(int index) {
+			return index < foundLiterals.length() ? foundLiterals.get(index) : 0;
+		}
+
+		private int getFoundCount() {
+			return foundCount.get();
+		}
+
+		private void stop() {
+			stopped.set(true);
+		}
+	}
+
+	private void analyzeParallel(IMonitor<LiteralSet> monitor, int[] model1, boolean min) throws Exception {
+		int numberOfCandidates = 0;
+		for (int i = 0; i < model1.length; i++) {
+			if (model1[i] != 0) {
+				numberOfCandidates++;
+			}
+		}
+
+		final CandidatePool pool = new CandidatePool(model1);
+		final int numberOfWorkers = Math.max(1, Math.min(numberOfThreads, numberOfCandidates));
+		final List<Future<?>> futures = new ArrayList<>(numberOfWorkers);
+		try {
+			for (int i = 0; i < numberOfWorkers; i++) {
+				final ISatSolver workerSolver = solver.clone();
+				final int[] workerModel = Arrays.copyOf(model1, model1.length);
+				final Random workerRandom = new Random(getRandom().nextLong());
+				workerSolver.setTimeout(getTimeout());
+				workerSolver.setSelectionStrategy(workerModel, min);
+				futures.add(executor.submit(() -> {
+					try {
+						testCandidates(workerSolver, workerModel, workerRandom, pool);
+					} finally {
+						pool.stop();
+					}
+					return null;
+				}));
+			}
+			for (final Future<?> future : futures) {
+				while (true) {
+					try {
+						future.get(100, TimeUnit.MILLISECONDS);
+						break;
+					} catch (final TimeoutException e) {
+						monitor.checkCancel();
+					} catch (final ExecutionException e) {
+						final Throwable cause = e.getCause();
+						if (cause instanceof Exception) {
+							throw (Exception) cause;
+						} else if (cause instanceof Error) {
+							throw (Error) cause;
+						}
+						throw e;
+					}
+				}
+			}
+		} finally {
+			pool.stop();
+			for (final Future<?> future : futures) {
+				future.cancel(true);
+			}
+		}
+
+		// Add found literals in the same order as the sequential analysis
+		final int[] coreDead = new int[model1.length];
+		for (int i = 0; i < pool.getFoundCount(); i++) {
+			final int literal = pool.getFoundLiteral(i);
+			coreDead[Math.abs(literal) - 1] = literal;
+		}
+		for (final int literal : coreDead) {
+			if (literal != 0) {
+				solver.assignmentPush(literal);
+				monitor.invoke(new LiteralSet(literal));
+			}
+		}
+	}
+
+	private void testCandidates(ISatSolver workerSolver, int[] model, Random random, CandidatePool pool) {
+		int knownLiterals = 0;
+		for (int i = pool.nextIndex(); i >= 0; i = pool.nextIndex()) {
+			final int varX = pool.getCandidate(i);
+			if (varX != 0) {
+				// Use literals found by all workers to simplify the following tests
+				for (int literal = pool.getFoundLiteral(knownLiterals); literal != 0; literal = pool.getFoundLiteral(++knownLiterals)) {
+					workerSolver.assignmentPush(literal);
+				}
+				workerSolver.assignmentPush(-varX);
+				switch (workerSolver.hasSolution()) {
+				case FALSE:
+					workerSolver.assignmentPop();
+					pool.addFoundLiteral(varX);
+					break;
+				case TIMEOUT:
+					workerSolver.assignmentPop();
+					reportTimeout();
+					break;
+				case TRUE:
+					workerSolver.assignmentPop();
+					final int[] solution = workerSolver.getSolution();
+					addSolution(solution);
+					LiteralSet.resetConflicts(model, solution);
+					pool.resetConflicts(solution);
+					workerSolver.shuffleOrder(random);
+					break;
+				}
+			}
+		}
+	}
+
 }
@@ -0,0 +1,67 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
+
+import java.math.BigInteger;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNFBuilder;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Counts the exact number of possible solutions of a given {@link CNF}.<br> Compiles the CNF into a {@link DDNNF} (if none is given) instead of enumerating
+ * all solutions as {@link CountSolutionsAnalysis} does. The current assignment of the solver is used as assumptions.
+ *
+ * @author FeatureIDE Team
+ */
+public class DDNNFCountSolutionsAnalysis extends AbstractAnalysis<BigInteger> {
+
+	private DDNNF ddnnf;
+
+	public DDNNFCountSolutionsAnalysis(ISatSolver solver) {
+		super(solver);
+	}
+
+	public DDNNFCountSolutionsAnalysis(CNF satInstance) {
+		super(satInstance);
+	}
+
+	/**
+	 * @param solver the solver providing the assumptions.
+	 * @param ddnnf a compiled version of the solver's {@link CNF}.
+	 */
+	public DDNNFCountSolutionsAnalysis(ISatSolver solver, DDNNF ddnnf) {
+		super(solver);
+		this.ddnnf = ddnnf;
+	}
+
+	@Override
+	public BigInteger analyze(IMonitor<BigInteger> monitor) throws Exception {
+		if (ddnnf == null) {
+			ddnnf = new DDNNFBuilder(solver.getSatInstance()).execute(monitor.subTask(1));
+		}
+		return ddnnf.countSolutions(new LiteralSet(solver.getAssignmentArray()));
+	}
+
+}
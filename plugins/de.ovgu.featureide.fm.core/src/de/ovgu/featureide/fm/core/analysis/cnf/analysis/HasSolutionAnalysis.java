@@ -42,6 +42,9 @@ public class HasSolutionAnalysis extends AbstractAnalysis<Boolean> {
 
 	@Override
 	public Boolean analyze(IMonitor<Boolean> monitor) throws Exception {
+		if (containsSolution()) {
+			return true;
+		}
 		final SatResult hasSolution = solver.hasSolution();
 		switch (hasSolution) {
 		case FALSE:
@@ -50,6 +53,7 @@ public class HasSolutionAnalysis extends AbstractAnalysis<Boolean> {
 			reportTimeout();
 			return false;
 		case TRUE:
+			addSolution(solver.getSolution());
 			return true;
 		default:
 			throw new AssertionError(hasSolution);
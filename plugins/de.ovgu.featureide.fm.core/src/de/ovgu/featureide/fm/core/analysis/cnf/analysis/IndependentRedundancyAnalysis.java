@@ -27,11 +27,10 @@ import java.util.List;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
-import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.SolutionPool;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
-import de.ovgu.featureide.fm.core.base.util.RingList;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
@@ -82,11 +81,13 @@ public class IndependentRedundancyAnalysis extends AClauseAnalysis<List<LiteralS
 
 		final int[] firstSolution = solver.findSolution();
 		if (firstSolution != null) {
-
-			final RingList<LiteralSet> solutionList = new RingList<>(ISatSolver.MAX_SOLUTION_BUFFER);
+			// Use a private pool, if the analysis is not attached to a shared one
+			final SolutionPool solutionPool =
+				getSolutionPool() != null ? getSolutionPool() : new SolutionPool(solver.getSatInstance().getVariables().size());
 			solver.setSelectionStrategy(SelectionStrategy.RANDOM);
-			solutionList.add(new LiteralSet(firstSolution, Order.INDEX, false));
+			solutionPool.add(firstSolution);
 
+			final int[] assumedLiterals = assumptions.getLiterals();
 			int endIndex = 0;
 			groupLoop: for (int i = 0; i < clauseGroupSize.length; i++) {
 				final int startIndex = endIndex;
@@ -95,10 +96,11 @@ public class IndependentRedundancyAnalysis extends AClauseAnalysis<List<LiteralS
 					final LiteralSet clause = clauseList.get(j);
 					final LiteralSet complement = clause.negate();
 
-					for (final LiteralSet solution : solutionList) {
-						if (solution.containsAll(complement)) {
-							continue clauseLoop;
-						}
+					final int[] complementLiterals = complement.getLiterals();
+					final int[] query = Arrays.copyOf(complementLiterals, complementLiterals.length + assumedLiterals.length);
+					System.arraycopy(assumedLiterals, 0, query, complementLiterals.length, assumedLiterals.length);
+					if (solutionPool.containsSolution(query)) {
+						continue clauseLoop;
 					}
 
 					final SatResult hasSolution = solver.hasSolution(complement);
@@ -110,7 +112,7 @@ public class IndependentRedundancyAnalysis extends AClauseAnalysis<List<LiteralS
 						reportTimeout();
 						break;
 					case TRUE:
-						solutionList.add(new LiteralSet(solver.getSolution(), Order.INDEX, false));
+						solutionPool.add(solver.getSolution());
 						solver.shuffleOrder(getRandom());
 						break;
 					default:
@@ -32,8 +32,8 @@ import de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove.CNFSlicer;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.EmptySatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
-import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModifiableSatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SatSolverBackends;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
@@ -64,7 +64,7 @@ public class IndeterminedAnalysis extends AVariableAnalysis<LiteralSet> {
 		final VecInt potentialResultList = new VecInt();
 		final List<LiteralSet> relevantClauses = new ArrayList<>();
 
-		final ModifiableSatSolver modSolver = new ModifiableSatSolver(solver.getSatInstance());
+		final ISatSolver modSolver = SatSolverBackends.getDefault().createModifiableSolver(solver.getSatInstance());
 		for (final int literal : variables.getLiterals()) {
 			final List<LiteralSet> clauses = solver.getSatInstance().getClauses();
 			for (final LiteralSet clause : clauses) {
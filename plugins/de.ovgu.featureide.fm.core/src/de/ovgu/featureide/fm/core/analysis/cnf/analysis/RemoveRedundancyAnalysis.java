@@ -29,10 +29,11 @@ import org.sat4j.specs.IConstr;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.SolutionPool;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
-import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModifiableSatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SatSolverBackends;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
@@ -70,7 +71,7 @@ public class RemoveRedundancyAnalysis extends AClauseAnalysis<List<LiteralSet>>
 	@Override
 	protected ISatSolver initSolver(CNF satInstance) {
 		try {
-			return new ModifiableSatSolver(satInstance);
+			return SatSolverBackends.getDefault().createModifiableSolver(satInstance);
 		} catch (final RuntimeContradictionException e) {
 			return null;
 		}
@@ -96,6 +97,9 @@ public class RemoveRedundancyAnalysis extends AClauseAnalysis<List<LiteralSet>>
 		for (final LiteralSet clause : clauseList) {
 			constrs.add(solver.addClause(clause));
 		}
+		// Marks all clauses that are currently part of the formula
+		final boolean[] activeClauses = new boolean[clauseList.size()];
+		Arrays.fill(activeClauses, true);
 
 		monitor.step();
 
@@ -107,6 +111,7 @@ public class RemoveRedundancyAnalysis extends AClauseAnalysis<List<LiteralSet>>
 			boolean removedAtLeastOne = false;
 			for (int j = startIndex; j < endIndex; j++) {
 				final IConstr cm = constrs.get(j);
+				activeClauses[j] = false;
 				if (cm != null) {
 					removedAtLeastOne = true;
 					solver.removeClause(cm);
@@ -117,6 +122,13 @@ public class RemoveRedundancyAnalysis extends AClauseAnalysis<List<LiteralSet>>
 				for (int j = startIndex; j < endIndex; j++) {
 					final LiteralSet clause = clauseList.get(j);
 
+					if (findSolution(clause.negate(), activeClauses) != null) {
+						solver.addClause(clause);
+						activeClauses[j] = true;
+						completelyRedundant = false;
+						continue;
+					}
+
 					final SatResult hasSolution = solver.hasSolution(clause.negate());
 					switch (hasSolution) {
 					case FALSE:
@@ -125,7 +137,9 @@ public class RemoveRedundancyAnalysis extends AClauseAnalysis<List<LiteralSet>>
 						reportTimeout();
 						break;
 					case TRUE:
+						addSolution(solver.getSolution());
 						solver.addClause(clause);
+						activeClauses[j] = true;
 						completelyRedundant = false;
 						break;
 					default:
@@ -143,4 +157,39 @@ public class RemoveRedundancyAnalysis extends AClauseAnalysis<List<LiteralSet>>
 		return resultList;
 	}
 
+	/**
+	 * Searches the {@link #getSolutionPool() solution pool} for a solution of the current formula that contains the given literals. As the solutions in the
+	 * pool only satisfy the {@link CNF}, the solution must also satisfy all active clauses of the clause list.
+	 *
+	 * @param literals the literals
+	 * @param activeClauses marks all clauses of the clause list that are currently part of the formula
+	 * @return the solution or {@code null} if there is none
+	 */
+	private int[] findSolution(LiteralSet literals, boolean[] activeClauses) {
+		final SolutionPool solutionPool = getSolutionPool();
+		if (solutionPool == null) {
+			return null;
+		}
+		final int[] assumedLiterals = assumptions.getLiterals();
+		final int[] query = Arrays.copyOf(literals.getLiterals(), literals.size() + assumedLiterals.length);
+		System.arraycopy(assumedLiterals, 0, query, literals.size(), assumedLiterals.length);
+		return solutionPool.findSolution(query, solution -> {
+			for (int i = 0; i < activeClauses.length; i++) {
+				if (activeClauses[i] && !isSatisfied(clauseList.get(i), solution)) {
+					return false;
+				}
+			}
+			return true;
+		});
+	}
+
+	private static boolean isSatisfied(LiteralSet clause, int[] solution) {
+		for (final int literal : clause.getLiterals()) {
+			if (solution[Math.abs(literal) - 1] == literal) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 }
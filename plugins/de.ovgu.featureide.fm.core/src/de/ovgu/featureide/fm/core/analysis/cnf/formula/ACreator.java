@@ -38,10 +38,24 @@ public abstract class ACreator<T> {
 	private T formulaElement;
 
 	T get() {
+		return get(this);
+	}
+
+	/**
+	 * Returns the element and lets the given creator create it if it was not created yet. Thus, an equal creator can pass its own parameters (e.g., a time
+	 * limit) to the creation. If the creation returns {@code null}, nothing is stored and the next call tries again.
+	 *
+	 * @param requester an equal creator (only used for the creation if it is not bound to another formula)
+	 * @return the element
+	 */
+	T get(ACreator<T> requester) {
 		lock.lock();
 		try {
 			if (formulaElement == null) {
-				formulaElement = create();
+				if (requester.formula == null) {
+					requester.formula = formula;
+				}
+				formulaElement = (requester.formula == formula) ? requester.create() : create();
 			}
 			return formulaElement;
 		} finally {
@@ -49,6 +63,20 @@ public abstract class ACreator<T> {
 		}
 	}
 
+	/**
+	 * @return the element if it was already created, {@code null} if it was not created yet or is currently in creation.
+	 */
+	T getCached() {
+		if (lock.tryLock()) {
+			try {
+				return formulaElement;
+			} finally {
+				lock.unlock();
+			}
+		}
+		return null;
+	}
+
 	void init(FeatureModelFormula formula) {
 		this.formula = formula;
 		this.lock = new ReentrantLock();
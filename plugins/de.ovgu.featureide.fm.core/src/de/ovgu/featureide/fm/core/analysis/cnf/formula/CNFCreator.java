@@ -20,12 +20,14 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.formula;
 
+import java.util.Arrays;
+
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.FeatureModelCNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
 
 /**
- * Creates a {@link CNF}.
+ * Creates a {@link CNF}.<br> If the formula has an {@link FeatureModelFormula#getArtifactCache() artifact cache}, the clauses are loaded from it if possible.
  *
  * @author Sebastian Krieter
  */
@@ -34,7 +36,18 @@ public class CNFCreator extends ACreator<CNF> {
 	@Override
 	protected CNF create() {
 		final CNF cnf = new FeatureModelCNF(formula.getFeatureModel(), false);
+		final FormulaArtifactCache cache = formula.getArtifactCache();
+		if (cache != null) {
+			final CNF cachedCNF = cache.load(formula.getArtifactKey(), FormulaArtifactCache.CNF);
+			if ((cachedCNF != null) && Arrays.equals(cnf.getVariables().getNames(), cachedCNF.getVariables().getNames())) {
+				cnf.addClauses(cachedCNF.getClauses());
+				return cnf;
+			}
+		}
 		cnf.addClauses(Nodes.convert(cnf.getVariables(), formula.getElement(new CNFNodeCreator())));
+		if (cache != null) {
+			cache.store(formula.getArtifactKey(), FormulaArtifactCache.CNF, cnf);
+		}
 		return cnf;
 	}
 
@@ -0,0 +1,67 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseDelta;
+
+/**
+ * Creates a {@link ClauseDelta} between the {@link CNF} of the {@link FeatureModelFormula#getPreviousFormula() previous formula} and the {@link CNF} of the
+ * current formula. Both are created by another creator (default is {@link CNFCreator}).<br> The created element is {@code null} if there is no previous
+ * formula or if the previous formula has not computed its {@link CNF}.
+ *
+ * @author FeatureIDE Team
+ */
+public class ClauseDeltaCreator extends ACreator<ClauseDelta> {
+
+	private final ACreator<CNF> cnfCreator;
+
+	public ClauseDeltaCreator() {
+		this(new CNFCreator());
+	}
+
+	public ClauseDeltaCreator(ACreator<CNF> cnfCreator) {
+		this.cnfCreator = cnfCreator;
+	}
+
+	@Override
+	protected ClauseDelta create() {
+		final FeatureModelFormula previousFormula = formula.getPreviousFormula();
+		if (previousFormula != null) {
+			final CNF previousCNF = previousFormula.getCachedElement(cnfCreator);
+			if (previousCNF != null) {
+				return new ClauseDelta(previousCNF, formula.getElement(cnfCreator));
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * super.hashCode()) + cnfCreator.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return super.equals(obj) && cnfCreator.equals(((ClauseDeltaCreator) obj).cnfCreator);
+	}
+
+}
@@ -0,0 +1,89 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import java.util.concurrent.TimeoutException;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNFBuilder;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Creates a {@link DDNNF} from the {@link CNF} of another creator (default is {@link CNFCreator}).<br> The compilation can be limited in time and canceled by
+ * a monitor. In both cases, no element is created (i.e., {@link FeatureModelFormula#getElement(ACreator)} returns {@code null}) and the next request compiles
+ * the CNF again. The time limit and the monitor are not part of the identity of this creator.
+ *
+ * @author FeatureIDE Team
+ */
+public class DDNNFCreator extends ACreator<DDNNF> {
+
+	private final ACreator<CNF> cnfCreator;
+	private final long timeout;
+	private final IMonitor<?> monitor;
+
+	public DDNNFCreator() {
+		this(new CNFCreator());
+	}
+
+	public DDNNFCreator(ACreator<CNF> cnfCreator) {
+		this(cnfCreator, 0, null);
+	}
+
+	/**
+	 * @param cnfCreator the creator of the compiled CNF
+	 * @param timeout the time limit for the compilation in milliseconds or {@code 0} for no limit
+	 * @param monitor the monitor of the caller (may be {@code null})
+	 */
+	public DDNNFCreator(ACreator<CNF> cnfCreator, long timeout, IMonitor<?> monitor) {
+		this.cnfCreator = cnfCreator;
+		this.timeout = timeout;
+		this.monitor = monitor;
+	}
+
+	@Override
+	protected DDNNF create() {
+		final DDNNFBuilder builder = new DDNNFBuilder(formula.getElement(cnfCreator));
+		builder.setTimeout(timeout);
+		try {
+			return builder.execute(monitor != null ? monitor.<DDNNF> subTask(1) : new NullMonitor<DDNNF>());
+		} catch (TimeoutException | MethodCancelException e) {
+			return null;
+		} catch (final Exception e) {
+			Logger.logError(e);
+			return null;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * super.hashCode()) + cnfCreator.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return super.equals(obj) && cnfCreator.equals(((DDNNFCreator) obj).cnfCreator);
+	}
+
+}
@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.formula;
 
+import java.lang.ref.SoftReference;
 import java.util.HashMap;
 
 import org.prop4j.Node;
@@ -58,13 +59,90 @@ public class FeatureModelFormula {
 			}
 		}
 
-		return (T) mappedFormulaElement.get();
+		return ((ACreator<T>) mappedFormulaElement).get(formulaElement);
+	}
+
+	/**
+	 * Get an element that can be derived from the associated feature model, but only if it was already computed.<br> Unlike {@link #getElement(ACreator)},
+	 * this method never computes the requested object and does not wait for its computation.
+	 *
+	 * @return the cached element or {@code null} if there is none.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getCachedElement(ACreator<T> formulaElement) {
+		final ACreator<?> mappedFormulaElement;
+		synchronized (map) {
+			mappedFormulaElement = map.get(formulaElement);
+		}
+		return mappedFormulaElement == null ? null : (T) mappedFormulaElement.getCached();
 	}
 
 	private final IFeatureModel featureModel;
 
+	private volatile SoftReference<FeatureModelFormula> previousFormula;
+
+	private volatile FormulaArtifactCache artifactCache = FormulaArtifactCache.getDefault();
+	private volatile String artifactKey;
+
 	public FeatureModelFormula(IFeatureModel featureModel) {
+		this(featureModel, null);
+	}
+
+	/**
+	 * Creates a formula for an edited version of a feature model. Creators can use the elements that were already computed for the previous formula (see
+	 * {@link #getCachedElement(ACreator)}) to update their results instead of computing them from scratch.<br> Only one previous version is kept, i.e., the
+	 * reference from the given formula to its own previous formula is removed. The previous formula is only softly referenced, such that its elements can be
+	 * reclaimed by the garbage collector if memory is low.
+	 *
+	 * @param featureModel the edited feature model
+	 * @param previousFormula the formula of the feature model before the edit (may be {@code null})
+	 */
+	public FeatureModelFormula(IFeatureModel featureModel, FeatureModelFormula previousFormula) {
 		this.featureModel = featureModel;
+		if (previousFormula != null) {
+			previousFormula.previousFormula = null;
+			this.previousFormula = new SoftReference<>(previousFormula);
+		}
+	}
+
+	/**
+	 * @return the formula of the feature model before the last edit or {@code null} if there is none or it was already reclaimed.
+	 *
+	 * @see #FeatureModelFormula(IFeatureModel, FeatureModelFormula)
+	 */
+	public FeatureModelFormula getPreviousFormula() {
+		final SoftReference<FeatureModelFormula> reference = previousFormula;
+		return reference == null ? null : reference.get();
+	}
+
+	/**
+	 * @return the cache that creators use to load and store elements or {@code null} if there is none.
+	 */
+	public FormulaArtifactCache getArtifactCache() {
+		return artifactCache;
+	}
+
+	/**
+	 * Sets the cache that creators use to load and store elements (default is {@link FormulaArtifactCache#getDefault()}).
+	 *
+	 * @param artifactCache the cache or {@code null} to disable caching
+	 */
+	public void setArtifactCache(FormulaArtifactCache artifactCache) {
+		this.artifactCache = artifactCache;
+	}
+
+	/**
+	 * @return the key of the associated feature model for the {@link #getArtifactCache() artifact cache}.
+	 *
+	 * @see FormulaArtifactCache#computeKey(IFeatureModel)
+	 */
+	public String getArtifactKey() {
+		String key = artifactKey;
+		if (key == null) {
+			key = FormulaArtifactCache.computeKey(featureModel);
+			artifactKey = key;
+		}
+		return key;
 	}
 
 	public IFeatureModel getFeatureModel() {
@@ -110,6 +188,7 @@ public class FeatureModelFormula {
 		synchronized (map) {
 			map.clear();
 		}
+		artifactKey = null;
 	}
 
 }
@@ -0,0 +1,397 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+
+/**
+ * Stores elements that were derived from a feature model (e.g., its {@link CNF}) in a directory, such that they do not need to be computed again for the same
+ * feature model.<br> <br> Elements are identified by a {@link #computeKey(IFeatureModel) key}, which is a hash value of the features and constraints of a
+ * feature model, and an {@link Artifact}, which defines the name and the binary format of an element. Each element is stored in its own file, which is read
+ * completely when it is loaded. If a file is missing or corrupted, {@link #load(String, Artifact)} returns {@code null}, the file is removed, and the element
+ * has to be computed as usual.
+ *
+ * @author FeatureIDE Team
+ *
+ * @see FeatureModelFormula#setArtifactCache(FormulaArtifactCache)
+ */
+public class FormulaArtifactCache {
+
+	/**
+	 * Defines the name and the binary format of a cached element.
+	 *
+	 * @param <T> The type of the element.
+	 */
+	public static interface Artifact<T> {
+
+		String getName();
+
+		void write(DataOutputStream out, T element) throws IOException;
+
+		T read(ByteBuffer in) throws IOException;
+
+	}
+
+	/**
+	 * Name of the system property that can be used to set the directory of the {@link #getDefault() default cache}.
+	 */
+	public static final String DIRECTORY_PROPERTY = "de.ovgu.featureide.fm.core.cache";
+
+	/**
+	 * Version of the file format and the computation of keys. Must be incremented whenever the format of an artifact or the content of an element changes.
+	 */
+	private static final int VERSION = 1;
+	private static final int MAGIC_NUMBER = 0x46494443;
+	private static final int HEADER_SIZE = 12;
+	private static final int CHECKSUM_SIZE = 8;
+
+	public static final Artifact<CNF> CNF = new Artifact<CNF>() {
+
+		@Override
+		public String getName() {
+			return "cnf";
+		}
+
+		@Override
+		public void write(DataOutputStream out, CNF cnf) throws IOException {
+			final String[] names = cnf.getVariables().getNames();
+			out.writeInt(Math.max(names.length - 1, 0));
+			for (int i = 1; i < names.length; i++) {
+				writeString(out, names[i]);
+			}
+			writeLiteralSets(out, cnf.getClauses());
+		}
+
+		@Override
+		public CNF read(ByteBuffer in) throws IOException {
+			final int numberOfVariables = in.getInt();
+			final List<String> names = new ArrayList<>(numberOfVariables);
+			for (int i = 0; i < numberOfVariables; i++) {
+				names.add(readString(in));
+			}
+			final CNF cnf = new CNF(new Variables(names));
+			cnf.addClauses(readLiteralSets(in));
+			return cnf;
+		}
+	};
+
+	public static final Artifact<LiteralSet> CORE_DEAD = new Artifact<LiteralSet>() {
+
+		@Override
+		public String getName() {
+			return "core-dead";
+		}
+
+		@Override
+		public void write(DataOutputStream out, LiteralSet literalSet) throws IOException {
+			writeLiteralSet(out, literalSet);
+		}
+
+		@Override
+		public LiteralSet read(ByteBuffer in) throws IOException {
+			return readLiteralSet(in);
+		}
+	};
+
+	public static final Artifact<List<LiteralSet>> ATOMIC_SETS = new Artifact<List<LiteralSet>>() {
+
+		@Override
+		public String getName() {
+			return "atomic-sets";
+		}
+
+		@Override
+		public void write(DataOutputStream out, List<LiteralSet> literalSets) throws IOException {
+			writeLiteralSets(out, literalSets);
+		}
+
+		@Override
+		public List<LiteralSet> read(ByteBuffer in) throws IOException {
+			return readLiteralSets(in);
+		}
+	};
+
+	private static volatile FormulaArtifactCache defaultCache;
+
+	static {
+		final String directory = System.getProperty(DIRECTORY_PROPERTY);
+		if ((directory != null) && !directory.isEmpty()) {
+			defaultCache = new FormulaArtifactCache(Paths.get(directory));
+		}
+	}
+
+	/**
+	 * @return the cache that is used by new {@link FeatureModelFormula formulas} or {@code null} if there is none (default, unless the system property
+	 *         {@value #DIRECTORY_PROPERTY} is set).
+	 */
+	public static FormulaArtifactCache getDefault() {
+		return defaultCache;
+	}
+
+	public static void setDefault(FormulaArtifactCache cache) {
+		defaultCache = cache;
+	}
+
+	private final Path directory;
+
+	public FormulaArtifactCache(Path directory) {
+		this.directory = directory;
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Computes a hash value of all features (including their order and their attributes that are relevant for analyses) and all constraints of the given
+	 * feature model.
+	 *
+	 * @param featureModel the feature model
+	 * @return a string that can be used as key for {@link #load(String, Artifact)} and {@link #store(String, Artifact, Object)}.
+	 */
+	public static String computeKey(IFeatureModel featureModel) {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+		final StringBuilder sb = new StringBuilder();
+		sb.append(VERSION).append('\n');
+		for (final IFeature feature : featureModel.getFeatures()) {
+			appendString(sb, feature.getName());
+		}
+		final IFeatureStructure root = featureModel.getStructure().getRoot();
+		if (root != null) {
+			appendStructure(sb, root);
+		}
+		sb.append('\n');
+		for (final IConstraint constraint : featureModel.getConstraints()) {
+			appendString(sb, String.valueOf(constraint.getNode()));
+		}
+		final byte[] hash = digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+		final StringBuilder key = new StringBuilder(hash.length * 2);
+		for (final byte b : hash) {
+			key.append(Character.forDigit((b >> 4) & 0xf, 16));
+			key.append(Character.forDigit(b & 0xf, 16));
+		}
+		return key.toString();
+	}
+
+	private static void appendStructure(StringBuilder sb, IFeatureStructure structure) {
+		appendString(sb, structure.getFeature().getName());
+		sb.append(structure.isAbstract() ? 'a' : '-');
+		sb.append(structure.isHidden() ? 'h' : '-');
+		sb.append(structure.isMandatory() ? 'm' : '-');
+		sb.append(structure.isAlternative() ? 'x' : structure.isOr() ? 'o' : '-');
+		final List<IFeatureStructure> children = structure.getChildren();
+		sb.append('(');
+		for (final IFeatureStructure child : children) {
+			appendStructure(sb, child);
+		}
+		sb.append(')');
+	}
+
+	private static void appendString(StringBuilder sb, String string) {
+		sb.append(string.length()).append(':').append(string);
+	}
+
+	/**
+	 * Loads an element from this cache.
+	 *
+	 * @param key the key of the feature model
+	 * @param artifact the artifact to load
+	 * @return the element or {@code null} if the element is not cached or could not be read.
+	 */
+	public <T> T load(String key, Artifact<T> artifact) {
+		final Path file = getFile(key, artifact);
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try {
+			if (Files.size(file) > Integer.MAX_VALUE) {
+				throw new IOException("Invalid file size " + Files.size(file));
+			}
+			// Not memory-mapped, as a mapped file can neither be deleted on Windows nor safely be truncated by another process while it is read
+			final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+			final int size = buffer.capacity();
+			if (size < (HEADER_SIZE + CHECKSUM_SIZE)) {
+				throw new IOException("Invalid file size " + size);
+			}
+			if ((buffer.getInt() != MAGIC_NUMBER) || (buffer.getInt() != VERSION)) {
+				throw new IOException("Invalid file header");
+			}
+			final int payloadSize = buffer.getInt();
+			if (payloadSize != (size - HEADER_SIZE - CHECKSUM_SIZE)) {
+				throw new IOException("Invalid payload size " + payloadSize);
+			}
+			final ByteBuffer payload = buffer.slice();
+			payload.limit(payloadSize);
+			final CRC32 crc = new CRC32();
+			crc.update(payload.duplicate());
+			buffer.position(HEADER_SIZE + payloadSize);
+			if (buffer.getLong() != crc.getValue()) {
+				throw new IOException("Invalid checksum");
+			}
+			final T element = artifact.read(payload);
+			if (payload.hasRemaining()) {
+				throw new IOException("Unexpected data at position " + payload.position());
+			}
+			return element;
+		} catch (IOException | RuntimeException e) {
+			Logger.logWarning("Removing corrupted cache file " + file + ": " + e.getMessage());
+			try {
+				Files.deleteIfExists(file);
+			} catch (final IOException e1) {
+				Logger.logError(e1);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Stores an element in this cache. Errors are logged, but otherwise ignored.
+	 *
+	 * @param key the key of the feature model
+	 * @param artifact the artifact to store
+	 * @param element the element
+	 */
+	public <T> void store(String key, Artifact<T> artifact, T element) {
+		final Path file = getFile(key, artifact);
+		Path tempFile = null;
+		try {
+			final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(payload)) {
+				artifact.write(out, element);
+			}
+			final byte[] payloadBytes = payload.toByteArray();
+			final CRC32 crc = new CRC32();
+			crc.update(payloadBytes);
+
+			Files.createDirectories(file.getParent());
+			tempFile = Files.createTempFile(file.getParent(), artifact.getName(), ".tmp");
+			try (OutputStream fileOut = Files.newOutputStream(tempFile); DataOutputStream out = new DataOutputStream(fileOut)) {
+				out.writeInt(MAGIC_NUMBER);
+				out.writeInt(VERSION);
+				out.writeInt(payloadBytes.length);
+				out.write(payloadBytes);
+				out.writeLong(crc.getValue());
+			}
+			try {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (final AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (final IOException e) {
+			Logger.logError(e);
+			if (tempFile != null) {
+				try {
+					Files.deleteIfExists(tempFile);
+				} catch (final IOException e1) {
+					Logger.logError(e1);
+				}
+			}
+		}
+	}
+
+	private Path getFile(String key, Artifact<?> artifact) {
+		return directory.resolve(key).resolve(artifact.getName() + ".bin");
+	}
+
+	public static void writeString(DataOutputStream out, String string) throws IOException {
+		final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	public static String readString(ByteBuffer in) {
+		final byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	public static void writeIntArray(DataOutputStream out, int[] array) throws IOException {
+		out.writeInt(array.length);
+		for (final int value : array) {
+			out.writeInt(value);
+		}
+	}
+
+	public static int[] readIntArray(ByteBuffer in) {
+		final int[] array = new int[in.getInt()];
+		in.asIntBuffer().get(array);
+		in.position(in.position() + (array.length << 2));
+		return array;
+	}
+
+	public static void writeLiteralSet(DataOutputStream out, LiteralSet literalSet) throws IOException {
+		out.writeByte(literalSet.getOrder().ordinal());
+		writeIntArray(out, literalSet.getLiterals());
+	}
+
+	public static LiteralSet readLiteralSet(ByteBuffer in) {
+		final Order order = Order.values()[in.get()];
+		return new LiteralSet(readIntArray(in), order, false);
+	}
+
+	public static void writeLiteralSets(DataOutputStream out, List<LiteralSet> literalSets) throws IOException {
+		out.writeInt(literalSets.size());
+		for (final LiteralSet literalSet : literalSets) {
+			writeLiteralSet(out, literalSet);
+		}
+	}
+
+	public static ClauseList readLiteralSets(ByteBuffer in) {
+		final int size = in.getInt();
+		final ClauseList literalSets = new ClauseList(size);
+		for (int i = 0; i < size; i++) {
+			literalSets.add(readLiteralSet(in));
+		}
+		return literalSets;
+	}
+
+}
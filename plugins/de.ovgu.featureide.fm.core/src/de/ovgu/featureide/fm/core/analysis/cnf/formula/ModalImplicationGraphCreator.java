@@ -20,12 +20,18 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.formula;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseDelta;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGBinaryFormat;
 import de.ovgu.featureide.fm.core.analysis.mig.MIGBuilder;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGUpdater;
 import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 
 /**
- * Creates a {@link ModalImplicationGraph}.
+ * Creates a {@link ModalImplicationGraph}.<br> If the graph of the {@link FeatureModelFormula#getPreviousFormula() previous formula} is available, it is reused
+ * for an unchanged formula and updated for a formula with additional clauses (see {@link MIGUpdater}). Otherwise, the graph is loaded from the
+ * {@link FeatureModelFormula#getArtifactCache() artifact cache} or built from scratch.
  *
  * @author Sebastian Krieter
  */
@@ -35,7 +41,37 @@ public class ModalImplicationGraphCreator extends ACreator<ModalImplicationGraph
 
 	@Override
 	protected ModalImplicationGraph create() {
-		return LongRunningWrapper.runMethod(new MIGBuilder(formula.getElement(new CNFCreator()), complete));
+		final CNF cnf = formula.getElement(new CNFCreator());
+		final FeatureModelFormula previousFormula = formula.getPreviousFormula();
+		if (previousFormula != null) {
+			final ModalImplicationGraph previousMig = previousFormula.getCachedElement(this);
+			if (previousMig != null) {
+				final ClauseDelta delta = formula.getElement(new ClauseDeltaCreator());
+				if (delta != null) {
+					if (delta.isEmpty()) {
+						return previousMig;
+					}
+					// Strong edges that are detected by the solver cannot be updated
+					if (!complete && delta.hasSameVariables() && delta.isAdditionOnly()
+						&& (previousMig.getAdjList().size() == (2 * cnf.getVariables().size()))) {
+						return LongRunningWrapper.runMethod(new MIGUpdater(previousMig, cnf, delta.getAddedClauses()));
+					}
+				}
+			}
+		}
+		final FormulaArtifactCache cache = formula.getArtifactCache();
+		if (cache == null) {
+			return LongRunningWrapper.runMethod(new MIGBuilder(cnf, complete));
+		}
+		final MIGBinaryFormat artifact = new MIGBinaryFormat(complete);
+		ModalImplicationGraph mig = cache.load(formula.getArtifactKey(), artifact);
+		if ((mig == null) || (mig.getAdjList().size() != (2 * cnf.getVariables().size()))) {
+			mig = LongRunningWrapper.runMethod(new MIGBuilder(cnf, complete));
+			if (mig != null) {
+				cache.store(formula.getArtifactKey(), artifact, mig);
+			}
+		}
+		return mig;
 	}
 
 	public boolean isComplete() {
@@ -46,4 +82,14 @@ public class ModalImplicationGraphCreator extends ACreator<ModalImplicationGraph
 		this.complete = complete;
 	}
 
+	@Override
+	public int hashCode() {
+		return (31 * super.hashCode()) + Boolean.hashCode(complete);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return super.equals(obj) && (complete == ((ModalImplicationGraphCreator) obj).complete);
+	}
+
 }
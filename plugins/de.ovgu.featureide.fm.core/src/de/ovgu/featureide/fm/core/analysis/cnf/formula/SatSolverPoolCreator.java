@@ -0,0 +1,60 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SatSolverPool;
+
+/**
+ * Creates a {@link SatSolverPool} for the {@link CNF} of another creator (default is {@link CNFCreator}). As the pool is cached by the formula, all users of
+ * the same formula share its solvers.
+ *
+ * @author FeatureIDE Team
+ */
+public class SatSolverPoolCreator extends ACreator<SatSolverPool> {
+
+	private final ACreator<CNF> cnfCreator;
+
+	public SatSolverPoolCreator() {
+		this(new CNFCreator());
+	}
+
+	public SatSolverPoolCreator(ACreator<CNF> cnfCreator) {
+		this.cnfCreator = cnfCreator;
+	}
+
+	@Override
+	protected SatSolverPool create() {
+		final CNF cnf = formula.getElement(cnfCreator);
+		return cnf == null ? null : new SatSolverPool(cnf);
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * super.hashCode()) + cnfCreator.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return super.equals(obj) && cnfCreator.equals(((SatSolverPoolCreator) obj).cnfCreator);
+	}
+
+}
@@ -0,0 +1,61 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseDelta;
+import de.ovgu.featureide.fm.core.analysis.cnf.SolutionPool;
+
+/**
+ * Creates a {@link SolutionPool} for the {@link CNF} of a formula (see {@link CNFCreator}) that is shared by all analyses of this CNF.<br> If the formula
+ * was changed by only removing clauses, all solutions of the pool of the {@link FeatureModelFormula#getPreviousFormula() previous formula} are still valid
+ * and are added to the new pool.
+ *
+ * @author FeatureIDE Team
+ */
+public class SolutionPoolCreator extends ACreator<SolutionPool> {
+
+	@Override
+	protected SolutionPool create() {
+		final CNF cnf = formula.getElement(new CNFCreator());
+		final FeatureModelFormula previousFormula = formula.getPreviousFormula();
+		if (previousFormula != null) {
+			final SolutionPool previousPool = previousFormula.getCachedElement(this);
+			if (previousPool != null) {
+				final ClauseDelta delta = formula.getElement(new ClauseDeltaCreator());
+				if ((delta != null) && delta.hasSameVariables()) {
+					if (delta.isEmpty()) {
+						return previousPool;
+					}
+					if (delta.isRemovalOnly()) {
+						final SolutionPool pool = new SolutionPool(cnf.getVariables().size(), previousPool.getCapacity());
+						for (final int[] solution : previousPool.getSolutions()) {
+							pool.add(solution);
+						}
+						return pool;
+					}
+				}
+			}
+		}
+		return new SolutionPool(cnf.getVariables().size());
+	}
+
+}
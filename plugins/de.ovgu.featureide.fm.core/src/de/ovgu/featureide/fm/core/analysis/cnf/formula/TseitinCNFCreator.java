@@ -0,0 +1,65 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.AuxiliaryCNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.TseitinTransformer;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
+
+/**
+ * Creates a {@link CNF} whose size is linear in the size of the feature model.<br> <br> Constraints whose conjunctive normal form would exceed
+ * {@link TseitinTransformer#DEFAULT_MAXIMUM_NUMBER_OF_CLAUSES} clauses are converted with a {@link TseitinTransformer}. If auxiliary variables are required,
+ * the result is an {@link AuxiliaryCNF}, whose variables and solutions only contain the features. Otherwise, the result has the same clauses as the CNF of the
+ * {@link CNFCreator}.<br> <br> Solvers and the analyses that are based on them consider the auxiliary variables, but only return the features. Components that
+ * work directly on the clauses (e.g., the {@link ModalImplicationGraphCreator modal implication graph} or the {@link DDNNFCreator d-DNNF}) require the CNF
+ * of the {@link CNFCreator}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TseitinCNFCreator extends ACreator<CNF> {
+
+	@Override
+	protected CNF create() {
+		final IFeatureModel featureModel = formula.getFeatureModel();
+		final Variables variables = new Variables(FeatureUtils.getFeatureNamesList(featureModel));
+
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(featureModel);
+		nodeCreator.setModelType(ModelType.OnlyStructure);
+		nodeCreator.setCnfType(CNFType.Regular);
+		nodeCreator.setIncludeBooleanValues(false);
+
+		final TseitinTransformer transformer = new TseitinTransformer(variables);
+		transformer.addClauses(Nodes.convert(variables, nodeCreator.createNodes()));
+		for (final IConstraint constraint : featureModel.getConstraints()) {
+			transformer.addFormula(constraint.getNode());
+		}
+		return transformer.createCNF();
+	}
+
+}
@@ -51,6 +51,11 @@ public class TWiseConfiguration extends LiteralSet {
 
 	protected int countLiterals, rank = 0;
 
+	/**
+	 * The id of this configuration within the {@link TWiseConfigurationIndex} of {@link #util} ({@code -1} if not indexed).
+	 */
+	protected int indexId = -1;
+
 	protected final int numberOfVariableLiterals;
 	protected final TWiseConfigurationUtil util;
 	protected Traverser traverser;
@@ -207,6 +212,9 @@ public class TWiseConfiguration extends LiteralSet {
 	private void addLiteral(int curLiteral) {
 		countLiterals++;
 		solutionLiterals.push(curLiteral);
+		if (indexId >= 0) {
+			util.getConfigurationIndex().set(indexId, curLiteral);
+		}
 		final int k = Math.abs(curLiteral) - 1;
 
 		for (int i = 0; i < solverSolutionIndex.size(); i++) {
@@ -226,6 +234,9 @@ public class TWiseConfiguration extends LiteralSet {
 				if (this.literals[i] == 0) {
 					this.literals[i] = literal;
 					countLiterals++;
+					if (indexId >= 0) {
+						util.getConfigurationIndex().set(indexId, literal);
+					}
 				}
 			}
 		}
@@ -239,6 +250,12 @@ public class TWiseConfiguration extends LiteralSet {
 			for (int i = 0, length = literals.length; i < length; i++) {
 				this.literals[Math.abs(literals[i]) - 1] = 0;
 			}
+			if (indexId >= 0) {
+				final TWiseConfigurationIndex index = util.getConfigurationIndex();
+				for (int i = 0, length = literals.length; i < length; i++) {
+					index.unset(indexId, literals[i]);
+				}
+			}
 			solutionLiterals.clear();
 			countLiterals = 0;
 
@@ -290,6 +307,9 @@ public class TWiseConfiguration extends LiteralSet {
 				}
 			}
 			countLiterals = numberOfVariableLiterals;
+			if (indexId >= 0) {
+				util.getConfigurationIndex().setAll(indexId, literals);
+			}
 		}
 	}
 
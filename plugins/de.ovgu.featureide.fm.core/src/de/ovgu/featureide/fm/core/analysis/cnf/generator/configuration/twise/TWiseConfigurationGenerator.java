@@ -25,6 +25,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
@@ -34,6 +40,7 @@ import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.ITWiseCon
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.ICoverStrategy.CombinationStatus;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator.ICombinationSupplier;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator.MergeIterator3;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator.PresenceConditionSupplier;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator.SingleIterator;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
@@ -93,6 +100,69 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		}
 	}
 
+	/**
+	 * A consecutive part of the combinations of one pass. The combined conditions are computed by worker threads.
+	 */
+	private final class CombinationBatch {
+
+		private final PresenceCondition[][] combinations = new PresenceCondition[BATCH_SIZE][];
+		private final ClauseList[] conditions = new ClauseList[BATCH_SIZE];
+		private final boolean[] covered = new boolean[BATCH_SIZE];
+		private final List<Future<?>> futures = new ArrayList<>();
+		private int size = 0;
+
+		private CombinationBatch(PresenceConditionSupplier supplier) {
+			for (; size < BATCH_SIZE; size++) {
+				final PresenceCondition[] combination = supplier.get();
+				if (combination == null) {
+					break;
+				}
+				combinations[size] = combination;
+			}
+		}
+
+		private void submit(ExecutorService executor, ThreadLocal<TWiseCombiner> combiners) {
+			final int chunkSize = ((size - 1) / numberOfThreads) + 1;
+			for (int start = 0; start < size; start += chunkSize) {
+				final int from = start;
+				final int to = Math.min(start + chunkSize, size);
+				futures.add(executor.submit(() -> combine(combiners.get(), from, to)));
+			}
+		}
+
+		private void combine(TWiseCombiner localCombiner, int from, int to) {
+			for (int i = from; i < to; i++) {
+				final ClauseList combinedCondition = new ClauseList();
+				localCombiner.combineConditions(combinations[i], combinedCondition);
+				conditions[i] = combinedCondition;
+				covered[i] = !combinedCondition.isEmpty() && util.isCoveredConcurrently(combinedCondition);
+			}
+		}
+
+		private void await(IMonitor<?> monitor) throws Exception {
+			for (final Future<?> future : futures) {
+				while (true) {
+					try {
+						future.get(100, TimeUnit.MILLISECONDS);
+						break;
+					} catch (final TimeoutException e) {
+						monitor.checkCancel();
+					} catch (final ExecutionException e) {
+						final Throwable cause = e.getCause();
+						if (cause instanceof Exception) {
+							throw (Exception) cause;
+						} else if (cause instanceof Error) {
+							throw (Error) cause;
+						}
+						throw e;
+					}
+				}
+			}
+		}
+	}
+
+	private static final int BATCH_SIZE = 1 << 10;
+
 	/**
 	 * Converts a set of single literals into a grouped expression list.
 	 *
@@ -126,6 +196,8 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 	// TODO Variation Point: Iterations of removing low-contributing Configurations
 	private int iterations = 5;
 
+	private int numberOfThreads = 1;
+
 	protected TWiseConfigurationUtil util;
 	protected TWiseCombiner combiner;
 
@@ -191,7 +263,7 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 
 		for (int i = 0; i < iterations; i++) {
 			trimConfigurations();
-			buildCombinations();
+			buildCombinations(monitor);
 		}
 
 		bestResult.forEach(configuration -> addResult(configuration.getCompleteSolution()));
@@ -216,6 +288,7 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 			int index = 0;
 			index = removeSolutions(normConfigValues, reference, index, util.getIncompleteSolutionList());
 			index = removeSolutions(normConfigValues, reference, index, util.getCompleteSolutionList());
+			util.updateConfigurationIndex();
 		}
 	}
 
@@ -229,22 +302,26 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		return index;
 	}
 
-	private void buildCombinations() {
+	private void buildCombinations(IMonitor<?> monitor) throws Exception {
 		// TODO Variation Point: Cover Strategies
 		final List<? extends ICoverStrategy> phaseList = Arrays.asList(//
 				new CoverAll(util) //
 		);
 
 		// TODO Variation Point: Combination order
-		final ICombinationSupplier<ClauseList> it;
 		presenceConditionManager.shuffleSort(getRandom());
 		final List<List<PresenceCondition>> groupedPresenceConditions = presenceConditionManager.getGroupedPresenceConditions();
-		if (groupedPresenceConditions.size() == 1) {
+		final ICombinationSupplier<ClauseList> it;
+		if (numberOfThreads > 1) {
+			it = null;
+			numberOfCombinations = new PresenceConditionSupplier(t, groupedPresenceConditions).size();
+		} else if (groupedPresenceConditions.size() == 1) {
 			it = new SingleIterator(t, util.getCnf().getVariables().size(), groupedPresenceConditions.get(0));
+			numberOfCombinations = it.size();
 		} else {
 			it = new MergeIterator3(t, util.getCnf().getVariables().size(), groupedPresenceConditions);
+			numberOfCombinations = it.size();
 		}
-		numberOfCombinations = it.size();
 
 		coveredCount = 0;
 		invalidCount = 0;
@@ -256,33 +333,17 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 			count = coveredCount;
 			phaseCount++;
 			ICoverStrategy phase = phaseList.get(0);
-			while (true) {
-				final ClauseList combinedCondition = it.get();
-				if (combinedCondition == null) {
-					break;
-				}
-				if (combinedCondition.isEmpty()) {
-					invalidCount++;
-				} else {
-					final CombinationStatus covered = phase.cover(combinedCondition);
-					switch (covered) {
-					case NOT_COVERED:
-						combinationListUncovered.add(combinedCondition);
-						break;
-					case COVERED:
-						coveredCount++;
-						combinedCondition.clear();
-						break;
-					case INVALID:
-						invalidCount++;
-						combinedCondition.clear();
-						break;
-					default:
-						combinedCondition.clear();
+			if (it == null) {
+				coverParallel(monitor, phase, groupedPresenceConditions, combinationListUncovered);
+			} else {
+				while (true) {
+					final ClauseList combinedCondition = it.get();
+					if (combinedCondition == null) {
 						break;
 					}
+					cover(phase, combinedCondition, false, combinationListUncovered);
+					count++;
 				}
-				count++;
 			}
 
 			int coveredIndex = -1;
@@ -321,6 +382,62 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		}
 	}
 
+	/**
+	 * Combines the presence conditions of each combination in parallel and skips combinations that are already covered. The combinations are covered in the
+	 * same order as in the sequential case. Each combination that is skipped would also be covered by {@link CoverAll}, thus, the result does not depend on
+	 * the number of threads.
+	 */
+	private void coverParallel(IMonitor<?> monitor, ICoverStrategy phase, List<List<PresenceCondition>> groupedPresenceConditions,
+			List<ClauseList> combinationListUncovered) throws Exception {
+		final PresenceConditionSupplier supplier = new PresenceConditionSupplier(t, groupedPresenceConditions);
+		final int numberOfVariables = util.getCnf().getVariables().size();
+		final ThreadLocal<TWiseCombiner> combiners = ThreadLocal.withInitial(() -> new TWiseCombiner(numberOfVariables));
+		final ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			util.updateSharedSolutions();
+			CombinationBatch batch = new CombinationBatch(supplier);
+			batch.submit(executor, combiners);
+			while (batch.size > 0) {
+				final CombinationBatch nextBatch = new CombinationBatch(supplier);
+				nextBatch.submit(executor, combiners);
+				batch.await(monitor);
+				for (int i = 0; i < batch.size; i++) {
+					cover(phase, batch.conditions[i], batch.covered[i], combinationListUncovered);
+					count++;
+				}
+				batch = nextBatch;
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void cover(ICoverStrategy phase, ClauseList combinedCondition, boolean covered, List<ClauseList> combinationListUncovered) {
+		if (combinedCondition.isEmpty()) {
+			invalidCount++;
+		} else if (covered) {
+			coveredCount++;
+			combinedCondition.clear();
+		} else {
+			switch (phase.cover(combinedCondition)) {
+			case NOT_COVERED:
+				combinationListUncovered.add(combinedCondition);
+				break;
+			case COVERED:
+				coveredCount++;
+				combinedCondition.clear();
+				break;
+			case INVALID:
+				invalidCount++;
+				combinedCondition.clear();
+				break;
+			default:
+				combinedCondition.clear();
+				break;
+			}
+		}
+	}
+
 	public TWiseConfigurationUtil getUtil() {
 		return util;
 	}
@@ -333,4 +450,18 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		this.iterations = iterations;
 	}
 
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that are used to build the combinations of presence conditions. Combinations are then processed in batches, which are
+	 * combined and checked for coverage in parallel. The resulting sample is the same for any number of threads.
+	 *
+	 * @param numberOfThreads the number of threads (default is {@code 1}).
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
 }
@@ -0,0 +1,206 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import java.util.Arrays;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+
+/**
+ * Indexes a list of configurations by their literals. For each literal, a bit set contains all configurations that contain this literal. Thus, the
+ * configurations that contain a certain set of literals can be computed by combining the bit sets of these literals.<br> Each configuration is identified by
+ * the index returned by {@link #add(int[])}.
+ *
+ * @author FeatureIDE Team
+ */
+class TWiseConfigurationIndex {
+
+	private final long[][] bitSets;
+	private int numberOfWords;
+	private int size = 0;
+
+	public TWiseConfigurationIndex(int numberOfVariables) {
+		this(numberOfVariables, 64);
+	}
+
+	public TWiseConfigurationIndex(int numberOfVariables, int expectedSize) {
+		bitSets = new long[numberOfVariables << 1][];
+		numberOfWords = Math.max(1, ((expectedSize - 1) >>> 6) + 1);
+		for (int i = 0; i < bitSets.length; i++) {
+			bitSets[i] = new long[numberOfWords];
+		}
+	}
+
+	public TWiseConfigurationIndex(int numberOfVariables, Iterable<? extends LiteralSet> configurations) {
+		this(numberOfVariables);
+		for (final LiteralSet configuration : configurations) {
+			add(configuration.getLiterals());
+		}
+	}
+
+	private static int getIndex(int literal) {
+		return literal > 0 ? (literal - 1) << 1 : ((-literal - 1) << 1) + 1;
+	}
+
+	/**
+	 * Adds a new configuration.
+	 *
+	 * @param literals the literals of the configuration (may contain {@code 0} for undefined variables)
+	 * @return the id of the configuration
+	 */
+	public int add(int[] literals) {
+		final int id = size++;
+		if (size > (numberOfWords << 6)) {
+			numberOfWords <<= 1;
+			for (int i = 0; i < bitSets.length; i++) {
+				bitSets[i] = Arrays.copyOf(bitSets[i], numberOfWords);
+			}
+		}
+		setAll(id, literals);
+		return id;
+	}
+
+	public void set(int id, int literal) {
+		bitSets[getIndex(literal)][id >>> 6] |= 1L << id;
+	}
+
+	public void setAll(int id, int[] literals) {
+		for (final int literal : literals) {
+			if (literal != 0) {
+				set(id, literal);
+			}
+		}
+	}
+
+	public void unset(int id, int literal) {
+		bitSets[getIndex(literal)][id >>> 6] &= ~(1L << id);
+	}
+
+	public void clear() {
+		for (final long[] bitSet : bitSets) {
+			Arrays.fill(bitSet, 0);
+		}
+		size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return {@code true} if at least one configuration contains all literals of at least one literal set of the condition.
+	 */
+	public boolean isCovered(ClauseList condition) {
+		for (final LiteralSet literals : condition) {
+			if (isCovered(literals)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return {@code true} if at least one configuration contains all given literals.
+	 */
+	public boolean isCovered(LiteralSet literals) {
+		final int[] literalArray = literals.getLiterals();
+		if (literalArray.length == 0) {
+			return size > 0;
+		}
+		final long[] first = bitSets[getIndex(literalArray[0])];
+		final int length = (size + 63) >>> 6;
+		for (int w = 0; w < length; w++) {
+			long word = first[w];
+			for (int i = 1; (i < literalArray.length) && (word != 0); i++) {
+				word &= bitSets[getIndex(literalArray[i])][w];
+			}
+			if (word != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Computes all configurations that contain all literals of at least one literal set of the condition.
+	 *
+	 * @return a new bit set containing the ids of the configurations
+	 */
+	public long[] getCoveringConfigurations(ClauseList condition) {
+		final int length = (size + 63) >>> 6;
+		final long[] result = new long[length];
+		final long[] clauseResult = new long[length];
+		for (final LiteralSet literals : condition) {
+			final int[] literalArray = literals.getLiterals();
+			if (literalArray.length == 0) {
+				return getAllConfigurations();
+			}
+			System.arraycopy(bitSets[getIndex(literalArray[0])], 0, clauseResult, 0, length);
+			for (int i = 1; i < literalArray.length; i++) {
+				and(clauseResult, clauseResult, bitSets[getIndex(literalArray[i])]);
+			}
+			for (int w = 0; w < length; w++) {
+				result[w] |= clauseResult[w];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return a new bit set containing the ids of all configurations
+	 */
+	public long[] getAllConfigurations() {
+		final long[] result = new long[(size + 63) >>> 6];
+		Arrays.fill(result, -1L);
+		if ((size & 63) != 0) {
+			result[result.length - 1] = (1L << size) - 1;
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the intersection of two bit sets and stores it in the given result array.
+	 */
+	public static void and(long[] result, long[] bitSet1, long[] bitSet2) {
+		for (int w = 0; w < result.length; w++) {
+			result[w] = bitSet1[w] & bitSet2[w];
+		}
+	}
+
+	public static boolean isEmpty(long[] bitSet) {
+		for (final long word : bitSet) {
+			if (word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public static int cardinality(long[] bitSet) {
+		int count = 0;
+		for (final long word : bitSet) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+}
@@ -25,7 +25,6 @@ import java.util.List;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
-import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.util.Pair;
 
 /**
  * Calculates statistics regarding t-wise feature coverage of a set of solutions.
@@ -106,6 +105,24 @@ public class TWiseConfigurationStatistic {
 		}
 	}
 
+	private static long[][] getCoveringConfigurations(TWiseConfigurationIndex index, List<PresenceCondition> expressions) {
+		final long[][] coveringConfigurations = new long[expressions.size()][];
+		int i = 0;
+		for (final PresenceCondition presenceCondition : expressions) {
+			coveringConfigurations[i++] = index.getCoveringConfigurations(presenceCondition);
+		}
+		return coveringConfigurations;
+	}
+
+	private long[][] initPrefixes(TWiseConfigurationIndex index, int length) {
+		final long[][] prefixes = new long[length][];
+		prefixes[0] = index.getAllConfigurations();
+		for (int i = 1; i < length; i++) {
+			prefixes[i] = new long[prefixes[0].length];
+		}
+		return prefixes;
+	}
+
 	private void completeCalc(TWiseConfigurationUtil util, List<? extends LiteralSet> configurations, List<List<PresenceCondition>> groupedPresenceConditions) {
 		configValues = new double[configurations.size()];
 		configValues2 = new double[configurations.size()];
@@ -114,24 +131,15 @@ public class TWiseConfigurationStatistic {
 		final ClauseList combinedCondition = new ClauseList();
 		final PresenceCondition[] clauseListArray = new PresenceCondition[t];
 
-		final ArrayList<List<Pair<Integer, LiteralSet>>> lists = new ArrayList<>(t);
-		{
-			for (int i = 0; i <= t; i++) {
-				lists.add(new ArrayList<Pair<Integer, LiteralSet>>());
-			}
-			final List<Pair<Integer, LiteralSet>> list = lists.get(0);
-			int confIndex = 0;
-			for (final LiteralSet configuration : configurations) {
-				list.add(new Pair<>(confIndex++, configuration));
-			}
-		}
-		final List<Pair<Integer, LiteralSet>> curConfigurationList = lists.get(t);
+		final TWiseConfigurationIndex index = new TWiseConfigurationIndex(util.getCnf().getVariables().size(), configurations);
+		final long[][] prefixes = initPrefixes(index, t + 1);
 
 		for (final List<PresenceCondition> expressions : groupedPresenceConditions) {
 			final int n = expressions.size();
 			if (n == 0) {
 				continue;
 			}
+			final long[][] coveringConfigurations = getCoveringConfigurations(index, expressions);
 			final int t2 = (n < t) ? n : t;
 			final int[] c = new int[t2 + 1];
 			c[0] = -1;
@@ -161,24 +169,12 @@ public class TWiseConfigurationStatistic {
 					c[j] = c[j - 1] + 1;
 				}
 
-				for (int j = i; j <= t2; j++) {
-					if (j > 0) {
-						final List<Pair<Integer, LiteralSet>> prevList = lists.get(j - 1);
-						final List<Pair<Integer, LiteralSet>> curList = lists.get(j);
-						curList.clear();
-						final PresenceCondition presenceCondition = expressions.get(c[j]);
-						entryLoop: for (final Pair<Integer, LiteralSet> entry : prevList) {
-							for (final LiteralSet literals : presenceCondition) {
-								if (entry.getValue().containsAll(literals)) {
-									curList.add(entry);
-									continue entryLoop;
-								}
-							}
-						}
-					}
+				for (int j = Math.max(i, 1); j <= t2; j++) {
+					TWiseConfigurationIndex.and(prefixes[j], prefixes[j - 1], coveringConfigurations[c[j]]);
 				}
 
-				final int count = curConfigurationList.size();
+				final long[] curConfigurations = prefixes[t2];
+				final int count = TWiseConfigurationIndex.cardinality(curConfigurations);
 				if (count > 0) {
 					numberOfCoveredConditions++;
 					if (countValid) {
@@ -186,10 +182,12 @@ public class TWiseConfigurationStatistic {
 					}
 					final double value = 1.0 / count;
 					final long value2 = count == 1 ? 1 : 0;
-					for (final Pair<Integer, LiteralSet> entry : curConfigurationList) {
-						final int k = entry.getKey();
-						configValues[k] += value;
-						configValues2[k] += value2;
+					for (int w = 0; w < curConfigurations.length; w++) {
+						for (long word = curConfigurations[w]; word != 0; word &= word - 1) {
+							final int k = (w << 6) + Long.numberOfTrailingZeros(word);
+							configValues[k] += value;
+							configValues2[k] += value2;
+						}
 					}
 				} else {
 					if (countValid) {
@@ -220,24 +218,15 @@ public class TWiseConfigurationStatistic {
 		final ClauseList combinedCondition = new ClauseList();
 		final PresenceCondition[] clauseListArray = new PresenceCondition[t];
 
-		final ArrayList<List<Pair<Integer, LiteralSet>>> lists = new ArrayList<>(t);
-		{
-			for (int i = 0; i <= t; i++) {
-				lists.add(new ArrayList<Pair<Integer, LiteralSet>>());
-			}
-			final List<Pair<Integer, LiteralSet>> list = lists.get(0);
-			int confIndex = 0;
-			for (final LiteralSet configuration : configurations) {
-				list.add(new Pair<>(confIndex++, configuration));
-			}
-		}
-		final List<Pair<Integer, LiteralSet>> curConfigurationList = lists.get(t);
+		final TWiseConfigurationIndex index = new TWiseConfigurationIndex(util.getCnf().getVariables().size(), configurations);
+		final long[][] prefixes = initPrefixes(index, t + 1);
 
 		for (final List<PresenceCondition> expressions : groupedPresenceConditions) {
 			final int n = expressions.size();
 			if (n == 0) {
 				continue;
 			}
+			final long[][] coveringConfigurations = getCoveringConfigurations(index, expressions);
 			final int t2 = (n < t) ? n : t;
 			final int[] c = new int[t2 + 1];
 			c[0] = -1;
@@ -267,25 +256,11 @@ public class TWiseConfigurationStatistic {
 					c[j] = c[j - 1] + 1;
 				}
 
-				for (int j = i; j <= t2; j++) {
-					if (j > 0) {
-						final List<Pair<Integer, LiteralSet>> prevList = lists.get(j - 1);
-						final List<Pair<Integer, LiteralSet>> curList = lists.get(j);
-						curList.clear();
-						final PresenceCondition presenceCondition = expressions.get(c[j]);
-						entryLoop: for (final Pair<Integer, LiteralSet> entry : prevList) {
-							for (final LiteralSet literals : presenceCondition) {
-								if (entry.getValue().containsAll(literals)) {
-									curList.add(entry);
-									continue entryLoop;
-								}
-							}
-						}
-					}
+				for (int j = Math.max(i, 1); j <= t2; j++) {
+					TWiseConfigurationIndex.and(prefixes[j], prefixes[j - 1], coveringConfigurations[c[j]]);
 				}
 
-				final int count = curConfigurationList.size();
-				if (count > 0) {
+				if (!TWiseConfigurationIndex.isEmpty(prefixes[t2])) {
 					numberOfCoveredConditions++;
 					if (countValid) {
 						numberOfValidConditions++;
@@ -314,17 +289,8 @@ public class TWiseConfigurationStatistic {
 	private void fastCalc(TWiseConfigurationUtil util, List<? extends LiteralSet> configurations, List<List<PresenceCondition>> groupedPresenceConditions) {
 		configValues2 = new double[configurations.size()];
 
-		final ArrayList<List<Pair<Integer, LiteralSet>>> lists = new ArrayList<>(t);
-		{
-			for (int i = 0; i < t; i++) {
-				lists.add(new ArrayList<Pair<Integer, LiteralSet>>(configurations.size()));
-			}
-			final List<Pair<Integer, LiteralSet>> list = lists.get(0);
-			int confIndex = 0;
-			for (final LiteralSet configuration : configurations) {
-				list.add(new Pair<>(confIndex++, configuration));
-			}
-		}
+		final TWiseConfigurationIndex index = new TWiseConfigurationIndex(util.getCnf().getVariables().size(), configurations);
+		final long[][] prefixes = initPrefixes(index, t);
 
 		for (List<PresenceCondition> expressions : groupedPresenceConditions) {
 			if (expressions.size() < t) {
@@ -338,6 +304,7 @@ public class TWiseConfigurationStatistic {
 				}
 				expressions = paddedExpressions;
 			}
+			final long[][] coveringConfigurations = getCoveringConfigurations(index, expressions);
 			final int n = expressions.size();
 			final int[] c = new int[t + 1];
 			c[0] = -1;
@@ -367,41 +334,27 @@ public class TWiseConfigurationStatistic {
 					c[j] = c[j - 1] + 1;
 				}
 
-				for (int j = i; j < t; j++) {
-					if (j > 0) {
-						final List<Pair<Integer, LiteralSet>> prevList = lists.get(j - 1);
-						final List<Pair<Integer, LiteralSet>> curList = lists.get(j);
-						curList.clear();
-						final PresenceCondition presenceCondition = expressions.get(c[j]);
-						entryLoop: for (final Pair<Integer, LiteralSet> entry : prevList) {
-							for (final LiteralSet literals : presenceCondition) {
-								if (entry.getValue().containsAll(literals)) {
-									curList.add(entry);
-									continue entryLoop;
-								}
-							}
-						}
-					}
+				for (int j = Math.max(i, 1); j < t; j++) {
+					TWiseConfigurationIndex.and(prefixes[j], prefixes[j - 1], coveringConfigurations[c[j]]);
 				}
 
-				Pair<Integer, LiteralSet> curEntry = null;
-				final PresenceCondition presenceCondition = expressions.get(c[t]);
-				entryLoop: for (final Pair<Integer, LiteralSet> entry : lists.get(t - 1)) {
-					for (final LiteralSet literals : presenceCondition) {
-						if (entry.getValue().containsAll(literals)) {
-							if (curEntry == null) {
-								numberOfCoveredConditions++;
-								curEntry = entry;
-								continue entryLoop;
-							} else {
-								continue combinationLoop;
-							}
+				final long[] prevConfigurations = prefixes[t - 1];
+				final long[] lastConfigurations = coveringConfigurations[c[t]];
+				int curEntry = -1;
+				for (int w = 0; w < prevConfigurations.length; w++) {
+					final long word = prevConfigurations[w] & lastConfigurations[w];
+					if (word != 0) {
+						if ((curEntry >= 0) || (Long.bitCount(word) > 1)) {
+							numberOfCoveredConditions++;
+							continue combinationLoop;
 						}
+						curEntry = (w << 6) + Long.numberOfTrailingZeros(word);
 					}
 				}
 
-				if (curEntry != null) {
-					configValues2[curEntry.getKey()]++;
+				if (curEntry >= 0) {
+					numberOfCoveredConditions++;
+					configValues2[curEntry]++;
 				} else {
 					numberOfUncoveredConditions++;
 				}
@@ -112,6 +112,7 @@ public class TWiseConfigurationTester {
 		final ArrayList<ClauseList> uncoveredConditions = new ArrayList<>();
 		final TWiseCombiner combiner = new TWiseCombiner(util.getCnf().getVariables().size());
 		ClauseList combinedCondition = new ClauseList();
+		final TWiseConfigurationIndex index = new TWiseConfigurationIndex(util.getCnf().getVariables().size(), sample);
 
 		groupLoop: for (final List<PresenceCondition> expressions : presenceConditionManager.getGroupedPresenceConditions()) {
 			for (final ICombinationIterator iterator = new LexicographicIterator(t, expressions); iterator.hasNext();) {
@@ -122,7 +123,7 @@ public class TWiseConfigurationTester {
 
 				combinedCondition.clear();
 				combiner.combineConditions(clauseListArray, combinedCondition);
-				if (!TWiseConfigurationUtil.isCovered(combinedCondition, sample) && util.isCombinationValid(combinedCondition)) {
+				if (!index.isCovered(combinedCondition) && util.isCombinationValid(combinedCondition)) {
 					uncoveredConditions.add(combinedCondition);
 					combinedCondition = new ClauseList();
 					if (cancelAfterFirst) {
@@ -69,6 +69,8 @@ class TWiseConfigurationUtil {
 
 	private final List<TWiseConfiguration> incompleteSolutionList = new LinkedList<>();
 	private final List<TWiseConfiguration> completeSolutionList = new ArrayList<>();
+	private volatile TWiseConfiguration[] sharedSolutions = new TWiseConfiguration[0];
+	private final TWiseConfigurationIndex configurationIndex;
 
 	protected final CNF cnf;
 	protected final ISatSolver localSolver;
@@ -81,6 +83,7 @@ class TWiseConfigurationUtil {
 	public TWiseConfigurationUtil(CNF cnf, ISatSolver localSolver) {
 		this.cnf = cnf;
 		this.localSolver = localSolver;
+		configurationIndex = new TWiseConfigurationIndex(cnf.getVariables().size());
 
 		randomSample = Collections.emptyList();
 	}
@@ -307,7 +310,60 @@ class TWiseConfigurationUtil {
 	}
 
 	public boolean isCovered(ClauseList condition) {
-		return isCovered(condition, completeSolutionList) || isCovered(condition, incompleteSolutionList);
+		return configurationIndex.isCovered(condition);
+	}
+
+	public TWiseConfigurationIndex getConfigurationIndex() {
+		return configurationIndex;
+	}
+
+	/**
+	 * Rebuilds the {@link TWiseConfigurationIndex index} of all configurations. Must be called after configurations were removed from
+	 * {@link #getIncompleteSolutionList()} or {@link #getCompleteSolutionList()}.
+	 */
+	public void updateConfigurationIndex() {
+		configurationIndex.clear();
+		for (final TWiseConfiguration configuration : completeSolutionList) {
+			configuration.indexId = configurationIndex.add(configuration.getLiterals());
+		}
+		for (final TWiseConfiguration configuration : incompleteSolutionList) {
+			configuration.indexId = configurationIndex.add(configuration.getLiterals());
+		}
+	}
+
+	/**
+	 * Checks whether the given condition is covered by one of the shared configurations. In contrast to {@link #isCovered(ClauseList)}, this method can be
+	 * called from other threads while configurations are created and modified. As configurations only gain literals until configurations are removed via
+	 * {@link #getIncompleteSolutionList()} or {@link #getCompleteSolutionList()} (after which {@link #updateSharedSolutions()} must be called), a positive
+	 * result is always valid. A negative result may be outdated.
+	 *
+	 * @param condition the condition
+	 * @return {@code true} if the condition is definitely covered, {@code false} otherwise.
+	 */
+	public boolean isCoveredConcurrently(ClauseList condition) {
+		return isCovered(condition, Arrays.asList(sharedSolutions));
+	}
+
+	/**
+	 * Publishes the current configurations for {@link #isCoveredConcurrently(ClauseList)}.
+	 */
+	public void updateSharedSolutions() {
+		final TWiseConfiguration[] solutions = new TWiseConfiguration[completeSolutionList.size() + incompleteSolutionList.size()];
+		int index = 0;
+		for (final TWiseConfiguration configuration : completeSolutionList) {
+			solutions[index++] = configuration;
+		}
+		for (final TWiseConfiguration configuration : incompleteSolutionList) {
+			solutions[index++] = configuration;
+		}
+		sharedSolutions = solutions;
+	}
+
+	private void addSharedSolution(TWiseConfiguration configuration) {
+		final TWiseConfiguration[] oldSolutions = sharedSolutions;
+		final TWiseConfiguration[] solutions = Arrays.copyOf(oldSolutions, oldSolutions.length + 1);
+		solutions[oldSolutions.length] = configuration;
+		sharedSolutions = solutions;
 	}
 
 	public boolean select(TWiseConfiguration solution, Deduce deduce, LiteralSet literals) {
@@ -377,6 +433,7 @@ class TWiseConfigurationUtil {
 	public void newConfiguration(final LiteralSet literals) {
 		if (completeSolutionList.size() < maxSampleSize) {
 			final TWiseConfiguration configuration = new TWiseConfiguration(this);
+			configuration.indexId = configurationIndex.add(configuration.getLiterals());
 			selectLiterals(configuration, Deduce.DP, literals);
 			configuration.updateSolverSolutions();
 			if (configuration.isComplete()) {
@@ -386,6 +443,7 @@ class TWiseConfigurationUtil {
 				incompleteSolutionList.add(configuration);
 				Collections.sort(incompleteSolutionList, (a, b) -> a.countLiterals() - b.countLiterals());
 			}
+			addSharedSolution(configuration);
 		}
 	}
 
@@ -0,0 +1,95 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.PresenceCondition;
+
+/**
+ * Supplies the combinations of presence conditions without combining them. Combinations are returned in the same order as by {@link SingleIterator} and
+ * {@link MergeIterator3}, i.e., one combination from each group by turns. Thus, the combined conditions can be computed independently of the order in which
+ * they are processed.
+ *
+ * @author FeatureIDE Team
+ */
+public class PresenceConditionSupplier implements ICombinationSupplier<PresenceCondition[]> {
+
+	private final List<List<PresenceCondition>> expressionSets;
+	private final List<ICombinationSupplier<int[]>> suppliers;
+	private final long numberOfCombinations;
+	private final int t;
+
+	private final List<PresenceCondition[]> buffer = new ArrayList<>();
+	private int bufferIndex = 0;
+
+	public PresenceConditionSupplier(int t, List<List<PresenceCondition>> expressionSets) {
+		this.t = t;
+		this.expressionSets = expressionSets;
+
+		suppliers = new ArrayList<>(expressionSets.size());
+		long sumNumberOfCombinations = 0;
+		for (final List<PresenceCondition> expressionSet : expressionSets) {
+			final ICombinationSupplier<int[]> supplier = new RandomPartitionSupplier(t, expressionSet.size());
+			suppliers.add(supplier);
+			sumNumberOfCombinations += supplier.size();
+		}
+		numberOfCombinations = sumNumberOfCombinations;
+	}
+
+	@Override
+	public PresenceCondition[] get() {
+		if (buffer.isEmpty()) {
+			for (int i = 0; i < suppliers.size(); i++) {
+				final ICombinationSupplier<int[]> supplier = suppliers.get(i);
+				if (supplier != null) {
+					final int[] js = supplier.get();
+					if (js != null) {
+						final List<PresenceCondition> expressionSet = expressionSets.get(i);
+						final PresenceCondition[] nextCombination = new PresenceCondition[t];
+						for (int j = 0; j < js.length; j++) {
+							nextCombination[j] = expressionSet.get(js[j]);
+						}
+						buffer.add(nextCombination);
+					} else {
+						suppliers.set(i, null);
+					}
+				}
+			}
+			if (buffer.isEmpty()) {
+				return null;
+			}
+		}
+		final PresenceCondition[] next = buffer.get(bufferIndex++);
+		if (bufferIndex == buffer.size()) {
+			buffer.clear();
+			bufferIndex = 0;
+		}
+		return next;
+	}
+
+	@Override
+	public long size() {
+		return numberOfCombinations;
+	}
+
+}
@@ -57,8 +57,8 @@ public class AdvancedSatSolver extends SimpleSatSolver implements ISatSolver {
 		super(satInstance);
 		strategy = SelectionStrategy.ORG;
 
-		assignment = new VecInt(satInstance.getVariables().size());
-		order = new int[satInstance.getVariables().size()];
+		assignment = new VecInt(satInstance.getInternalVariables().size());
+		order = new int[satInstance.getInternalVariables().size()];
 		setOrderFix();
 	}
 
@@ -127,7 +127,16 @@ public class AdvancedSatSolver extends SimpleSatSolver implements ISatSolver {
 
 	@Override
 	public int[] findSolution() {
-		return hasSolution() == SatResult.TRUE ? solver.model() : null;
+		return hasSolution() == SatResult.TRUE ? getModel() : null;
+	}
+
+	/**
+	 * @return the model of the solver without the values of auxiliary variables, which follow the regular variables (see AuxiliaryCNF)
+	 */
+	private int[] getModel() {
+		final int[] model = solver.model();
+		final int numberOfVariables = satInstance.getVariables().size();
+		return model.length > numberOfVariables ? Arrays.copyOf(model, numberOfVariables) : model;
 	}
 
 	@Override
@@ -287,7 +296,9 @@ public class AdvancedSatSolver extends SimpleSatSolver implements ISatSolver {
 			return;
 		}
 		strategy = SelectionStrategy.FIXED;
-		solver.setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(model, min), order));
+		// Variables without a value in the model (e.g., auxiliary variables) are treated as unassigned
+		final int[] fixedModel = model.length < order.length ? Arrays.copyOf(model, order.length) : model;
+		solver.setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(fixedModel, min), order));
 		solver.getOrder().init();
 	}
 
@@ -0,0 +1,1368 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.IConstr;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactCNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.base.util.RingList;
+
+/**
+ * Pure-Java CDCL solver that does not depend on the solver engine of SAT4J. It is tuned for the typical workload of feature-model analyses, which is a
+ * large number of queries with different assumptions over the same formula:
+ * <ul>
+ * <li>Clauses are stored as int arrays and the watch lists are primitive arrays of clause indices with a blocking literal.</li>
+ * <li>The decision levels of all assumptions that a query shares with the previous query are kept (assumption-level caching). Thus, a query that only
+ * changes the last assumptions of the {@link #assignmentPush(int) assignment stack} does not propagate the other assumptions again.</li>
+ * <li>Learned clauses are kept between queries. If a clause is removed, all learned clauses are removed as well.</li>
+ * </ul>
+ * This solver supports the removal of clauses (see {@link #removeLastClauses(int)}). In contrast to SAT4J, a {@link #setTimeout(int) timeout} is only checked
+ * between propagations and may therefore be exceeded slightly.<br> <br> Internally, the positive literal of a variable {@code v} is encoded as {@code 2v}
+ * and the negative literal as {@code 2v + 1}.
+ *
+ * @author FeatureIDE Team
+ */
+public class CDCLSatSolver implements ISatSolver {
+
+	/**
+	 * Handle of a clause that was added to the solver. Can be used to remove the clause.
+	 */
+	private static final class ClauseConstraint implements IConstr {
+
+		private final int[] literals;
+		private int clauseIndex;
+
+		private ClauseConstraint(int[] literals, int clauseIndex) {
+			this.literals = literals;
+			this.clauseIndex = clauseIndex;
+		}
+
+		@Override
+		public boolean learnt() {
+			return false;
+		}
+
+		@Override
+		public int size() {
+			return literals.length;
+		}
+
+		@Override
+		public int get(int i) {
+			return literals[i];
+		}
+
+		@Override
+		public double getActivity() {
+			return 0;
+		}
+
+		@Override
+		public boolean canBePropagatedMultipleTimes() {
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return Arrays.toString(literals);
+		}
+
+	}
+
+	private static final int NO_CLAUSE = -1;
+
+	private static final byte TRUE = 1;
+	private static final byte FALSE = -1;
+	private static final byte UNDEFINED = 0;
+
+	private static final int RESTART_INTERVAL = 100;
+	private static final int MIN_LEARNT_CLAUSES = 2000;
+	private static final double VARIABLE_DECAY = 1 / 0.95;
+	private static final double RESCALE_LIMIT = 1e100;
+	private static final int TIMEOUT_CHECK_MASK = 0x3FF;
+
+	protected final CNF satInstance;
+	protected final IInternalVariables internalMapping;
+	protected final boolean contradiction;
+
+	protected final VecInt assignment;
+	protected final int[] order;
+
+	protected RingList<int[]> solutionList = RingList.empytRingList();
+	protected boolean useSolutionList = false;
+	protected SelectionStrategy strategy = SelectionStrategy.ORG;
+
+	protected boolean globalTimeout = false;
+	private long timeout = 10_000;
+	private long globalDeadline = -1;
+
+	private final int numberOfVariables;
+
+	// Clause database
+	private int[][] clauses = new int[64][];
+	private boolean[] learntFlags = new boolean[64];
+	private int[] lbds = new int[64];
+	private int clauseSlots = 0;
+	private int[] freeClauses = new int[16];
+	private int numberOfFreeClauses = 0;
+	private int[] learntClauses = new int[64];
+	private int numberOfLearntClauses = 0;
+	private int numberOfOriginalClauses = 0;
+	private int learntClauseLimit = 0;
+	private final ArrayList<ClauseConstraint> constraints = new ArrayList<>();
+
+	// Watch lists, indexed by literal, containing pairs of clause index and blocking literal
+	private final int[][] watches;
+	private final int[] watchSizes;
+
+	// Current assignment
+	private final byte[] values;
+	private final int[] levels;
+	private final int[] reasons;
+	private final int[] trail;
+	private int trailSize = 0;
+	private int propagationHead = 0;
+	private int[] trailLimits = new int[16];
+	private int decisionLevel = 0;
+	private boolean ok = true;
+
+	// Decision heuristic
+	private final double[] activity;
+	private double activityIncrement = 1;
+	private final int[] heap;
+	private final int[] heapIndices;
+	private int heapSize = 0;
+	private final int[] phases;
+	private int[] fixedModel = null;
+	private boolean fixedModelMin = false;
+	private UniformRandomSelectionStrategy uniformRandomStrategy = null;
+	private final Random random = new Random(123456789);
+
+	// Conflict analysis
+	private final boolean[] seen;
+	private int[] levelStamps;
+	private int levelStamp = 0;
+	private int[] learntBuffer;
+	private int[] analyzeBuffer;
+
+	// Assumptions
+	private int[] assumptions = new int[0];
+	private int numberOfAssumptions = 0;
+	private int[] previousAssumptions = new int[0];
+	private int numberOfPreviousAssumptions = 0;
+	private int[] contradictoryAssumptions = new int[0];
+	private int[] model = null;
+
+	private long conflicts = 0;
+	private long decisions = 0;
+	private long propagations = 0;
+
+	public CDCLSatSolver(CNF satInstance) {
+		this.satInstance = satInstance;
+		internalMapping = satInstance.getInternalVariables();
+		numberOfVariables = internalMapping.size();
+
+		final int numberOfLiterals = (numberOfVariables + 1) << 1;
+		watches = new int[numberOfLiterals][];
+		watchSizes = new int[numberOfLiterals];
+		values = new byte[numberOfLiterals];
+		levels = new int[numberOfVariables + 1];
+		reasons = new int[numberOfVariables + 1];
+		trail = new int[numberOfVariables + 1];
+		activity = new double[numberOfVariables + 1];
+		heap = new int[numberOfVariables + 1];
+		heapIndices = new int[numberOfVariables + 1];
+		phases = new int[numberOfVariables + 1];
+		seen = new boolean[numberOfVariables + 1];
+		levelStamps = new int[numberOfVariables + 2];
+		learntBuffer = new int[numberOfVariables + 1];
+		analyzeBuffer = new int[numberOfVariables + 1];
+		Arrays.fill(reasons, NO_CLAUSE);
+		Arrays.fill(heapIndices, -1);
+		for (int var = 1; var <= numberOfVariables; var++) {
+			phases[var] = negativeLiteral(var);
+		}
+
+		assignment = new VecInt(numberOfVariables);
+		order = new int[numberOfVariables];
+		setOrderFix();
+		initHeuristic();
+
+		boolean contradictionException = false;
+		try {
+			addClauses(satInstance);
+		} catch (final RuntimeContradictionException e) {
+			contradictionException = true;
+		}
+		contradiction = contradictionException;
+	}
+
+	/**
+	 * Copy constructor. Creates a new solver that contains the clauses of the {@link CNF} (but not clauses that were added to the given solver). The
+	 * assignment, order, and selection strategy are copied.
+	 */
+	protected CDCLSatSolver(CDCLSatSolver oldSolver) {
+		this(oldSolver.satInstance);
+		oldSolver.assignment.copyTo(assignment);
+		System.arraycopy(oldSolver.order, 0, order, 0, order.length);
+		timeout = oldSolver.timeout;
+		globalTimeout = oldSolver.globalTimeout;
+		if (oldSolver.strategy == SelectionStrategy.FIXED) {
+			setSelectionStrategy(oldSolver.fixedModel, oldSolver.fixedModelMin);
+		} else if (oldSolver.strategy != SelectionStrategy.UNIFORM_RANDOM) {
+			strategy = oldSolver.strategy;
+			initHeuristic();
+		} else {
+			initHeuristic();
+		}
+	}
+
+	private void addClauses(CNF cnf) {
+		if (cnf instanceof CompactCNF) {
+			final CompactCNF compactCNF = (CompactCNF) cnf;
+			final int[] literals = compactCNF.getLiteralArray();
+			for (int i = 0; i < compactCNF.getNumberOfClauses(); i++) {
+				final int start = compactCNF.getClauseStart(i);
+				final int[] clause = new int[compactCNF.getClauseLength(i)];
+				for (int j = 0; j < clause.length; j++) {
+					clause[j] = internalMapping.convertToInternal(literals[start + j]);
+				}
+				addClause(clause);
+			}
+		} else {
+			for (final LiteralSet clause : cnf.getClauses()) {
+				addClause(internalMapping.convertToInternal(clause.getLiterals()));
+			}
+		}
+	}
+
+	private static int toLiteral(int dimacsLiteral) {
+		return dimacsLiteral > 0 ? dimacsLiteral << 1 : ((-dimacsLiteral) << 1) | 1;
+	}
+
+	private static int toDimacs(int literal) {
+		return (literal & 1) == 0 ? literal >> 1 : -(literal >> 1);
+	}
+
+	private static int negativeLiteral(int var) {
+		return (var << 1) | 1;
+	}
+
+	// ------------------------------------------------------------------------
+	// Clause database
+
+	/**
+	 * Adds a clause of internal literals.
+	 */
+	protected IConstr addClause(int[] dimacsLiterals) throws RuntimeContradictionException {
+		if ((dimacsLiterals.length == 1) && (dimacsLiterals[0] == 0)) {
+			throw new RuntimeContradictionException();
+		}
+		cancelUntil(0);
+
+		// Remove duplicate literals and detect tautologies
+		int[] literals = new int[dimacsLiterals.length];
+		int size = 0;
+		boolean tautology = false;
+		for (final int dimacsLiteral : dimacsLiterals) {
+			final int literal = toLiteral(dimacsLiteral);
+			final int var = literal >> 1;
+			if (seen[var]) {
+				for (int i = 0; i < size; i++) {
+					if (literals[i] == (literal ^ 1)) {
+						tautology = true;
+					}
+				}
+			} else {
+				seen[var] = true;
+				literals[size++] = literal;
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			seen[literals[i] >> 1] = false;
+		}
+		final ClauseConstraint constraint = new ClauseConstraint(Arrays.copyOf(dimacsLiterals, dimacsLiterals.length), NO_CLAUSE);
+		if (tautology) {
+			constraints.add(constraint);
+			return constraint;
+		}
+		literals = Arrays.copyOf(literals, size);
+
+		// Move literals that are not false to the front
+		int notFalse = 0;
+		for (int i = 0; i < literals.length; i++) {
+			if (values[literals[i]] != FALSE) {
+				final int literal = literals[i];
+				literals[i] = literals[notFalse];
+				literals[notFalse++] = literal;
+			}
+		}
+		if (notFalse == 0) {
+			throw new RuntimeContradictionException();
+		}
+
+		constraint.clauseIndex = storeClause(literals, false, 0);
+		constraints.add(constraint);
+		numberOfOriginalClauses++;
+		if (literals.length > 1) {
+			attachClause(constraint.clauseIndex);
+		}
+		if ((notFalse == 1) && (values[literals[0]] == UNDEFINED)) {
+			enqueue(literals[0], constraint.clauseIndex);
+			if (propagate() != NO_CLAUSE) {
+				ok = false;
+			}
+		}
+		return constraint;
+	}
+
+	private int storeClause(int[] literals, boolean learnt, int lbd) {
+		final int clauseIndex;
+		if (numberOfFreeClauses > 0) {
+			clauseIndex = freeClauses[--numberOfFreeClauses];
+		} else {
+			if (clauseSlots == clauses.length) {
+				final int newLength = clauses.length << 1;
+				clauses = Arrays.copyOf(clauses, newLength);
+				learntFlags = Arrays.copyOf(learntFlags, newLength);
+				lbds = Arrays.copyOf(lbds, newLength);
+			}
+			clauseIndex = clauseSlots++;
+		}
+		clauses[clauseIndex] = literals;
+		learntFlags[clauseIndex] = learnt;
+		lbds[clauseIndex] = lbd;
+		if (learnt) {
+			if (numberOfLearntClauses == learntClauses.length) {
+				learntClauses = Arrays.copyOf(learntClauses, numberOfLearntClauses << 1);
+			}
+			learntClauses[numberOfLearntClauses++] = clauseIndex;
+		}
+		return clauseIndex;
+	}
+
+	private void attachClause(int clauseIndex) {
+		final int[] clause = clauses[clauseIndex];
+		addWatch(clause[0] ^ 1, clauseIndex, clause[1]);
+		addWatch(clause[1] ^ 1, clauseIndex, clause[0]);
+	}
+
+	private void addWatch(int literal, int clauseIndex, int blocker) {
+		int[] watchList = watches[literal];
+		final int size = watchSizes[literal];
+		if (watchList == null) {
+			watchList = new int[8];
+			watches[literal] = watchList;
+		} else if ((size + 2) > watchList.length) {
+			watchList = Arrays.copyOf(watchList, watchList.length << 1);
+			watches[literal] = watchList;
+		}
+		watchList[size] = clauseIndex;
+		watchList[size + 1] = blocker;
+		watchSizes[literal] = size + 2;
+	}
+
+	private void removeWatch(int literal, int clauseIndex) {
+		final int[] watchList = watches[literal];
+		final int size = watchSizes[literal];
+		for (int i = 0; i < size; i += 2) {
+			if (watchList[i] == clauseIndex) {
+				System.arraycopy(watchList, i + 2, watchList, i, size - i - 2);
+				watchSizes[literal] = size - 2;
+				return;
+			}
+		}
+	}
+
+	private void freeClause(int clauseIndex) {
+		clauses[clauseIndex] = null;
+		if (numberOfFreeClauses == freeClauses.length) {
+			freeClauses = Arrays.copyOf(freeClauses, numberOfFreeClauses << 1);
+		}
+		freeClauses[numberOfFreeClauses++] = clauseIndex;
+	}
+
+	/**
+	 * Removes all clauses that were marked as deleted (i.e., set to {@code null}) from the watch lists.
+	 */
+	private void purgeWatches() {
+		for (int literal = 2; literal < watches.length; literal++) {
+			final int[] watchList = watches[literal];
+			if (watchList != null) {
+				final int size = watchSizes[literal];
+				int j = 0;
+				for (int i = 0; i < size; i += 2) {
+					if (clauses[watchList[i]] != null) {
+						watchList[j++] = watchList[i];
+						watchList[j++] = watchList[i + 1];
+					}
+				}
+				watchSizes[literal] = j;
+			}
+		}
+	}
+
+	private boolean isLocked(int clauseIndex) {
+		final int literal = clauses[clauseIndex][0];
+		return (values[literal] == TRUE) && (reasons[literal >> 1] == clauseIndex);
+	}
+
+	/**
+	 * Removes the half of the learned clauses with the highest literal block distance.
+	 */
+	private void reduceLearntClauses() {
+		final long[] keys = new long[numberOfLearntClauses];
+		for (int i = 0; i < numberOfLearntClauses; i++) {
+			final int clauseIndex = learntClauses[i];
+			keys[i] = ((long) lbds[clauseIndex] << 32) | clauseIndex;
+		}
+		Arrays.sort(keys);
+		final int limit = numberOfLearntClauses >> 1;
+		int removed = 0;
+		for (int i = keys.length - 1; (i >= 0) && (removed < limit); i--) {
+			final int clauseIndex = (int) keys[i];
+			if ((lbds[clauseIndex] > 2) && !isLocked(clauseIndex)) {
+				clauses[clauseIndex] = null;
+				removed++;
+			}
+		}
+		purgeWatches();
+		int j = 0;
+		for (int i = 0; i < numberOfLearntClauses; i++) {
+			final int clauseIndex = learntClauses[i];
+			if (clauses[clauseIndex] == null) {
+				freeClause(clauseIndex);
+			} else {
+				learntClauses[j++] = clauseIndex;
+			}
+		}
+		numberOfLearntClauses = j;
+	}
+
+	/**
+	 * Removes the given original clauses and all learned clauses. Afterwards, the assignment of decision level zero is computed again, as it may depend on the
+	 * removed clauses.
+	 */
+	private void removeConstraints(List<ClauseConstraint> removedConstraints) {
+		cancelUntil(0);
+		for (final ClauseConstraint constraint : removedConstraints) {
+			final int clauseIndex = constraint.clauseIndex;
+			if (clauseIndex != NO_CLAUSE) {
+				final int[] clause = clauses[clauseIndex];
+				if (clause.length > 1) {
+					removeWatch(clause[0] ^ 1, clauseIndex);
+					removeWatch(clause[1] ^ 1, clauseIndex);
+				}
+				freeClause(clauseIndex);
+				numberOfOriginalClauses--;
+				constraint.clauseIndex = NO_CLAUSE;
+			}
+		}
+		if (numberOfLearntClauses > 0) {
+			for (int i = 0; i < numberOfLearntClauses; i++) {
+				clauses[learntClauses[i]] = null;
+			}
+			purgeWatches();
+			for (int i = 0; i < numberOfLearntClauses; i++) {
+				freeClause(learntClauses[i]);
+			}
+			numberOfLearntClauses = 0;
+		}
+		resetLevelZero();
+	}
+
+	private void resetLevelZero() {
+		for (int i = trailSize - 1; i >= 0; i--) {
+			unassign(trail[i]);
+		}
+		trailSize = 0;
+		propagationHead = 0;
+		numberOfPreviousAssumptions = 0;
+		ok = true;
+		for (final ClauseConstraint constraint : constraints) {
+			if (constraint.clauseIndex != NO_CLAUSE) {
+				final int[] clause = clauses[constraint.clauseIndex];
+				if (clause.length == 1) {
+					if (values[clause[0]] == FALSE) {
+						ok = false;
+					} else if (values[clause[0]] == UNDEFINED) {
+						enqueue(clause[0], constraint.clauseIndex);
+					}
+				}
+			}
+		}
+		if (ok && (propagate() != NO_CLAUSE)) {
+			ok = false;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+	// Assignment and propagation
+
+	private void enqueue(int literal, int reason) {
+		final int var = literal >> 1;
+		values[literal] = TRUE;
+		values[literal ^ 1] = FALSE;
+		levels[var] = decisionLevel;
+		reasons[var] = reason;
+		trail[trailSize++] = literal;
+		switch (strategy) {
+		case ORG:
+			phases[var] = literal;
+			break;
+		case FIXED:
+			if (fixedModel[var - 1] == 0) {
+				phases[var] = literal;
+			}
+			break;
+		case UNIFORM_RANDOM:
+			uniformRandomStrategy.assignLiteral(literal);
+			break;
+		default:
+			break;
+		}
+	}
+
+	private void unassign(int literal) {
+		final int var = literal >> 1;
+		values[literal] = UNDEFINED;
+		values[literal ^ 1] = UNDEFINED;
+		reasons[var] = NO_CLAUSE;
+		if (strategy == SelectionStrategy.UNIFORM_RANDOM) {
+			uniformRandomStrategy.undo(var);
+		}
+		if (heapIndices[var] < 0) {
+			heapInsert(var);
+		}
+	}
+
+	private void newDecisionLevel() {
+		if (decisionLevel == trailLimits.length) {
+			trailLimits = Arrays.copyOf(trailLimits, decisionLevel << 1);
+		}
+		trailLimits[decisionLevel++] = trailSize;
+	}
+
+	private void cancelUntil(int level) {
+		if (decisionLevel > level) {
+			final int limit = trailLimits[level];
+			for (int i = trailSize - 1; i >= limit; i--) {
+				unassign(trail[i]);
+			}
+			trailSize = limit;
+			propagationHead = limit;
+			decisionLevel = level;
+		}
+	}
+
+	/**
+	 * Propagates all enqueued literals.
+	 *
+	 * @return the index of a conflicting clause or {@link #NO_CLAUSE}
+	 */
+	private int propagate() {
+		while (propagationHead < trailSize) {
+			final int literal = trail[propagationHead++];
+			final int falseLiteral = literal ^ 1;
+			final int[] watchList = watches[literal];
+			if (watchList == null) {
+				continue;
+			}
+			propagations++;
+			final int size = watchSizes[literal];
+			int i = 0;
+			int j = 0;
+			while (i < size) {
+				final int clauseIndex = watchList[i];
+				final int blocker = watchList[i + 1];
+				i += 2;
+				if (values[blocker] == TRUE) {
+					watchList[j++] = clauseIndex;
+					watchList[j++] = blocker;
+					continue;
+				}
+				final int[] clause = clauses[clauseIndex];
+				if (clause[0] == falseLiteral) {
+					clause[0] = clause[1];
+					clause[1] = falseLiteral;
+				}
+				final int first = clause[0];
+				if ((first != blocker) && (values[first] == TRUE)) {
+					watchList[j++] = clauseIndex;
+					watchList[j++] = first;
+					continue;
+				}
+				boolean foundWatch = false;
+				for (int k = 2; k < clause.length; k++) {
+					final int other = clause[k];
+					if (values[other] != FALSE) {
+						clause[1] = other;
+						clause[k] = falseLiteral;
+						addWatch(other ^ 1, clauseIndex, first);
+						foundWatch = true;
+						break;
+					}
+				}
+				if (!foundWatch) {
+					watchList[j++] = clauseIndex;
+					watchList[j++] = first;
+					if (values[first] == FALSE) {
+						while (i < size) {
+							watchList[j++] = watchList[i++];
+						}
+						watchSizes[literal] = j;
+						propagationHead = trailSize;
+						return clauseIndex;
+					}
+					enqueue(first, clauseIndex);
+				}
+			}
+			watchSizes[literal] = j;
+		}
+		return NO_CLAUSE;
+	}
+
+	// ------------------------------------------------------------------------
+	// Conflict analysis
+
+	/**
+	 * Computes a learned clause from a conflict (first unique implication point) and stores it in {@link #learntBuffer}.
+	 *
+	 * @return the size of the learned clause
+	 */
+	private int analyze(int conflictClause) {
+		int learntSize = 1;
+		int pathCount = 0;
+		int literal = -1;
+		int index = trailSize - 1;
+		int clauseIndex = conflictClause;
+		do {
+			final int[] clause = clauses[clauseIndex];
+			for (int k = (literal == -1) ? 0 : 1; k < clause.length; k++) {
+				final int other = clause[k];
+				final int var = other >> 1;
+				if (!seen[var] && (levels[var] > 0)) {
+					bumpVariable(var);
+					seen[var] = true;
+					if (levels[var] >= decisionLevel) {
+						pathCount++;
+					} else {
+						learntBuffer[learntSize++] = other;
+					}
+				}
+			}
+			while (!seen[trail[index] >> 1]) {
+				index--;
+			}
+			literal = trail[index--];
+			clauseIndex = reasons[literal >> 1];
+			seen[literal >> 1] = false;
+			pathCount--;
+		} while (pathCount > 0);
+		learntBuffer[0] = literal ^ 1;
+
+		// Remove literals that are implied by other literals of the learned clause
+		System.arraycopy(learntBuffer, 1, analyzeBuffer, 0, learntSize - 1);
+		final int originalSize = learntSize;
+		int j = 1;
+		for (int i = 1; i < learntSize; i++) {
+			final int reason = reasons[learntBuffer[i] >> 1];
+			if ((reason == NO_CLAUSE) || !isRedundant(reason)) {
+				learntBuffer[j++] = learntBuffer[i];
+			}
+		}
+		learntSize = j;
+		for (int i = 0; i < (originalSize - 1); i++) {
+			seen[analyzeBuffer[i] >> 1] = false;
+		}
+		return learntSize;
+	}
+
+	private boolean isRedundant(int reason) {
+		final int[] clause = clauses[reason];
+		for (int k = 1; k < clause.length; k++) {
+			final int var = clause[k] >> 1;
+			if (!seen[var] && (levels[var] > 0)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int computeLBD(int size) {
+		levelStamp++;
+		int lbd = 0;
+		for (int i = 0; i < size; i++) {
+			final int level = levels[learntBuffer[i] >> 1];
+			if (level >= levelStamps.length) {
+				levelStamps = Arrays.copyOf(levelStamps, Math.max(level + 1, levelStamps.length << 1));
+			}
+			if (levelStamps[level] != levelStamp) {
+				levelStamps[level] = levelStamp;
+				lbd++;
+			}
+		}
+		return lbd;
+	}
+
+	/**
+	 * Computes the assumptions that imply the negation of the given assumption and stores them in {@link #contradictoryAssumptions}.
+	 */
+	private void analyzeFinal(int falseAssumption) {
+		final VecInt result = new VecInt();
+		result.push(toDimacs(falseAssumption));
+		final int falseVar = falseAssumption >> 1;
+		if ((decisionLevel > 0) && (levels[falseVar] > 0)) {
+			seen[falseVar] = true;
+			for (int i = trailSize - 1; i >= trailLimits[0]; i--) {
+				final int var = trail[i] >> 1;
+				if (seen[var]) {
+					final int reason = reasons[var];
+					if (reason == NO_CLAUSE) {
+						result.push(toDimacs(trail[i]));
+					} else {
+						final int[] clause = clauses[reason];
+						for (int k = 1; k < clause.length; k++) {
+							final int other = clause[k] >> 1;
+							if (levels[other] > 0) {
+								seen[other] = true;
+							}
+						}
+					}
+					seen[var] = false;
+				}
+			}
+			seen[falseVar] = false;
+		}
+		contradictoryAssumptions = Arrays.copyOf(result.toArray(), result.size());
+	}
+
+	// ------------------------------------------------------------------------
+	// Decision heuristic
+
+	private void initHeuristic() {
+		activityIncrement = 1;
+		for (int i = 0; i < order.length; i++) {
+			// Decreasing initial activity, such that the order is used to break ties
+			activity[order[i]] = (1e-3 * (order.length - i)) / order.length;
+		}
+		heapSize = 0;
+		Arrays.fill(heapIndices, -1);
+		for (int i = 0; i < order.length; i++) {
+			heapInsert(order[i]);
+		}
+		if (strategy == SelectionStrategy.FIXED) {
+			for (int var = 1; var <= numberOfVariables; var++) {
+				final int value = fixedModel[var - 1];
+				phases[var] = (value > 0) || (fixedModelMin && (value == 0)) ? negativeLiteral(var) : var << 1;
+			}
+		}
+	}
+
+	private void bumpVariable(int var) {
+		activity[var] += activityIncrement;
+		if (activity[var] > RESCALE_LIMIT) {
+			for (int i = 1; i <= numberOfVariables; i++) {
+				activity[i] *= 1 / RESCALE_LIMIT;
+			}
+			activityIncrement *= 1 / RESCALE_LIMIT;
+		}
+		final int position = heapIndices[var];
+		if (position >= 0) {
+			heapUp(position);
+		}
+	}
+
+	private int pickBranchLiteral() {
+		while (heapSize > 0) {
+			final int var = heapRemoveMax();
+			if (values[var << 1] == UNDEFINED) {
+				switch (strategy) {
+				case POSITIVE:
+					return var << 1;
+				case NEGATIVE:
+					return negativeLiteral(var);
+				case RANDOM:
+					return random.nextBoolean() ? var << 1 : negativeLiteral(var);
+				case UNIFORM_RANDOM:
+					return uniformRandomStrategy.select(var);
+				case ORG:
+				case FIXED:
+				default:
+					return phases[var];
+				}
+			}
+		}
+		return -1;
+	}
+
+	private void heapInsert(int var) {
+		heapIndices[var] = heapSize;
+		heap[heapSize++] = var;
+		heapUp(heapSize - 1);
+	}
+
+	private int heapRemoveMax() {
+		final int var = heap[0];
+		heapIndices[var] = -1;
+		heapSize--;
+		if (heapSize > 0) {
+			final int last = heap[heapSize];
+			heap[0] = last;
+			heapIndices[last] = 0;
+			heapDown(0);
+		}
+		return var;
+	}
+
+	private void heapUp(int position) {
+		final int var = heap[position];
+		final double varActivity = activity[var];
+		while (position > 0) {
+			final int parentPosition = (position - 1) >> 1;
+			final int parent = heap[parentPosition];
+			if (activity[parent] >= varActivity) {
+				break;
+			}
+			heap[position] = parent;
+			heapIndices[parent] = position;
+			position = parentPosition;
+		}
+		heap[position] = var;
+		heapIndices[var] = position;
+	}
+
+	private void heapDown(int position) {
+		final int var = heap[position];
+		final double varActivity = activity[var];
+		while (true) {
+			int child = (position << 1) + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			if (((child + 1) < heapSize) && (activity[heap[child + 1]] > activity[heap[child]])) {
+				child++;
+			}
+			if (activity[heap[child]] <= varActivity) {
+				break;
+			}
+			heap[position] = heap[child];
+			heapIndices[heap[position]] = position;
+			position = child;
+		}
+		heap[position] = var;
+		heapIndices[var] = position;
+	}
+
+	private static int luby(int i) {
+		int size = 1;
+		int sequence = 0;
+		while (size < (i + 1)) {
+			sequence++;
+			size = (2 * size) + 1;
+		}
+		int x = i;
+		while ((size - 1) != x) {
+			size = (size - 1) >> 1;
+			sequence--;
+			x = x % size;
+		}
+		return 1 << sequence;
+	}
+
+	// ------------------------------------------------------------------------
+	// Search
+
+	private SatResult solve(int[] dimacsAssumptions, int size) {
+		contradictoryAssumptions = new int[0];
+		if (contradiction || !ok) {
+			return SatResult.FALSE;
+		}
+		if (assumptions.length < size) {
+			assumptions = new int[size];
+		}
+		for (int i = 0; i < size; i++) {
+			assumptions[i] = toLiteral(dimacsAssumptions[i]);
+		}
+		numberOfAssumptions = size;
+
+		// Keep the decision levels of assumptions that are equal to the previous query
+		int sharedLevels = 0;
+		final int maxSharedLevels = Math.min(Math.min(numberOfAssumptions, numberOfPreviousAssumptions), decisionLevel);
+		while ((sharedLevels < maxSharedLevels) && (assumptions[sharedLevels] == previousAssumptions[sharedLevels])) {
+			sharedLevels++;
+		}
+		cancelUntil(sharedLevels);
+		if (previousAssumptions.length < size) {
+			previousAssumptions = new int[size];
+		}
+		System.arraycopy(assumptions, 0, previousAssumptions, 0, size);
+		numberOfPreviousAssumptions = size;
+
+		final long deadline = getDeadline();
+		int restarts = 0;
+		int conflictsUntilRestart = luby(restarts) * RESTART_INTERVAL;
+		if (learntClauseLimit == 0) {
+			learntClauseLimit = Math.max(numberOfOriginalClauses / 3, MIN_LEARNT_CLAUSES);
+		}
+		int steps = 0;
+
+		while (true) {
+			final int conflictClause = propagate();
+			if (conflictClause != NO_CLAUSE) {
+				conflicts++;
+				if (decisionLevel == 0) {
+					ok = false;
+					return SatResult.FALSE;
+				}
+				final int learntSize = analyze(conflictClause);
+				int backtrackLevel = 0;
+				if (learntSize > 1) {
+					int maxIndex = 1;
+					for (int i = 2; i < learntSize; i++) {
+						if (levels[learntBuffer[i] >> 1] > levels[learntBuffer[maxIndex] >> 1]) {
+							maxIndex = i;
+						}
+					}
+					final int literal = learntBuffer[maxIndex];
+					learntBuffer[maxIndex] = learntBuffer[1];
+					learntBuffer[1] = literal;
+					backtrackLevel = levels[literal >> 1];
+				}
+				cancelUntil(backtrackLevel);
+				if (learntSize == 1) {
+					enqueue(learntBuffer[0], NO_CLAUSE);
+				} else {
+					final int clauseIndex = storeClause(Arrays.copyOf(learntBuffer, learntSize), true, computeLBD(learntSize));
+					attachClause(clauseIndex);
+					enqueue(learntBuffer[0], clauseIndex);
+				}
+				activityIncrement *= VARIABLE_DECAY;
+				conflictsUntilRestart--;
+			} else {
+				if (((++steps & TIMEOUT_CHECK_MASK) == 0) && (System.currentTimeMillis() > deadline)) {
+					return SatResult.TIMEOUT;
+				}
+				if (conflictsUntilRestart <= 0) {
+					conflictsUntilRestart = luby(++restarts) * RESTART_INTERVAL;
+					// Assumptions are decided first, so their decision levels can be kept
+					cancelUntil(Math.min(decisionLevel, numberOfAssumptions));
+				}
+				if ((numberOfLearntClauses - trailSize) >= learntClauseLimit) {
+					reduceLearntClauses();
+					learntClauseLimit += learntClauseLimit / 10;
+				}
+
+				int next = -1;
+				while (decisionLevel < numberOfAssumptions) {
+					final int assumption = assumptions[decisionLevel];
+					final byte value = values[assumption];
+					if (value == TRUE) {
+						newDecisionLevel();
+					} else if (value == FALSE) {
+						analyzeFinal(assumption);
+						return SatResult.FALSE;
+					} else {
+						next = assumption;
+						break;
+					}
+				}
+				if (next == -1) {
+					decisions++;
+					next = pickBranchLiteral();
+					if (next == -1) {
+						saveModel();
+						return SatResult.TRUE;
+					}
+				}
+				newDecisionLevel();
+				enqueue(next, NO_CLAUSE);
+			}
+		}
+	}
+
+	private long getDeadline() {
+		final long now = System.currentTimeMillis();
+		if (globalTimeout) {
+			if (globalDeadline < 0) {
+				globalDeadline = now + timeout;
+			}
+			return globalDeadline;
+		}
+		return now + timeout;
+	}
+
+	private void saveModel() {
+		final int[] newModel = new int[numberOfVariables];
+		for (int var = 1; var <= numberOfVariables; var++) {
+			newModel[var - 1] = values[var << 1] == TRUE ? var : -var;
+		}
+		model = newModel;
+		if (useSolutionList) {
+			solutionList.add(Arrays.copyOf(newModel, newModel.length));
+		}
+	}
+
+	// ------------------------------------------------------------------------
+	// ISatSolver
+
+	@Override
+	public IConstr addClause(LiteralSet mainClause) throws RuntimeContradictionException {
+		return addClause(internalMapping.convertToInternal(mainClause.getLiterals()));
+	}
+
+	@Override
+	public IConstr addInternalClause(LiteralSet mainClause) throws RuntimeContradictionException {
+		return addClause(mainClause.getLiterals());
+	}
+
+	@Override
+	public List<IConstr> addClauses(Iterable<? extends LiteralSet> clauses) throws RuntimeContradictionException {
+		return addClauses(clauses, false);
+	}
+
+	@Override
+	public List<IConstr> addInternalClauses(Iterable<? extends LiteralSet> clauses) throws RuntimeContradictionException {
+		return addClauses(clauses, true);
+	}
+
+	private List<IConstr> addClauses(Iterable<? extends LiteralSet> clauses, boolean internal) throws RuntimeContradictionException {
+		final ArrayList<IConstr> newConstraints = new ArrayList<>();
+		try {
+			for (final LiteralSet clause : clauses) {
+				newConstraints.add(addClause(internal ? clause.getLiterals() : internalMapping.convertToInternal(clause.getLiterals())));
+			}
+		} catch (final RuntimeContradictionException e) {
+			removeLastClauses(newConstraints.size());
+			throw e;
+		}
+		return newConstraints;
+	}
+
+	@Override
+	public void removeClause(IConstr constr) {
+		if ((constr instanceof ClauseConstraint) && constraints.remove(constr)) {
+			removeConstraints(Arrays.asList((ClauseConstraint) constr));
+		}
+	}
+
+	@Override
+	public void removeLastClause() {
+		removeLastClauses(1);
+	}
+
+	@Override
+	public void removeLastClauses(int numberOfClauses) {
+		if (numberOfClauses > 0) {
+			final List<ClauseConstraint> lastConstraints = constraints.subList(constraints.size() - numberOfClauses, constraints.size());
+			final List<ClauseConstraint> removedConstraints = new ArrayList<>(lastConstraints);
+			lastConstraints.clear();
+			removeConstraints(removedConstraints);
+		}
+	}
+
+	@Override
+	public CDCLSatSolver clone() {
+		if (this.getClass() == CDCLSatSolver.class) {
+			return new CDCLSatSolver(this);
+		} else {
+			throw new RuntimeException("Cloning not supported for " + this.getClass().toString());
+		}
+	}
+
+	@Override
+	public SatResult hasSolution() {
+		return solve(assignment.toArray(), assignment.size());
+	}
+
+	/**
+	 * {@inheritDoc}<br> <br> Does only consider the given {@code assignment} and <b>not</b> the global assignment variable of the solver.
+	 */
+	@Override
+	public SatResult hasSolution(int... assignment) {
+		return solve(internalMapping.convertToInternal(assignment), assignment.length);
+	}
+
+	@Override
+	public SatResult hasSolution(LiteralSet assignment) {
+		return hasSolution(assignment.getLiterals());
+	}
+
+	@Override
+	public int[] findSolution() {
+		// Auxiliary variables (see AuxiliaryCNF) follow the regular variables and are not part of the solution
+		return hasSolution() == SatResult.TRUE ? Arrays.copyOf(model, Math.min(model.length, satInstance.getVariables().size())) : null;
+	}
+
+	@Override
+	public int[] getSolution() {
+		return (contradiction || (model == null)) ? null : internalMapping.convertToOriginal(Arrays.copyOf(model, model.length));
+	}
+
+	@Override
+	public int[] getInternalSolution() {
+		return (contradiction || (model == null)) ? null : Arrays.copyOf(model, model.length);
+	}
+
+	@Override
+	public int[] getContradictoryAssignment() {
+		return internalMapping.convertToOriginal(Arrays.copyOf(contradictoryAssumptions, contradictoryAssumptions.length));
+	}
+
+	@Override
+	public CNF getSatInstance() {
+		return satInstance;
+	}
+
+	/**
+	 * Removes all clauses from the solver.
+	 */
+	@Override
+	public void reset() {
+		final List<ClauseConstraint> removedConstraints = new ArrayList<>(constraints);
+		constraints.clear();
+		removeConstraints(removedConstraints);
+		model = null;
+	}
+
+	@Override
+	public void setTimeout(int timeout) {
+		this.timeout = timeout;
+		globalDeadline = -1;
+	}
+
+	@Override
+	public IInternalVariables getInternalMapping() {
+		return internalMapping;
+	}
+
+	@Override
+	public RingList<int[]> getSolutionList() {
+		return solutionList;
+	}
+
+	@Override
+	public void useSolutionList(int size) {
+		if (size > 0) {
+			solutionList = new RingList<>(size);
+			useSolutionList = true;
+		} else {
+			solutionList = RingList.empytRingList();
+			useSolutionList = false;
+		}
+	}
+
+	@Override
+	public int[] getOrder() {
+		return order;
+	}
+
+	@Override
+	public void setOrder(int[] order) {
+		assert order.length <= this.order.length;
+		System.arraycopy(order, 0, this.order, 0, order.length);
+	}
+
+	@Override
+	public void setOrderFix() {
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i + 1;
+		}
+	}
+
+	@Override
+	public void shuffleOrder() {
+		shuffleOrder(new Random());
+	}
+
+	@Override
+	public void shuffleOrder(Random rnd) {
+		for (int i = order.length - 1; i >= 0; i--) {
+			final int index = rnd.nextInt(i + 1);
+			final int a = order[index];
+			order[index] = order[i];
+			order[i] = a;
+		}
+	}
+
+	@Override
+	public SelectionStrategy getSelectionStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * {@inheritDoc}<br> <br> As in SAT4J, the activities of all variables are reset and the current {@link #getOrder() order} is used to break ties.
+	 * The strategies {@link SelectionStrategy#FIXED} and {@link SelectionStrategy#UNIFORM_RANDOM} can only be set with
+	 * {@link #setSelectionStrategy(int[], boolean)} and {@link #setSelectionStrategy(List)}, respectively.
+	 */
+	@Override
+	public void setSelectionStrategy(SelectionStrategy strategy) {
+		if ((this.strategy != strategy) && (strategy != SelectionStrategy.FIXED) && (strategy != SelectionStrategy.UNIFORM_RANDOM)) {
+			setStrategy(strategy);
+			if (strategy == SelectionStrategy.ORG) {
+				for (int var = 1; var <= numberOfVariables; var++) {
+					phases[var] = negativeLiteral(var);
+				}
+			}
+		}
+		initHeuristic();
+	}
+
+	/**
+	 * {@inheritDoc}<br> <br> Uses the phases of {@link FixedLiteralSelectionStrategy}.
+	 */
+	@Override
+	public void setSelectionStrategy(int[] model, boolean min) {
+		setStrategy(SelectionStrategy.FIXED);
+		// Variables without a value in the model (e.g., auxiliary variables) are treated as unassigned
+		fixedModel = model.length < numberOfVariables ? Arrays.copyOf(model, numberOfVariables) : model;
+		fixedModelMin = min;
+		initHeuristic();
+	}
+
+	/**
+	 * {@inheritDoc}<br> <br> Uses a {@link UniformRandomSelectionStrategy}.
+	 */
+	@Override
+	public void setSelectionStrategy(List<LiteralSet> sample) {
+		// The strategy has to be notified of all assigned literals
+		cancelUntil(0);
+		setStrategy(SelectionStrategy.UNIFORM_RANDOM);
+		uniformRandomStrategy = new UniformRandomSelectionStrategy(sample);
+		for (int i = 0; i < trailSize; i++) {
+			uniformRandomStrategy.assignLiteral(trail[i]);
+		}
+		initHeuristic();
+	}
+
+	private void setStrategy(SelectionStrategy strategy) {
+		uniformRandomStrategy = null;
+		fixedModel = null;
+		this.strategy = strategy;
+	}
+
+	@Override
+	public void assignmentClear(int size) {
+		assignment.shrinkTo(size);
+	}
+
+	@Override
+	public void asignmentEnsure(int size) {
+		assignment.ensure(size);
+	}
+
+	@Override
+	public void assignmentPop() {
+		assignment.pop();
+	}
+
+	@Override
+	public void assignmentPush(int x) {
+		assignment.push(internalMapping.convertToInternal(x));
+	}
+
+	@Override
+	public void assignmentPushAll(int[] x) {
+		assignment.pushAll(new VecInt(internalMapping.convertToInternal(x)));
+	}
+
+	@Override
+	public void assignmentReplaceLast(int x) {
+		assignment.pop().unsafePush(internalMapping.convertToInternal(x));
+	}
+
+	@Override
+	public void assignmentDelete(int i) {
+		assignment.delete(internalMapping.convertToInternal(i));
+	}
+
+	@Override
+	public void assignmentSet(int index, int var) {
+		assignment.set(index, internalMapping.convertToInternal(var));
+	}
+
+	@Override
+	public int assignmentGet(int i) {
+		return internalMapping.convertToOriginal(assignment.get(i));
+	}
+
+	@Override
+	public int[] getAssignmentArray() {
+		return internalMapping.convertToOriginal(Arrays.copyOf(assignment.toArray(), assignment.size()));
+	}
+
+	@Override
+	public int[] getAssignmentArray(int from) {
+		return internalMapping.convertToOriginal(Arrays.copyOfRange(assignment.toArray(), from, assignment.size()));
+	}
+
+	@Override
+	public int[] getAssignmentArray(int from, int to) {
+		return internalMapping.convertToOriginal(Arrays.copyOfRange(assignment.toArray(), from, to));
+	}
+
+	@Override
+	public int getAssignmentSize() {
+		return assignment.size();
+	}
+
+	@Override
+	public boolean isGlobalTimeout() {
+		return globalTimeout;
+	}
+
+	@Override
+	public void setGlobalTimeout(boolean globalTimeout) {
+		this.globalTimeout = globalTimeout;
+		globalDeadline = -1;
+	}
+
+	/**
+	 * @return the number of conflicts of all queries.
+	 */
+	public long getNumberOfConflicts() {
+		return conflicts;
+	}
+
+	/**
+	 * @return the number of decisions (excluding assumptions) of all queries.
+	 */
+	public long getNumberOfDecisions() {
+		return decisions;
+	}
+
+	/**
+	 * @return the number of propagated literals of all queries.
+	 */
+	public long getNumberOfPropagations() {
+		return propagations;
+	}
+
+}
@@ -0,0 +1,243 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+
+/**
+ * Computes minimal unsatisfiable subsets of groups of clauses (group MUS).<br> <br> Each group of clauses is guarded by a selector variable, such that a
+ * group is only active if its selector is assumed to be true. Thus, a single incremental solver can answer all queries. Clauses that are learned by the solver
+ * remain valid between queries, as no clause is removed, unless {@link #removeLastClauses(int) requested explicitly}.<br> <br> A subset is computed by
+ * deletion: starting with the unsatisfiable core reported by the solver, each group is tentatively deactivated. If the remaining groups are still
+ * unsatisfiable, the group is dropped together with all groups that are not part of the new core. Otherwise, the group is necessary.<br> <br> Additional
+ * variables that are not used by the groups (e.g., activation literals for clauses that are only required by some queries) can be reserved by including them
+ * in the variables of the given CNF.
+ *
+ * @author FeatureIDE Team
+ */
+public class GroupMusExtractor {
+
+	private static final String SELECTOR_PREFIX = "__group_selector_";
+
+	private final ISatSolver solver;
+	private final int numberOfGroups;
+	private final int firstSelector;
+
+	private int numberOfSolverCalls = 0;
+
+	/**
+	 * Creates a new extractor.
+	 *
+	 * @param cnf the variables and the hard clauses, which are always active
+	 * @param groups the groups of clauses over the variables of the CNF
+	 * @throws RuntimeContradictionException if the hard clauses are unsatisfiable
+	 */
+	public GroupMusExtractor(CNF cnf, List<? extends Collection<LiteralSet>> groups) throws RuntimeContradictionException {
+		final IVariables variables = cnf.getVariables();
+		numberOfGroups = groups.size();
+		firstSelector = variables.size() + 1;
+
+		final List<String> names = new ArrayList<>(variables.size() + numberOfGroups);
+		names.addAll(Arrays.asList(variables.getNames()).subList(1, variables.size() + 1));
+		for (int i = 0; i < numberOfGroups; i++) {
+			names.add(SELECTOR_PREFIX + i);
+		}
+
+		final List<LiteralSet> clauses = new ArrayList<>(cnf.getClauses());
+		int selector = firstSelector;
+		for (final Collection<LiteralSet> group : groups) {
+			for (final LiteralSet clause : group) {
+				final int[] literals = clause.getLiterals();
+				final int[] guardedLiterals = Arrays.copyOf(literals, literals.length + 1);
+				guardedLiterals[literals.length] = -selector;
+				clauses.add(new LiteralSet(guardedLiterals));
+			}
+			selector++;
+		}
+
+		solver = SatSolverBackends.getDefault().createModifiableSolver(new CNF(new Variables(names), clauses));
+	}
+
+	/**
+	 * @return the number of groups
+	 */
+	public int getNumberOfGroups() {
+		return numberOfGroups;
+	}
+
+	/**
+	 * @return the number of satisfiability queries that were answered by the solver so far
+	 */
+	public int getNumberOfSolverCalls() {
+		return numberOfSolverCalls;
+	}
+
+	/**
+	 * Returns the selector variable of the given group.
+	 *
+	 * @param group the index of the group
+	 * @return the selector variable
+	 */
+	public int getSelector(int group) {
+		if ((group < 0) || (group >= numberOfGroups)) {
+			throw new IndexOutOfBoundsException(Integer.toString(group));
+		}
+		return firstSelector + group;
+	}
+
+	/**
+	 * Adds clauses that are always active. Clauses that are only required by some queries should contain the negation of a reserved variable, which is then
+	 * assumed to be true for these queries.
+	 *
+	 * @param clauses the clauses to add
+	 * @throws RuntimeContradictionException if the hard clauses become unsatisfiable. In this case, no clause is added.
+	 */
+	public void addClauses(Collection<LiteralSet> clauses) throws RuntimeContradictionException {
+		solver.addClauses(clauses);
+	}
+
+	/**
+	 * Removes the last added clauses. Note that this also discards all clauses that were learned by the solver.
+	 *
+	 * @param numberOfClauses the number of clauses to remove
+	 */
+	public void removeLastClauses(int numberOfClauses) {
+		solver.removeLastClauses(numberOfClauses);
+	}
+
+	/**
+	 * Returns a minimal subset of all groups that is unsatisfiable together with the hard clauses and the given assumptions.
+	 *
+	 * @param assumptions literals that are assumed to be true
+	 * @return the sorted indices of the groups in the subset or {@code null} if all groups together are satisfiable or if the solver timed out
+	 *
+	 * @see #getMinimalUnsatisfiableSubset(int[], int[])
+	 */
+	public int[] getMinimalUnsatisfiableSubset(int... assumptions) {
+		return getMinimalUnsatisfiableSubset(assumptions, new int[0]);
+	}
+
+	/**
+	 * Returns a minimal subset of all groups, except the excluded ones, that is unsatisfiable together with the hard clauses and the given assumptions. If the
+	 * solver times out while minimizing, the remaining groups are kept. Thus, the subset is unsatisfiable, but may not be minimal.
+	 *
+	 * @param assumptions literals that are assumed to be true
+	 * @param excludedGroups indices of groups that are deactivated
+	 * @return the sorted indices of the groups in the subset or {@code null} if the groups together are satisfiable or if the solver timed out
+	 */
+	public int[] getMinimalUnsatisfiableSubset(int[] assumptions, int[] excludedGroups) {
+		final boolean[] excluded = new boolean[numberOfGroups];
+		for (final int group : excludedGroups) {
+			excluded[group] = true;
+		}
+		int[] candidates = new int[numberOfGroups];
+		int candidateCount = 0;
+		for (int i = 0; i < numberOfGroups; i++) {
+			if (!excluded[i]) {
+				candidates[candidateCount++] = i;
+			}
+		}
+		candidates = Arrays.copyOf(candidates, candidateCount);
+
+		solver.assignmentClear(0);
+		try {
+			solver.assignmentPushAll(assumptions);
+			for (final int group : excludedGroups) {
+				solver.assignmentPush(-getSelector(group));
+			}
+			final int fixedAssignmentSize = solver.getAssignmentSize();
+
+			pushSelectors(candidates, candidates.length, new int[0], 0);
+			if (hasSolution() != SatResult.FALSE) {
+				return null;
+			}
+			candidates = retainCore(candidates, candidates.length);
+			candidateCount = candidates.length;
+
+			final int[] necessaryGroups = new int[candidateCount];
+			int necessaryCount = 0;
+			while (candidateCount > 0) {
+				final int group = candidates[--candidateCount];
+				solver.assignmentClear(fixedAssignmentSize);
+				pushSelectors(candidates, candidateCount, necessaryGroups, necessaryCount);
+				if (hasSolution() == SatResult.FALSE) {
+					// The group is not necessary. Groups outside of the new core are not necessary either.
+					candidates = retainCore(candidates, candidateCount);
+					candidateCount = candidates.length;
+				} else {
+					necessaryGroups[necessaryCount++] = group;
+				}
+			}
+
+			final int[] subset = Arrays.copyOf(necessaryGroups, necessaryCount);
+			Arrays.sort(subset);
+			return subset;
+		} finally {
+			solver.assignmentClear(0);
+		}
+	}
+
+	private SatResult hasSolution() {
+		numberOfSolverCalls++;
+		return solver.hasSolution();
+	}
+
+	private void pushSelectors(int[] groups, int groupCount, int[] otherGroups, int otherGroupCount) {
+		for (int i = 0; i < groupCount; i++) {
+			solver.assignmentPush(getSelector(groups[i]));
+		}
+		for (int i = 0; i < otherGroupCount; i++) {
+			solver.assignmentPush(getSelector(otherGroups[i]));
+		}
+	}
+
+	/**
+	 * Keeps only those of the given groups whose selectors are part of the unsatisfiable core of the last query.
+	 */
+	private int[] retainCore(int[] groups, int groupCount) {
+		final int[] core = solver.getContradictoryAssignment();
+		final boolean[] inCore = new boolean[numberOfGroups];
+		for (final int literal : core) {
+			final int group = Math.abs(literal) - firstSelector;
+			if ((group >= 0) && (group < numberOfGroups)) {
+				inCore[group] = true;
+			}
+		}
+		final int[] retainedGroups = new int[groupCount];
+		int retainedCount = 0;
+		for (int i = 0; i < groupCount; i++) {
+			if (inCore[groups[i]]) {
+				retainedGroups[retainedCount++] = groups[i];
+			}
+		}
+		return Arrays.copyOf(retainedGroups, retainedCount);
+	}
+
+}
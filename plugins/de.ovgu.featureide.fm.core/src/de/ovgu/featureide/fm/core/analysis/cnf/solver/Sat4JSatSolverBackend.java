@@ -0,0 +1,62 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+
+/**
+ * Creates solvers that use the solver engine of SAT4J ({@link AdvancedSatSolver} and {@link ModifiableSatSolver}).
+ *
+ * @author FeatureIDE Team
+ */
+public final class Sat4JSatSolverBackend implements ISatSolverBackend {
+
+	public static final String NAME = "sat4j";
+
+	private static final Sat4JSatSolverBackend INSTANCE = new Sat4JSatSolverBackend();
+
+	public static Sat4JSatSolverBackend getInstance() {
+		return INSTANCE;
+	}
+
+	private Sat4JSatSolverBackend() {}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public ISatSolver createSolver(CNF satInstance) throws RuntimeContradictionException {
+		return new AdvancedSatSolver(satInstance);
+	}
+
+	@Override
+	public ISatSolver createModifiableSolver(CNF satInstance) throws RuntimeContradictionException {
+		return new ModifiableSatSolver(satInstance);
+	}
+
+	@Override
+	public String toString() {
+		return NAME;
+	}
+
+}
@@ -0,0 +1,87 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registry of all available {@link ISatSolverBackend SAT backends}. Holds the default backend that is used by analyses that create their own solver (default
+ * is {@link Sat4JSatSolverBackend}). A different backend can be used for a single analysis by passing a solver of this backend to the analysis.
+ *
+ * @author FeatureIDE Team
+ */
+public final class SatSolverBackends {
+
+	private static final List<ISatSolverBackend> backends = new ArrayList<>();
+
+	private static volatile ISatSolverBackend defaultBackend = Sat4JSatSolverBackend.getInstance();
+
+	static {
+		backends.add(Sat4JSatSolverBackend.getInstance());
+		backends.add(CDCLSatSolverBackend.getInstance());
+	}
+
+	private SatSolverBackends() {}
+
+	public static ISatSolverBackend getDefault() {
+		return defaultBackend;
+	}
+
+	public static void setDefault(ISatSolverBackend backend) {
+		if (backend == null) {
+			throw new IllegalArgumentException("Backend must not be null");
+		}
+		defaultBackend = backend;
+	}
+
+	/**
+	 * Adds a backend to this registry. A backend with the same name is replaced.
+	 *
+	 * @param backend the new backend
+	 */
+	public static synchronized void register(ISatSolverBackend backend) {
+		final ISatSolverBackend oldBackend = getBackend(backend.getName());
+		if (oldBackend != null) {
+			backends.remove(oldBackend);
+		}
+		backends.add(backend);
+	}
+
+	/**
+	 * @param name the name of a backend
+	 * @return the backend with the given name or {@code null} if there is none.
+	 */
+	public static synchronized ISatSolverBackend getBackend(String name) {
+		for (final ISatSolverBackend backend : backends) {
+			if (backend.getName().equals(name)) {
+				return backend;
+			}
+		}
+		return null;
+	}
+
+	public static synchronized List<ISatSolverBackend> getBackends() {
+		return Collections.unmodifiableList(new ArrayList<>(backends));
+	}
+
+}
@@ -0,0 +1,277 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.specs.IConstr;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+
+/**
+ * Bounded pool of {@link AdvancedSatSolver solvers} for one {@link CNF}. Creating a solver requires adding all clauses of the CNF. A pool avoids this
+ * overhead for repeated short computations, such as the propagation of a configuration after each user interaction.<br> <br> A solver is obtained by
+ * {@link #acquire()} and must be returned by {@link #release(ISatSolver)}. On release, the assignment, the selection strategy, the order, the solution list,
+ * and the timeout of the solver are reset. Clauses that were learned by the solver are kept, as they are implied by the CNF. A solver to which clauses were
+ * added is discarded. If more than {@link #getMaxIdleSolvers()} solvers are returned, the remaining ones are discarded as well.<br> <br> A solver that becomes
+ * unreachable without being released is reported as leaked (see {@link #getNumberOfLeakedSolvers()}). This class is thread-safe, but a single solver must not
+ * be used by multiple threads at once.
+ *
+ * @author FeatureIDE Team
+ */
+public class SatSolverPool {
+
+	public static final int DEFAULT_MAX_IDLE_SOLVERS = 4;
+
+	/**
+	 * Solver that belongs to a pool. Detects whether clauses were added to it.
+	 */
+	private static final class PooledSatSolver extends AdvancedSatSolver {
+
+		private final SatSolverPool pool;
+		private final long initialTimeout;
+
+		private boolean modified;
+		private Lease lease;
+
+		private PooledSatSolver(SatSolverPool pool, CNF satInstance) {
+			super(satInstance);
+			this.pool = pool;
+			initialTimeout = contradiction ? 0 : solver.getTimeoutMs();
+			// Clauses of the CNF were added during construction
+			modified = false;
+		}
+
+		@Override
+		protected IConstr addClause(Solver<?> solver, int[] literals) throws RuntimeContradictionException {
+			modified = true;
+			return super.addClause(solver, literals);
+		}
+
+		@Override
+		protected List<IConstr> addClauses(Solver<?> solver, Iterable<? extends LiteralSet> clauses, boolean internal) throws RuntimeContradictionException {
+			modified = true;
+			return super.addClauses(solver, clauses, internal);
+		}
+
+		@Override
+		public void reset() {
+			modified = true;
+			super.reset();
+		}
+
+		/**
+		 * Creates an unpooled copy of this solver.
+		 */
+		@Override
+		public AdvancedSatSolver clone() {
+			return new AdvancedSatSolver(this);
+		}
+
+		private void restore() {
+			assignment.clear();
+			setOrderFix();
+			setSelectionStrategy(SelectionStrategy.ORG);
+			useSolutionList(0);
+			globalTimeout = false;
+			if (!contradiction) {
+				solver.setTimeoutMs(initialTimeout);
+			}
+		}
+
+	}
+
+	/**
+	 * Weak reference to an acquired solver. Is enqueued if the solver is garbage collected before it was released.
+	 */
+	private static final class Lease extends WeakReference<PooledSatSolver> {
+
+		private Lease(PooledSatSolver solver, ReferenceQueue<PooledSatSolver> queue) {
+			super(solver, queue);
+		}
+
+	}
+
+	private final CNF satInstance;
+	private final int maxIdleSolvers;
+
+	private final ArrayDeque<PooledSatSolver> idleSolvers = new ArrayDeque<>();
+	private final Set<Lease> leases = new HashSet<>();
+	private final ReferenceQueue<PooledSatSolver> leakQueue = new ReferenceQueue<>();
+
+	private long createdSolvers = 0;
+	private long reusedSolvers = 0;
+	private long discardedSolvers = 0;
+	private long leakedSolvers = 0;
+
+	public SatSolverPool(CNF satInstance) {
+		this(satInstance, DEFAULT_MAX_IDLE_SOLVERS);
+	}
+
+	/**
+	 * @param satInstance the CNF of all solvers
+	 * @param maxIdleSolvers the maximum number of solvers that are kept for reuse
+	 */
+	public SatSolverPool(CNF satInstance, int maxIdleSolvers) {
+		this.satInstance = satInstance;
+		this.maxIdleSolvers = maxIdleSolvers;
+	}
+
+	/**
+	 * Returns an idle solver or creates a new one, if there is none. The returned solver has an empty assignment and uses the
+	 * {@link SelectionStrategy#ORG original selection strategy}.
+	 *
+	 * @return a solver that must be returned by {@link #release(ISatSolver)}
+	 */
+	public AdvancedSatSolver acquire() {
+		PooledSatSolver solver;
+		synchronized (this) {
+			detectLeaks();
+			solver = idleSolvers.pollFirst();
+			if (solver != null) {
+				reusedSolvers++;
+				solver.lease = new Lease(solver, leakQueue);
+				leases.add(solver.lease);
+				return solver;
+			}
+			createdSolvers++;
+		}
+		// Create the solver outside of the lock, as this may take some time
+		solver = new PooledSatSolver(this, satInstance);
+		synchronized (this) {
+			solver.lease = new Lease(solver, leakQueue);
+			leases.add(solver.lease);
+		}
+		return solver;
+	}
+
+	/**
+	 * Returns a solver to this pool. The solver must not be used afterwards.
+	 *
+	 * @param solver a solver that was acquired from this pool
+	 *
+	 * @throws IllegalArgumentException if the solver does not belong to this pool
+	 * @throws IllegalStateException if the solver was already released
+	 */
+	public void release(ISatSolver solver) {
+		if (!(solver instanceof PooledSatSolver) || (((PooledSatSolver) solver).pool != this)) {
+			throw new IllegalArgumentException("Solver does not belong to this pool");
+		}
+		final PooledSatSolver pooledSolver = (PooledSatSolver) solver;
+		synchronized (this) {
+			final Lease lease = pooledSolver.lease;
+			if (lease == null) {
+				throw new IllegalStateException("Solver was already released");
+			}
+			pooledSolver.lease = null;
+			leases.remove(lease);
+			lease.clear();
+			if (pooledSolver.modified || (idleSolvers.size() >= maxIdleSolvers)) {
+				discardedSolvers++;
+				return;
+			}
+			pooledSolver.restore();
+			idleSolvers.addFirst(pooledSolver);
+		}
+	}
+
+	/**
+	 * Removes all idle solvers.
+	 */
+	public synchronized void clear() {
+		discardedSolvers += idleSolvers.size();
+		idleSolvers.clear();
+	}
+
+	private void detectLeaks() {
+		for (Reference<? extends PooledSatSolver> reference = leakQueue.poll(); reference != null; reference = leakQueue.poll()) {
+			if (leases.remove(reference)) {
+				leakedSolvers++;
+				Logger.logWarning("A solver was not released to its pool. Number of leaked solvers: " + leakedSolvers);
+			}
+		}
+	}
+
+	public CNF getSatInstance() {
+		return satInstance;
+	}
+
+	public int getMaxIdleSolvers() {
+		return maxIdleSolvers;
+	}
+
+	/**
+	 * @return the number of solvers that were created by this pool.
+	 */
+	public synchronized long getNumberOfCreatedSolvers() {
+		return createdSolvers;
+	}
+
+	/**
+	 * @return the number of times an idle solver was handed out instead of creating a new one.
+	 */
+	public synchronized long getNumberOfReusedSolvers() {
+		return reusedSolvers;
+	}
+
+	/**
+	 * @return the number of released solvers that were not kept, because they were modified or the pool was full.
+	 */
+	public synchronized long getNumberOfDiscardedSolvers() {
+		return discardedSolvers;
+	}
+
+	/**
+	 * @return the number of solvers that were garbage collected without being released.
+	 */
+	public synchronized long getNumberOfLeakedSolvers() {
+		detectLeaks();
+		return leakedSolvers;
+	}
+
+	/**
+	 * @return the number of solvers that are currently acquired.
+	 */
+	public synchronized int getNumberOfActiveSolvers() {
+		detectLeaks();
+		return leases.size();
+	}
+
+	public synchronized int getNumberOfIdleSolvers() {
+		return idleSolvers.size();
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "SatSolverPool [created=" + createdSolvers + ", reused=" + reusedSolvers + ", discarded=" + discardedSolvers + ", leaked=" + leakedSolvers
+			+ ", active=" + leases.size() + ", idle=" + idleSolvers.size() + "]";
+	}
+
+}
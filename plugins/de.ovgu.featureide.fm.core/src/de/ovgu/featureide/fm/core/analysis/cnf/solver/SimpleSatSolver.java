@@ -32,6 +32,7 @@ import org.sat4j.specs.IConstr;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactCNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 
@@ -122,6 +123,22 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 		return constrList;
 	}
 
+	/**
+	 * Adds all clauses of the given CNF directly from its literal array without creating a {@link LiteralSet} for each clause.
+	 */
+	protected void addClauses(Solver<?> solver, CompactCNF cnf) throws RuntimeContradictionException {
+		final int[] literals = cnf.getLiteralArray();
+		for (int i = 0; i < cnf.getNumberOfClauses(); i++) {
+			final int start = cnf.getClauseStart(i);
+			final int length = cnf.getClauseLength(i);
+			final int[] clause = new int[length];
+			for (int j = 0; j < length; j++) {
+				clause[j] = internalMapping.convertToInternal(literals[start + j]);
+			}
+			addClause(solver, clause);
+		}
+	}
+
 	@Override
 	public SimpleSatSolver clone() {
 		if (this.getClass() == SimpleSatSolver.class) {
@@ -213,7 +230,7 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 	private boolean checkClauseValidity(final int[] literals) {
 		for (int i = 0; i < literals.length; i++) {
 			final int l = literals[i];
-			if ((l == 0) || (Math.abs(l) > satInstance.getVariables().maxVariableID())) {
+			if ((l == 0) || (Math.abs(l) > internalMapping.size())) {
 				return false;
 			}
 		}
@@ -247,11 +264,19 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 	 * Add clauses to the solver. Initializes the order instance.
 	 */
 	protected void initSolver(Solver<?> solver) throws RuntimeContradictionException {
-		final int size = satInstance.getVariables().size();
-		final List<LiteralSet> clauses = satInstance.getClauses();
-		if (!clauses.isEmpty()) {
-			solver.setExpectedNumberOfClauses(clauses.size() + 1);
-			addClauses(solver, clauses, false);
+		final int size = internalMapping.size();
+		if (satInstance instanceof CompactCNF) {
+			final CompactCNF compactCNF = (CompactCNF) satInstance;
+			if (compactCNF.getNumberOfClauses() > 0) {
+				solver.setExpectedNumberOfClauses(compactCNF.getNumberOfClauses() + 1);
+				addClauses(solver, compactCNF);
+			}
+		} else {
+			final List<LiteralSet> clauses = satInstance.getClauses();
+			if (!clauses.isEmpty()) {
+				solver.setExpectedNumberOfClauses(clauses.size() + 1);
+				addClauses(solver, clauses, false);
+			}
 		}
 		if (size > 0) {
 			final VecInt pseudoClause = new VecInt(size + 1);
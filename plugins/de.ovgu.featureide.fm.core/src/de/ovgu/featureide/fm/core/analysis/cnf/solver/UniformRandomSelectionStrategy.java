@@ -66,6 +66,10 @@ public class UniformRandomSelectionStrategy implements IPhaseSelectionStrategy {
 	}
 
 	public void undo(int var) {
+		if (var > model.length) {
+			// Variable is not part of the sample (e.g., an auxiliary variable)
+			return;
+		}
 		final int literal = model[var - 1];
 		if (literal != 0) {
 			updateRatioUnset(literal);
@@ -75,8 +79,12 @@ public class UniformRandomSelectionStrategy implements IPhaseSelectionStrategy {
 
 	@Override
 	public void assignLiteral(int p) {
+		final int var = LiteralsUtils.var(p);
+		if (var > model.length) {
+			return;
+		}
 		final int literal = LiteralsUtils.toDimacs(p);
-		model[LiteralsUtils.var(p) - 1] = literal;
+		model[var - 1] = literal;
 		updateRatioSet(literal);
 	}
 
@@ -88,6 +96,9 @@ public class UniformRandomSelectionStrategy implements IPhaseSelectionStrategy {
 
 	@Override
 	public int select(int var) {
+		if (var > ratio.length) {
+			return negLit(var);
+		}
 		return (RAND.nextInt(usedSamples.size()) < ratio[var - 1]) ? posLit(var) : negLit(var);
 	}
 
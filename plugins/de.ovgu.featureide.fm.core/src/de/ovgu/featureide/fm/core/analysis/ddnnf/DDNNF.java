@@ -0,0 +1,268 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.ddnnf;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+
+/**
+ * Smooth decision-DNNF representation of a {@link CNF}. Created by {@link DDNNFBuilder}.<br> <br> All nodes are stored in primitive arrays. The children of
+ * a node are stored consecutively in one array (see {@link #getChildren(int)}). Nodes are topologically ordered, i.e., the index of a node is always greater
+ * than the indices of its children.
+ *
+ * @author FeatureIDE Team
+ */
+public class DDNNF implements Serializable {
+
+	private static final long serialVersionUID = -2620718403453165366L;
+
+	public static final byte NODE_TRUE = 0, NODE_FALSE = 1, NODE_LITERAL = 2, NODE_FREE = 3, NODE_AND = 4, NODE_OR = 5;
+
+	private final IInternalVariables variables;
+	private final int numberOfVariables;
+	private final int maxVariableID;
+
+	private final byte[] types;
+	private final int[] values;
+	private final int[] childIndex;
+	private final int[] childList;
+	private final int root;
+
+	DDNNF(IInternalVariables variables, int numberOfVariables, int maxVariableID, byte[] types, int[] values, int[] childIndex, int[] childList, int root) {
+		this.variables = variables;
+		this.numberOfVariables = numberOfVariables;
+		this.maxVariableID = maxVariableID;
+		this.types = types;
+		this.values = values;
+		this.childIndex = childIndex;
+		this.childList = childList;
+		this.root = root;
+	}
+
+	public int getNumberOfNodes() {
+		return types.length;
+	}
+
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	public int getRoot() {
+		return root;
+	}
+
+	public byte getType(int node) {
+		return types[node];
+	}
+
+	/**
+	 * @return the (internal) literal of a literal node, the (internal) variable of a free node, and {@code 0} otherwise.
+	 */
+	public int getValue(int node) {
+		return values[node];
+	}
+
+	public int[] getChildren(int node) {
+		final int[] children = new int[childIndex[node + 1] - childIndex[node]];
+		System.arraycopy(childList, childIndex[node], children, 0, children.length);
+		return children;
+	}
+
+	/**
+	 * Counts all solutions of the compiled formula.
+	 *
+	 * @return the exact number of solutions.
+	 */
+	public BigInteger countSolutions() {
+		return countSolutions(null);
+	}
+
+	/**
+	 * Counts all solutions of the compiled formula that contain all given literals.
+	 *
+	 * @param assumptions literals that have to be contained in each solution (may be {@code null}).
+	 * @return the exact number of solutions.
+	 */
+	public BigInteger countSolutions(LiteralSet assumptions) {
+		final byte[] assignment = getAssignment(assumptions);
+		if (assignment == null) {
+			return BigInteger.ZERO;
+		}
+		return computeCounts(assignment)[root];
+	}
+
+	/**
+	 * Computes the number of solutions that contain the positive literal of each variable (i.e., the commonality of a feature multiplied with the number of
+	 * all solutions) in one pass over the circuit.<br> The number of solutions containing the negative literal is the difference between the total number of
+	 * solutions and the returned value.
+	 *
+	 * @param assumptions literals that have to be contained in each solution (may be {@code null}).
+	 * @return an array containing the number of solutions for each variable of the {@link CNF} (with the variable's index as array index). Entries of variables
+	 *         that are not part of the compiled formula (e.g., due to slicing) are {@code null}.
+	 */
+	public BigInteger[] countVariableSolutions(LiteralSet assumptions) {
+		final BigInteger[] result = new BigInteger[maxVariableID + 1];
+		for (int var = 1; var <= numberOfVariables; var++) {
+			result[variables.convertToOriginal(var)] = BigInteger.ZERO;
+		}
+
+		final byte[] assignment = getAssignment(assumptions);
+		if (assignment == null) {
+			return result;
+		}
+		final BigInteger[] counts = computeCounts(assignment);
+		if (counts[root].signum() == 0) {
+			return result;
+		}
+
+		final BigInteger[] derivatives = new BigInteger[types.length];
+		derivatives[root] = BigInteger.ONE;
+		for (int node = root; node >= 0; node--) {
+			final BigInteger derivative = derivatives[node];
+			if ((derivative == null) || (derivative.signum() == 0)) {
+				continue;
+			}
+			switch (types[node]) {
+			case NODE_AND: {
+				final int start = childIndex[node];
+				final int end = childIndex[node + 1];
+				final int length = end - start;
+				// Prefix products avoid division by zero counts
+				final BigInteger[] prefix = new BigInteger[length + 1];
+				prefix[0] = BigInteger.ONE;
+				for (int i = 0; i < length; i++) {
+					prefix[i + 1] = prefix[i].multiply(counts[childList[start + i]]);
+				}
+				BigInteger suffix = derivative;
+				for (int i = length - 1; i >= 0; i--) {
+					final int child = childList[start + i];
+					addDerivative(derivatives, child, suffix.multiply(prefix[i]));
+					suffix = suffix.multiply(counts[child]);
+				}
+				break;
+			}
+			case NODE_OR:
+				for (int i = childIndex[node]; i < childIndex[node + 1]; i++) {
+					addDerivative(derivatives, childList[i], derivative);
+				}
+				break;
+			case NODE_LITERAL: {
+				final int literal = values[node];
+				if ((literal > 0) && (assignment[literal] >= 0)) {
+					final int orgVar = variables.convertToOriginal(literal);
+					result[orgVar] = result[orgVar].add(derivative);
+				}
+				break;
+			}
+			case NODE_FREE: {
+				final int var = values[node];
+				if (assignment[var] >= 0) {
+					final int orgVar = variables.convertToOriginal(var);
+					result[orgVar] = result[orgVar].add(derivative);
+				}
+				break;
+			}
+			default:
+				break;
+			}
+		}
+		return result;
+	}
+
+	private static void addDerivative(final BigInteger[] derivatives, int child, BigInteger value) {
+		final BigInteger oldValue = derivatives[child];
+		derivatives[child] = oldValue == null ? value : oldValue.add(value);
+	}
+
+	private BigInteger[] computeCounts(byte[] assignment) {
+		final BigInteger two = BigInteger.valueOf(2);
+		final BigInteger[] counts = new BigInteger[types.length];
+		for (int node = 0; node <= root; node++) {
+			switch (types[node]) {
+			case NODE_TRUE:
+				counts[node] = BigInteger.ONE;
+				break;
+			case NODE_FALSE:
+				counts[node] = BigInteger.ZERO;
+				break;
+			case NODE_LITERAL: {
+				final int literal = values[node];
+				final int value = assignment[Math.abs(literal)];
+				counts[node] = ((value == 0) || ((value > 0) == (literal > 0))) ? BigInteger.ONE : BigInteger.ZERO;
+				break;
+			}
+			case NODE_FREE:
+				counts[node] = assignment[values[node]] == 0 ? two : BigInteger.ONE;
+				break;
+			case NODE_AND: {
+				BigInteger count = BigInteger.ONE;
+				for (int i = childIndex[node]; i < childIndex[node + 1]; i++) {
+					count = count.multiply(counts[childList[i]]);
+					if (count.signum() == 0) {
+						break;
+					}
+				}
+				counts[node] = count;
+				break;
+			}
+			case NODE_OR: {
+				BigInteger count = BigInteger.ZERO;
+				for (int i = childIndex[node]; i < childIndex[node + 1]; i++) {
+					count = count.add(counts[childList[i]]);
+				}
+				counts[node] = count;
+				break;
+			}
+			default:
+				throw new AssertionError(types[node]);
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Converts the given assumptions into an assignment array over the internal variables.
+	 *
+	 * @return the assignment or {@code null} if the assumptions contain complementary literals.
+	 */
+	private byte[] getAssignment(LiteralSet assumptions) {
+		final byte[] assignment = new byte[numberOfVariables + 1];
+		if (assumptions != null) {
+			for (final int orgLiteral : assumptions.getLiterals()) {
+				final int literal = variables.convertToInternal(orgLiteral);
+				if (literal != 0) {
+					final int var = Math.abs(literal);
+					final byte value = (byte) (literal > 0 ? 1 : -1);
+					if (assignment[var] == -value) {
+						return null;
+					}
+					assignment[var] = value;
+				}
+			}
+		}
+		return assignment;
+	}
+
+}
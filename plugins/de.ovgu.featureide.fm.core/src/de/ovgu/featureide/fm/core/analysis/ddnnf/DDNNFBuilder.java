@@ -0,0 +1,643 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.ddnnf;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.TimeoutException;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+
+/**
+ * Compiles a {@link CNF} into a smooth {@link DDNNF decision-DNNF}.<br> <br> Uses unit propagation, dynamic decomposition into independent components, and
+ * caching of already compiled components (keyed by the component's variables and remaining clauses).
+ *
+ * @author FeatureIDE Team
+ */
+public class DDNNFBuilder implements LongRunningMethod<DDNNF> {
+
+	/**
+	 * Cache key of a component. Contains the sorted variables followed by the sorted indices of all unsatisfied clauses of the component.
+	 */
+	private static final class ComponentKey {
+
+		private final int[] key;
+		private final int hashCode;
+
+		ComponentKey(int[] key) {
+			this.key = key;
+			hashCode = Arrays.hashCode(key);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return (this == obj) || ((obj instanceof ComponentKey) && Arrays.equals(key, ((ComponentKey) obj).key));
+		}
+
+	}
+
+	private static final int TRUE_NODE = 0;
+	private static final int FALSE_NODE = 1;
+	private static final int NO_RESULT = -1;
+
+	private final CNF satInstance;
+	private final int numberOfVariables;
+
+	private int[][] clauses;
+	private int[][] occurrences;
+
+	// Current partial assignment
+	private byte[] assignment;
+	private int[] trail;
+	private int trailSize;
+
+	// Marker arrays used during component detection
+	private int[] variableMark;
+	private int[] clauseMark;
+	private int markStamp;
+	private int[] queue;
+
+	// Circuit under construction
+	private byte[] types;
+	private int[] values;
+	private int[] childIndex;
+	private int[] childList;
+	private int nodeCount;
+	private int childCount;
+	private int[] literalNodes;
+	private int[] freeNodes;
+
+	private final HashMap<ComponentKey, Integer> cache = new HashMap<>();
+	private final ArrayDeque<Frame> stack = new ArrayDeque<>();
+
+	private IMonitor<DDNNF> monitor;
+	private int decisionCount;
+
+	private long timeout = 0;
+	private long deadline;
+
+	public DDNNFBuilder(CNF satInstance) {
+		this.satInstance = satInstance;
+		numberOfVariables = satInstance.getVariables().size();
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Sets the maximal time for the compilation. If the compilation takes longer, {@link #execute(IMonitor)} throws a {@link TimeoutException}.
+	 *
+	 * @param timeout the time limit in milliseconds or {@code 0} for no limit
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * @throws TimeoutException if the compilation exceeded the {@link #setTimeout(long) time limit}
+	 * @throws MethodCancelException if the compilation was canceled by the monitor
+	 */
+	@Override
+	public DDNNF execute(IMonitor<DDNNF> monitor) throws Exception {
+		this.monitor = monitor;
+		deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+		try {
+			return compile();
+		} finally {
+			clauses = null;
+			occurrences = null;
+			cache.clear();
+			stack.clear();
+		}
+	}
+
+	private DDNNF compile() throws TimeoutException {
+		init();
+
+		final int root;
+		if (!initClauses()) {
+			root = FALSE_NODE;
+		} else {
+			root = compileResidual();
+		}
+
+		final IInternalVariables variables = satInstance.getInternalVariables();
+		return new DDNNF(variables, numberOfVariables, satInstance.getVariables().maxVariableID(), Arrays.copyOf(types, nodeCount),
+				Arrays.copyOf(values, nodeCount), Arrays.copyOf(childIndex, nodeCount + 1), Arrays.copyOf(childList, childCount), root);
+	}
+
+	private void init() {
+		assignment = new byte[numberOfVariables + 1];
+		trail = new int[numberOfVariables];
+		trailSize = 0;
+		variableMark = new int[numberOfVariables + 1];
+		queue = new int[numberOfVariables];
+		markStamp = 0;
+
+		final int initialSize = Math.max(16, numberOfVariables << 2);
+		types = new byte[initialSize];
+		values = new int[initialSize];
+		childIndex = new int[initialSize + 1];
+		childList = new int[initialSize];
+		nodeCount = 0;
+		childCount = 0;
+		literalNodes = new int[(numberOfVariables + 1) << 1];
+		freeNodes = new int[numberOfVariables + 1];
+		Arrays.fill(literalNodes, -1);
+		Arrays.fill(freeNodes, -1);
+
+		newNode(DDNNF.NODE_TRUE, 0, new int[0], 0);
+		newNode(DDNNF.NODE_FALSE, 0, new int[0], 0);
+	}
+
+	/**
+	 * Converts the clauses to internal variables, removes tautologies and duplicate literals, and propagates unit clauses.
+	 *
+	 * @return {@code false} if the formula is unsatisfiable by unit propagation.
+	 */
+	private boolean initClauses() {
+		final IInternalVariables internalVariables = satInstance.getInternalVariables();
+		final int[][] cleanClauses = new int[satInstance.getClauses().size()][];
+		final int[] occurrenceCount = new int[(numberOfVariables + 1) << 1];
+		final byte[] literalMark = new byte[numberOfVariables + 1];
+		final int[] units = new int[cleanClauses.length];
+		int unitCount = 0;
+		int clauseCount = 0;
+
+		clauseLoop: for (final LiteralSet clause : satInstance.getClauses()) {
+			final int[] literals = internalVariables.convertToInternal(clause.getLiterals());
+			int length = 0;
+			final int[] cleanLiterals = new int[literals.length];
+			for (final int literal : literals) {
+				final int var = Math.abs(literal);
+				final byte sign = (byte) (literal > 0 ? 1 : -1);
+				if (literalMark[var] == -sign) {
+					for (int i = 0; i < length; i++) {
+						literalMark[Math.abs(cleanLiterals[i])] = 0;
+					}
+					continue clauseLoop;
+				} else if (literalMark[var] == 0) {
+					literalMark[var] = sign;
+					cleanLiterals[length++] = literal;
+				}
+			}
+			for (int i = 0; i < length; i++) {
+				literalMark[Math.abs(cleanLiterals[i])] = 0;
+			}
+			switch (length) {
+			case 0:
+				return false;
+			case 1:
+				units[unitCount++] = cleanLiterals[0];
+				break;
+			default:
+				final int[] newClause = Arrays.copyOf(cleanLiterals, length);
+				for (final int literal : newClause) {
+					occurrenceCount[getLiteralIndex(literal)]++;
+				}
+				cleanClauses[clauseCount++] = newClause;
+				break;
+			}
+		}
+
+		clauses = Arrays.copyOf(cleanClauses, clauseCount);
+		clauseMark = new int[clauseCount];
+		occurrences = new int[occurrenceCount.length][];
+		for (int i = 0; i < occurrences.length; i++) {
+			occurrences[i] = new int[occurrenceCount[i]];
+		}
+		for (int i = 0; i < clauseCount; i++) {
+			for (final int literal : clauses[i]) {
+				final int literalIndex = getLiteralIndex(literal);
+				occurrences[literalIndex][--occurrenceCount[literalIndex]] = i;
+			}
+		}
+
+		for (int i = 0; i < unitCount; i++) {
+			if (!propagate(units[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int getLiteralIndex(int literal) {
+		return literal > 0 ? literal << 1 : ((-literal) << 1) + 1;
+	}
+
+	private boolean isSatisfied(int[] clause) {
+		for (final int literal : clause) {
+			if (assignment[Math.abs(literal)] == (literal > 0 ? 1 : -1)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Assigns the given literal and performs unit propagation. On conflict the assignment is <b>not</b> reverted.
+	 *
+	 * @return {@code false} if a conflict occurred.
+	 */
+	private boolean propagate(int startLiteral) {
+		final int startValue = assignment[Math.abs(startLiteral)];
+		if (startValue != 0) {
+			return startValue == (startLiteral > 0 ? 1 : -1);
+		}
+		int propagated = trailSize;
+		assign(startLiteral);
+		while (propagated < trailSize) {
+			final int falseLiteral = -trail[propagated++];
+			for (final int clauseIndex : occurrences[getLiteralIndex(falseLiteral)]) {
+				final int[] clause = clauses[clauseIndex];
+				int unassignedLiteral = 0;
+				int unassignedCount = 0;
+				boolean satisfied = false;
+				for (final int literal : clause) {
+					final int value = assignment[Math.abs(literal)];
+					if (value == 0) {
+						unassignedLiteral = literal;
+						unassignedCount++;
+					} else if (value == (literal > 0 ? 1 : -1)) {
+						satisfied = true;
+						break;
+					}
+				}
+				if (!satisfied) {
+					if (unassignedCount == 0) {
+						return false;
+					} else if (unassignedCount == 1) {
+						assign(unassignedLiteral);
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	private void assign(int literal) {
+		assignment[Math.abs(literal)] = (byte) (literal > 0 ? 1 : -1);
+		trail[trailSize++] = literal;
+	}
+
+	private void undo(int oldTrailSize) {
+		while (trailSize > oldTrailSize) {
+			assignment[Math.abs(trail[--trailSize])] = 0;
+		}
+	}
+
+	/**
+	 * Frame of the work stack that replaces a recursion over the decision levels, such that the depth of the compilation is not limited by the stack size of
+	 * the thread.
+	 */
+	private abstract static class Frame {
+
+		/**
+		 * Continues the compilation of this frame.
+		 *
+		 * @param childNode the node of the frame that was finished last or {@link #NO_RESULT} if this frame was just pushed.
+		 * @return the node of this frame or {@link #NO_RESULT} if a new frame was pushed.
+		 */
+		abstract int resume(int childNode) throws TimeoutException;
+
+	}
+
+	/**
+	 * Compiles the residual formula over the given variables under the current assignment. All literals that were assigned since {@code oldTrailSize} become
+	 * literal nodes of the resulting conjunction.
+	 */
+	private final class ResidualFrame extends Frame {
+
+		private final int oldTrailSize;
+		private final boolean branch;
+		private final int[] children;
+		private final ArrayList<int[]> components = new ArrayList<>();
+		private int length = 0;
+		private int componentIndex = 0;
+
+		/**
+		 * @param variables the variables of the residual formula (assigned variables are ignored) or {@code null} to consider all variables.
+		 * @param oldTrailSize the trail size before the last decision.
+		 * @param branch whether the last decision is reverted when this frame is finished.
+		 */
+		ResidualFrame(int[] variables, int oldTrailSize, boolean branch) {
+			this.oldTrailSize = oldTrailSize;
+			this.branch = branch;
+			final int variableCount = variables == null ? numberOfVariables : variables.length;
+			children = new int[(trailSize - oldTrailSize) + variableCount];
+			for (int i = oldTrailSize; i < trailSize; i++) {
+				children[length++] = getLiteralNode(trail[i]);
+			}
+
+			// Split into components first, as compiling a component overwrites the variable marks
+			newMarkStamp();
+			final int componentMark = markStamp;
+			for (int i = 0; i < variableCount; i++) {
+				final int var = variables == null ? i + 1 : variables[i];
+				if ((assignment[var] == 0) && (variableMark[var] != componentMark)) {
+					final int[] component = findComponent(var, componentMark);
+					if (component == null) {
+						children[length++] = getFreeNode(var);
+					} else {
+						components.add(component);
+					}
+				}
+			}
+		}
+
+		@Override
+		int resume(int childNode) {
+			if (childNode != NO_RESULT) {
+				if (childNode == FALSE_NODE) {
+					return finish(FALSE_NODE);
+				}
+				children[length++] = childNode;
+			}
+			if (componentIndex < components.size()) {
+				stack.push(new ComponentFrame(components.get(componentIndex++)));
+				return NO_RESULT;
+			}
+			return finish(newAndNode(children, length));
+		}
+
+		private int finish(int node) {
+			if (branch) {
+				undo(oldTrailSize);
+			}
+			return node;
+		}
+
+	}
+
+	/**
+	 * Compiles a component by deciding its most frequent variable. Compiled components are cached.
+	 */
+	private final class ComponentFrame extends Frame {
+
+		private final int[] component;
+		private ComponentKey key;
+		private int decisionVariable;
+		private int positiveNode;
+		private int stage = 0;
+
+		ComponentFrame(int[] component) {
+			this.component = component;
+		}
+
+		@Override
+		int resume(int childNode) throws TimeoutException {
+			if (stage == 0) {
+				key = createKey(component);
+				final Integer cachedNode = cache.get(key);
+				if (cachedNode != null) {
+					return cachedNode;
+				}
+
+				if ((++decisionCount & 0x3ff) == 0) {
+					monitor.checkCancel();
+					if (System.currentTimeMillis() > deadline) {
+						throw new TimeoutException();
+					}
+				}
+
+				decisionVariable = selectVariable(component);
+				stage = 1;
+				childNode = branch(decisionVariable);
+				if (childNode == NO_RESULT) {
+					return NO_RESULT;
+				}
+			}
+			if (stage == 1) {
+				positiveNode = childNode;
+				stage = 2;
+				childNode = branch(-decisionVariable);
+				if (childNode == NO_RESULT) {
+					return NO_RESULT;
+				}
+			}
+
+			final int negativeNode = childNode;
+			final int node;
+			if (positiveNode == FALSE_NODE) {
+				node = negativeNode;
+			} else if (negativeNode == FALSE_NODE) {
+				node = positiveNode;
+			} else {
+				node = newNode(DDNNF.NODE_OR, 0, new int[] { positiveNode, negativeNode }, 2);
+			}
+			cache.put(key, node);
+			return node;
+		}
+
+		/**
+		 * Assigns the given literal and pushes a frame for the resulting residual formula.
+		 *
+		 * @return {@link #FALSE_NODE} if the literal leads to a conflict, {@link #NO_RESULT} otherwise.
+		 */
+		private int branch(int literal) {
+			final int oldTrailSize = trailSize;
+			if (propagate(literal)) {
+				stack.push(new ResidualFrame(component, oldTrailSize, true));
+				return NO_RESULT;
+			}
+			undo(oldTrailSize);
+			return FALSE_NODE;
+		}
+
+	}
+
+	/**
+	 * Compiles the residual formula over all variables under the current assignment.
+	 *
+	 * @return the index of the root node of the compiled formula.
+	 */
+	private int compileResidual() throws TimeoutException {
+		stack.push(new ResidualFrame(null, 0, false));
+		int node = NO_RESULT;
+		while (!stack.isEmpty()) {
+			node = stack.peek().resume(node);
+			if (node != NO_RESULT) {
+				stack.pop();
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * Collects all unassigned variables that are connected to the given variable via unsatisfied clauses.
+	 *
+	 * @return the component or {@code null}, if the variable does not occur in any unsatisfied clause.
+	 */
+	private int[] findComponent(int startVar, int componentMark) {
+		variableMark[startVar] = componentMark;
+		queue[0] = startVar;
+		int queueEnd = 1;
+		for (int queueStart = 0; queueStart < queueEnd; queueStart++) {
+			final int var = queue[queueStart];
+			queueEnd = visitClauses(occurrences[getLiteralIndex(var)], componentMark, queueEnd);
+			queueEnd = visitClauses(occurrences[getLiteralIndex(-var)], componentMark, queueEnd);
+		}
+		if (queueEnd == 1) {
+			// After unit propagation, a single variable cannot form an unsatisfied clause by itself
+			return null;
+		}
+		final int[] component = Arrays.copyOf(queue, queueEnd);
+		Arrays.sort(component);
+		return component;
+	}
+
+	private int visitClauses(int[] clauseIndices, int componentMark, int queueEnd) {
+		for (final int clauseIndex : clauseIndices) {
+			final int[] clause = clauses[clauseIndex];
+			if (!isSatisfied(clause)) {
+				for (final int literal : clause) {
+					final int var = Math.abs(literal);
+					if ((assignment[var] == 0) && (variableMark[var] != componentMark)) {
+						variableMark[var] = componentMark;
+						queue[queueEnd++] = var;
+					}
+				}
+			}
+		}
+		return queueEnd;
+	}
+
+	private ComponentKey createKey(int[] component) {
+		newMarkStamp();
+		int clauseCount = 0;
+		final int[] clauseIndices = new int[clauses.length];
+		for (final int var : component) {
+			clauseCount = collectClauses(occurrences[getLiteralIndex(var)], clauseIndices, clauseCount);
+			clauseCount = collectClauses(occurrences[getLiteralIndex(-var)], clauseIndices, clauseCount);
+		}
+		Arrays.sort(clauseIndices, 0, clauseCount);
+		final int[] key = new int[component.length + clauseCount];
+		System.arraycopy(component, 0, key, 0, component.length);
+		System.arraycopy(clauseIndices, 0, key, component.length, clauseCount);
+		return new ComponentKey(key);
+	}
+
+	private int collectClauses(int[] occurrenceList, int[] clauseIndices, int clauseCount) {
+		for (final int clauseIndex : occurrenceList) {
+			if ((clauseMark[clauseIndex] != markStamp) && !isSatisfied(clauses[clauseIndex])) {
+				clauseMark[clauseIndex] = markStamp;
+				clauseIndices[clauseCount++] = clauseIndex;
+			}
+		}
+		return clauseCount;
+	}
+
+	/**
+	 * Selects the variable with the most occurrences in unsatisfied clauses.
+	 */
+	private int selectVariable(int[] component) {
+		int bestVariable = component[0];
+		int bestScore = -1;
+		for (final int var : component) {
+			final int score = countUnsatisfied(occurrences[getLiteralIndex(var)]) + countUnsatisfied(occurrences[getLiteralIndex(-var)]);
+			if (score > bestScore) {
+				bestScore = score;
+				bestVariable = var;
+			}
+		}
+		return bestVariable;
+	}
+
+	private int countUnsatisfied(int[] clauseIndices) {
+		int count = 0;
+		for (final int clauseIndex : clauseIndices) {
+			if (!isSatisfied(clauses[clauseIndex])) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private void newMarkStamp() {
+		if (++markStamp == Integer.MAX_VALUE) {
+			markStamp = 1;
+			Arrays.fill(variableMark, 0);
+			Arrays.fill(clauseMark, 0);
+		}
+	}
+
+	private int getLiteralNode(int literal) {
+		final int literalIndex = getLiteralIndex(literal);
+		int node = literalNodes[literalIndex];
+		if (node < 0) {
+			node = newNode(DDNNF.NODE_LITERAL, literal, new int[0], 0);
+			literalNodes[literalIndex] = node;
+		}
+		return node;
+	}
+
+	private int getFreeNode(int var) {
+		int node = freeNodes[var];
+		if (node < 0) {
+			node = newNode(DDNNF.NODE_FREE, var, new int[0], 0);
+			freeNodes[var] = node;
+		}
+		return node;
+	}
+
+	private int newAndNode(int[] children, int length) {
+		switch (length) {
+		case 0:
+			return TRUE_NODE;
+		case 1:
+			return children[0];
+		default:
+			return newNode(DDNNF.NODE_AND, 0, children, length);
+		}
+	}
+
+	private int newNode(byte type, int value, int[] children, int length) {
+		if (nodeCount == types.length) {
+			final int newSize = types.length << 1;
+			types = Arrays.copyOf(types, newSize);
+			values = Arrays.copyOf(values, newSize);
+			childIndex = Arrays.copyOf(childIndex, newSize + 1);
+		}
+		if ((childCount + length) > childList.length) {
+			childList = Arrays.copyOf(childList, Math.max(childList.length << 1, childCount + length));
+		}
+		types[nodeCount] = type;
+		values[nodeCount] = value;
+		System.arraycopy(children, 0, childList, childCount, length);
+		childCount += length;
+		childIndex[nodeCount + 1] = childCount;
+		return nodeCount++;
+	}
+
+}
@@ -0,0 +1,82 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FormulaArtifactCache;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FormulaArtifactCache.Artifact;
+
+/**
+ * Binary format of a {@link ModalImplicationGraph} for the {@link FormulaArtifactCache}.
+ *
+ * @author FeatureIDE Team
+ */
+public class MIGBinaryFormat implements Artifact<ModalImplicationGraph> {
+
+	private final boolean complete;
+
+	/**
+	 * @param complete whether the graph was built with detection of all strong edges (see {@link MIGBuilder}).
+	 */
+	public MIGBinaryFormat(boolean complete) {
+		this.complete = complete;
+	}
+
+	@Override
+	public String getName() {
+		return complete ? "mig-complete" : "mig";
+	}
+
+	@Override
+	public void write(DataOutputStream out, ModalImplicationGraph mig) throws IOException {
+		out.writeInt(mig.adjList.size());
+		for (final Vertex vertex : mig.adjList) {
+			out.writeInt(vertex.getVar());
+			out.writeInt(vertex.getId());
+			out.writeBoolean(vertex.isCore());
+			out.writeBoolean(vertex.isDead());
+			FormulaArtifactCache.writeIntArray(out, vertex.getStrongEdges());
+			FormulaArtifactCache.writeIntArray(out, vertex.getComplexClauses());
+		}
+		FormulaArtifactCache.writeLiteralSets(out, mig.complexClauses);
+	}
+
+	@Override
+	public ModalImplicationGraph read(ByteBuffer in) throws IOException {
+		final int numberOfVertices = in.getInt();
+		final ModalImplicationGraph mig = new ModalImplicationGraph(numberOfVertices);
+		for (int i = 0; i < numberOfVertices; i++) {
+			final Vertex vertex = new Vertex(in.getInt());
+			vertex.setId(in.getInt());
+			vertex.setCore(in.get() != 0);
+			vertex.setDead(in.get() != 0);
+			vertex.setStrongEdges(FormulaArtifactCache.readIntArray(in));
+			vertex.setComplexClauses(FormulaArtifactCache.readIntArray(in));
+			mig.adjList.add(vertex);
+		}
+		mig.complexClauses.addAll(FormulaArtifactCache.readLiteralSets(in));
+		return mig;
+	}
+
+}
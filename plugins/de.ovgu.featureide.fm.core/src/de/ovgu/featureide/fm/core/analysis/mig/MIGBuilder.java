@@ -34,6 +34,7 @@ import java.util.Set;
 import org.sat4j.specs.ContradictionException;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactCNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
@@ -265,47 +266,71 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 	}
 
 	private void initEdges() {
-		outer: for (final LiteralSet clause : solver.getSatInstance().getClauses()) {
-			final int[] literals = clause.getLiterals();
-			final HashSet<Integer> literalSet = new HashSet<>(literals.length << 1);
-
-			// Sort out dead and core features
-			int childrenCount = clause.size();
-			for (int i = 0; i < childrenCount; i++) {
-				final int var = literals[i];
-				final int coreB = var * adjMatrix.core[Math.abs(var) - 1];
-				if (coreB > 0) {
-					// Clause is satisfied
-					continue outer;
-				} else if (coreB < 0) {
-					// Current literal is unsatisfied (dead or core feature)
-					if (childrenCount <= 2) {
-						continue outer;
-					}
-					childrenCount--;
-					// Switch literals (faster than deletion within an
-					// array)
-					literals[i] = literals[childrenCount];
-					literals[childrenCount] = var;
-					i--;
-				} else {
-					if (literalSet.contains(-var)) {
-						continue outer;
-					} else {
-						literalSet.add(var);
-					}
+		final CNF cnf = solver.getSatInstance();
+		// Clauses are copied into a buffer, as dead and core literals are moved to the end of the clause
+		int[] buffer = new int[0];
+		if (cnf instanceof CompactCNF) {
+			final CompactCNF compactCNF = (CompactCNF) cnf;
+			final int[] literals = compactCNF.getLiteralArray();
+			for (int i = 0; i < compactCNF.getNumberOfClauses(); i++) {
+				final int length = compactCNF.getClauseLength(i);
+				if (buffer.length < length) {
+					buffer = new int[length];
 				}
+				System.arraycopy(literals, compactCNF.getClauseStart(i), buffer, 0, length);
+				initEdges(buffer, length);
 			}
-			final int[] literalArray = new int[literalSet.size()];
-			int i = 0;
-			for (final int lit : literalSet) {
-				literalArray[i++] = lit;
+		} else {
+			for (final LiteralSet clause : cnf.getClauses()) {
+				final int[] literals = clause.getLiterals();
+				if (buffer.length < literals.length) {
+					buffer = new int[literals.length];
+				}
+				System.arraycopy(literals, 0, buffer, 0, literals.length);
+				initEdges(buffer, literals.length);
 			}
-			addClause(literalArray);
-			addRelation(literalArray);
 		}
 	}
 
+	private void initEdges(final int[] literals, final int length) {
+		final HashSet<Integer> literalSet = new HashSet<>(length << 1);
+
+		// Sort out dead and core features
+		int childrenCount = length;
+		for (int i = 0; i < childrenCount; i++) {
+			final int var = literals[i];
+			final int coreB = var * adjMatrix.core[Math.abs(var) - 1];
+			if (coreB > 0) {
+				// Clause is satisfied
+				return;
+			} else if (coreB < 0) {
+				// Current literal is unsatisfied (dead or core feature)
+				if (childrenCount <= 2) {
+					return;
+				}
+				childrenCount--;
+				// Switch literals (faster than deletion within an
+				// array)
+				literals[i] = literals[childrenCount];
+				literals[childrenCount] = var;
+				i--;
+			} else {
+				if (literalSet.contains(-var)) {
+					return;
+				} else {
+					literalSet.add(var);
+				}
+			}
+		}
+		final int[] literalArray = new int[literalSet.size()];
+		int i = 0;
+		for (final int lit : literalSet) {
+			literalArray[i++] = lit;
+		}
+		addClause(literalArray);
+		addRelation(literalArray);
+	}
+
 	private void addRelation(final int[] newLiterals) {
 		if (newLiterals.length == 2) {
 			addStrongRelation(newLiterals[0], newLiterals[1]);
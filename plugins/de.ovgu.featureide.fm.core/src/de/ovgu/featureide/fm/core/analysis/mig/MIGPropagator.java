@@ -0,0 +1,353 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.sat4j.core.VecInt;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SatSolverPool;
+
+/**
+ * Computes all literals that are implied by a set of assumptions (e.g., the manual selections of a configuration) using a {@link ModalImplicationGraph modal
+ * implication graph}. The result is the same as the one of a {@link CoreDeadAnalysis} with these assumptions.<br> <br> The implied literals of the previous
+ * assumptions are kept. If assumptions are only added, all previously implied literals remain implied. Then, the strong edges of the graph are traversed from
+ * the new assumptions, which usually finds most of the newly implied literals. Only literals that are reachable from the new assumptions via strong or weak
+ * edges of clauses that are not yet satisfied are checked by the solver. If assumptions are removed, only the previously implied literals can still be
+ * implied. Those that are not reachable via strong edges from the remaining assumptions are checked by the solver.<br> <br> The solvers are acquired from a
+ * {@link SatSolverPool pool} for the CNF of the graph. This class is thread-safe.
+ *
+ * @author FeatureIDE Team
+ */
+public class MIGPropagator {
+
+	private final ModalImplicationGraph mig;
+	private final SatSolverPool solverPool;
+	private final int numberOfVariables;
+
+	/** The core and dead literals, indexed by variable. */
+	private int[] coreDeadValues = null;
+	/** The assumptions of the last successful propagation, indexed by variable. */
+	private int[] assumptions;
+	/** The literals that are implied by the assumptions of the last successful propagation (including the assumptions), indexed by variable. */
+	private int[] impliedValues;
+
+	private long numberOfSolverCalls = 0;
+
+	/**
+	 * @param mig the modal implication graph
+	 * @param solverPool the solver pool for the CNF of the graph
+	 */
+	public MIGPropagator(ModalImplicationGraph mig, SatSolverPool solverPool) {
+		this.mig = mig;
+		this.solverPool = solverPool;
+		numberOfVariables = solverPool.getSatInstance().getVariables().size();
+		assumptions = new int[numberOfVariables];
+		impliedValues = new int[numberOfVariables];
+	}
+
+	public ModalImplicationGraph getModalImplicationGraph() {
+		return mig;
+	}
+
+	/**
+	 * @return the number of satisfiability queries that were answered by the solver so far
+	 */
+	public synchronized long getNumberOfSolverCalls() {
+		return numberOfSolverCalls;
+	}
+
+	/**
+	 * Computes all literals that are implied by the given assumptions.
+	 *
+	 * @param assumedLiterals the assumptions
+	 * @return the implied literals in the order of their variables, excluding the assumptions, or {@code null} if the assumptions are contradictory (or the
+	 *         solver timed out while checking this)
+	 */
+	public synchronized LiteralSet propagate(int... assumedLiterals) {
+		final int[] newAssumptions = new int[numberOfVariables];
+		for (final int literal : assumedLiterals) {
+			final int index = Math.abs(literal) - 1;
+			if (newAssumptions[index] == -literal) {
+				return null;
+			}
+			newAssumptions[index] = literal;
+		}
+
+		final AdvancedSatSolver solver = solverPool.acquire();
+		try {
+			if (coreDeadValues == null) {
+				coreDeadValues = computeCoreDeadValues(solver);
+				if (coreDeadValues == null) {
+					return null;
+				}
+				impliedValues = Arrays.copyOf(coreDeadValues, numberOfVariables);
+			}
+
+			// Remove assumptions
+			int[] values = impliedValues;
+			final VecInt keptAssumptions = new VecInt();
+			boolean removed = false;
+			for (int i = 0; i < numberOfVariables; i++) {
+				final int literal = assumptions[i];
+				if (literal != 0) {
+					if (literal == newAssumptions[i]) {
+						keptAssumptions.push(literal);
+					} else {
+						removed = true;
+					}
+				}
+			}
+			if (removed) {
+				values = retract(solver, keptAssumptions);
+			}
+
+			// Add assumptions
+			final VecInt addedAssumptions = new VecInt();
+			for (int i = 0; i < numberOfVariables; i++) {
+				final int literal = newAssumptions[i];
+				if (literal != 0) {
+					if (values[i] == -literal) {
+						return null;
+					} else if (values[i] == 0) {
+						addedAssumptions.push(literal);
+					}
+				}
+			}
+			if (!addedAssumptions.isEmpty()) {
+				values = extend(solver, values, addedAssumptions);
+				if (values == null) {
+					return null;
+				}
+			}
+
+			assumptions = newAssumptions;
+			impliedValues = values;
+
+			final VecInt impliedLiterals = new VecInt();
+			for (int i = 0; i < numberOfVariables; i++) {
+				final int literal = values[i];
+				if ((literal != 0) && (newAssumptions[i] == 0)) {
+					impliedLiterals.push(literal);
+				}
+			}
+			return new LiteralSet(Arrays.copyOf(impliedLiterals.toArray(), impliedLiterals.size()));
+		} finally {
+			solverPool.release(solver);
+		}
+	}
+
+	private int[] computeCoreDeadValues(AdvancedSatSolver solver) {
+		final int[] values = new int[numberOfVariables];
+		final VecInt candidates = new VecInt(numberOfVariables << 1);
+		for (int var = 1; var <= numberOfVariables; var++) {
+			candidates.push(var);
+			candidates.push(-var);
+		}
+		final Traverser traverser = mig.traverse();
+		traverser.setModel(values);
+		return computeImpliedValues(solver, values, candidates, traverser) ? values : null;
+	}
+
+	/**
+	 * Computes the implied literals of a subset of the current assumptions. These are a subset of the current implied literals.
+	 */
+	private int[] retract(AdvancedSatSolver solver, VecInt keptAssumptions) {
+		final int[] values = Arrays.copyOf(coreDeadValues, numberOfVariables);
+		final Traverser traverser = mig.traverse();
+		traverser.setModel(values);
+		traverser.setVisitor(new CollectingVisitor());
+		traverser.traverseStrong(Arrays.copyOf(keptAssumptions.toArray(), keptAssumptions.size()));
+
+		final VecInt candidates = new VecInt();
+		for (int i = 0; i < numberOfVariables; i++) {
+			final int literal = impliedValues[i];
+			if ((literal != 0) && (values[i] == 0)) {
+				candidates.push(literal);
+			}
+		}
+		if (!computeImpliedValues(solver, values, candidates, traverser)) {
+			// Cannot happen for a subset of satisfiable assumptions, unless the solver timed out
+			for (int i = 0; i < candidates.size(); i++) {
+				values[Math.abs(candidates.get(i)) - 1] = 0;
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Computes the implied literals of a superset of the assumptions of the given values.
+	 */
+	private int[] extend(AdvancedSatSolver solver, int[] previousValues, VecInt addedAssumptions) {
+		final int[] addedLiterals = Arrays.copyOf(addedAssumptions.toArray(), addedAssumptions.size());
+		final int[] values = Arrays.copyOf(previousValues, numberOfVariables);
+		final Traverser traverser = mig.traverse();
+		traverser.setModel(values);
+		traverser.setVisitor(new CollectingVisitor());
+		traverser.traverseStrong(addedLiterals);
+
+		// The traversal keeps the first value of a variable. Thus, a new assumption that is implied to be false by another one is not assigned.
+		for (final int literal : addedLiterals) {
+			if (values[Math.abs(literal) - 1] != literal) {
+				return null;
+			}
+		}
+
+		// The traversal does not detect any other contradictions, thus, the solver has to check all values.
+		return computeImpliedValues(solver, values, getReachableLiterals(previousValues, addedLiterals), traverser) ? values : null;
+	}
+
+	/**
+	 * Returns all literals that are reachable from the given literals via strong and weak edges. Literals with a known value and clauses that are already
+	 * satisfied by the known values are skipped. Only these literals can be implied by the given literals in addition to the known values.
+	 *
+	 * @param knownValues the known values, indexed by variable
+	 * @param literals the new literals
+	 * @return the reachable literals with an unknown value
+	 */
+	private VecInt getReachableLiterals(int[] knownValues, int[] literals) {
+		final boolean[] marked = new boolean[numberOfVariables << 1];
+		final VecInt reachableLiterals = new VecInt();
+		for (final int literal : literals) {
+			mark(marked, reachableLiterals, literal);
+		}
+		final List<LiteralSet> complexClauses = mig.getComplexClauses();
+		for (int i = 0; i < reachableLiterals.size(); i++) {
+			final int reachableLiteral = reachableLiterals.get(i);
+			final Vertex vertex = mig.getVertex(reachableLiteral);
+			for (final int strongLiteral : vertex.getStrongEdges()) {
+				if (knownValues[Math.abs(strongLiteral) - 1] == 0) {
+					mark(marked, reachableLiterals, strongLiteral);
+				}
+			}
+			clauseLoop: for (final int clauseIndex : vertex.getComplexClauses()) {
+				final int[] clauseLiterals = complexClauses.get(clauseIndex).getLiterals();
+				for (final int clauseLiteral : clauseLiterals) {
+					if (knownValues[Math.abs(clauseLiteral) - 1] == clauseLiteral) {
+						continue clauseLoop;
+					}
+				}
+				for (final int clauseLiteral : clauseLiterals) {
+					if ((clauseLiteral != -reachableLiteral) && (knownValues[Math.abs(clauseLiteral) - 1] == 0)) {
+						mark(marked, reachableLiterals, clauseLiteral);
+					}
+				}
+			}
+		}
+		return reachableLiterals;
+	}
+
+	private void mark(boolean[] marked, VecInt reachableLiterals, int literal) {
+		final int index = literal > 0 ? literal - 1 : numberOfVariables - literal - 1;
+		if (!marked[index]) {
+			marked[index] = true;
+			reachableLiterals.push(literal);
+		}
+	}
+
+	/**
+	 * Adds all candidates that are implied by the given values to these values.
+	 *
+	 * @param solver the solver
+	 * @param values the known values, indexed by variable
+	 * @param candidateLiterals the literals that might be implied
+	 * @param traverser traverser for the given values, used to add the strongly implied literals of each new literal
+	 * @return {@code false} if the known values are contradictory, {@code true} otherwise
+	 */
+	private boolean computeImpliedValues(AdvancedSatSolver solver, int[] values, VecInt candidateLiterals, Traverser traverser) {
+		solver.assignmentClear(0);
+		for (final int literal : values) {
+			if (literal != 0) {
+				solver.assignmentPush(literal);
+			}
+		}
+		numberOfSolverCalls++;
+		switch (solver.hasSolution()) {
+		case FALSE:
+		case TIMEOUT:
+			return false;
+		case TRUE:
+			break;
+		default:
+			throw new AssertionError();
+		}
+
+		// Skip all candidates that have a different value in the solution
+		final int[] solution = solver.getSolution();
+		final int[] candidates = new int[numberOfVariables];
+		int candidateCount = 0;
+		for (int i = 0; i < candidateLiterals.size(); i++) {
+			final int literal = candidateLiterals.get(i);
+			final int index = Math.abs(literal) - 1;
+			if ((values[index] == 0) && (solution[index] == literal) && (candidates[index] == 0)) {
+				candidates[index] = literal;
+				candidateCount++;
+			}
+		}
+		if (candidateCount == 0) {
+			return true;
+		}
+		solver.setSelectionStrategy(candidates, true);
+
+		for (int i = 0; i < numberOfVariables; i++) {
+			final int literal = candidates[i];
+			if ((literal != 0) && (values[i] == 0)) {
+				solver.assignmentPush(-literal);
+				numberOfSolverCalls++;
+				switch (solver.hasSolution()) {
+				case FALSE:
+					solver.assignmentReplaceLast(literal);
+					final CollectingVisitor visitor = new CollectingVisitor();
+					traverser.setVisitor(visitor);
+					traverser.traverseStrong(literal);
+					final VecInt strongLiterals = visitor.getResult()[0];
+					for (int j = 0; j < strongLiterals.size(); j++) {
+						final int strongLiteral = strongLiterals.get(j);
+						if (strongLiteral != literal) {
+							solver.assignmentPush(strongLiteral);
+						}
+					}
+					break;
+				case TIMEOUT:
+					solver.assignmentPop();
+					break;
+				case TRUE:
+					solver.assignmentPop();
+					final int[] newSolution = solver.getSolution();
+					for (int j = i + 1; j < numberOfVariables; j++) {
+						if ((candidates[j] != 0) && (candidates[j] != newSolution[j])) {
+							candidates[j] = 0;
+						}
+					}
+					break;
+				default:
+					throw new AssertionError();
+				}
+			}
+		}
+		return true;
+	}
+
+}
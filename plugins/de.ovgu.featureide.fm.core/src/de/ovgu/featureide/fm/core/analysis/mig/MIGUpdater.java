@@ -0,0 +1,132 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import java.util.Arrays;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Updates a {@link ModalImplicationGraph} after clauses were added to its formula. Instead of building a new graph (see {@link MIGBuilder}), a copy of the
+ * old graph is modified. Core and dead features of the old graph remain core and dead, thus, only the remaining variables are checked. Afterwards, all added
+ * clauses are inserted into the copy.<br> Both formulas must use the same variables. In contrast to {@link MIGBuilder}, redundant complex clauses are not
+ * removed and strong edges are not detected with a solver.
+ *
+ * @author FeatureIDE Team
+ */
+public class MIGUpdater implements LongRunningMethod<ModalImplicationGraph> {
+
+	private final ModalImplicationGraph oldMig;
+	private final CNF satInstance;
+	private final List<LiteralSet> addedClauses;
+
+	/**
+	 * @param oldMig the graph of the old formula
+	 * @param satInstance the new formula
+	 * @param addedClauses all clauses that are contained in the new, but not in the old formula
+	 */
+	public MIGUpdater(ModalImplicationGraph oldMig, CNF satInstance, List<LiteralSet> addedClauses) {
+		this.oldMig = oldMig;
+		this.satInstance = satInstance;
+		this.addedClauses = addedClauses;
+	}
+
+	@Override
+	public ModalImplicationGraph execute(IMonitor<ModalImplicationGraph> monitor) throws Exception {
+		monitor.setRemainingWork(3);
+		final int numberOfVariables = satInstance.getVariables().size();
+
+		final ISatSolver solver;
+		try {
+			solver = new AdvancedSatSolver(satInstance);
+		} catch (final RuntimeContradictionException e) {
+			return null;
+		}
+		if (solver.hasSolution() != SatResult.TRUE) {
+			return null;
+		}
+		monitor.step();
+
+		final ModalImplicationGraph mig = new ModalImplicationGraph(oldMig);
+
+		// Update core and dead features
+		final int[] core = new int[numberOfVariables + 1];
+		final int[] oldCoreLiterals = new int[numberOfVariables];
+		final int[] remainingVariables = new int[numberOfVariables];
+		int coreCount = 0;
+		int remainingCount = 0;
+		for (int var = 1; var <= numberOfVariables; var++) {
+			if (mig.getVertex(var).isCore()) {
+				oldCoreLiterals[coreCount++] = var;
+				core[var] = var;
+			} else if (mig.getVertex(-var).isCore()) {
+				oldCoreLiterals[coreCount++] = -var;
+				core[var] = -var;
+			} else {
+				remainingVariables[remainingCount++] = var;
+			}
+		}
+		final CoreDeadAnalysis coreDeadAnalysis = new CoreDeadAnalysis(solver);
+		coreDeadAnalysis.setAssumptions(new LiteralSet(Arrays.copyOf(oldCoreLiterals, coreCount)));
+		coreDeadAnalysis.setVariables(new LiteralSet(Arrays.copyOf(remainingVariables, remainingCount)));
+		final LiteralSet newCoreLiterals = LongRunningWrapper.runMethod(coreDeadAnalysis, monitor.subTask(1));
+		if (newCoreLiterals == null) {
+			return null;
+		}
+		for (final int literal : newCoreLiterals.getLiterals()) {
+			core[Math.abs(literal)] = literal;
+			mig.addClause(new LiteralSet(literal));
+		}
+
+		// Add new clauses without core and dead features
+		outer: for (final LiteralSet clause : addedClauses) {
+			final int[] literals = clause.getLiterals();
+			final int[] newLiterals = new int[literals.length];
+			int count = 0;
+			for (final int literal : literals) {
+				final int coreLiteral = core[Math.abs(literal)];
+				if ((coreLiteral == literal) || clause.containsLiteral(-literal)) {
+					// Clause is satisfied
+					continue outer;
+				} else if (coreLiteral == 0) {
+					newLiterals[count++] = literal;
+				}
+			}
+			if (count > 1) {
+				mig.addClause(new LiteralSet(Arrays.copyOf(newLiterals, count)));
+			}
+		}
+		monitor.step();
+
+		return mig;
+	}
+
+}
@@ -55,6 +55,19 @@ public class ModalImplicationGraph implements IEdgeTypes, Serializable {
 		adjList = new ArrayList<>(numVariables);
 	}
 
+	/**
+	 * Creates a copy of the given graph that can be modified independently (e.g., by {@link #addClause(LiteralSet)}).
+	 *
+	 * @param otherGraph the graph to copy
+	 */
+	public ModalImplicationGraph(ModalImplicationGraph otherGraph) {
+		adjList = new ArrayList<>(otherGraph.adjList.size());
+		for (final Vertex vertex : otherGraph.adjList) {
+			adjList.add(new Vertex(vertex));
+		}
+		complexClauses.addAll(otherGraph.complexClauses);
+	}
+
 	public void copyValues(ModalImplicationGraph other) {
 		adjList.addAll(other.adjList);
 		complexClauses.addAll(other.complexClauses);
@@ -76,23 +89,23 @@ public class ModalImplicationGraph implements IEdgeTypes, Serializable {
 		return Collections.unmodifiableList(complexClauses);
 	}
 
+	/**
+	 * Adds a clause to this graph. A unit clause marks its literal as core, a binary clause is added as strong edges, and all other clauses are added as
+	 * complex clauses.<br> The transitive closure of the strong edges is preserved, i.e., for every new strong edge all implied strong edges are added as well.
+	 *
+	 * @param clause the clause to add
+	 */
 	public void addClause(LiteralSet clause) {
 		final int[] literals = clause.getLiterals();
 		switch (clause.size()) {
 		case 0:
 			throw new RuntimeContradictionException();
 		case 1: {
-			final int literal = literals[0];
-			final Vertex vertex = getVertex(literal);
-			vertex.setCore(literal > 0);
-			vertex.setDead(literal < 0);
+			setCore(literals[0], true);
 			break;
 		}
 		case 2: {
-			final Vertex vertex0 = getVertex(-literals[0]);
-			final Vertex vertex1 = getVertex(-literals[1]);
-			addStrongEdge(vertex0, -vertex1.getVar());
-			addStrongEdge(vertex1, -vertex0.getVar());
+			addImplication(-literals[0], literals[1]);
 			break;
 		}
 		default: {
@@ -106,36 +119,71 @@ public class ModalImplicationGraph implements IEdgeTypes, Serializable {
 		}
 	}
 
+	/**
+	 * Removes a clause from this graph. Only the edges that directly correspond to the given clause are removed. Implications that were derived from the clause
+	 * (e.g., by the transitive closure of strong edges) remain in the graph. Thus, after removing a clause, the graph may contain implications that do not hold
+	 * anymore. For an exact graph, it has to be built again (see {@link MIGBuilder}).
+	 *
+	 * @param clause the clause to remove
+	 */
 	public void removeClause(LiteralSet clause) {
 		final int[] literals = clause.getLiterals();
 		switch (clause.size()) {
 		case 0:
 			throw new RuntimeContradictionException();
 		case 1: {
-			final int literal = literals[0];
-			final Vertex vertex = getVertex(literal);
-			vertex.setCore(literal > 0);
-			vertex.setDead(literal < 0);
+			setCore(literals[0], false);
 			break;
 		}
 		case 2: {
-			final Vertex vertex0 = getVertex(-literals[0]);
-			final Vertex vertex1 = getVertex(-literals[1]);
-			addStrongEdge(vertex0, -vertex1.getVar());
-			addStrongEdge(vertex1, -vertex0.getVar());
+			removeStrongEdge(getVertex(-literals[0]), literals[1]);
+			removeStrongEdge(getVertex(-literals[1]), literals[0]);
 			break;
 		}
 		default: {
-			final int newClauseIndex = complexClauses.size();
-			complexClauses.add(clause);
-			for (final int literal : literals) {
-				addWeakEdge(getVertex(-literal), newClauseIndex);
+			final int clauseIndex = complexClauses.indexOf(clause);
+			if (clauseIndex >= 0) {
+				complexClauses.remove(clauseIndex);
+				for (final Vertex vertex : adjList) {
+					removeWeakEdge(vertex, clauseIndex);
+				}
 			}
 			break;
 		}
 		}
 	}
 
+	private void setCore(final int literal, final boolean core) {
+		getVertex(literal).setCore(core);
+		getVertex(-literal).setDead(core);
+	}
+
+	private void addImplication(final int fromLiteral, final int toLiteral) {
+		// By contraposition, the negated strong edges of -fromLiteral are all literals that imply fromLiteral
+		final int[] negatedPredecessors = getVertex(-fromLiteral).getStrongEdges();
+		final int[] successors = getVertex(toLiteral).getStrongEdges();
+		final int[] sources = new int[negatedPredecessors.length + 1];
+		final int[] targets = new int[successors.length + 1];
+		sources[0] = fromLiteral;
+		for (int i = 0; i < negatedPredecessors.length; i++) {
+			sources[i + 1] = -negatedPredecessors[i];
+		}
+		targets[0] = toLiteral;
+		System.arraycopy(successors, 0, targets, 1, successors.length);
+
+		for (final int source : sources) {
+			for (final int target : targets) {
+				if (source == -target) {
+					// source implies its own negation
+					setCore(target, true);
+				} else if (source != target) {
+					addStrongEdge(getVertex(source), target);
+					addStrongEdge(getVertex(-target), -source);
+				}
+			}
+		}
+	}
+
 	private void addWeakEdge(final Vertex vertex, final int index) {
 		final int[] oldComplexClauses = vertex.getComplexClauses();
 		final int[] newComplexClauses = Arrays.copyOf(oldComplexClauses, oldComplexClauses.length + 1);
@@ -143,11 +191,44 @@ public class ModalImplicationGraph implements IEdgeTypes, Serializable {
 		vertex.setComplexClauses(newComplexClauses);
 	}
 
+	private void removeWeakEdge(final Vertex vertex, final int index) {
+		final int[] oldComplexClauses = vertex.getComplexClauses();
+		final int[] newComplexClauses = new int[oldComplexClauses.length];
+		int count = 0;
+		for (final int oldIndex : oldComplexClauses) {
+			if (oldIndex < index) {
+				newComplexClauses[count++] = oldIndex;
+			} else if (oldIndex > index) {
+				// Clauses after the removed clause are moved by one position
+				newComplexClauses[count++] = oldIndex - 1;
+			}
+		}
+		vertex.setComplexClauses(Arrays.copyOf(newComplexClauses, count));
+	}
+
 	private void addStrongEdge(final Vertex vertex, final int edge) {
 		final int[] oldStrongEdges = vertex.getStrongEdges();
+		for (final int oldEdge : oldStrongEdges) {
+			if (oldEdge == edge) {
+				return;
+			}
+		}
 		final int[] newStrongEdges = Arrays.copyOf(oldStrongEdges, oldStrongEdges.length + 1);
 		newStrongEdges[oldStrongEdges.length] = edge;
 		vertex.setStrongEdges(newStrongEdges);
 	}
 
+	private void removeStrongEdge(final Vertex vertex, final int edge) {
+		final int[] oldStrongEdges = vertex.getStrongEdges();
+		for (int i = 0; i < oldStrongEdges.length; i++) {
+			if (oldStrongEdges[i] == edge) {
+				final int[] newStrongEdges = new int[oldStrongEdges.length - 1];
+				System.arraycopy(oldStrongEdges, 0, newStrongEdges, 0, i);
+				System.arraycopy(oldStrongEdges, i + 1, newStrongEdges, i, newStrongEdges.length - i);
+				vertex.setStrongEdges(newStrongEdges);
+				return;
+			}
+		}
+	}
+
 }
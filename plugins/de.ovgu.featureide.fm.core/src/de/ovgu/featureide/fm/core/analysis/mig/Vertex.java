@@ -38,6 +38,20 @@ public class Vertex implements Serializable {
 		this.var = var;
 	}
 
+	/**
+	 * Creates a copy of the given vertex. The edge arrays are shared with the other vertex, thus, they must not be modified in place.
+	 *
+	 * @param otherVertex the vertex to copy
+	 */
+	public Vertex(Vertex otherVertex) {
+		var = otherVertex.var;
+		core = otherVertex.core;
+		dead = otherVertex.dead;
+		id = otherVertex.id;
+		complexClauses = otherVertex.complexClauses;
+		strongEdges = otherVertex.strongEdges;
+	}
+
 	public int getVar() {
 		return var;
 	}
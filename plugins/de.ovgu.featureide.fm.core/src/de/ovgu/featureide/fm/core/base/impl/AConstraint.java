@@ -56,7 +56,7 @@ public abstract class AConstraint extends AFeatureModelElement implements IConst
 
 	protected AConstraint(AConstraint oldConstraint, IFeatureModel featureModel) {
 		super(oldConstraint, featureModel);
-		setNode(oldConstraint.propNode.clone());
+		copyNode(oldConstraint);
 		featureSelected = oldConstraint.featureSelected;
 		isImplicit = oldConstraint.isImplicit;
 		description = oldConstraint.description;
@@ -121,6 +121,27 @@ public abstract class AConstraint extends AFeatureModelElement implements IConst
 		}
 	}
 
+	/**
+	 * Copies the node of the given constraint. The contained features are looked up by the names of the features that are contained in the given constraint,
+	 * which avoids traversing the copied node.
+	 *
+	 * @param oldConstraint the constraint to copy from
+	 */
+	private void copyNode(AConstraint oldConstraint) {
+		synchronized (oldConstraint.containedFeatureList) {
+			if (oldConstraint.containedFeatureList.contains(null)) {
+				setNode(oldConstraint.propNode.clone());
+				return;
+			}
+			propNode = oldConstraint.propNode.clone();
+			synchronized (containedFeatureList) {
+				for (final IFeature feature : oldConstraint.containedFeatureList) {
+					containedFeatureList.add(featureModel.getFeature(feature.getName()));
+				}
+			}
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "AConstraint [propNode=" + propNode + "]";
@@ -47,7 +47,8 @@ public abstract class AFeatureModelElement implements IFeatureModelElement {
 	protected AFeatureModelElement(AFeatureModelElement oldElement, IFeatureModel featureModel) {
 		this.featureModel = featureModel != null ? featureModel : oldElement.featureModel;
 		id = oldElement.id;
-		name = (oldElement.name == null) ? null : new String(oldElement.name);
+		// Names are immutable and can be shared with the copy
+		name = oldElement.name;
 	}
 
 	public AFeatureModelElement(IFeatureModel featureModel) {
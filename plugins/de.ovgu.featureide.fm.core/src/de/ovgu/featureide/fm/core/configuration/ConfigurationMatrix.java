@@ -20,17 +20,12 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
-import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.List;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.configuration.io.ConfigurationLoader;
-import de.ovgu.featureide.fm.core.configuration.io.IConfigurationLoaderCallback;
 
 /**
  * Reads all configuration file from a certain folder and saves their content in form of a selection matrix.
@@ -38,14 +33,16 @@ import de.ovgu.featureide.fm.core.configuration.io.IConfigurationLoaderCallback;
  * @author Paul Maximilan Bittner
  * @author Sebastian Krieter
  * @author Antje Moench
+ *
+ * @see SelectionMatrix
  */
 public class ConfigurationMatrix {
 
-	private final List<Config> configurationMatrix;
 	private final ConfigurationLoader loader;
 	private final FeatureModelFormula featureModel;
 	private final Path path;
 
+	private SelectionMatrix configurationMatrix = null;
 	private double[] rec = null;
 
 	public ConfigurationMatrix(FeatureModelFormula featureModel, String path) {
@@ -55,55 +52,19 @@ public class ConfigurationMatrix {
 	public ConfigurationMatrix(FeatureModelFormula featureModel, Path path) {
 		this.featureModel = featureModel;
 		this.path = path;
-		configurationMatrix = new ArrayList<>();
-		loader = new ConfigurationLoader(new IConfigurationLoaderCallback() {
-
-			@Override
-			public void onLoadingStarted() {
-				configurationMatrix.clear();
-			}
-
-			@Override
-			public void onLoadingError(IOException exception) {}
-
-			@Override
-			public void onConfigurationLoaded(Configuration configuration, Path path) {
-				configurationMatrix.add(createConfig(configuration));
-			}
-
-			@Override
-			public void onLoadingFinished() {
-				// TODO Auto-generated method stub
-
-			}
-		});
+		loader = new ConfigurationLoader();
 	}
 
 	public void readConfigurations() {
-		loader.loadConfigurations(featureModel, path);
+		readConfigurations(null);
 	}
 
 	public void readConfigurations(String excludeFile) {
-		loader.loadConfigurations(featureModel, path, excludeFile);
+		configurationMatrix = loader.loadSelectionMatrix(featureModel, path, excludeFile);
 	}
 
-	private Config createConfig(Configuration configuration) {
-		final Collection<SelectableFeature> features = configuration.getFeatures();
-		final byte[] configArray = new byte[features.size()];
-		int i = 0;
-		for (final SelectableFeature feature : features) {
-			switch (feature.getSelection()) {
-			case SELECTED:
-				configArray[i++] = 1;
-				break;
-			case UNDEFINED:
-			case UNSELECTED:
-			default:
-				configArray[i++] = 0;
-				break;
-			}
-		}
-		return new Config(configArray);
+	public SelectionMatrix getSelectionMatrix() {
+		return configurationMatrix;
 	}
 
 	public double[] getRec() {
@@ -111,56 +72,39 @@ public class ConfigurationMatrix {
 	}
 
 	public void calcRec(Configuration configuration) {
-		if (configurationMatrix.isEmpty()) {
+		if ((configurationMatrix == null) || (configurationMatrix.getNumberOfConfigurations() == 0)) {
 			return;
 		}
 
-		final Config curConfig = createConfig(configuration);
-
-		rec = new double[configurationMatrix.get(0).configArray.length];
-		Arrays.fill(rec, 0);
+		final long[] curConfig = configurationMatrix.createRow(configuration);
 
-		final int[] w = new int[configurationMatrix.size()];
+		final int[] w = new int[configurationMatrix.getNumberOfConfigurations()];
 		int wSum = 0;
-		{
-			int j = 0;
-			for (final Config config : configurationMatrix) {
-				final int delta = curConfig.getDelta(config);
-				w[j++] = delta;
-				wSum += delta;
-			}
+		for (int j = 0; j < w.length; j++) {
+			final int delta = configurationMatrix.countEqualSelections(j, curConfig);
+			w[j] = delta;
+			wSum += delta;
 		}
 
-		for (int i = 0; i < rec.length; i++) {
+		final Collection<SelectableFeature> features = configuration.getFeatures();
+		rec = new double[features.size()];
+		int i = 0;
+		for (final SelectableFeature feature : features) {
+			final int column = configurationMatrix.getColumn(feature.getName());
 			int fSum = 0;
-			for (int j = 0; j < w.length; j++) {
-				fSum += configurationMatrix.get(j).configArray[i] * w[j];
+			if (column >= 0) {
+				for (int j = 0; j < w.length; j++) {
+					if (configurationMatrix.isSelected(j, column)) {
+						fSum += w[j];
+					}
+				}
 			}
 			double recValue = ((double) fSum) / wSum;
-			if (curConfig.configArray[i] == 1) {
+			if (feature.getSelection() == Selection.SELECTED) {
 				recValue = 1 - recValue;
 			}
-			rec[i] = recValue;
+			rec[i++] = recValue;
 		}
 	}
 
-	private static class Config {
-
-		private final byte[] configArray;
-
-		public Config(byte[] configArray) {
-			this.configArray = configArray;
-		}
-
-		public int getDelta(Config otherConfig) {
-			int count = 0;
-			for (int i = 0; i < configArray.length; i++) {
-				if (configArray[i] == otherConfig.configArray[i]) {
-					count++;
-				}
-			}
-			return count;
-		}
-
-	}
 }
@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -31,13 +32,19 @@ import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CountSolutionsAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ACreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.CNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.DDNNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.MIGPropagatorCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.NoAbstractCNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.NoAbstractNoHiddenCNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.NoHiddenCNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.SatSolverPoolCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AllConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.OneWiseConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.OneWiseConfigurationGenerator.CoverStrategy;
@@ -45,6 +52,9 @@ import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SatSolverPool;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGPropagator;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
@@ -76,15 +86,19 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				return false;
 			}
 
-			final SatResult satResult = solver.hasSolution();
-			switch (satResult) {
-			case FALSE:
-			case TIMEOUT:
-				return false;
-			case TRUE:
-				return true;
-			default:
-				throw new AssertionError(satResult);
+			try {
+				final SatResult satResult = solver.hasSolution();
+				switch (satResult) {
+				case FALSE:
+				case TIMEOUT:
+					return false;
+				case TRUE:
+					return true;
+				default:
+					throw new AssertionError(satResult);
+				}
+			} finally {
+				releaseSolver(solver, includeHiddenFeatures);
 			}
 		}
 	}
@@ -105,18 +119,22 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				return null;
 			}
 
-			final SatResult satResult = solver.hasSolution();
-			switch (satResult) {
-			case FALSE:
-			case TIMEOUT:
-				final int[] contradictoryAssignment = solver.getContradictoryAssignment();
-				for (final int i : contradictoryAssignment) {
-					configuration.setManual(solver.getSatInstance().getVariables().getName(i), Selection.UNDEFINED);
+			try {
+				final SatResult satResult = solver.hasSolution();
+				switch (satResult) {
+				case FALSE:
+				case TIMEOUT:
+					final int[] contradictoryAssignment = solver.getContradictoryAssignment();
+					for (final int i : contradictoryAssignment) {
+						configuration.setManual(solver.getSatInstance().getVariables().getName(i), Selection.UNDEFINED);
+					}
+				case TRUE:
+					return null;
+				default:
+					throw new AssertionError(satResult);
 				}
-			case TRUE:
-				return null;
-			default:
-				throw new AssertionError(satResult);
+			} finally {
+				releaseSolver(solver, true);
 			}
 		}
 	}
@@ -143,15 +161,19 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				return false;
 			}
 
-			solver.setSelectionStrategy(selectionStrategy);
-			final int[] solution = solver.findSolution();
-			if (solution != null) {
-				for (final int i : solution) {
-					configuration.setManual(solver.getSatInstance().getVariables().getName(i), i > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+			try {
+				solver.setSelectionStrategy(selectionStrategy);
+				final int[] solution = solver.findSolution();
+				if (solution != null) {
+					for (final int i : solution) {
+						configuration.setManual(solver.getSatInstance().getVariables().getName(i), i > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+					}
+					return true;
+				} else {
+					return false;
 				}
-				return true;
-			} else {
-				return false;
+			} finally {
+				releaseSolver(solver, true);
 			}
 		}
 	}
@@ -160,21 +182,44 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 		private final int timeout;
 
+		/**
+		 * @param timeout the time limit in milliseconds for compiling the formula (see {@link DDNNFCreator}) and, if the compilation does not finish in time,
+		 *        for enumerating the solutions instead
+		 */
 		public CountSolutionsMethod(int timeout) {
 			this.timeout = timeout;
 		}
 
+		/**
+		 * @return the number of solutions or, if the number could not be determined in time, {@code -(n + 1)} where {@code n} is a lower bound
+		 */
 		@Override
 		public Long execute(IMonitor<Long> monitor) throws Exception {
 			if (formula == null) {
 				return 0L;
 			}
+			final ACreator<CNF> cnfCreator = getCNFCreator(false);
+			final CNF satInstance = formula.getElement(cnfCreator);
+			if (satInstance == null) {
+				return 0L;
+			}
+			final DDNNF ddnnf = formula.getElement(new DDNNFCreator(cnfCreator, timeout, monitor));
+			if (ddnnf != null) {
+				final BigInteger count = ddnnf.countSolutions(new LiteralSet(getCurrentAssignment(satInstance.getVariables(), false, false)));
+				return count.bitLength() < Long.SIZE ? count.longValue() : -Long.MAX_VALUE;
+			}
+
+			// Compilation exceeded the time limit, enumerate solutions to get at least a lower bound
 			final AdvancedSatSolver solver = getSolverForCurrentConfiguration(false, false);
 			if (solver == null) {
 				return 0L;
 			}
-			solver.setTimeout(timeout);
-			return new CountSolutionsAnalysis(solver).analyze(monitor);
+			try {
+				solver.setTimeout(timeout);
+				return new CountSolutionsAnalysis(solver).analyze(monitor);
+			} finally {
+				releaseSolver(solver, false);
+			}
 		}
 
 	}
@@ -290,9 +335,13 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			if (solver == null) {
 				return resultList;
 			}
-			final List<LiteralSet> result = new AllConfigurationGenerator(solver, max).analyze(monitor.subTask(1));
-			for (final LiteralSet is : result) {
-				resultList.add(solver.getSatInstance().getVariables().convertToString(is));
+			try {
+				final List<LiteralSet> result = new AllConfigurationGenerator(solver, max).analyze(monitor.subTask(1));
+				for (final LiteralSet is : result) {
+					resultList.add(solver.getSatInstance().getVariables().convertToString(is));
+				}
+			} finally {
+				releaseSolver(solver, false);
 			}
 
 			return resultList;
@@ -323,18 +372,23 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			} else {
 				clausesWithoutHidden = formula.getElement(new NoAbstractNoHiddenCNFCreator());
 			}
-			final OneWiseConfigurationGenerator oneWiseConfigurationGenerator =
-				new OneWiseConfigurationGenerator(getSolverForCurrentConfiguration(false, false));
-			oneWiseConfigurationGenerator.setCoverMode(selection ? CoverStrategy.POSITIVE : CoverStrategy.NEGATIVE);
-			final int[] featureArray = new int[features.size()];
-			int index = 0;
-			for (final String feature : features) {
-				featureArray[index++] = clausesWithoutHidden.getVariables().getVariable(feature);
+			final AdvancedSatSolver solver = getSolverForCurrentConfiguration(false, false);
+			final List<LiteralSet> solutions;
+			try {
+				final OneWiseConfigurationGenerator oneWiseConfigurationGenerator = new OneWiseConfigurationGenerator(solver);
+				oneWiseConfigurationGenerator.setCoverMode(selection ? CoverStrategy.POSITIVE : CoverStrategy.NEGATIVE);
+				final int[] featureArray = new int[features.size()];
+				int index = 0;
+				for (final String feature : features) {
+					featureArray[index++] = clausesWithoutHidden.getVariables().getVariable(feature);
+				}
+				oneWiseConfigurationGenerator.setFeatures(featureArray);
+				solutions = LongRunningWrapper.runMethod(oneWiseConfigurationGenerator, workMonitor.subTask(1));
+			} finally {
+				releaseSolver(solver, false);
 			}
-			oneWiseConfigurationGenerator.setFeatures(featureArray);
 
 			final List<List<String>> solutionList = new ArrayList<>();
-			final List<LiteralSet> solutions = LongRunningWrapper.runMethod(oneWiseConfigurationGenerator, workMonitor.subTask(1));
 			if (solutions == null) {
 				return solutionList;
 			}
@@ -388,13 +442,11 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			workMonitor.setRemainingWork(manualLiterals.size() + 1);
 			Collections.reverse(manualLiterals);
 
-			final CoreDeadAnalysis analysis = new CoreDeadAnalysis(rootNode);
 			final int[] intLiterals = new int[manualLiterals.size()];
 			for (int i = 0; i < intLiterals.length; i++) {
 				intLiterals[i] = manualLiterals.get(i);
 			}
-			analysis.setAssumptions(new LiteralSet(intLiterals));
-			final LiteralSet impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
+			final LiteralSet impliedFeatures = propagate(intLiterals, workMonitor.subTask(1));
 
 			// if there is a contradiction within the configuration
 			if (impliedFeatures == null) {
@@ -429,36 +481,40 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				if (solver == null) {
 					return result;
 				}
-				for (final int feature : intLiterals) {
-					solver.assignmentPush(feature);
-				}
+				try {
+					for (final int feature : intLiterals) {
+						solver.assignmentPush(feature);
+					}
 
-				int literalCount = intLiterals.length;
-				for (int i = 0; i < solver.getAssignmentSize(); i++) {
-					final int oLiteral = intLiterals[i];
-					final SelectableFeature feature = configuration.getSelectableFeature(rootNode.getVariables().getName(oLiteral));
-					if (feature != null) {
-						solver.assignmentSet(i, -oLiteral);
-						final SatResult satResult = solver.hasSolution();
-						switch (satResult) {
-						case FALSE:
-							configuration.setAutomatic(feature, oLiteral > 0 ? Selection.SELECTED : Selection.UNSELECTED);
-							result.add(feature);
-							workMonitor.invoke(Arrays.asList(feature));
-							intLiterals[i] = intLiterals[--literalCount];
-							solver.assignmentDelete(i--);
-							break;
-						case TIMEOUT:
-						case TRUE:
-							solver.assignmentSet(i, oLiteral);
-							result.add(feature);
-							workMonitor.invoke(Arrays.asList(feature));
-							break;
-						default:
-							throw new AssertionError(satResult);
+					int literalCount = intLiterals.length;
+					for (int i = 0; i < solver.getAssignmentSize(); i++) {
+						final int oLiteral = intLiterals[i];
+						final SelectableFeature feature = configuration.getSelectableFeature(rootNode.getVariables().getName(oLiteral));
+						if (feature != null) {
+							solver.assignmentSet(i, -oLiteral);
+							final SatResult satResult = solver.hasSolution();
+							switch (satResult) {
+							case FALSE:
+								configuration.setAutomatic(feature, oLiteral > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+								result.add(feature);
+								workMonitor.invoke(Arrays.asList(feature));
+								intLiterals[i] = intLiterals[--literalCount];
+								solver.assignmentDelete(i--);
+								break;
+							case TIMEOUT:
+							case TRUE:
+								solver.assignmentSet(i, oLiteral);
+								result.add(feature);
+								workMonitor.invoke(Arrays.asList(feature));
+								break;
+							default:
+								throw new AssertionError(satResult);
+							}
 						}
+						workMonitor.worked();
 					}
-					workMonitor.worked();
+				} finally {
+					releaseSolver(solver, true);
 				}
 			}
 			return result;
@@ -481,7 +537,7 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			final CNF rootNode = formula.getCNF();
 
 			workMonitor.checkCancel();
-			final LiteralSet impliedFeatures = LongRunningWrapper.runMethod(new CoreDeadAnalysis(rootNode), workMonitor.subTask(1));
+			final LiteralSet impliedFeatures = propagate(new int[0], workMonitor.subTask(1));
 			if (impliedFeatures == null) {
 				return Collections.emptyList();
 			}
@@ -530,45 +586,116 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		this.includeAbstractFeatures = includeAbstractFeatures;
 	}
 
+	/**
+	 * Computes all literals that are implied by the given manual literals. Uses the {@link MIGPropagator} of the formula, which only checks the literals that
+	 * may have changed since its previous propagation. Falls back to a {@link CoreDeadAnalysis} if no modal implication graph is available.
+	 *
+	 * @param manualLiterals the literals of the manually selected and deselected features
+	 * @param monitor the monitor
+	 * @return the implied literals, excluding the manual ones. Empty, if the manual literals are contradictory.
+	 */
+	protected LiteralSet propagate(int[] manualLiterals, IMonitor<LiteralSet> monitor) {
+		final MIGPropagator migPropagator = formula.getElement(new MIGPropagatorCreator());
+		if (migPropagator != null) {
+			monitor.checkCancel();
+			final LiteralSet impliedLiterals = migPropagator.propagate(manualLiterals);
+			monitor.done();
+			return impliedLiterals == null ? new LiteralSet() : impliedLiterals;
+		}
+		final AdvancedSatSolver coreDeadSolver = getSolver(true);
+		if (coreDeadSolver == null) {
+			return new LiteralSet();
+		}
+		try {
+			final CoreDeadAnalysis analysis = new CoreDeadAnalysis(coreDeadSolver);
+			analysis.setAssumptions(new LiteralSet(manualLiterals));
+			return LongRunningWrapper.runMethod(analysis, monitor);
+		} finally {
+			releaseSolver(coreDeadSolver, true);
+		}
+	}
+
 	protected AdvancedSatSolver getSolverForCurrentConfiguration(boolean deselectUndefinedFeatures, boolean includeHiddenFeatures) {
 		final AdvancedSatSolver solver = getSolver(includeHiddenFeatures);
 		if (solver == null) {
 			return null;
 		}
+		solver.assignmentPushAll(getCurrentAssignment(solver.getSatInstance().getVariables(), deselectUndefinedFeatures, includeHiddenFeatures));
+		return solver;
+	}
+
+	/**
+	 * Converts the current selection of the configuration into literals.
+	 *
+	 * @param variables the variables of the CNF that is used.
+	 * @param deselectUndefinedFeatures whether undefined features are considered as deselected.
+	 * @param includeHiddenFeatures whether features with a hidden parent are included.
+	 * @return the literals of all considered features (in the order of the configuration).
+	 */
+	protected int[] getCurrentAssignment(IVariables variables, boolean deselectUndefinedFeatures, boolean includeHiddenFeatures) {
+		final ArrayList<Integer> literals = new ArrayList<>();
 		for (final SelectableFeature feature : configuration.getFeatures()) {
 			if ((deselectUndefinedFeatures || (feature.getSelection() != Selection.UNDEFINED))
 				&& (includeAbstractFeatures || feature.getFeature().getStructure().isConcrete())
 				&& (includeHiddenFeatures || !feature.getFeature().getStructure().hasHiddenParent())) {
-				solver.assignmentPush(
-						solver.getSatInstance().getVariables().getVariable(feature.getFeature().getName(), feature.getSelection() == Selection.SELECTED));
+				literals.add(variables.getVariable(feature.getFeature().getName(), feature.getSelection() == Selection.SELECTED));
 			}
 		}
-		return solver;
+		final int[] literalArray = new int[literals.size()];
+		for (int i = 0; i < literalArray.length; i++) {
+			literalArray[i] = literals.get(i);
+		}
+		return literalArray;
 	}
 
+	/**
+	 * Acquires a solver from the {@link SatSolverPool pool} of the formula. The solver must be returned by {@link #releaseSolver(AdvancedSatSolver, boolean)}.
+	 *
+	 * @param includeHiddenFeatures whether the solver considers features with a hidden parent.
+	 * @return a solver with an empty assignment or {@code null} if no solver could be created.
+	 */
 	protected AdvancedSatSolver getSolver(boolean includeHiddenFeatures) {
-		final CNF satInstance;
+		final SatSolverPool solverPool = getSolverPool(includeHiddenFeatures);
+		try {
+			if (solverPool != null) {
+				return solverPool.acquire();
+			}
+		} catch (final RuntimeContradictionException e) {
+			Logger.logError(e);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns a solver that was acquired by {@link #getSolver(boolean)} or {@link #getSolverForCurrentConfiguration(boolean, boolean)}.
+	 *
+	 * @param solver the solver
+	 * @param includeHiddenFeatures the value that was used to acquire the solver
+	 */
+	protected void releaseSolver(AdvancedSatSolver solver, boolean includeHiddenFeatures) {
+		if (solver != null) {
+			getSolverPool(includeHiddenFeatures).release(solver);
+		}
+	}
+
+	protected SatSolverPool getSolverPool(boolean includeHiddenFeatures) {
+		return formula.getElement(new SatSolverPoolCreator(getCNFCreator(includeHiddenFeatures)));
+	}
+
+	protected ACreator<CNF> getCNFCreator(boolean includeHiddenFeatures) {
 		if (includeAbstractFeatures) {
 			if (includeHiddenFeatures) {
-				satInstance = formula.getCNF();
+				return new CNFCreator();
 			} else {
-				satInstance = formula.getElement(new NoHiddenCNFCreator());
+				return new NoHiddenCNFCreator();
 			}
 		} else {
 			if (includeHiddenFeatures) {
-				satInstance = formula.getElement(new NoAbstractCNFCreator());
+				return new NoAbstractCNFCreator();
 			} else {
-				satInstance = formula.getElement(new NoAbstractNoHiddenCNFCreator());
-			}
-		}
-		try {
-			if (satInstance != null) {
-				return new AdvancedSatSolver(satInstance);
+				return new NoAbstractNoHiddenCNFCreator();
 			}
-		} catch (final RuntimeContradictionException e) {
-			Logger.logError(e);
 		}
-		return null;
 	}
 
 	@Override
@@ -618,9 +745,10 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 	/**
 	 * Counts the number of possible solutions.
 	 *
-	 * @param timeout The timeout in milliseconds.
-	 * @return A positive value equal to the number of solutions (if the method terminated in time)<br> or a negative value (if a timeout occurred) that
-	 *         indicates that there are more solutions than the absolute value
+	 * @param timeout the time limit in milliseconds for compiling the formula and, if the compilation does not finish in time, for enumerating the solutions
+	 *        instead
+	 * @return the number of solutions<br> or {@code -(n + 1)}, if the number could not be determined in time and {@code n} is a lower bound<br> or
+	 *         {@code -Long.MAX_VALUE}, if the number exceeds the range of {@code long}
 	 */
 	@Override
 	public CountSolutionsMethod number(int timeout) {
@@ -54,8 +54,10 @@ public interface IConfigurationPropagator {
 	/**
 	 * Counts the number of possible solutions.
 	 *
-	 * @return a positive value equal to the number of solutions (if the method terminated in time)<br> or a negative value (if a timeout occurred) that
-	 *         indicates that there are more solutions than the absolute value
+	 * @param timeout the time limit in milliseconds for compiling the formula and, if the compilation does not finish in time, for enumerating the solutions
+	 *        instead
+	 * @return the number of solutions<br> or {@code -(n + 1)}, if the number could not be determined in time and {@code n} is a lower bound<br> or
+	 *         {@code -Long.MAX_VALUE}, if the number exceeds the range of {@code long}
 	 */
 	LongRunningMethod<Long> number(int timeout);
 
@@ -0,0 +1,412 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.SatSolverPoolCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SatSolverPool;
+
+/**
+ * Compact representation of the selections of many configurations. Each configuration (row) stores one bit per feature (column), which is set if the feature
+ * is selected. Rows are aligned to 64 bit words, such that rows can be compared word by word.<br> <br> A matrix can be {@link #write(Path) written} to a file
+ * and {@link #map(Path) mapped} into memory again, which does not require to load the selections into the heap. Mapped matrices are read-only. Different rows
+ * of a matrix that is not mapped can be set by different threads.
+ *
+ * @author FeatureIDE Team
+ *
+ * @see de.ovgu.featureide.fm.core.configuration.io.ConfigurationLoader#loadSelectionMatrix(FeatureModelFormula, Path, String)
+ */
+public class SelectionMatrix {
+
+	private static final int MAGIC_NUMBER = 0x46534D31;
+
+	/** Number of configurations that are checked by one task in {@link #checkValidity(FeatureModelFormula, int)}. */
+	private static final int VALIDITY_CHUNK_SIZE = 64;
+
+	private final List<String> featureNames;
+	private final List<String> configurationNames;
+	private final int wordsPerRow;
+	private final LongBuffer words;
+
+	private Map<String, Integer> columns = null;
+
+	/**
+	 * Creates a new matrix in which no feature is selected.
+	 *
+	 * @param featureNames the names of the features (columns)
+	 * @param configurationNames the names of the configurations (rows)
+	 */
+	public SelectionMatrix(List<String> featureNames, List<String> configurationNames) {
+		this.featureNames = Collections.unmodifiableList(new ArrayList<>(featureNames));
+		this.configurationNames = Collections.unmodifiableList(new ArrayList<>(configurationNames));
+		wordsPerRow = getWordsPerRow(featureNames.size());
+		words = LongBuffer.allocate(wordsPerRow * configurationNames.size());
+	}
+
+	private SelectionMatrix(List<String> featureNames, List<String> configurationNames, LongBuffer words) {
+		this.featureNames = Collections.unmodifiableList(featureNames);
+		this.configurationNames = Collections.unmodifiableList(configurationNames);
+		wordsPerRow = getWordsPerRow(featureNames.size());
+		this.words = words;
+	}
+
+	private static int getWordsPerRow(int numberOfFeatures) {
+		return (numberOfFeatures + 63) >>> 6;
+	}
+
+	public int getNumberOfFeatures() {
+		return featureNames.size();
+	}
+
+	public int getNumberOfConfigurations() {
+		return configurationNames.size();
+	}
+
+	public List<String> getFeatureNames() {
+		return featureNames;
+	}
+
+	public List<String> getConfigurationNames() {
+		return configurationNames;
+	}
+
+	/**
+	 * @param featureName the name of a feature
+	 * @return the column of the feature or {@code -1} if the matrix does not contain the feature
+	 */
+	public synchronized int getColumn(String featureName) {
+		if (columns == null) {
+			columns = new HashMap<>((featureNames.size() * 4) / 3 + 1);
+			for (int i = 0; i < featureNames.size(); i++) {
+				columns.put(featureNames.get(i), i);
+			}
+		}
+		final Integer column = columns.get(featureName);
+		return column == null ? -1 : column;
+	}
+
+	public boolean isSelected(int configuration, int feature) {
+		checkIndex(configuration, feature);
+		return (words.get(getWordIndex(configuration, feature)) & (1L << feature)) != 0;
+	}
+
+	/**
+	 * Sets the selection of a feature in a configuration.
+	 *
+	 * @param configuration the row
+	 * @param feature the column
+	 * @param selected whether the feature is selected
+	 *
+	 * @throws java.nio.ReadOnlyBufferException if the matrix is mapped from a file
+	 */
+	public void setSelected(int configuration, int feature, boolean selected) {
+		checkIndex(configuration, feature);
+		final int index = getWordIndex(configuration, feature);
+		final long word = words.get(index);
+		words.put(index, selected ? word | (1L << feature) : word & ~(1L << feature));
+	}
+
+	/**
+	 * Returns the selections of a configuration. Bit {@code i % 64} of word {@code i / 64} corresponds to column {@code i}.
+	 *
+	 * @param configuration the row
+	 * @return a copy of the row
+	 */
+	public long[] getRow(int configuration) {
+		checkIndex(configuration);
+		final long[] row = new long[wordsPerRow];
+		final int offset = configuration * wordsPerRow;
+		for (int i = 0; i < wordsPerRow; i++) {
+			row[i] = words.get(offset + i);
+		}
+		return row;
+	}
+
+	/**
+	 * Replaces the selections of a configuration.
+	 *
+	 * @param configuration the row
+	 * @param row the selections in the format of {@link #getRow(int)}
+	 *
+	 * @throws java.nio.ReadOnlyBufferException if the matrix is mapped from a file
+	 */
+	public void setRow(int configuration, long[] row) {
+		checkIndex(configuration);
+		if (row.length != wordsPerRow) {
+			throw new IllegalArgumentException("Expected " + wordsPerRow + " words, but got " + row.length);
+		}
+		final int offset = configuration * wordsPerRow;
+		for (int i = 0; i < wordsPerRow; i++) {
+			words.put(offset + i, row[i]);
+		}
+	}
+
+	/**
+	 * Converts the selections of the given configuration into a row of this matrix. Features that are not contained in the matrix are ignored.
+	 *
+	 * @param configuration the configuration
+	 * @return the row in the format of {@link #getRow(int)}
+	 */
+	public long[] createRow(Configuration configuration) {
+		final long[] row = new long[wordsPerRow];
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			if (feature.getSelection() == Selection.SELECTED) {
+				final int column = getColumn(feature.getName());
+				if (column >= 0) {
+					row[column >>> 6] |= 1L << column;
+				}
+			}
+		}
+		return row;
+	}
+
+	/**
+	 * Counts the features that have the same selection in the given configuration and the given row.
+	 *
+	 * @param configuration the row of this matrix
+	 * @param row a row in the format of {@link #getRow(int)}
+	 * @return the number of columns with equal values
+	 */
+	public int countEqualSelections(int configuration, long[] row) {
+		checkIndex(configuration);
+		final int offset = configuration * wordsPerRow;
+		int differences = 0;
+		for (int i = 0; i < wordsPerRow; i++) {
+			differences += Long.bitCount(words.get(offset + i) ^ row[i]);
+		}
+		return featureNames.size() - differences;
+	}
+
+	/**
+	 * Checks which configurations are valid with regard to the given formula. All features of a configuration that are contained in the CNF of the formula
+	 * are either selected or deselected. Features of the CNF that are not contained in this matrix are not assigned. The configurations are checked in
+	 * parallel by solvers of the {@link SatSolverPool pool} of the formula.
+	 *
+	 * @param formula the formula
+	 * @param numberOfThreads the maximum number of configurations that are checked at once
+	 * @return the rows of all valid configurations
+	 */
+	public BitSet checkValidity(FeatureModelFormula formula, int numberOfThreads) {
+		final int numberOfConfigurations = getNumberOfConfigurations();
+		final BitSet valid = new BitSet(numberOfConfigurations);
+		final SatSolverPool solverPool = formula.getElement(new SatSolverPoolCreator());
+		if ((solverPool == null) || (numberOfConfigurations == 0)) {
+			return valid;
+		}
+		final CNF cnf = formula.getCNF();
+		final int[] variables = getVariables(cnf.getVariables());
+
+		if (numberOfThreads <= 1) {
+			checkValidity(solverPool, variables, 0, numberOfConfigurations, valid);
+		} else {
+			final List<Callable<Void>> tasks = new ArrayList<>();
+			for (int start = 0; start < numberOfConfigurations; start += VALIDITY_CHUNK_SIZE) {
+				final int from = start;
+				final int to = Math.min(start + VALIDITY_CHUNK_SIZE, numberOfConfigurations);
+				tasks.add(() -> {
+					checkValidity(solverPool, variables, from, to, valid);
+					return null;
+				});
+			}
+			invokeAll(tasks, numberOfThreads);
+		}
+		return valid;
+	}
+
+	private void checkValidity(SatSolverPool solverPool, int[] variables, int from, int to, BitSet valid) {
+		final AdvancedSatSolver solver = solverPool.acquire();
+		try {
+			final int[] assumptions = new int[variables.length];
+			for (int configuration = from; configuration < to; configuration++) {
+				int assumptionCount = 0;
+				for (int column = 0; column < variables.length; column++) {
+					final int variable = variables[column];
+					if (variable != 0) {
+						assumptions[assumptionCount++] = isSelected(configuration, column) ? variable : -variable;
+					}
+				}
+				if (solver.hasSolution(Arrays.copyOf(assumptions, assumptionCount)) == SatResult.TRUE) {
+					synchronized (valid) {
+						valid.set(configuration);
+					}
+				}
+			}
+		} finally {
+			solverPool.release(solver);
+		}
+	}
+
+	/**
+	 * @return the variable of each column or {@code 0} if the variables do not contain the feature.
+	 */
+	private int[] getVariables(IVariables variables) {
+		final int[] columnVariables = new int[featureNames.size()];
+		for (int i = 0; i < columnVariables.length; i++) {
+			columnVariables[i] = variables.getVariable(featureNames.get(i));
+		}
+		return columnVariables;
+	}
+
+	private static void invokeAll(List<Callable<Void>> tasks, int numberOfThreads) {
+		final ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+		try {
+			for (final Future<Void> future : pool.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Writes this matrix to a file, such that it can be {@link #map(Path) mapped} into memory.
+	 *
+	 * @param file the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+			out.writeInt(MAGIC_NUMBER);
+			out.writeInt(featureNames.size());
+			out.writeInt(configurationNames.size());
+			int headerSize = 12;
+			for (final String name : featureNames) {
+				headerSize += writeString(out, name);
+			}
+			for (final String name : configurationNames) {
+				headerSize += writeString(out, name);
+			}
+			// Align the words to eight bytes
+			for (; (headerSize & 7) != 0; headerSize++) {
+				out.writeByte(0);
+			}
+			for (int i = 0; i < words.limit(); i++) {
+				out.writeLong(words.get(i));
+			}
+		}
+	}
+
+	private static int writeString(DataOutputStream out, String string) throws IOException {
+		final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+		return 4 + bytes.length;
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		final byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Maps a matrix that was {@link #write(Path) written} to a file into memory. The returned matrix is read-only. The file must not be larger than
+	 * {@link Integer#MAX_VALUE} bytes.
+	 *
+	 * @param file the file
+	 * @return the mapped matrix
+	 * @throws IOException if the file cannot be read or does not contain a matrix
+	 */
+	public static SelectionMatrix map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			try {
+				if (buffer.getInt() != MAGIC_NUMBER) {
+					throw new IOException("No selection matrix: " + file);
+				}
+				final int numberOfFeatures = buffer.getInt();
+				final int numberOfConfigurations = buffer.getInt();
+				final List<String> featureNames = new ArrayList<>(numberOfFeatures);
+				for (int i = 0; i < numberOfFeatures; i++) {
+					featureNames.add(readString(buffer));
+				}
+				final List<String> configurationNames = new ArrayList<>(numberOfConfigurations);
+				for (int i = 0; i < numberOfConfigurations; i++) {
+					configurationNames.add(readString(buffer));
+				}
+				buffer.position((buffer.position() + 7) & ~7);
+				final LongBuffer words = buffer.slice().asLongBuffer();
+				if (words.limit() != ((long) getWordsPerRow(numberOfFeatures) * numberOfConfigurations)) {
+					throw new IOException("Corrupt selection matrix: " + file);
+				}
+				return new SelectionMatrix(featureNames, configurationNames, words);
+			} catch (final RuntimeException e) {
+				throw new IOException("Corrupt selection matrix: " + file, e);
+			}
+		}
+	}
+
+	private int getWordIndex(int configuration, int feature) {
+		return (configuration * wordsPerRow) + (feature >>> 6);
+	}
+
+	private void checkIndex(int configuration, int feature) {
+		checkIndex(configuration);
+		if ((feature < 0) || (feature >= featureNames.size())) {
+			throw new IndexOutOfBoundsException("Feature: " + feature);
+		}
+	}
+
+	private void checkIndex(int configuration) {
+		if ((configuration < 0) || (configuration >= configurationNames.size())) {
+			throw new IndexOutOfBoundsException("Configuration: " + configuration);
+		}
+	}
+
+}
@@ -23,9 +23,9 @@ package de.ovgu.featureide.fm.core.configuration;
 import java.util.List;
 import java.util.regex.Pattern;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.RenamingsManager;
@@ -33,9 +33,8 @@ import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.io.IConfigurationFormat;
 import de.ovgu.featureide.fm.core.io.LazyReader;
 import de.ovgu.featureide.fm.core.io.Problem;
-import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
-import de.ovgu.featureide.fm.core.io.xml.AXMLFormat;
-import de.ovgu.featureide.fm.core.io.xml.PositionalXMLHandler;
+import de.ovgu.featureide.fm.core.io.xml.AStreamingXMLFormat;
+import de.ovgu.featureide.fm.core.io.xml.IndentingXMLStreamWriter;
 import de.ovgu.featureide.fm.core.localization.StringTable;
 
 /**
@@ -43,7 +42,7 @@ import de.ovgu.featureide.fm.core.localization.StringTable;
  *
  * @author Sebastian Krieter
  */
-public class XMLConfFormat extends AXMLFormat<Configuration> implements IConfigurationFormat {
+public class XMLConfFormat extends AStreamingXMLFormat<Configuration> implements IConfigurationFormat {
 
 	private static final String NODE_FEATURE = "feature";
 	private static final String ATTRIBUTE_NAME = "name";
@@ -61,72 +60,83 @@ public class XMLConfFormat extends AXMLFormat<Configuration> implements IConfigu
 	}
 
 	@Override
-	protected void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException {
+	protected void readStream(XMLStreamReader reader, List<Problem> warnings) throws XMLStreamException {
 		object.reset();
 		final IFeatureModel featureModel = object.getFeatureModel();
 		final RenamingsManager renamingsManager = featureModel == null ? null : featureModel.getRenamingsManager();
 
-		final Element root = doc.getDocumentElement();
-		if (root == null) {
+		if (!nextElement(reader)) {
 			warnings.add(new Problem("No root element specified", 1, Problem.Severity.ERROR));
 			return;
 		}
-		if (root.getNodeName().equals(CONFIGURATION)) {
-			for (final Element feature : getElements(root.getElementsByTagName(NODE_FEATURE))) {
-				final SelectableFeature selectablefeature;
-				if (feature.hasAttribute(ATTRIBUTE_NAME)) {
-					final String featureName = feature.getAttribute(ATTRIBUTE_NAME);
-					selectablefeature = object.getSelectableFeature(renamingsManager == null ? featureName : renamingsManager.getNewName(featureName),
-							object.getFeatureModel() == null);
-					if (selectablefeature == null) {
-						createWarning("Invalid feature name: " + featureName, feature, warnings);
-						continue;
-					}
-				} else {
-					createError("No feature name specified", feature, warnings);
-					continue;
-				}
+		if (!reader.getLocalName().equals(CONFIGURATION)) {
+			warnings.add(new Problem("Root element must be <configuration>", 1, Problem.Severity.ERROR));
+			return;
+		}
 
-				if (feature.hasAttribute(ATTRIBUTE_MANUAL)) {
-					selectablefeature.setManual(getSelection(feature.getAttribute(ATTRIBUTE_MANUAL), feature, warnings));
-				}
-				if (feature.hasAttribute(ATTRIBUTE_AUTOMATIC)) {
-					selectablefeature.setAutomatic(getSelection(feature.getAttribute(ATTRIBUTE_AUTOMATIC), feature, warnings));
+		int depth = 1;
+		while ((depth > 0) && reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				if (reader.getLocalName().equals(NODE_FEATURE)) {
+					readFeature(reader, renamingsManager, warnings);
 				}
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			default:
+				break;
+			}
+		}
+	}
 
-				final NamedNodeMap attributes = feature.getAttributes();
-				if (attributes.getLength() > 3) {
-					for (int i = 0; i < attributes.getLength(); i++) {
-						final String attributeName = attributes.item(i).getNodeName();
-						switch (attributeName) {
-						case ATTRIBUTE_NAME:
-						case ATTRIBUTE_MANUAL:
-						case ATTRIBUTE_AUTOMATIC:
-							break;
-						default:
-							createWarning("Unknown attribute: " + attributeName, feature, warnings);
-							break;
-						}
-					}
-				}
+	private void readFeature(XMLStreamReader reader, RenamingsManager renamingsManager, List<Problem> warnings) {
+		final String featureName = reader.getAttributeValue(null, ATTRIBUTE_NAME);
+		if (featureName == null) {
+			createError("No feature name specified", reader, warnings);
+			return;
+		}
+		final SelectableFeature selectablefeature = object.getSelectableFeature(renamingsManager == null ? featureName : renamingsManager.getNewName(
+				featureName), object.getFeatureModel() == null);
+		if (selectablefeature == null) {
+			createWarning("Invalid feature name: " + featureName, reader, warnings);
+			return;
+		}
+
+		final String manual = reader.getAttributeValue(null, ATTRIBUTE_MANUAL);
+		if (manual != null) {
+			selectablefeature.setManual(getSelection(manual));
+		}
+		final String automatic = reader.getAttributeValue(null, ATTRIBUTE_AUTOMATIC);
+		if (automatic != null) {
+			selectablefeature.setAutomatic(getSelection(automatic));
+		}
 
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			switch (attributeName) {
+			case ATTRIBUTE_NAME:
+			case ATTRIBUTE_MANUAL:
+			case ATTRIBUTE_AUTOMATIC:
+				break;
+			default:
+				createWarning("Unknown attribute: " + attributeName, reader, warnings);
+				break;
 			}
-		} else {
-			warnings.add(new Problem("Root element must be <configuration>", 1, Problem.Severity.ERROR));
 		}
 	}
 
-	protected void createWarning(final String message, Element element, List<Problem> warnings) {
-		final Object lineNumber = element.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME);
-		warnings.add(new Problem(message, (lineNumber instanceof Integer) ? (int) lineNumber : 1, Problem.Severity.WARNING));
+	protected void createWarning(final String message, XMLStreamReader reader, List<Problem> warnings) {
+		warnings.add(new Problem(message, getLineNumber(reader), Problem.Severity.WARNING));
 	}
 
-	protected void createError(final String message, Element element, List<Problem> warnings) {
-		final Object lineNumber = element.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME);
-		warnings.add(new Problem(message, (lineNumber instanceof Integer) ? (int) lineNumber : 1, Problem.Severity.ERROR));
+	protected void createError(final String message, XMLStreamReader reader, List<Problem> warnings) {
+		warnings.add(new Problem(message, getLineNumber(reader), Problem.Severity.ERROR));
 	}
 
-	private Selection getSelection(String selection, Element feature, List<Problem> warnings) {
+	private Selection getSelection(String selection) {
 		if (selection == null) {
 			return Selection.UNDEFINED;
 		} else {
@@ -157,21 +167,20 @@ public class XMLConfFormat extends AXMLFormat<Configuration> implements IConfigu
 	}
 
 	@Override
-	protected void writeDocument(Document doc) {
-		final Element root = doc.createElement("configuration");
-		doc.appendChild(root);
+	protected void writeStream(IndentingXMLStreamWriter writer) throws XMLStreamException {
+		writer.startElement(CONFIGURATION);
 		for (final SelectableFeature feature : object.getFeatures()) {
-			final Element featureNode = doc.createElement(NODE_FEATURE);
-			featureNode.setAttribute(ATTRIBUTE_NAME, feature.getName());
-			if (feature.getManual() != Selection.UNDEFINED) {
-				featureNode.setAttribute(ATTRIBUTE_MANUAL, getSelectionString(feature.getManual()));
-			}
+			writer.startElement(NODE_FEATURE);
 			if (feature.getAutomatic() != Selection.UNDEFINED) {
-				featureNode.setAttribute(ATTRIBUTE_AUTOMATIC, getSelectionString(feature.getAutomatic()));
+				writer.attribute(ATTRIBUTE_AUTOMATIC, getSelectionString(feature.getAutomatic()));
 			}
-			root.appendChild(featureNode);
-
+			if (feature.getManual() != Selection.UNDEFINED) {
+				writer.attribute(ATTRIBUTE_MANUAL, getSelectionString(feature.getManual()));
+			}
+			writer.attribute(ATTRIBUTE_NAME, feature.getName());
+			writer.endElement();
 		}
+		writer.endElement();
 	}
 
 	@Override
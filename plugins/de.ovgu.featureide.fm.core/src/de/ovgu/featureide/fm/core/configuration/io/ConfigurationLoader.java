@@ -28,18 +28,27 @@ import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.FeatureIDEFormat;
+import de.ovgu.featureide.fm.core.configuration.SelectionMatrix;
 import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
 import de.ovgu.featureide.fm.core.io.manager.FileHandler;
 
 /**
- * This class loads all configurations of a given IFeatureModel.
+ * This class loads all configurations of a given IFeatureModel. The configuration files are parsed in parallel.
  *
  * @author Paul Maximilian Bittner
  * @author Antje Moench
@@ -49,6 +58,8 @@ public class ConfigurationLoader {
 
 	private final IConfigurationLoaderCallback callback;
 
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
 	public ConfigurationLoader() {
 		this(null);
 	}
@@ -57,6 +68,20 @@ public class ConfigurationLoader {
 		this.callback = callback;
 	}
 
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that parse configuration files at once (default is the number of available processors). The callback is always notified by
+	 * the calling thread in the order of the files.
+	 *
+	 * @param numberOfThreads the number of threads
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
 	public List<Configuration> loadConfigurations(FeatureModelFormula featureModel, String path) {
 		return loadConfigurations(featureModel, Paths.get(path));
 	}
@@ -71,37 +96,26 @@ public class ConfigurationLoader {
 
 	public List<Configuration> loadConfigurations(final FeatureModelFormula featureModel, Path path, final String excludeFile) {
 		final List<Configuration> configs = new ArrayList<>();
-		final HashSet<String> configurationNames = new HashSet<>();
 
 		if (callback != null) {
 			callback.onLoadingStarted();
 		}
 
 		try {
-			Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
-
-				@Override
-				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-					final String fileName = file.getFileName().toString();
-					if (!fileName.equals(excludeFile) && !fileName.endsWith("." + new FeatureIDEFormat().getSuffix()) && Files.isReadable(file)
-						&& Files.isRegularFile(file)) {
-						final int extensionIndex = fileName.lastIndexOf('.');
-						final String configurationName = (extensionIndex > 0) ? fileName.substring(0, extensionIndex) : fileName;
-						if (configurationNames.add(configurationName)) {
-							final FileHandler<Configuration> fileHandler = ConfigurationManager.getFileHandler(file);
-							if (!fileHandler.getLastProblems().containsError()) {
-								final Configuration currentConfiguration = fileHandler.getObject();
-								currentConfiguration.updateFeatures(featureModel);
-								configs.add(currentConfiguration);
-								if (callback != null) {
-									callback.onConfigurationLoaded(currentConfiguration, file);
-								}
-							}
-						}
+			final List<Path> files = getConfigurationFiles(path, excludeFile);
+			final List<Configuration> loadedConfigurations = parse(files, configuration -> {
+				configuration.updateFeatures(featureModel);
+				return configuration;
+			});
+			for (int i = 0; i < files.size(); i++) {
+				final Configuration currentConfiguration = loadedConfigurations.get(i);
+				if (currentConfiguration != null) {
+					configs.add(currentConfiguration);
+					if (callback != null) {
+						callback.onConfigurationLoaded(currentConfiguration, files.get(i));
 					}
-					return super.visitFile(file, attrs);
 				}
-			});
+			}
 		} catch (final IOException e) {
 			Logger.logError(e);
 			if (callback != null) {
@@ -116,4 +130,132 @@ public class ConfigurationLoader {
 		return configs;
 	}
 
+	/**
+	 * Loads all configurations in the given directory into a {@link SelectionMatrix}. Unlike {@link #loadConfigurations(FeatureModelFormula, Path, String)},
+	 * the configurations are not kept. The columns of the matrix are the variables of the {@link FeatureModelFormula#getCNF() CNF} of the formula (in the same
+	 * order). The rows are the configurations that could be loaded (in the order of {@link #loadConfigurations(FeatureModelFormula, Path, String)}) and are
+	 * named by their file name without extension. The callback is not notified about single configurations.
+	 *
+	 * @param featureModel the formula of the feature model
+	 * @param path the directory
+	 * @param excludeFile the name of a file that is not loaded (may be {@code null})
+	 * @return the matrix
+	 */
+	public SelectionMatrix loadSelectionMatrix(final FeatureModelFormula featureModel, Path path, final String excludeFile) {
+		final IVariables variables = featureModel.getCNF().getVariables();
+		final List<String> featureNames = Arrays.asList(variables.getNames()).subList(1, variables.size() + 1);
+		final List<String> configurationNames = new ArrayList<>();
+		final List<long[]> rows = new ArrayList<>();
+		final SelectionMatrix emptyMatrix = new SelectionMatrix(featureNames, Collections.<String> emptyList());
+		SelectionMatrix matrix = emptyMatrix;
+
+		if (callback != null) {
+			callback.onLoadingStarted();
+		}
+
+		try {
+			final List<Path> files = getConfigurationFiles(path, excludeFile);
+			final List<long[]> loadedRows = parse(files, emptyMatrix::createRow);
+			for (int i = 0; i < files.size(); i++) {
+				final long[] row = loadedRows.get(i);
+				if (row != null) {
+					configurationNames.add(getConfigurationName(files.get(i).getFileName().toString()));
+					rows.add(row);
+				}
+			}
+			matrix = new SelectionMatrix(featureNames, configurationNames);
+			for (int i = 0; i < rows.size(); i++) {
+				matrix.setRow(i, rows.get(i));
+			}
+		} catch (final IOException e) {
+			Logger.logError(e);
+			if (callback != null) {
+				callback.onLoadingError(e);
+			}
+		}
+
+		if (callback != null) {
+			callback.onLoadingFinished();
+		}
+
+		return matrix;
+	}
+
+	private static String getConfigurationName(String fileName) {
+		final int extensionIndex = fileName.lastIndexOf('.');
+		return (extensionIndex > 0) ? fileName.substring(0, extensionIndex) : fileName;
+	}
+
+	/**
+	 * @return all readable files in the given directory that may contain a configuration. Of multiple files with the same name, only the first one is
+	 *         returned.
+	 */
+	private static List<Path> getConfigurationFiles(Path path, final String excludeFile) throws IOException {
+		final List<Path> files = new ArrayList<>();
+		final HashSet<String> configurationNames = new HashSet<>();
+		final String featureIDESuffix = "." + new FeatureIDEFormat().getSuffix();
+		Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				final String fileName = file.getFileName().toString();
+				if (!fileName.equals(excludeFile) && !fileName.endsWith(featureIDESuffix) && Files.isReadable(file) && Files.isRegularFile(file)) {
+					if (configurationNames.add(getConfigurationName(fileName))) {
+						files.add(file);
+					}
+				}
+				return super.visitFile(file, attrs);
+			}
+		});
+		return files;
+	}
+
+	/**
+	 * Parses the given files on a work-stealing pool (see {@link #setNumberOfThreads(int)}) and converts each configuration.
+	 *
+	 * @return the converted configurations in the order of the files. Contains {@code null} for each file that could not be parsed.
+	 */
+	private <R> List<R> parse(List<Path> files, Function<Configuration, R> converter) {
+		final List<Callable<R>> tasks = new ArrayList<>(files.size());
+		for (final Path file : files) {
+			tasks.add(() -> {
+				final FileHandler<Configuration> fileHandler = ConfigurationManager.getFileHandler(file);
+				return fileHandler.getLastProblems().containsError() ? null : converter.apply(fileHandler.getObject());
+			});
+		}
+
+		final List<R> results = new ArrayList<>(files.size());
+		if (numberOfThreads <= 1) {
+			for (final Callable<R> task : tasks) {
+				try {
+					results.add(task.call());
+				} catch (final Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+			return results;
+		}
+
+		final ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+		try {
+			for (final Future<R> future : pool.invokeAll(tasks)) {
+				results.add(future.get());
+			}
+			return results;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
 }
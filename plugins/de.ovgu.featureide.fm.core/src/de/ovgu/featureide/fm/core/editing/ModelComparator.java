@@ -20,7 +20,10 @@
  */
 package de.ovgu.featureide.fm.core.editing;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +33,7 @@ import java.util.Set;
 import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
+import org.prop4j.NodeInterner;
 import org.prop4j.Not;
 import org.prop4j.SatSolver;
 import org.sat4j.specs.TimeoutException;
@@ -41,6 +45,7 @@ import de.ovgu.featureide.fm.core.configuration.Configuration;
 
 /**
  * Compares two feature models based on a satisfiability solver. The result is a classification of the edit that transforms one model into the second model.
+ * <br> <br> The formulas of both models are {@link NodeInterner interned}, such that identical rules are shared and their normal forms are only computed once.
  *
  * @author Thomas Thuem
  */
@@ -80,6 +85,8 @@ public class ModelComparator {
 
 	private ExampleCalculator removedProducts;
 
+	private NodeInterner interner;
+
 	public ModelComparator(long timeout) {
 		this(timeout, 3);
 	}
@@ -100,6 +107,7 @@ public class ModelComparator {
 	public Comparison compare(IFeatureModel oldModel, IFeatureModel newModel) {
 		this.oldModel = oldModel;
 		this.newModel = newModel;
+		interner = new NodeInterner();
 		try {
 			addedFeatures = calculateAddedFeatures(oldModel, newModel);
 			deletedFeatures = calculateAddedFeatures(newModel, oldModel);
@@ -114,6 +122,9 @@ public class ModelComparator {
 			oldRoot = createFalseStatementForConcreteVariables(addedFeatures, oldRoot);
 			newRoot = createFalseStatementForConcreteVariables(deletedFeatures, newRoot);
 
+			oldRoot = interner.intern(oldRoot);
+			newRoot = interner.intern(newRoot);
+
 			oldRootUpdated = removeIdenticalNodes(oldRoot, newRoot);
 			newRootUpdated = removeIdenticalNodes(newRoot, oldRoot);
 
@@ -141,6 +152,8 @@ public class ModelComparator {
 		} catch (final Exception e) {
 			Logger.logError(e);
 			result = Comparison.ERROR;
+		} finally {
+			interner = null;
 		}
 		return result;
 	}
@@ -189,7 +202,7 @@ public class ModelComparator {
 	}
 
 	/**
-	 * Removes all child nodes that are contained in the reference node.
+	 * Removes all child nodes that are contained in the reference node. As both nodes are interned, identical child nodes are the same instance.
 	 *
 	 * @param node the node to copy and remove from
 	 * @param referenceNode node that specifies what do remove
@@ -199,9 +212,11 @@ public class ModelComparator {
 		if (!strategy.contains(Strategy.WithoutIdenticalRules)) {
 			return node;
 		}
+		final Set<Node> referenceChildren = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+		referenceChildren.addAll(Arrays.asList(referenceNode.getChildren()));
 		final LinkedList<Node> updatedNodes = new LinkedList<>();
 		for (final Node child : node.getChildren()) {
-			if (!containedIn(child, referenceNode.getChildren())) {
+			if (!referenceChildren.contains(child)) {
 				updatedNodes.add(child);
 			}
 		}
@@ -212,9 +227,13 @@ public class ModelComparator {
 		if (b == null) {
 			return true;
 		}
+		if (interner != null) {
+			a = interner.getCNF(a);
+			b = interner.getCNF(b);
+		}
 
 		if (!strategy.contains(Strategy.SingleTesting)) {
-			final Node node = new And(a.clone(), new Not(b.clone()));
+			final Node node = new And(a, new Not(b));
 			final SatSolver solver = new SatSolver(node, timeout);
 			return !solver.hasSolution();
 		}
@@ -224,15 +243,6 @@ public class ModelComparator {
 		return !example.findSatisfiable(strategy.contains(Strategy.SingleTestingAborted));
 	}
 
-	private boolean containedIn(Node node, Node[] nodes) {
-		for (final Node child : nodes) {
-			if (node.equals(child)) {
-				return true;
-			}
-		}
-		return false;
-	}
-
 	public Configuration calculateExample(boolean added) throws TimeoutException {
 		return added ? addedProducts.nextExample() : removedProducts.nextExample();
 	}
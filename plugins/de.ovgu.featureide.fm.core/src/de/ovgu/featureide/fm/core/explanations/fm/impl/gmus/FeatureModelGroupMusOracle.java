@@ -0,0 +1,301 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.explanations.fm.impl.gmus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.prop4j.Literal;
+import org.prop4j.Node;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.GroupMusExtractor;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.FeatureModelToNodeTraceModel;
+import de.ovgu.featureide.fm.core.editing.FeatureModelToNodeTraceModel.FeatureModelElementTrace;
+import de.ovgu.featureide.fm.core.editing.NodeCreator;
+
+/**
+ * Answers the explanation queries for one feature model with a single {@link GroupMusExtractor}.<br> <br> The clauses of the feature model are grouped by
+ * their {@link FeatureModelElementTrace trace}, such that each group corresponds to one constraint or one part of the feature tree (e.g., the downward part of
+ * a child relationship). An explanation is a minimal unsatisfiable subset of these groups. The negation of a constraint, which is required to explain its
+ * redundancy, is added on demand and activated by a variable that is reserved for this constraint. Thus, the solver and its learned clauses are kept for all
+ * explanations of the feature model.<br> <br> Explanations are returned as the indexes of clauses in the {@link #getTraceModel() trace model}, one clause per
+ * group. This class is thread-safe.
+ *
+ * @author FeatureIDE Team
+ */
+public class FeatureModelGroupMusOracle {
+
+	private static final String ACTIVATION_PREFIX = "__negated_constraint_";
+
+	private final IFeatureModel featureModel;
+	private final AdvancedNodeCreator nodeCreator;
+	private final FeatureModelToNodeTraceModel traceModel;
+	private final Variables variables;
+	private final GroupMusExtractor extractor;
+
+	/** For each group, the index of its first clause in the trace model. */
+	private final int[] groupClauseIndexes;
+	private final Map<IConstraint, Integer> constraintGroups = new HashMap<>();
+	private final Map<IConstraint, Integer> activationVariables = new HashMap<>();
+	private final Set<IConstraint> negatedConstraints = new LinkedHashSet<>();
+
+	/**
+	 * Creates the oracle for the given feature model.
+	 *
+	 * @param featureModel the feature model
+	 * @throws IllegalStateException if the feature model is null
+	 */
+	public FeatureModelGroupMusOracle(IFeatureModel featureModel) throws IllegalStateException {
+		if (featureModel == null) {
+			throw new IllegalStateException("Feature model not set");
+		}
+		this.featureModel = featureModel;
+
+		nodeCreator = new AdvancedNodeCreator(featureModel);
+		nodeCreator.setIncludeBooleanValues(false);
+		nodeCreator.setCnfType(CNFType.Regular);
+		nodeCreator.setRecordTraceModel(true);
+		final Node cnf = nodeCreator.createNodes();
+		traceModel = nodeCreator.getTraceModel();
+
+		final Set<String> names = new LinkedHashSet<>();
+		for (final IFeature feature : featureModel.getFeatures()) {
+			names.add(NodeCreator.getVariable(feature));
+		}
+		for (final Object variable : Nodes.getDistinctVariableObjects(cnf)) {
+			names.add(String.valueOf(variable));
+		}
+		final List<IConstraint> constraints = featureModel.getConstraints();
+		final List<String> allNames = new ArrayList<>(names.size() + constraints.size());
+		allNames.addAll(names);
+		for (final IConstraint constraint : constraints) {
+			allNames.add(ACTIVATION_PREFIX + activationVariables.size());
+			activationVariables.put(constraint, allNames.size());
+		}
+		variables = new Variables(allNames);
+
+		final Map<FeatureModelElementTrace, Integer> groupIndexes = new LinkedHashMap<>();
+		final List<List<LiteralSet>> groups = new ArrayList<>();
+		final List<Integer> clauseIndexes = new ArrayList<>();
+		final Node[] clauses = cnf.getChildren();
+		for (int i = 0; i < clauses.length; i++) {
+			final FeatureModelElementTrace trace = traceModel.getTrace(i);
+			Integer group = groupIndexes.get(trace);
+			if (group == null) {
+				group = groups.size();
+				groupIndexes.put(trace, group);
+				groups.add(new ArrayList<LiteralSet>());
+				clauseIndexes.add(i);
+				if (trace.getElement() instanceof IConstraint) {
+					constraintGroups.put((IConstraint) trace.getElement(), group);
+				}
+			}
+			final LiteralSet clause = getClause(clauses[i]);
+			if (clause != null) {
+				groups.get(group).add(clause);
+			}
+		}
+		groupClauseIndexes = new int[clauseIndexes.size()];
+		for (int i = 0; i < groupClauseIndexes.length; i++) {
+			groupClauseIndexes[i] = clauseIndexes.get(i);
+		}
+
+		extractor = new GroupMusExtractor(new CNF(variables), groups);
+	}
+
+	/**
+	 * Converts a clause of the CNF into a literal set.
+	 *
+	 * @param clauseNode a clause or a single literal
+	 * @return the literal set or {@code null} if the clause is a tautology
+	 */
+	private LiteralSet getClause(Node clauseNode) {
+		final Node[] literalNodes = (clauseNode instanceof Literal) ? new Node[] { clauseNode } : clauseNode.getChildren();
+		final Set<Integer> literals = new LinkedHashSet<>();
+		for (final Node literalNode : literalNodes) {
+			final Literal literal = (Literal) literalNode;
+			final int variable = variables.getVariable(String.valueOf(literal.var));
+			final int value = literal.positive ? variable : -variable;
+			if (literals.contains(-value)) {
+				return null;
+			}
+			literals.add(value);
+		}
+		final int[] literalArray = new int[literals.size()];
+		int i = 0;
+		for (final Integer literal : literals) {
+			literalArray[i++] = literal;
+		}
+		return new LiteralSet(literalArray);
+	}
+
+	private List<LiteralSet> getClauses(Node cnf, int activationVariable) {
+		final Node[] clauseNodes = cnf.getChildren();
+		final List<LiteralSet> clauses = new ArrayList<>(clauseNodes.length);
+		for (final Node clauseNode : clauseNodes) {
+			final LiteralSet clause = getClause(clauseNode);
+			if (clause != null) {
+				if (activationVariable == 0) {
+					clauses.add(clause);
+				} else {
+					final int[] literals = clause.getLiterals();
+					final int[] guardedLiterals = new int[literals.length + 1];
+					System.arraycopy(literals, 0, guardedLiterals, 0, literals.length);
+					guardedLiterals[literals.length] = -activationVariable;
+					clauses.add(new LiteralSet(guardedLiterals));
+				}
+			}
+		}
+		return clauses;
+	}
+
+	public IFeatureModel getFeatureModel() {
+		return featureModel;
+	}
+
+	/**
+	 * Returns the trace model, which maps the clause indexes returned by this oracle to elements of the feature model.
+	 *
+	 * @return the trace model
+	 */
+	public FeatureModelToNodeTraceModel getTraceModel() {
+		return traceModel;
+	}
+
+	/**
+	 * @return the number of satisfiability queries that were answered so far
+	 */
+	public synchronized int getNumberOfSolverCalls() {
+		return extractor.getNumberOfSolverCalls();
+	}
+
+	/**
+	 * Explains why the given feature is dead.
+	 *
+	 * @param feature the feature
+	 * @return the indexes of the clauses of the explanation or {@code null} if the feature is not dead
+	 */
+	public synchronized Set<Integer> explainDeadFeature(IFeature feature) {
+		return getClauseIndexes(extractor.getMinimalUnsatisfiableSubset(getLiteral(feature, true)));
+	}
+
+	/**
+	 * Explains why the given feature is false-optional.
+	 *
+	 * @param feature the feature
+	 * @return the indexes of the clauses of the explanation or {@code null} if the feature is not false-optional
+	 */
+	public synchronized Set<Integer> explainFalseOptionalFeature(IFeature feature) {
+		final IFeature parent = FeatureUtils.getParent(feature);
+		if (parent == null) {
+			return null;
+		}
+		return getClauseIndexes(extractor.getMinimalUnsatisfiableSubset(getLiteral(feature, false), getLiteral(parent, true)));
+	}
+
+	/**
+	 * Explains why the given constraint is redundant. The constraint does not need to be part of the feature model.
+	 *
+	 * @param constraint the constraint
+	 * @return the indexes of the clauses of the explanation or {@code null} if the constraint is not redundant
+	 */
+	public synchronized Set<Integer> explainRedundantConstraint(IConstraint constraint) {
+		final Integer activationVariable = activationVariables.get(constraint);
+		if (activationVariable != null) {
+			if (!negatedConstraints.contains(constraint)) {
+				if (!addNegatedConstraint(constraint, activationVariable)) {
+					return Collections.emptySet();
+				}
+				negatedConstraints.add(constraint);
+			}
+			final Integer group = constraintGroups.get(constraint);
+			final int[] excludedGroups = group == null ? new int[0] : new int[] { group };
+			return getClauseIndexes(extractor.getMinimalUnsatisfiableSubset(new int[] { activationVariable }, excludedGroups));
+		} else {
+			// Constraint is not part of the model (e.g., an implicit constraint)
+			final List<LiteralSet> clauses = getNegatedClauses(constraint, 0);
+			try {
+				extractor.addClauses(clauses);
+			} catch (final RuntimeContradictionException e) {
+				// The constraint is a tautology
+				return Collections.emptySet();
+			}
+			try {
+				return getClauseIndexes(extractor.getMinimalUnsatisfiableSubset());
+			} finally {
+				extractor.removeLastClauses(clauses.size());
+			}
+		}
+	}
+
+	private boolean addNegatedConstraint(IConstraint constraint, int activationVariable) {
+		try {
+			extractor.addClauses(getNegatedClauses(constraint, activationVariable));
+			return true;
+		} catch (final RuntimeContradictionException e) {
+			// The negated constraint is unsatisfiable, thus the constraint is a tautology
+			return false;
+		}
+	}
+
+	private List<LiteralSet> getNegatedClauses(IConstraint constraint, int activationVariable) {
+		final int traceCount = traceModel.getTraceCount();
+		try {
+			return getClauses(nodeCreator.createConstraintNode(constraint, false), activationVariable);
+		} finally {
+			traceModel.removeTraces(traceModel.getTraceCount() - traceCount);
+		}
+	}
+
+	private int getLiteral(IFeature feature, boolean positive) {
+		final int variable = variables.getVariable(NodeCreator.getVariable(feature, featureModel));
+		return positive ? variable : -variable;
+	}
+
+	private Set<Integer> getClauseIndexes(int[] groups) {
+		if (groups == null) {
+			return null;
+		}
+		final Set<Integer> clauseIndexes = new LinkedHashSet<>();
+		for (final int group : groups) {
+			clauseIndexes.add(groupClauseIndexes[group]);
+		}
+		return clauseIndexes;
+	}
+
+}
@@ -0,0 +1,51 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.explanations.fm.impl.gmus;
+
+import java.util.Set;
+
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.explanations.fm.DeadFeatureExplanation;
+import de.ovgu.featureide.fm.core.explanations.fm.DeadFeatureExplanationCreator;
+
+/**
+ * Implementation of {@link DeadFeatureExplanationCreator} using a {@link FeatureModelGroupMusOracle group MUS oracle}.
+ *
+ * @author FeatureIDE Team
+ */
+public class GroupMusDeadFeatureExplanationCreator extends GroupMusFeatureModelExplanationCreator<IFeature, DeadFeatureExplanation>
+		implements DeadFeatureExplanationCreator {
+
+	@Override
+	public DeadFeatureExplanation getExplanation() throws IllegalStateException {
+		final FeatureModelGroupMusOracle oracle = getOracle();
+		if (getSubject() == null) {
+			throw new IllegalStateException("Subject not set");
+		}
+		final Set<Integer> clauseIndexes = oracle.explainDeadFeature(getSubject());
+		return clauseIndexes == null ? null : getExplanation(clauseIndexes);
+	}
+
+	@Override
+	protected DeadFeatureExplanation getConcreteExplanation() {
+		return new DeadFeatureExplanation(getSubject());
+	}
+}
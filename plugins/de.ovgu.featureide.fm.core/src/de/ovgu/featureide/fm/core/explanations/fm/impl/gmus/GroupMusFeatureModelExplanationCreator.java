@@ -0,0 +1,63 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.explanations.fm.impl.gmus;
+
+import de.ovgu.featureide.fm.core.explanations.Reason;
+import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanation;
+import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanationCreator;
+import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelReason;
+import de.ovgu.featureide.fm.core.explanations.fm.impl.AbstractFeatureModelExplanationCreator;
+
+/**
+ * Abstract implementation of {@link FeatureModelExplanationCreator} using a {@link FeatureModelGroupMusOracle group MUS oracle}. The oracle is kept for all
+ * explanations of the same feature model and can be {@link #setOracle(FeatureModelGroupMusOracle) shared} with creators for other types of explanations.
+ *
+ * @param <S> subject
+ * @param <E> explanation
+ * @author FeatureIDE Team
+ */
+public abstract class GroupMusFeatureModelExplanationCreator<S, E extends FeatureModelExplanation<S>>
+		extends AbstractFeatureModelExplanationCreator<S, E, FeatureModelGroupMusOracle> {
+
+	@Override
+	protected FeatureModelGroupMusOracle createOracle() {
+		return new FeatureModelGroupMusOracle(getFeatureModel());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IllegalArgumentException if the oracle was created for another feature model
+	 */
+	@Override
+	public void setOracle(FeatureModelGroupMusOracle oracle) throws IllegalArgumentException {
+		if ((oracle != null) && (oracle.getFeatureModel() != getFeatureModel())) {
+			throw new IllegalArgumentException("Oracle was created for another feature model");
+		}
+		super.setOracle(oracle);
+	}
+
+	@Override
+	protected Reason<?> getReason(int clauseIndex) {
+		return new FeatureModelReason(getOracle().getTraceModel().getTrace(clauseIndex));
+	}
+
+}
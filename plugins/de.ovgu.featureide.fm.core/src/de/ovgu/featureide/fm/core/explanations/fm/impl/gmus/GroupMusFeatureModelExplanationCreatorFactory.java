@@ -0,0 +1,51 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.explanations.fm.impl.gmus;
+
+import de.ovgu.featureide.fm.core.explanations.fm.DeadFeatureExplanationCreator;
+import de.ovgu.featureide.fm.core.explanations.fm.FalseOptionalFeatureExplanationCreator;
+import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanationCreator;
+import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanationCreatorFactory;
+import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanationCreator;
+
+/**
+ * Provides instances of {@link FeatureModelExplanationCreator} using a {@link FeatureModelGroupMusOracle group MUS oracle}.
+ *
+ * @author FeatureIDE Team
+ */
+public class GroupMusFeatureModelExplanationCreatorFactory extends FeatureModelExplanationCreatorFactory {
+
+	@Override
+	public DeadFeatureExplanationCreator getDeadFeatureExplanationCreator() {
+		return new GroupMusDeadFeatureExplanationCreator();
+	}
+
+	@Override
+	public FalseOptionalFeatureExplanationCreator getFalseOptionalFeatureExplanationCreator() {
+		return new GroupMusFalseOptionalFeatureExplanationCreator();
+	}
+
+	@Override
+	public RedundantConstraintExplanationCreator getRedundantConstraintExplanationCreator() {
+		return new GroupMusRedundantConstraintExplanationCreator();
+	}
+
+}
@@ -0,0 +1,68 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Interface for formats that can read and write data directly from and to streams, without holding the complete content as a string.
+ *
+ * @author FeatureIDE Team
+ */
+public interface IStreamingFormat<T> extends IPersistentFormat<T> {
+
+	/**
+	 * Parses the contents of the given reader and transfers all information onto the given object.
+	 *
+	 * @param object the object to write the information into.
+	 * @param source the source content. The reader is not closed.
+	 * @return A list of {@link Problem problems} that occurred during the parsing process.
+	 *
+	 * @see #read(Object, CharSequence)
+	 */
+	ProblemList read(T object, Reader source);
+
+	/**
+	 * Writes the information of an object to the given writer.
+	 *
+	 * @param object the object to get the information from.
+	 * @param writer the writer for the content. The writer is flushed, but not closed.
+	 * @throws IOException if the content cannot be written
+	 *
+	 * @see #write(Object)
+	 */
+	void write(T object, Writer writer) throws IOException;
+
+	/**
+	 * Writes the information of an object to the given stream.
+	 *
+	 * @param object the object to get the information from.
+	 * @param out the stream for the content. The stream is flushed, but not closed.
+	 * @throws IOException if the content cannot be written
+	 *
+	 * @see #write(Object, Writer)
+	 */
+	void write(T object, OutputStream out) throws IOException;
+
+}
@@ -20,19 +20,19 @@
  */
 package de.ovgu.featureide.fm.core.io.dimacs;
 
-import java.io.IOException;
 import java.text.ParseException;
-
-import org.prop4j.Node;
+import java.util.Arrays;
 
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
-import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
 import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.io.APersistentFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsStreamReader.ClauseHandler;
 
 /**
  * Reads and writes feature models in the DIMACS CNF format.
@@ -54,17 +54,26 @@ public class DIMACSFormatCNF extends APersistentFormat<CNF> {
 	@Override
 	public ProblemList read(CNF cnf, CharSequence source) {
 		final ProblemList problemList = new ProblemList();
-		final DimacsReader r = new DimacsReader();
+		final DimacsStreamReader r = new DimacsStreamReader();
 		r.setReadingVariableDirectory(true);
-		r.setFlattenCNF(false);
 		try {
-			final Node node = r.read(source.toString());
-			final Variables variables = new Variables(r.getVariables());
-			final ClauseList clauseList = Nodes.convertNF(variables, node, true, true);
+			final ClauseList clauseList = new ClauseList();
+			final Variables variables = r.read(source, new ClauseHandler() {
+
+				@Override
+				public void handleProblem(int variableCount, int clauseCount) {
+					clauseList.ensureCapacity(clauseCount);
+				}
+
+				@Override
+				public void handleClause(int[] literals, int length) {
+					clauseList.add(new LiteralSet(Arrays.copyOf(literals, length), Order.UNORDERED, false));
+				}
+			});
 			cnf.setVariables(variables);
 			cnf.getClauses().clear();
 			cnf.getClauses().addAll(clauseList);
-		} catch (ParseException | IOException e) {
+		} catch (final ParseException e) {
 			problemList.add(new Problem(e));
 		}
 		return problemList;
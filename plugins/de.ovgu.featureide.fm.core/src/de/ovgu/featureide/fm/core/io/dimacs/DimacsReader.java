@@ -23,16 +23,11 @@ package de.ovgu.featureide.fm.core.io.dimacs;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
-import java.io.StringReader;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
 
@@ -41,30 +36,21 @@ import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Or;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactCNF;
+
 /**
- * Transforms DIMACS CNF files into instances of {@link Node}.
+ * Transforms DIMACS CNF files into instances of {@link Node}. Uses a {@link DimacsStreamReader} for parsing.
  *
  * @author Timo Günther
  * @author Sebastian Krieter
  */
 public class DimacsReader {
 
-	private static final Pattern commentPattern = Pattern.compile("\\A" + DIMACSConstants.COMMENT + "\\s*(.*)\\Z");
-	private static final Pattern problemPattern = Pattern.compile("\\A\\s*" + DIMACSConstants.PROBLEM + "\\s+" + DIMACSConstants.CNF + "\\s+(\\d+)\\s+(\\d+)");
-
-	/** Maps indexes to variables. */
-	private final Map<Integer, String> indexVariables = new LinkedHashMap<>();
-	/**
-	 * The amount of variables as declared in the problem definition. May differ from the actual amount of variables found.
-	 */
-	private int variableCount;
-	/** The amount of clauses in the problem. */
-	private int clauseCount;
+	/** The variables in the order of their first occurrence. */
+	private List<String> variables = Collections.emptyList();
 	/** True to read the variable directory for naming variables. */
 	private boolean readVariableDirectory = false;
 	private boolean flattenCNF = false;
-	/** True when currently reading the comment section at the beginning of the file and parsing variable names. */
-	private boolean readingVariables;
 
 	/**
 	 * <p> Sets the reading variable directory flag. If true, the reader will look for a variable directory in the comments. This contains names for the
@@ -100,45 +86,18 @@ public class DimacsReader {
 	 */
 	@Nonnull
 	public Node read(Reader in) throws ParseException, IOException {
-		indexVariables.clear();
-		variableCount = -1;
-		clauseCount = -1;
-		readingVariables = readVariableDirectory;
+		final StringBuilder sb = new StringBuilder();
 		try (final BufferedReader reader = new BufferedReader(in)) {
-			final LineIterator lineIterator = new LineIterator(reader);
-			lineIterator.get();
-
-			readComments(lineIterator);
-			readProblem(lineIterator);
-			readComments(lineIterator);
-			readingVariables = false;
-
-			final Node[] clauses = readClauses(lineIterator);
-			final int actualVariableCount = indexVariables.size();
-			if (variableCount != actualVariableCount) {
-				throw new ParseException(String.format("Found %d instead of %d variables", actualVariableCount, variableCount), 1);
-			}
-			Node node = new And(clauses);
-			if (flattenCNF) {
-				node = node.simplifyTree();
-			}
-			return node;
-		}
-	}
-
-	private void readComments(final LineIterator lineIterator) {
-		for (String line = lineIterator.currentLine(); line != null; line = lineIterator.get()) {
-			final Matcher matcher = commentPattern.matcher(line);
-			if (matcher.matches()) {
-				readComment(matcher.group(1)); // read comments ...
-			} else {
-				break; // ... until a non-comment token is found.
+			final char[] buffer = new char[8192];
+			for (int length = reader.read(buffer); length >= 0; length = reader.read(buffer)) {
+				sb.append(buffer, 0, length);
 			}
 		}
+		return read((CharSequence) sb);
 	}
 
 	/**
-	 * Reads the input. Calls {@link #read(Reader)}.
+	 * Reads the input.
 	 *
 	 * @param in The string to read from.
 	 * @return a CNF; not null
@@ -147,162 +106,38 @@ public class DimacsReader {
 	 */
 	@Nonnull
 	public Node read(String in) throws ParseException, IOException {
-		return read(new StringReader(in));
-	}
-
-	/**
-	 * Reads the problem definition.
-	 *
-	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
-	 */
-	private void readProblem(LineIterator lineIterator) throws ParseException {
-		final String line = lineIterator.currentLine();
-		if (line == null) {
-			throw new ParseException("Invalid problem format", lineIterator.getLineCount());
-		}
-		final Matcher matcher = problemPattern.matcher(line);
-		if (!matcher.find()) {
-			throw new ParseException("Invalid problem format", lineIterator.getLineCount());
-		}
-		final String trail = line.substring(matcher.end());
-		if (trail.trim().isEmpty()) {
-			lineIterator.get();
-		} else {
-			lineIterator.setCurrentLine(trail);
-		}
-
-		try {
-			variableCount = Integer.parseInt(matcher.group(1));
-		} catch (final NumberFormatException e) {
-			throw new ParseException("Variable count is not an integer", lineIterator.getLineCount());
-		}
-		if (variableCount < 0) {
-			throw new ParseException("Variable count is not positive", lineIterator.getLineCount());
-		}
-
-		try {
-			clauseCount = Integer.parseInt(matcher.group(2));
-		} catch (final NumberFormatException e) {
-			throw new ParseException("Clause count is not an integer", lineIterator.getLineCount());
-		}
-		if (clauseCount < 0) {
-			throw new ParseException("Clause count is not positive", lineIterator.getLineCount());
-		}
+		return read((CharSequence) in);
 	}
 
-	/**
-	 * Reads all clauses.
-	 *
-	 * @return all clauses; not null
-	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
-	 * @throws IOException
-	 */
-	private Node[] readClauses(LineIterator lineIterator) throws ParseException, IOException {
-		final LinkedList<String> literalQueue = new LinkedList<>();
-		final Node[] clauses = new Node[clauseCount];
-		int readClausesCount = 0;
-		for (String line = lineIterator.currentLine(); line != null; line = lineIterator.get()) {
-			if (commentPattern.matcher(line).matches()) {
-				continue;
+	private Node read(CharSequence in) throws ParseException {
+		variables = Collections.emptyList();
+		final DimacsStreamReader reader = new DimacsStreamReader();
+		reader.setReadingVariableDirectory(readVariableDirectory);
+		final CompactCNF cnf = reader.read(in);
+
+		final String[] names = cnf.getVariables().getNames();
+		final int[] literals = cnf.getLiteralArray();
+		final Node[] clauses = new Node[cnf.getNumberOfClauses()];
+		for (int i = 0; i < clauses.length; i++) {
+			final int start = cnf.getClauseStart(i);
+			final Node[] clauseLiterals = new Node[cnf.getClauseLength(i)];
+			for (int j = 0; j < clauseLiterals.length; j++) {
+				final int literal = literals[start + j];
+				clauseLiterals[j] = new Literal(names[Math.abs(literal)], literal > 0);
 			}
-			List<String> literalList = Arrays.asList(line.trim().split("\\s+"));
-			literalQueue.addAll(literalList);
-
-			do {
-				final int clauseEndIndex = literalList.indexOf("0");
-				if (clauseEndIndex < 0) {
-					break;
-				}
-				final int clauseSize = literalQueue.size() - (literalList.size() - clauseEndIndex);
-				if (clauseSize <= 0) {
-					throw new ParseException("Empty clause", lineIterator.getLineCount());
-				}
-
-				clauses[readClausesCount] = parseClause(readClausesCount, clauseSize, literalQueue, lineIterator);
-				readClausesCount++;
-
-				if (!DIMACSConstants.CLAUSE_END.equals(literalQueue.removeFirst())) {
-					throw new ParseException("Illegal clause end", lineIterator.getLineCount());
-				}
-				literalList = literalQueue;
-			} while (!literalQueue.isEmpty());
-		}
-		if (!literalQueue.isEmpty()) {
-			clauses[readClausesCount] = parseClause(readClausesCount, literalQueue.size(), literalQueue, lineIterator);
-			readClausesCount++;
+			clauses[i] = new Or(clauseLiterals);
 		}
-		if (readClausesCount < clauseCount) {
-			throw new ParseException(String.format("Found %d instead of %d clauses", readClausesCount, clauseCount), 1);
-		}
-		return clauses;
-	}
+		variables = Arrays.asList(names).subList(1, names.length);
 
-	private Or parseClause(int readClausesCount, int clauseSize, LinkedList<String> literalQueue, LineIterator lineIterator) throws ParseException {
-		if (readClausesCount == clauseCount) {
-			throw new ParseException(String.format("Found more than %d clauses", clauseCount), 1);
-		}
-		final Node[] literals = new Node[clauseSize];
-		for (int j = 0; j < literals.length; j++) {
-			final String token = literalQueue.removeFirst();
-			final int index;
-			try {
-				index = Integer.parseInt(token);
-			} catch (final NumberFormatException e) {
-				throw new ParseException("Illegal literal", lineIterator.getLineCount());
-			}
-			if (index == 0) {
-				throw new ParseException("Illegal literal", lineIterator.getLineCount());
-			}
-			final Integer key = Math.abs(index);
-			String variable = indexVariables.get(key);
-			if (variable == null) {
-				variable = String.valueOf(key);
-				indexVariables.put(key, variable);
-			}
-			literals[j] = new Literal(variable, index > 0);
-		}
-		return new Or(literals);
-	}
-
-	/**
-	 * Called when a comment is read.
-	 *
-	 * @param comment content of the comment; not null
-	 * @return whether the comment was consumed logically
-	 */
-	private boolean readComment(String comment) {
-		return readingVariables && readVariableDirectoryEntry(comment);
-	}
-
-	/**
-	 * Reads an entry of the variable directory.
-	 *
-	 * @param line variable directory entry
-	 * @return true if an entry was found
-	 */
-	private boolean readVariableDirectoryEntry(String comment) {
-		final int firstSeparator = comment.indexOf(' ');
-		if (firstSeparator <= 0) {
-			return false;
-		}
-		final int index;
-		try {
-			index = Integer.parseInt(comment.substring(0, firstSeparator));
-		} catch (final NumberFormatException e) {
-			return false;
-		}
-		if (comment.length() < (firstSeparator + 2)) {
-			return false;
-		}
-		final String variable = comment.substring(firstSeparator + 1);
-		if (!indexVariables.containsKey(index)) {
-			indexVariables.put(index, variable);
+		Node node = new And(clauses);
+		if (flattenCNF) {
+			node = node.simplifyTree();
 		}
-		return true;
+		return node;
 	}
 
 	public Collection<String> getVariables() {
-		return indexVariables.values();
+		return variables;
 	}
 
 }
@@ -0,0 +1,550 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactCNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+
+/**
+ * Reads DIMACS CNF files without creating intermediate objects for clauses or literals. Files are read via memory-mapped buffers and are never loaded into
+ * a string as a whole. The parsed clauses are either stored in a {@link CompactCNF} or passed to a {@link ClauseHandler}.<br> <br> Accepts the same input
+ * as {@link DimacsReader}. Variables are numbered in the order of their first occurrence (entries of the variable directory come first). Thus, for files
+ * with a complete and ordered variable directory, the variable indices are equal to the indices within the file.
+ *
+ * @author FeatureIDE Team
+ */
+public class DimacsStreamReader {
+
+	/**
+	 * Receives the clauses of a DIMACS file while it is parsed.
+	 *
+	 * @author FeatureIDE Team
+	 */
+	public static interface ClauseHandler {
+
+		/**
+		 * Called once after the problem definition was read.
+		 *
+		 * @param variableCount the declared number of variables
+		 * @param clauseCount the declared number of clauses
+		 */
+		void handleProblem(int variableCount, int clauseCount);
+
+		/**
+		 * Called for each clause.
+		 *
+		 * @param literals array containing the literals of the clause (using the variable indices of the resulting {@link Variables}). <b>The array is reused
+		 *        for the next clause.</b>
+		 * @param length the number of literals of the clause
+		 */
+		void handleClause(int[] literals, int length);
+
+	}
+
+	private static class CNFHandler implements ClauseHandler {
+
+		private static final int MAX_INITIAL_CAPACITY = 1 << 20;
+
+		private CompactCNF cnf;
+
+		@Override
+		public void handleProblem(int variableCount, int clauseCount) {
+			final int expectedNumberOfClauses = Math.min(clauseCount, MAX_INITIAL_CAPACITY);
+			cnf = new CompactCNF(new Variables(), expectedNumberOfClauses, expectedNumberOfClauses << 2);
+		}
+
+		@Override
+		public void handleClause(int[] literals, int length) {
+			cnf.addClause(literals, length);
+		}
+
+		private CompactCNF getCNF(Variables variables) {
+			cnf.setVariables(variables);
+			cnf.trimToSize();
+			return cnf;
+		}
+
+	}
+
+	/**
+	 * Provides the characters of the input.
+	 */
+	private abstract static class Source {
+
+		/**
+		 * @return the next character or {@code -1} at the end of the input.
+		 */
+		abstract int read() throws IOException;
+
+		/**
+		 * Reads the remaining characters of the current line including the line separator.
+		 *
+		 * @param keep whether the characters are needed by the caller
+		 * @return the characters excluding the line separator (and a trailing carriage return) or {@code null} if {@code keep} is false.
+		 */
+		abstract String readLine(boolean keep) throws IOException;
+
+	}
+
+	private static class CharSequenceSource extends Source {
+
+		private final CharSequence chars;
+		private int index = 0;
+
+		public CharSequenceSource(CharSequence chars) {
+			this.chars = chars;
+		}
+
+		@Override
+		int read() {
+			return index < chars.length() ? chars.charAt(index++) : -1;
+		}
+
+		@Override
+		String readLine(boolean keep) {
+			final int start = index;
+			while ((index < chars.length()) && (chars.charAt(index) != '\n')) {
+				index++;
+			}
+			final int end = ((index > start) && (chars.charAt(index - 1) == '\r')) ? index - 1 : index;
+			if (index < chars.length()) {
+				index++;
+			}
+			return keep ? chars.subSequence(start, end).toString() : null;
+		}
+
+	}
+
+	private static class MappedFileSource extends Source {
+
+		/** Maximum number of bytes that are mapped at once. */
+		private static final long MAP_SIZE = 1 << 30;
+
+		private final FileChannel channel;
+		private final long size;
+		private long position = 0;
+		private MappedByteBuffer buffer = null;
+		private byte[] lineBuffer = new byte[256];
+
+		public MappedFileSource(FileChannel channel) throws IOException {
+			this.channel = channel;
+			size = channel.size();
+		}
+
+		@Override
+		int read() throws IOException {
+			if ((buffer == null) || !buffer.hasRemaining()) {
+				if (position >= size) {
+					return -1;
+				}
+				final long length = Math.min(size - position, MAP_SIZE);
+				buffer = channel.map(MapMode.READ_ONLY, position, length);
+				position += length;
+			}
+			return buffer.get() & 0xFF;
+		}
+
+		@Override
+		String readLine(boolean keep) throws IOException {
+			int length = 0;
+			for (int c = read(); (c >= 0) && (c != '\n'); c = read()) {
+				if (keep) {
+					if (length == lineBuffer.length) {
+						lineBuffer = Arrays.copyOf(lineBuffer, length << 1);
+					}
+					lineBuffer[length++] = (byte) c;
+				}
+			}
+			if ((length > 0) && (lineBuffer[length - 1] == '\r')) {
+				length--;
+			}
+			return keep ? new String(lineBuffer, 0, length, StandardCharsets.UTF_8) : null;
+		}
+
+	}
+
+	/** Indices in the file up to this value are mapped using an array, all greater indices using a map. */
+	private static final int MAX_ARRAY_INDEX = 1 << 24;
+
+	/** True to read the variable directory for naming variables. */
+	private boolean readVariableDirectory = false;
+
+	private Source source;
+	private ClauseHandler handler;
+	private int lineCount;
+	private int variableCount;
+	private int clauseCount;
+	private int readClausesCount;
+	private boolean problemRead;
+	/** True when currently reading the comment section at the beginning of the file and parsing variable names. */
+	private boolean readingVariables;
+
+	private final ArrayList<String> variableNames = new ArrayList<>();
+	private int[] indexToVariable;
+	private HashMap<Integer, Integer> largeIndexToVariable;
+
+	private int[] clause = new int[16];
+	private int clauseLength;
+
+	/**
+	 * <p> Sets the reading variable directory flag. If true, the reader will look for a variable directory in the comments. This contains names for the
+	 * variables which would otherwise just be numbers. </p>
+	 *
+	 * <p> Defaults to false. </p>
+	 *
+	 * @param readVariableDirectory whether to read the variable directory
+	 */
+	public void setReadingVariableDirectory(boolean readVariableDirectory) {
+		this.readVariableDirectory = readVariableDirectory;
+	}
+
+	/**
+	 * Reads the given file into a new {@link CompactCNF}.
+	 *
+	 * @param file the file to read from
+	 * @return a CNF; not null
+	 * @throws IOException if the file cannot be read
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public CompactCNF read(Path file) throws IOException, ParseException {
+		final CNFHandler cnfHandler = new CNFHandler();
+		final Variables variables = read(file, cnfHandler);
+		return cnfHandler.getCNF(variables);
+	}
+
+	/**
+	 * Reads the given source into a new {@link CompactCNF}.
+	 *
+	 * @param source the source to read from
+	 * @return a CNF; not null
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public CompactCNF read(CharSequence source) throws ParseException {
+		final CNFHandler cnfHandler = new CNFHandler();
+		final Variables variables = read(source, cnfHandler);
+		return cnfHandler.getCNF(variables);
+	}
+
+	/**
+	 * Reads the given file and passes each clause to the given handler.
+	 *
+	 * @param file the file to read from
+	 * @param handler the handler receiving the clauses
+	 * @return the variables of the CNF; not null
+	 * @throws IOException if the file cannot be read
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public Variables read(Path file, ClauseHandler handler) throws IOException, ParseException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return read(new MappedFileSource(channel), handler);
+		}
+	}
+
+	/**
+	 * Reads the given source and passes each clause to the given handler.
+	 *
+	 * @param source the source to read from
+	 * @param handler the handler receiving the clauses
+	 * @return the variables of the CNF; not null
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public Variables read(CharSequence source, ClauseHandler handler) throws ParseException {
+		try {
+			return read(new CharSequenceSource(source), handler);
+		} catch (final IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private Variables read(Source source, ClauseHandler handler) throws IOException, ParseException {
+		this.source = source;
+		this.handler = handler;
+		lineCount = 1;
+		variableCount = -1;
+		clauseCount = -1;
+		readClausesCount = 0;
+		problemRead = false;
+		readingVariables = readVariableDirectory;
+		variableNames.clear();
+		indexToVariable = new int[1024];
+		largeIndexToVariable = null;
+		clauseLength = 0;
+		try {
+			for (int c = source.read(); c >= 0; c = source.read()) {
+				// c is the first character of a line
+				if (c == 'c') {
+					final String comment = source.readLine(readingVariables);
+					if (readingVariables) {
+						readVariableDirectoryEntry(comment);
+					}
+				} else {
+					c = readLine(c);
+					if (c < 0) {
+						break;
+					}
+				}
+				lineCount++;
+			}
+
+			if (!problemRead) {
+				throw new ParseException("Invalid problem format", lineCount);
+			}
+			if (clauseLength > 0) {
+				handleClause();
+			}
+			if (readClausesCount < clauseCount) {
+				throw new ParseException(String.format("Found %d instead of %d clauses", readClausesCount, clauseCount), lineCount);
+			}
+			if (variableCount != variableNames.size()) {
+				throw new ParseException(String.format("Found %d instead of %d variables", variableNames.size(), variableCount), lineCount);
+			}
+			return new Variables(variableNames);
+		} finally {
+			this.source = null;
+			this.handler = null;
+		}
+	}
+
+	private static boolean isWhitespace(int c) {
+		return (c == ' ') || (c == '\t') || (c == '\r') || (c == '\f') || (c == 0x0B);
+	}
+
+	private int skipWhitespace(int c) throws IOException {
+		while (isWhitespace(c)) {
+			c = source.read();
+		}
+		return c;
+	}
+
+	/**
+	 * Reads a line that is not a comment.
+	 *
+	 * @param c the first character of the line
+	 * @return the line separator or {@code -1} at the end of the input
+	 */
+	private int readLine(int c) throws IOException, ParseException {
+		c = skipWhitespace(c);
+		if ((c < 0) || (c == '\n')) {
+			return c;
+		}
+		if (!problemRead) {
+			c = skipWhitespace(readProblem(c));
+			if ((c < 0) || (c == '\n')) {
+				return c;
+			}
+		}
+		readingVariables = false;
+		do {
+			c = skipWhitespace(readLiteral(c));
+		} while ((c >= 0) && (c != '\n'));
+		return c;
+	}
+
+	/**
+	 * Reads the problem definition.
+	 *
+	 * @param c the first character of the problem definition
+	 * @return the first character after the problem definition
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	private int readProblem(int c) throws IOException, ParseException {
+		c = readToken(c, DIMACSConstants.PROBLEM);
+		c = readToken(c, DIMACSConstants.CNF);
+		if (!isDigit(c)) {
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+		long count = 0;
+		for (; isDigit(c); c = source.read()) {
+			count = (count * 10) + (c - '0');
+			if (count > Integer.MAX_VALUE) {
+				throw new ParseException("Variable count is not an integer", lineCount);
+			}
+		}
+		variableCount = (int) count;
+		if (!isWhitespace(c)) {
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+		c = skipWhitespace(c);
+		if (!isDigit(c)) {
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+		count = 0;
+		for (; isDigit(c); c = source.read()) {
+			count = (count * 10) + (c - '0');
+			if (count > Integer.MAX_VALUE) {
+				throw new ParseException("Clause count is not an integer", lineCount);
+			}
+		}
+		clauseCount = (int) count;
+		problemRead = true;
+		handler.handleProblem(variableCount, clauseCount);
+		return c;
+	}
+
+	private static boolean isDigit(int c) {
+		return (c >= '0') && (c <= '9');
+	}
+
+	/**
+	 * Reads the given token followed by at least one whitespace character.
+	 */
+	private int readToken(int c, String token) throws IOException, ParseException {
+		for (int i = 0; i < token.length(); i++) {
+			if (c != token.charAt(i)) {
+				throw new ParseException("Invalid problem format", lineCount);
+			}
+			c = source.read();
+		}
+		if (!isWhitespace(c)) {
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+		return skipWhitespace(c);
+	}
+
+	/**
+	 * Reads a literal or the end of a clause.
+	 *
+	 * @param c the first character of the literal
+	 * @return the first character after the literal
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	private int readLiteral(int c) throws IOException, ParseException {
+		final boolean signed = (c == '-') || (c == '+');
+		final boolean positive = c != '-';
+		if (signed) {
+			c = source.read();
+		}
+		int digits = 0;
+		long index = 0;
+		for (; isDigit(c); c = source.read()) {
+			index = (index * 10) + (c - '0');
+			if (index > Integer.MAX_VALUE) {
+				throw new ParseException("Illegal literal", lineCount);
+			}
+			digits++;
+		}
+		if ((digits == 0) || !((c < 0) || (c == '\n') || isWhitespace(c))) {
+			throw new ParseException("Illegal literal", lineCount);
+		}
+		if (index == 0) {
+			if (signed || (digits > 1)) {
+				throw new ParseException("Illegal literal", lineCount);
+			}
+			if (clauseLength == 0) {
+				throw new ParseException("Empty clause", lineCount);
+			}
+			handleClause();
+		} else {
+			if (clauseLength == clause.length) {
+				clause = Arrays.copyOf(clause, clauseLength << 1);
+			}
+			final int variable = getVariable((int) index, null);
+			clause[clauseLength++] = positive ? variable : -variable;
+		}
+		return c;
+	}
+
+	private void handleClause() throws ParseException {
+		if (readClausesCount == clauseCount) {
+			throw new ParseException(String.format("Found more than %d clauses", clauseCount), lineCount);
+		}
+		handler.handleClause(clause, clauseLength);
+		readClausesCount++;
+		clauseLength = 0;
+	}
+
+	/**
+	 * Returns the variable for the given index within the file. Creates a new variable, if there is none yet.
+	 *
+	 * @param index the index within the file
+	 * @param name the name of a new variable (if {@code null}, the index is used as name)
+	 * @return the variable index
+	 */
+	private int getVariable(int index, String name) {
+		if (index <= MAX_ARRAY_INDEX) {
+			if (index >= indexToVariable.length) {
+				indexToVariable = Arrays.copyOf(indexToVariable, Math.max(index + 1, Math.min(indexToVariable.length << 1, MAX_ARRAY_INDEX + 1)));
+			}
+			int variable = indexToVariable[index];
+			if (variable == 0) {
+				variable = addVariable(index, name);
+				indexToVariable[index] = variable;
+			}
+			return variable;
+		} else {
+			if (largeIndexToVariable == null) {
+				largeIndexToVariable = new HashMap<>();
+			}
+			Integer variable = largeIndexToVariable.get(index);
+			if (variable == null) {
+				variable = addVariable(index, name);
+				largeIndexToVariable.put(index, variable);
+			}
+			return variable;
+		}
+	}
+
+	private int addVariable(int index, String name) {
+		variableNames.add(name != null ? name : String.valueOf(index));
+		return variableNames.size();
+	}
+
+	/**
+	 * Reads an entry of the variable directory.
+	 *
+	 * @param comment content of the comment (without the comment token)
+	 * @return true if an entry was found
+	 */
+	private boolean readVariableDirectoryEntry(String comment) {
+		int start = 0;
+		while ((start < comment.length()) && isWhitespace(comment.charAt(start))) {
+			start++;
+		}
+		final int firstSeparator = comment.indexOf(' ', start);
+		if (firstSeparator <= start) {
+			return false;
+		}
+		final int index;
+		try {
+			index = Integer.parseInt(comment.substring(start, firstSeparator));
+		} catch (final NumberFormatException e) {
+			return false;
+		}
+		if ((index <= 0) || (comment.length() < (firstSeparator + 2))) {
+			return false;
+		}
+		getVariable(index, comment.substring(firstSeparator + 1));
+		return true;
+	}
+
+}
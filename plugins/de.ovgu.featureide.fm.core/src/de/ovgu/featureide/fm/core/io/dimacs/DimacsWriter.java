@@ -20,9 +20,17 @@
  */
 package de.ovgu.featureide.fm.core.io.dimacs;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import org.prop4j.Node;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactCNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 
 /**
@@ -33,6 +41,9 @@ import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
  */
 public class DimacsWriter {
 
+	/** Number of characters that are buffered before they are passed to a writer. */
+	private static final int BUFFER_SIZE = 1 << 16;
+
 	/** Whether the writer should write a variable directory listing the names of the variables. */
 	private boolean writingVariableDirectory = true;
 
@@ -74,23 +85,70 @@ public class DimacsWriter {
 	 */
 	public String write() {
 		final StringBuilder sb = new StringBuilder();
+		try {
+			write(sb, null);
+		} catch (final IOException e) {
+			throw new AssertionError(e);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Writes the DIMACS CNF file format to the given file. The content is written in chunks and not created as a whole in memory.
+	 *
+	 * @param file the file to write to
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path file) throws IOException {
+		try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			write(out);
+		}
+	}
+
+	/**
+	 * Writes the DIMACS CNF file format to the given writer. The content is written in chunks and not created as a whole in memory.
+	 *
+	 * @param out the writer to write to
+	 * @throws IOException if the writer encounters a problem
+	 */
+	public void write(Writer out) throws IOException {
+		write(new StringBuilder(BUFFER_SIZE + 1024), out);
+	}
+
+	private void write(StringBuilder sb, Writer out) throws IOException {
 		if (writingVariableDirectory) {
-			writeVariableDirectory(sb);
+			writeVariableDirectory(sb, out);
 		}
 		writeProblem(sb);
-		writeClauses(sb);
-		return sb.toString();
+		writeClauses(sb, out);
+		flush(sb, out, 0);
+	}
+
+	/**
+	 * Passes the content of the string builder to the writer, if it exceeds the given size.
+	 *
+	 * @param sb the string builder that builds the document
+	 * @param out the writer to write to (if {@code null}, the whole document is built in the string builder)
+	 * @param size the minimum size
+	 */
+	private void flush(StringBuilder sb, Writer out, int size) throws IOException {
+		if ((out != null) && (sb.length() > size)) {
+			out.append(sb);
+			sb.setLength(0);
+		}
 	}
 
 	/**
 	 * Writes the variable directory.
 	 *
 	 * @param sb the string builder that builds the document
+	 * @param out the writer to write to
 	 */
-	private void writeVariableDirectory(StringBuilder sb) {
+	private void writeVariableDirectory(StringBuilder sb, Writer out) throws IOException {
 		final String[] names = cnf.getVariables().getNames();
 		for (int i = 1; i < names.length; i++) {
 			writeVariableDirectoryEntry(sb, i, names[i]);
+			flush(sb, out, BUFFER_SIZE);
 		}
 	}
 
@@ -121,7 +179,7 @@ public class DimacsWriter {
 		sb.append(' ');
 		sb.append(cnf.getVariables().size());
 		sb.append(' ');
-		sb.append(cnf.getClauses().size());
+		sb.append(cnf instanceof CompactCNF ? ((CompactCNF) cnf).getNumberOfClauses() : cnf.getClauses().size());
 		sb.append(System.lineSeparator());
 	}
 
@@ -144,10 +202,27 @@ public class DimacsWriter {
 	 * Writes all clauses.
 	 *
 	 * @param sb the string builder that builds the document
+	 * @param out the writer to write to
 	 */
-	private void writeClauses(StringBuilder sb) {
-		for (final LiteralSet clause : cnf.getClauses()) {
-			writeClause(sb, cnf.getInternalVariables().convertToInternal(clause));
+	private void writeClauses(StringBuilder sb, Writer out) throws IOException {
+		final IInternalVariables variables = cnf.getInternalVariables();
+		if (cnf instanceof CompactCNF) {
+			final CompactCNF compactCNF = (CompactCNF) cnf;
+			final int[] literals = compactCNF.getLiteralArray();
+			for (int i = 0; i < compactCNF.getNumberOfClauses(); i++) {
+				for (int j = compactCNF.getClauseStart(i); j < compactCNF.getClauseEnd(i); j++) {
+					sb.append(variables.convertToInternal(literals[j]));
+					sb.append(' ');
+				}
+				sb.append(DIMACSConstants.CLAUSE_END);
+				sb.append(System.lineSeparator());
+				flush(sb, out, BUFFER_SIZE);
+			}
+		} else {
+			for (final LiteralSet clause : cnf.getClauses()) {
+				writeClause(sb, variables.convertToInternal(clause));
+				flush(sb, out, BUFFER_SIZE);
+			}
 		}
 	}
 
@@ -20,7 +20,9 @@
  */
 package de.ovgu.featureide.fm.core.io.manager;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Constructor;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
@@ -28,11 +30,11 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 import javax.annotation.CheckForNull;
 
@@ -48,6 +50,7 @@ import de.ovgu.featureide.fm.core.base.impl.FormatManager;
 import de.ovgu.featureide.fm.core.io.ExternalChangeListener;
 import de.ovgu.featureide.fm.core.io.FileSystem;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.LazyReader;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
 
@@ -172,7 +175,7 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 	private final List<? extends IPersistentFormat<T>> formats;
 	private final FactoryManager<T> factoryManager;
 
-	protected String persistentObjectSource;
+	protected byte[] persistentObjectSource;
 	protected T persistentObject;
 	protected T variableObject;
 	protected T snapshot;
@@ -189,16 +192,16 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 	protected boolean init(IPersistentFormat<T> desiredFormat) {
 		if ((desiredFormat != null) || FileSystem.exists(path)) {
 			try {
-				final String content = new String(FileSystem.read(path), SimpleFileHandler.DEFAULT_CHARSET);
+				final byte[] content = FileSystem.read(path);
 				if (desiredFormat != null) {
 					format = desiredFormat;
 					setVariableObject(createObject());
 				} else {
 					detectFormat(content);
 				}
-				final ProblemList problems = format.getInstance().read(variableObject, content);
+				final ProblemList problems = SimpleFileHandler.loadFromBytes(content, variableObject, format);
 				final T newPersistentObject = createObject();
-				format.getInstance().read(newPersistentObject, content);
+				SimpleFileHandler.loadFromBytes(content, newPersistentObject, format);
 				if (problems != null) {
 					lastProblems.addAll(problems);
 				}
@@ -213,8 +216,17 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 	}
 
 	private void detectFormat(final CharSequence content) throws Exception {
+		detectFormat(possibleFormat -> possibleFormat.supportsContent(content));
+	}
+
+	private void detectFormat(final byte[] content) throws Exception {
+		final LazyReader reader = new LazyReader(new InputStreamReader(new ByteArrayInputStream(content), SimpleFileHandler.DEFAULT_CHARSET));
+		detectFormat(possibleFormat -> possibleFormat.supportsContent(reader));
+	}
+
+	private void detectFormat(final Predicate<IPersistentFormat<T>> supportsContent) throws Exception {
 		for (final IPersistentFormat<T> possibleFormat : formats) {
-			if (possibleFormat.supportsContent(content)) {
+			if (supportsContent.test(possibleFormat)) {
 				if ((format == null) || !format.getId().equals(possibleFormat.getId())) {
 					format = possibleFormat;
 					setVariableObject(createObject());
@@ -357,10 +369,13 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 
 	protected void setPersistentObject(T persistentObject) {
 		this.persistentObject = persistentObject;
-		if (persistentObject == null) {
-			persistentObjectSource = null;
-		} else {
-			persistentObjectSource = format.getInstance().write(persistentObject);
+		persistentObjectSource = null;
+		if (persistentObject != null) {
+			try {
+				persistentObjectSource = SimpleFileHandler.saveToBytes(persistentObject, format);
+			} catch (final IOException e) {
+				Logger.logError(e);
+			}
 		}
 	}
 
@@ -397,10 +412,10 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 		}
 		lastProblems.clear();
 		final T tempObject;
-		final String content = new String(FileSystem.read(path), SimpleFileHandler.DEFAULT_CHARSET);
+		final byte[] content = FileSystem.read(path);
 		detectFormat(content);
 		tempObject = createObject();
-		final List<Problem> problemList = format.getInstance().read(tempObject, content);
+		final List<Problem> problemList = SimpleFileHandler.loadFromBytes(content, tempObject, format);
 		if (problemList != null) {
 			lastProblems.addAll(problemList);
 		}
@@ -440,7 +455,7 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 				return;
 			}
 			if (persistentObjectSource != null) {
-				format.getInstance().read(variableObject, persistentObjectSource);
+				SimpleFileHandler.loadFromBytes(persistentObjectSource, variableObject, format);
 			}
 		} finally {
 			fileOperationLock.unlock();
@@ -455,8 +470,12 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 	 * @return {@code true} if objects differ, {@code false} otherwise.
 	 */
 	protected boolean hasChanged(T newObject) {
-		final String write = format.getInstance().write(newObject);
-		return !Objects.equals(write, persistentObjectSource);
+		try {
+			return !Arrays.equals(SimpleFileHandler.saveToBytes(newObject, format), persistentObjectSource);
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return true;
+		}
 	}
 
 	/**
@@ -480,10 +499,10 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 					return new ProblemList();
 				}
 				modifying = true;
-				final String source = format.getInstance().write(variableObject);
-				FileSystem.write(path, source.getBytes(SimpleFileHandler.DEFAULT_CHARSET));
+				final byte[] source = SimpleFileHandler.saveToBytes(variableObject, format);
+				FileSystem.write(path, source);
 				final T tempObject = createObject();
-				format.getInstance().read(tempObject, source);
+				SimpleFileHandler.loadFromBytes(source, tempObject, format);
 				setPersistentObject(tempObject);
 			} catch (final Exception e) {
 				handleException(e);
@@ -50,6 +50,10 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 
 	private FeatureModelFormula persistentFormula = null;
 	private FeatureModelFormula variableFormula = null;
+	/**
+	 * The variable formula before the last change of dependencies. Used to update the new variable formula incrementally.
+	 */
+	private FeatureModelFormula previousVariableFormula = null;
 
 	@CheckForNull
 	public static FeatureModelManager getInstance(Path path) {
@@ -117,7 +121,8 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 		fileOperationLock.lock();
 		try {
 			if (variableFormula == null) {
-				variableFormula = new FeatureModelFormula(getSnapshot());
+				variableFormula = new FeatureModelFormula(getSnapshot(), previousVariableFormula);
+				previousVariableFormula = null;
 			}
 			return variableFormula;
 		} finally {
@@ -125,16 +130,36 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 		}
 	}
 
+	/**
+	 * Invalidates the snapshot and the variable formula depending on the kind of change. The snapshot is only copied again if the change may affect more than
+	 * the properties of the feature model:
+	 * <ul>
+	 * <li>{@link #CHANGE_NOTHING}: the snapshot is kept.</li>
+	 * <li>{@link #CHANGE_MODEL_PROPERTY}: the properties are copied to the snapshot and to the model of the variable formula.</li>
+	 * <li>otherwise: the snapshot is discarded and the variable formula is discarded if the change may affect the dependencies.</li>
+	 * </ul>
+	 */
 	@Override
 	protected void resetSnapshot(int changeIndicator) {
-		super.resetSnapshot(changeIndicator);
-		if (variableFormula != null) {
-			if (changeIndicator <= CHANGE_DEPENDENCIES) {
-				variableFormula = null;
-			} else if (changeIndicator == CHANGE_MODEL_PROPERTY) {
-				// Not nessessary to rebuild the variable formula, just copy the properties to the variable formula's model
+		switch (changeIndicator) {
+		case CHANGE_NOTHING:
+			break;
+		case CHANGE_MODEL_PROPERTY:
+			// Not nessessary to copy the whole feature model, just copy the properties to the snapshot and the variable formula's model
+			if (snapshot != null) {
+				snapshot.getProperty().setProperties(variableObject.getProperty().getProperties());
+			}
+			if ((variableFormula != null) && (variableFormula.getFeatureModel() != snapshot)) {
 				variableFormula.getFeatureModel().getProperty().setProperties(variableObject.getProperty().getProperties());
 			}
+			break;
+		default:
+			super.resetSnapshot(changeIndicator);
+			if ((variableFormula != null) && (changeIndicator <= CHANGE_DEPENDENCIES)) {
+				previousVariableFormula = variableFormula;
+				variableFormula = null;
+			}
+			break;
 		}
 	}
 
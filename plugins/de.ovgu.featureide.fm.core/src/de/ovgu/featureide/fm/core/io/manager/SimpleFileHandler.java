@@ -21,10 +21,13 @@
 package de.ovgu.featureide.fm.core.io.manager;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -35,6 +38,7 @@ import javax.annotation.Nonnull;
 import de.ovgu.featureide.fm.core.base.impl.FormatManager;
 import de.ovgu.featureide.fm.core.io.FileSystem;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.IStreamingFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
 
@@ -173,6 +177,42 @@ public class SimpleFileHandler<T> {
 		return format.getInstance().read(object, source);
 	}
 
+	/**
+	 * Writes the given object to a byte array using the {@link #DEFAULT_CHARSET default charset}. If the format is an {@link IStreamingFormat}, the object
+	 * is written directly to the array without creating an intermediate string.
+	 *
+	 * @param object the object to write
+	 * @param format the format
+	 * @return the encoded content
+	 * @throws IOException if the object cannot be written
+	 */
+	public static <T> byte[] saveToBytes(T object, IPersistentFormat<T> format) throws IOException {
+		final IPersistentFormat<T> instance = format.getInstance();
+		if (instance instanceof IStreamingFormat) {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			((IStreamingFormat<T>) instance).write(object, out);
+			return out.toByteArray();
+		}
+		return instance.write(object).getBytes(DEFAULT_CHARSET);
+	}
+
+	/**
+	 * Reads the given object from a byte array using the {@link #DEFAULT_CHARSET default charset}. If the format is an {@link IStreamingFormat}, the content
+	 * is decoded while it is parsed.
+	 *
+	 * @param source the encoded content
+	 * @param object the object to read
+	 * @param format the format
+	 * @return A list of {@link Problem problems} that occurred during the parsing process.
+	 */
+	public static <T> ProblemList loadFromBytes(byte[] source, T object, IPersistentFormat<T> format) {
+		final IPersistentFormat<T> instance = format.getInstance();
+		if (instance instanceof IStreamingFormat) {
+			return ((IStreamingFormat<T>) instance).read(object, new InputStreamReader(new ByteArrayInputStream(source), DEFAULT_CHARSET));
+		}
+		return instance.read(object, new String(source, DEFAULT_CHARSET));
+	}
+
 	public SimpleFileHandler(Path path, T object, IPersistentFormat<T> format) {
 		this.format = format;
 		this.path = path;
@@ -209,11 +249,25 @@ public class SimpleFileHandler<T> {
 
 	public boolean read() {
 		problemList.clear();
+		if (format instanceof IStreamingFormat) {
+			try {
+				if (!Files.exists(path)) {
+					throw new FileNotFoundException(path.toString());
+				}
+				return parse(Files.newInputStream(path));
+			} catch (final Exception e) {
+				problemList.add(new Problem(e));
+				return false;
+			}
+		}
 		return parse(getContent());
 	}
 
 	public boolean read(InputStream inputStream) {
 		problemList.clear();
+		if (format instanceof IStreamingFormat) {
+			return parse(inputStream);
+		}
 		return parse(getContent(inputStream));
 	}
 
@@ -264,11 +318,23 @@ public class SimpleFileHandler<T> {
 		return !problemList.containsError();
 	}
 
+	/**
+	 * Parses the content of the given stream with the current {@link IStreamingFormat streaming format}. Closes the stream.
+	 */
+	private boolean parse(InputStream inputStream) {
+		try (Reader reader = new BufferedReader(new InputStreamReader(inputStream, DEFAULT_CHARSET))) {
+			problemList.addAll(((IStreamingFormat<T>) format.getInstance()).read(object, reader));
+		} catch (final Exception e) {
+			problemList.add(new Problem(e));
+		}
+
+		return !problemList.containsError();
+	}
+
 	public boolean write() {
 		problemList.clear();
 		try {
-			final byte[] content = format.getInstance().write(object).getBytes(DEFAULT_CHARSET);
-			FileSystem.write(path, content);
+			FileSystem.write(path, saveToBytes(object, format));
 		} catch (final Exception e) {
 			problemList.add(new Problem(e));
 		}
@@ -0,0 +1,249 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.io.APersistentFormat;
+import de.ovgu.featureide.fm.core.io.IStreamingFormat;
+import de.ovgu.featureide.fm.core.io.LazyReader;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.Problem.Severity;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+
+/**
+ * Reads / Writes an object in XML format with StAX.<br> <br> In contrast to {@link AXMLFormat}, the document is processed element by element instead of
+ * being converted into a DOM document, such that it is never completely held in memory.
+ *
+ * @author FeatureIDE Team
+ */
+public abstract class AStreamingXMLFormat<T> extends APersistentFormat<T> implements IStreamingFormat<T>, XMLFeatureModelTags {
+
+	public static final String FILE_EXTENSION = AXMLFormat.FILE_EXTENSION;
+
+	protected T object;
+
+	/**
+	 * Throws an error that will be used for error markers
+	 *
+	 * @param message The error message
+	 * @param reader The reader, which is positioned at the element that causes the error. The element is used for positioning.
+	 */
+	protected static void throwError(String message, XMLStreamReader reader) throws UnsupportedModelException {
+		throw new UnsupportedModelException(message, getLineNumber(reader));
+	}
+
+	protected void addToProblemsList(String message, XMLStreamReader reader) {
+		addProblem(new Problem(message, getLineNumber(reader), Severity.ERROR));
+	}
+
+	protected void throwWarning(String message, XMLStreamReader reader) {
+		addProblem(new Problem(message, getLineNumber(reader), Severity.WARNING));
+	}
+
+	protected static int getLineNumber(XMLStreamReader reader) {
+		return reader.getLocation().getLineNumber();
+	}
+
+	/**
+	 * Moves the reader to the next child of the current element. Text, comments, and processing instructions are skipped.
+	 *
+	 * @param reader the reader, which is positioned at the start of an element (or of the document)
+	 * @return {@code true} if the reader is positioned at the start of the next child element, {@code false} if it is positioned at the end of the current
+	 *         element (or of the document)
+	 */
+	protected static boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				return true;
+			case XMLStreamConstants.END_ELEMENT:
+				return false;
+			default:
+				break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Skips the current element including all of its children.
+	 *
+	 * @param reader the reader, which is positioned at the start of an element. Afterwards, it is positioned at the end of this element.
+	 */
+	protected static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while ((depth > 0) && reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Can be overwritten be implementing classes to control how to handle problems. Does nothing on default.
+	 *
+	 * @param problem a problem.
+	 */
+	protected void addProblem(final Problem problem) {}
+
+	@Override
+	public String getSuffix() {
+		return FILE_EXTENSION;
+	}
+
+	@Override
+	public ProblemList read(T object, CharSequence source) {
+		return read(object, new StringReader(source.toString()));
+	}
+
+	@Override
+	public ProblemList read(T object, Reader source) {
+		this.object = object;
+
+		final ProblemList lastWarnings = new ProblemList();
+		XMLStreamReader reader = null;
+		try {
+			final XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+			factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+			reader = factory.createXMLStreamReader(source);
+			readStream(reader, lastWarnings);
+		} catch (final XMLStreamException e) {
+			lastWarnings.add(new Problem(e, e.getLocation() == null ? 0 : e.getLocation().getLineNumber()));
+		} catch (final UnsupportedModelException e) {
+			lastWarnings.add(new Problem(e, e.lineNumber));
+		} catch (final Exception e) {
+			lastWarnings.add(new Problem(e));
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (final XMLStreamException e) {
+					Logger.logError(e);
+				}
+			}
+		}
+
+		return lastWarnings;
+	}
+
+	@Override
+	public String write(T object) {
+		try (StringWriter stringWriter = new StringWriter()) {
+			write(object, stringWriter);
+			return stringWriter.toString();
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return "";
+		}
+	}
+
+	@Override
+	public void write(T object, Writer writer) throws IOException {
+		this.object = object;
+
+		try {
+			final IndentingXMLStreamWriter xmlWriter = new IndentingXMLStreamWriter(writer);
+			writeStream(xmlWriter);
+			xmlWriter.close();
+		} catch (final XMLStreamException e) {
+			throw new IOException(e);
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Writes the information of an object to the given stream using the {@link SimpleFileHandler#DEFAULT_CHARSET default charset}.
+	 */
+	@Override
+	public void write(T object, OutputStream out) throws IOException {
+		write(object, new BufferedWriter(new OutputStreamWriter(out, SimpleFileHandler.DEFAULT_CHARSET)));
+	}
+
+	@Override
+	public boolean supportsRead() {
+		return true;
+	}
+
+	@Override
+	public boolean supportsWrite() {
+		return true;
+	}
+
+	protected final boolean supportsContent(CharSequence content, Pattern pattern) {
+		return supportsRead() && pattern.matcher(content).find();
+	}
+
+	protected final boolean supportsContent(LazyReader reader, Pattern pattern) {
+		if (supportsRead()) {
+			final Matcher matcher = pattern.matcher("");
+			do {
+				matcher.reset(reader);
+				if (matcher.find()) {
+					return true;
+				}
+			} while (matcher.hitEnd() && reader.expand());
+		}
+		return false;
+	}
+
+	/**
+	 * Reads an XML-Document element by element.
+	 *
+	 * @param reader reader that is positioned at the start of the document
+	 * @param warnings list of warnings / errors that occur during read
+	 */
+	protected abstract void readStream(XMLStreamReader reader, List<Problem> warnings) throws XMLStreamException, UnsupportedModelException;
+
+	/**
+	 * Writes an XML-Document element by element.
+	 *
+	 * @param writer writer for the document
+	 */
+	protected abstract void writeStream(IndentingXMLStreamWriter writer) throws XMLStreamException;
+
+}
@@ -0,0 +1,163 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes an XML document element by element to a {@link Writer} using a {@link XMLStreamWriter}. The output is indented by tabs, with one element per line,
+ * and is identical to the pretty printed output of a DOM document in {@link AXMLFormat}. Elements without content are written as empty elements.
+ *
+ * @author FeatureIDE Team
+ */
+public class IndentingXMLStreamWriter {
+
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+
+	private final XMLStreamWriter writer;
+
+	private final List<String> pendingAttributes = new ArrayList<>();
+	private String pendingElement = null;
+	private int depth = 0;
+
+	/**
+	 * Creates a new writer and writes the XML declaration.
+	 *
+	 * @param out the writer for the document
+	 * @throws IOException if the declaration cannot be written
+	 * @throws XMLStreamException if the stream writer cannot be created
+	 */
+	public IndentingXMLStreamWriter(Writer out) throws IOException, XMLStreamException {
+		out.write(XML_DECLARATION);
+		writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+	}
+
+	/**
+	 * Starts a new element. The element is written when its first child is started or when it is ended.
+	 *
+	 * @param name the name of the element
+	 */
+	public void startElement(String name) throws XMLStreamException {
+		writePendingElement();
+		pendingElement = name;
+	}
+
+	/**
+	 * Adds an attribute to the element that was started last. Must be called before any child is started.
+	 *
+	 * @param name the name of the attribute
+	 * @param value the value of the attribute
+	 */
+	public void attribute(String name, String value) {
+		if (pendingElement == null) {
+			throw new IllegalStateException("No element started");
+		}
+		pendingAttributes.add(name);
+		pendingAttributes.add(value);
+	}
+
+	/**
+	 * Ends the element that was started last.
+	 */
+	public void endElement() throws XMLStreamException {
+		if (pendingElement != null) {
+			newLine(depth);
+			writer.writeEmptyElement(pendingElement);
+			writePendingAttributes();
+		} else {
+			newLine(--depth);
+			writer.writeEndElement();
+		}
+	}
+
+	/**
+	 * Writes an element that only contains the given text. If the text spans multiple lines, each (trimmed) line is written on a separate line and empty lines
+	 * are omitted. An empty text results in an empty element.
+	 *
+	 * @param name the name of the element
+	 * @param text the text
+	 */
+	public void textElement(String name, String text) throws XMLStreamException {
+		writePendingElement();
+		newLine(depth);
+		if (text.isEmpty()) {
+			writer.writeEmptyElement(name);
+			return;
+		}
+		writer.writeStartElement(name);
+		if ((text.indexOf('\n') < 0) && (text.indexOf('\r') < 0)) {
+			writer.writeCharacters(text);
+		} else {
+			for (final String line : text.split("\r\n|\r|\n")) {
+				final String trimmedLine = line.trim();
+				if (!trimmedLine.isEmpty()) {
+					newLine(depth + 1);
+					writer.writeCharacters(trimmedLine);
+				}
+			}
+			newLine(depth);
+		}
+		writer.writeEndElement();
+	}
+
+	/**
+	 * Finishes the document and flushes the underlying writer. The underlying writer is not closed.
+	 */
+	public void close() throws XMLStreamException {
+		writePendingElement();
+		writer.writeCharacters("\n");
+		writer.flush();
+		writer.close();
+	}
+
+	private void writePendingElement() throws XMLStreamException {
+		if (pendingElement != null) {
+			newLine(depth++);
+			writer.writeStartElement(pendingElement);
+			writePendingAttributes();
+		}
+	}
+
+	private void writePendingAttributes() throws XMLStreamException {
+		for (int i = 0; i < pendingAttributes.size(); i += 2) {
+			writer.writeAttribute(pendingAttributes.get(i), pendingAttributes.get(i + 1));
+		}
+		pendingAttributes.clear();
+		pendingElement = null;
+	}
+
+	private void newLine(int indentLevel) throws XMLStreamException {
+		final StringBuilder sb = new StringBuilder(indentLevel + 1);
+		sb.append('\n');
+		for (int i = 0; i < indentLevel; i++) {
+			sb.append('\t');
+		}
+		writer.writeCharacters(sb.toString());
+	}
+
+}
@@ -33,6 +33,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.prop4j.And;
 import org.prop4j.AtMost;
 import org.prop4j.Equals;
@@ -40,12 +43,6 @@ import org.prop4j.Implies;
 import org.prop4j.Literal;
 import org.prop4j.Not;
 import org.prop4j.Or;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.w3c.dom.Text;
 
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
@@ -60,10 +57,12 @@ import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.IFeatureNameValidator;
 import de.ovgu.featureide.fm.core.io.LazyReader;
 import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.Problem.Severity;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
 
 /**
- * Reads / Writes a feature model in the FeatureIDE XML format
+ * Reads / Writes a feature model in the FeatureIDE XML format<br> <br> The document is streamed, i.e., features and constraints are created directly while
+ * reading and written directly to the output.
  *
  * @author Jens Meinicke
  * @author Marcus Pinnecke
@@ -71,7 +70,7 @@ import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
  * @author Marlen Bernier
  * @author Dawid Szczepanski
  */
-public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements IFeatureModelFormat {
+public class XmlFeatureModelFormat extends AStreamingXMLFormat<IFeatureModel> implements IFeatureModelFormat {
 
 	public static final String ID = PluginID.PLUGIN_ID + ".format.fm." + XmlFeatureModelFormat.class.getSimpleName();
 
@@ -82,6 +81,24 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 
 	protected final List<Problem> localProblems = new ArrayList<>();
 
+	/**
+	 * A reference to a feature by its name, which is resolved after the whole document is read.
+	 */
+	private static final class FeatureReference {
+
+		private final String name;
+		private final int lineNumber;
+
+		private FeatureReference(String name, int lineNumber) {
+			this.name = name;
+			this.lineNumber = lineNumber;
+		}
+
+	}
+
+	private final List<FeatureReference> featureReferences = new ArrayList<>();
+	private final List<IConstraint> parsedConstraints = new ArrayList<>();
+
 	public XmlFeatureModelFormat() {}
 
 	protected XmlFeatureModelFormat(XmlFeatureModelFormat oldFormat) {
@@ -89,546 +106,590 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 	}
 
 	@Override
-	protected void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException {
+	protected void readStream(XMLStreamReader reader, List<Problem> warnings) throws XMLStreamException, UnsupportedModelException {
 		object.reset();
 
 		factory = FMFactoryManager.getInstance().getFactory(object);
+		featureReferences.clear();
+		parsedConstraints.clear();
 
-		for (final Element e : getElement(doc, FEATURE_MODEL, false)) {
-			parseStruct(getElement(e, STRUCT, false));
-			parseConstraints(getElement(e, CONSTRAINTS, true));
-			parseComments(getElement(e, COMMENTS, true));
-			parseFeatureOrder(getElement(e, FEATURE_ORDER, true));
-			parseFeatureModelProperties(getElement(e, PROPERTIES, true));
+		final String rootElement = getRootElementName();
+		if (!nextElement(reader) || !reader.getLocalName().equals(rootElement)) {
+			throw new UnsupportedModelException("Node " + rootElement + " not defined!", reader.getLocation().getLineNumber());
 		}
+		final List<String> featureOrder = parseFeatureModel(reader);
 
-		if (object.getStructure().getRoot() == null) {
-			throw new UnsupportedModelException(WRONG_SYNTAX, 1);
+		// Constraints and the feature order may reference features that are defined later in the document
+		for (final FeatureReference reference : featureReferences) {
+			if (object.getFeature(reference.name) == null) {
+				throw new UnsupportedModelException("Feature \"" + reference.name + "\" does not exists", reference.lineNumber);
+			}
 		}
-
-		warnings.addAll(localProblems);
-	}
-
-	@Override
-	protected void writeDocument(Document doc) {
-		final Element root = doc.createElement(FEATURE_MODEL);
-		doc.appendChild(root);
-
-		writeProperties(doc, root);
-		writeFeatures(doc, root);
-		writeConstraints(doc, root);
-		writeComments(doc, root);
-		writeFeatureOrder(doc, root);
-	}
-
-	protected void writeProperties(Document doc, final Element root) {
-		if (!object.getProperty().getProperties().isEmpty()) {
-			final Element properties = doc.createElement(PROPERTIES);
-			root.appendChild(properties);
-			addProperties(doc, object.getProperty(), properties);
+		for (final IConstraint constraint : parsedConstraints) {
+			object.addConstraint(constraint);
 		}
-	}
-
-	protected void writeFeatures(Document doc, final Element root) {
-		final Element struct = doc.createElement(STRUCT);
-		root.appendChild(struct);
-		writeFeatureTreeRec(doc, struct, FeatureUtils.getRoot(object));
-	}
-
-	protected void writeConstraints(Document doc, final Element root) {
-		if (!object.getConstraints().isEmpty()) {
-			final Element constraints = doc.createElement(CONSTRAINTS);
-			root.appendChild(constraints);
-			for (final IConstraint constraint : object.getConstraints()) {
-				Element rule;
-				rule = doc.createElement(RULE);
-
-				constraints.appendChild(rule);
-				addDescription(doc, constraint.getDescription(), rule);
-				addProperties(doc, constraint.getCustomProperties(), rule);
-				createPropositionalConstraints(doc, rule, constraint.getNode());
-			}
+		if (!featureOrder.isEmpty()) {
+			object.setFeatureOrderList(featureOrder);
 		}
-	}
 
-	protected void writeComments(Document doc, final Element root) {
-		if (!object.getProperty().getComments().isEmpty()) {
-			final Element comments = doc.createElement(COMMENTS);
-			root.appendChild(comments);
-			for (final String comment : object.getProperty().getComments()) {
-				final Element c = doc.createElement(C);
-				comments.appendChild(c);
-				final Text text = doc.createTextNode(comment);
-				c.appendChild(text);
-			}
+		if (object.getStructure().getRoot() == null) {
+			throw new UnsupportedModelException(WRONG_SYNTAX, 1);
 		}
-	}
 
-	protected void writeFeatureOrder(Document doc, final Element root) {
-		if (object.isFeatureOrderUserDefined()) {
-			final Element order = doc.createElement(FEATURE_ORDER);
-			order.setAttribute(USER_DEFINED, Boolean.toString(object.isFeatureOrderUserDefined()));
-			root.appendChild(order);
-			Collection<String> featureOrderList = object.getFeatureOrderList();
-
-			if (featureOrderList.isEmpty()) {
-				featureOrderList = FeatureUtils.extractConcreteFeaturesAsStringList(object);
-			}
-
-			for (final String featureName : featureOrderList) {
-				final Element feature = doc.createElement(FEATURE);
-				feature.setAttribute(NAME, featureName);
-				order.appendChild(feature);
-			}
-		}
+		warnings.addAll(localProblems);
 	}
 
 	/**
-	 * Inserts the tags concerning propositional constraints into the DOM document representation
+	 * Parses the sections of the feature model element.
 	 *
-	 * @param doc
-	 * @param node Parent node for the propositional nodes
+	 * @return the feature order
 	 */
-	protected void createPropositionalConstraints(Document doc, Element xmlNode, org.prop4j.Node node) {
-		if (node == null) {
-			return;
-		}
-
-		final Element op;
-		if (node instanceof Literal) {
-			final Literal literal = (Literal) node;
-			if (!literal.positive) {
-				final Element opNot = doc.createElement(NOT);
-				xmlNode.appendChild(opNot);
-				xmlNode = opNot;
+	protected List<String> parseFeatureModel(XMLStreamReader reader) throws XMLStreamException, UnsupportedModelException {
+		final int lineNumber = getLineNumber(reader);
+		final ArrayList<String> featureOrder = new ArrayList<>();
+		final List<String> parsedSections = new ArrayList<>();
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			if (parsedSections.contains(nodeName)) {
+				throwWarning("Multiple nodes of " + nodeName + " defined.", reader);
 			}
-			op = doc.createElement(VAR);
-			op.appendChild(doc.createTextNode(String.valueOf(literal.var)));
-			xmlNode.appendChild(op);
-			return;
-		} else if (node instanceof Or) {
-			op = doc.createElement(DISJ);
-		} else if (node instanceof Equals) {
-			op = doc.createElement(EQ);
-		} else if (node instanceof Implies) {
-			op = doc.createElement(IMP);
-		} else if (node instanceof And) {
-			op = doc.createElement(CONJ);
-		} else if (node instanceof Not) {
-			op = doc.createElement(NOT);
-		} else if (node instanceof AtMost) {
-			op = doc.createElement(ATMOST1);
-		} else {
-			op = doc.createElement(UNKNOWN);
+			switch (nodeName) {
+			case STRUCT:
+				parseStruct(reader);
+				break;
+			case CONSTRAINTS:
+				parseConstraints(reader);
+				break;
+			case COMMENTS:
+				parseComments(reader);
+				break;
+			case FEATURE_ORDER:
+				parseFeatureOrder(reader, featureOrder);
+				break;
+			case PROPERTIES:
+				parseFeatureModelProperties(reader);
+				break;
+			default:
+				skipElement(reader);
+				break;
+			}
+			parsedSections.add(nodeName);
 		}
-		xmlNode.appendChild(op);
-
-		for (final org.prop4j.Node child : node.getChildren()) {
-			createPropositionalConstraints(doc, op, child);
+		if (!parsedSections.contains(STRUCT)) {
+			throw new UnsupportedModelException("Node " + STRUCT + " not defined!", lineNumber);
 		}
+		return featureOrder;
 	}
 
 	/**
-	 * Creates document based on feature model step by step
-	 *
-	 * @param doc document to write
-	 * @param node parent node
-	 * @param feat current feature
+	 * Parse the struct section to add features to the model.
 	 */
-	protected void writeFeatureTreeRec(Document doc, Element node, IFeature feat) {
-		if (feat == null) {
-			return;
+	protected void parseStruct(XMLStreamReader reader) throws XMLStreamException, UnsupportedModelException {
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			switch (nodeName) {
+			case AND:
+			case OR:
+			case ALT:
+			case FEATURE:
+				parseFeature(reader, null, nodeName);
+				break;
+			default:
+				throwWarning("Unknown feature type: " + nodeName, reader);
+				skipElement(reader);
+			}
 		}
+	}
 
-		final List<IFeature> children = FeatureUtils.convertToFeatureList(feat.getStructure().getChildren());
-
-		final Element fnod;
-		if (children.isEmpty()) {
-			fnod = doc.createElement(FEATURE);
-			writeFeatureProperties(doc, node, feat, fnod);
-		} else {
-			if (feat.getStructure().isAnd()) {
-				fnod = doc.createElement(AND);
-			} else if (feat.getStructure().isOr()) {
-				fnod = doc.createElement(OR);
-			} else if (feat.getStructure().isAlternative()) {
-				fnod = doc.createElement(ALT);
+	protected void parseFeature(XMLStreamReader reader, IFeature parent, String nodeName) throws XMLStreamException, UnsupportedModelException {
+		boolean mandatory = false;
+		boolean _abstract = false;
+		boolean hidden = false;
+		String name = "";
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			final String attributeValue = reader.getAttributeValue(i);
+			if (attributeName.equals(ABSTRACT)) {
+				_abstract = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(MANDATORY)) {
+				mandatory = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(NAME)) {
+				name = attributeValue;
+			} else if (attributeName.equals(HIDDEN)) {
+				hidden = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(COORDINATES)) {
+				// Legacy case, for backwards compatibility
 			} else {
-				fnod = doc.createElement(UNKNOWN);// Logger.logInfo("creatXMlDockRec: Unexpected error!");
+				throwWarning("Unknown feature attribute: " + attributeName, reader);
 			}
+		}
 
-			writeFeatureProperties(doc, node, feat, fnod);
-
-			for (final IFeature feature : children) {
-				writeFeatureTreeRec(doc, fnod, feature);
-			}
+		if (object.getFeature(name) != null) {
+			throwError("Duplicate entry for feature: " + name, reader);
+		}
 
+		if ((validator != null) && !validator.isValidFeatureName(name)) {
+			addToProblemsList(name + " is not a valid feature name", reader);
 		}
 
-	}
+		final IFeature f = factory.createFeature(object, name);
+		switch (nodeName) {
+		case AND:
+			f.getStructure().setAnd();
+			break;
+		case OR:
+			f.getStructure().setOr();
+			break;
+		case ALT:
+			f.getStructure().setAlternative();
+			break;
+		default:
+			break;
+		}
 
-	protected void writeFeatureProperties(Document doc, Element node, IFeature feat, final Element fnod) {
-		addDescription(doc, feat.getProperty().getDescription(), fnod);
-		addProperties(doc, feat.getCustomProperties(), fnod);
-		writeAttributes(node, fnod, feat);
-	}
+		f.getStructure().setAbstract(_abstract);
+		f.getStructure().setMandatory(mandatory);
+		f.getStructure().setHidden(hidden);
 
-	protected void addDescription(Document doc, String description, Element fnod) {
-		if ((description != null) && !description.trim().isEmpty()) {
-			final Element descr = doc.createElement(DESCRIPTION);
-			descr.setTextContent(description);
-			fnod.appendChild(descr);
+		object.addFeature(f);
+		if (parent == null) {
+			object.getStructure().setRoot(f.getStructure());
+		} else {
+			parent.getStructure().addChild(f.getStructure());
 		}
-	}
 
-	protected void addProperties(Document doc, IPropertyContainer properties, Element fnod) {
-		for (final Entry property : properties.getProperties()) {
-			if (property.getValue() != null) {
-				final Element propNode;
-				if (GRAPHICS.equals(property.getType())) {
-					propNode = doc.createElement(GRAPHICS);
-				} else if (CALCULATIONS.equals(property.getType())) {
-					propNode = doc.createElement(CALCULATIONS);
-				} else {
-					propNode = doc.createElement(PROPERTY);
-					propNode.setAttribute(TYPE, property.getType());
-				}
-				propNode.setAttribute(KEY, property.getKey());
-				propNode.setAttribute(VALUE, property.getValue());
-				fnod.appendChild(propNode);
-			}
+		while (nextElement(reader)) {
+			parseFeatureChild(reader, f, reader.getLocalName());
 		}
 	}
 
 	/**
-	 * Parses the comment section.
+	 * Parses a child element of a feature, i.e., its description, one of its properties, or one of its sub features.
+	 *
+	 * @param reader the reader, which is positioned at the start of the child element. Afterwards, it must be positioned at the end of this element.
+	 * @param feature the feature
+	 * @param nodeName the name of the child element
 	 */
-	protected void parseComments(List<Element> elements) throws UnsupportedModelException {
-		for (final Element e : elements) {
-			if (e.hasChildNodes()) {
-				for (final Element e1 : getElements(e.getChildNodes())) {
-					if (e1.getNodeName().equals(C)) {
-						object.getProperty().addComment(e1.getTextContent());
-					} else {
-						throwWarning("Unknown comment attribute: " + e1.getNodeName(), e1);
-					}
-				}
+	protected void parseFeatureChild(XMLStreamReader reader, IFeature feature, String nodeName) throws XMLStreamException, UnsupportedModelException {
+		switch (nodeName) {
+		case DESCRIPTION:
+			final String description = reader.getElementText();
+			if (!description.isEmpty()) {
+				feature.getProperty().setDescription(getDescription(description));
 			}
+			break;
+		case GRAPHICS:
+			parseProperty(feature.getCustomProperties(), reader, GRAPHICS);
+			break;
+		case PROPERTY:
+			parseProperty(feature.getCustomProperties(), reader, null);
+			break;
+		case AND:
+		case OR:
+		case ALT:
+		case FEATURE:
+			parseFeature(reader, feature, nodeName);
+			break;
+		default:
+			throwWarning("Unknown feature type: " + nodeName, reader);
+			skipElement(reader);
 		}
 	}
 
 	/**
 	 * Parses the constraint section.
 	 */
-	protected void parseConstraints(List<Element> elements) throws UnsupportedModelException {
-		for (final Element e : elements) {
-			for (final Element child : getElements(e.getChildNodes())) {
-				final String nodeName = child.getNodeName();
-				if (nodeName.equals(RULE)) {
-					final IConstraint constraint = factory.createConstraint(object, null);
-					final LinkedList<org.prop4j.Node> constraintNodeList = parseConstraintNode(child.getChildNodes(), constraint);
-					if (constraintNodeList.isEmpty()) {
-						throwWarning("Missing elements", e);
-					} else if (constraintNodeList.size() > 1) {
-						throwWarning("Too many elements", e);
+	protected void parseConstraints(XMLStreamReader reader) throws XMLStreamException, UnsupportedModelException {
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(RULE)) {
+				final int lineNumber = getLineNumber(reader);
+				for (int i = 0; i < reader.getAttributeCount(); i++) {
+					final String attributeName = reader.getAttributeLocalName(i);
+					if (attributeName.equals(COORDINATES)) {
+						// Legacy case, for backwards compatibility
 					} else {
-						constraint.setNode(constraintNodeList.getFirst());
-						if (child.hasAttributes()) {
-							final NamedNodeMap nodeMap = child.getAttributes();
-							for (int i = 0; i < nodeMap.getLength(); i++) {
-								final org.w3c.dom.Node node = nodeMap.item(i);
-								final String attributeName = node.getNodeName();
-								if (attributeName.equals(COORDINATES)) {
-									// Legacy case, for backwards compatibility
-								} else {
-									throwWarning("Unknown constraint attribute: " + attributeName, node);
-								}
-							}
-						}
-						object.addConstraint(constraint);
+						throwWarning("Unknown constraint attribute: " + attributeName, reader);
 					}
+				}
+				final IConstraint constraint = factory.createConstraint(object, null);
+				final LinkedList<org.prop4j.Node> constraintNodeList = parseConstraintNode(reader, constraint);
+				if (constraintNodeList.isEmpty()) {
+					addProblem(new Problem("Missing elements", lineNumber, Severity.WARNING));
+				} else if (constraintNodeList.size() > 1) {
+					addProblem(new Problem("Too many elements", lineNumber, Severity.WARNING));
 				} else {
-					throwWarning("Unknown constraint node: " + nodeName, child);
+					constraint.setNode(constraintNodeList.getFirst());
+					parsedConstraints.add(constraint);
 				}
+			} else {
+				throwWarning("Unknown constraint node: " + nodeName, reader);
+				skipElement(reader);
 			}
 		}
 	}
 
-	protected LinkedList<org.prop4j.Node> parseConstraintNode(NodeList nodeList, IConstraint parent) throws UnsupportedModelException {
+	protected LinkedList<org.prop4j.Node> parseConstraintNode(XMLStreamReader reader, IConstraint parent) throws XMLStreamException,
+			UnsupportedModelException {
 		final LinkedList<org.prop4j.Node> nodes = new LinkedList<>();
 		LinkedList<org.prop4j.Node> children;
-		for (final Element e : getElements(nodeList)) {
-			final String nodeName = e.getNodeName();
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
 			switch (nodeName) {
 			case DESCRIPTION:
 				if (parent != null) {
-					parent.setDescription(getDescription(e));
+					parent.setDescription(getDescription(reader.getElementText()));
 				} else {
-					throwWarning("Misplaced description element", e);
+					throwWarning("Misplaced description element", reader);
+					skipElement(reader);
 				}
 				break;
 			case GRAPHICS:
 				if (parent != null) {
-					parseProperty(parent.getCustomProperties(), e, GRAPHICS);
+					parseProperty(parent.getCustomProperties(), reader, GRAPHICS);
 				} else {
-					throwWarning("Misplaced graphics element", e);
+					throwWarning("Misplaced graphics element", reader);
+					skipElement(reader);
 				}
 				break;
 			case PROPERTY:
 				if (parent != null) {
-					parseProperty(parent.getCustomProperties(), e, null);
+					parseProperty(parent.getCustomProperties(), reader, null);
 				} else {
-					throwWarning("Misplaced property element", e);
+					throwWarning("Misplaced property element", reader);
+					skipElement(reader);
 				}
 				break;
 			case DISJ:
-				nodes.add(new Or(parseConstraintNode(e.getChildNodes(), null)));
+				nodes.add(new Or(parseConstraintNode(reader, null)));
 				break;
 			case CONJ:
-				nodes.add(new And(parseConstraintNode(e.getChildNodes(), null)));
+				nodes.add(new And(parseConstraintNode(reader, null)));
 				break;
 			case EQ:
-				children = parseConstraintNode(e.getChildNodes(), null);
+				children = parseConstraintNode(reader, null);
 				nodes.add(new Equals(children.get(0), children.get(1)));
 				break;
 			case IMP:
-				children = parseConstraintNode(e.getChildNodes(), null);
+				children = parseConstraintNode(reader, null);
 				nodes.add(new Implies(children.get(0), children.get(1)));
 				break;
 			case NOT:
-				nodes.add(new Not((parseConstraintNode(e.getChildNodes(), null)).getFirst()));
+				nodes.add(new Not((parseConstraintNode(reader, null)).getFirst()));
 				break;
 			case ATMOST1:
-				nodes.add(new AtMost(1, parseConstraintNode(e.getChildNodes(), null)));
+				nodes.add(new AtMost(1, parseConstraintNode(reader, null)));
 				break;
 			case VAR:
-				final String featureName = e.getTextContent();
-				if (object.getFeature(featureName) != null) {
-					nodes.add(new Literal(featureName));
-				} else {
-					throwError("Feature \"" + featureName + "\" does not exists", e);
-				}
+				final int lineNumber = getLineNumber(reader);
+				final String featureName = reader.getElementText();
+				featureReferences.add(new FeatureReference(featureName, lineNumber));
+				nodes.add(new Literal(featureName));
 				break;
 			default:
-				throwWarning("Unknown constraint type: " + nodeName, e);
+				throwWarning("Unknown constraint type: " + nodeName, reader);
+				skipElement(reader);
 			}
 		}
 		return nodes;
 	}
 
-	protected String getDescription(final Node e) {
-		String description = e.getTextContent();
-		// NOTE: THe following code is used for backwards compatibility. It replaces spaces and tabs that were added to the XML for indentation, but don't
-		// belong to the actual description.
-		if (description != null) {
-			description = description.replaceAll("(\r\n|\r|\n)\\s*", "\n").replaceAll("\\A\n|\n\\Z", "");
+	/**
+	 * Parses the comment section.
+	 */
+	protected void parseComments(XMLStreamReader reader) throws XMLStreamException {
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(C)) {
+				object.getProperty().addComment(reader.getElementText());
+			} else {
+				throwWarning("Unknown comment attribute: " + nodeName, reader);
+				skipElement(reader);
+			}
 		}
-		return description;
 	}
 
 	/**
 	 * Parses the feature order section.
+	 *
+	 * @param featureOrder the list to which the names of the features are added
 	 */
-	protected void parseFeatureOrder(List<Element> elements) throws UnsupportedModelException {
-		final ArrayList<String> order = new ArrayList<>(object.getNumberOfFeatures());
-		for (final Element e : elements) {
-			if (e.hasAttributes()) {
-				final NamedNodeMap nodeMap = e.getAttributes();
-				for (int i = 0; i < nodeMap.getLength(); i++) {
-					final org.w3c.dom.Node node = nodeMap.item(i);
-					final String attributeName = node.getNodeName();
-					final String attributeValue = node.getNodeValue();
-					if (attributeName.equals(USER_DEFINED)) {
-						object.setFeatureOrderUserDefined(attributeValue.equals(TRUE));
-					} else if (attributeName.equals(NAME)) {
-						if (object.getFeature(attributeValue) != null) {
-							order.add(attributeValue);
-						} else {
-							throwError("Feature \"" + attributeValue + "\" does not exists", e);
-						}
-					} else {
-						throwError("Unknown feature order attribute: " + attributeName, e);
-					}
-
-				}
-			}
-			if (e.hasChildNodes()) {
-				parseFeatureOrder(getElements(e.getChildNodes()));
+	protected void parseFeatureOrder(XMLStreamReader reader, List<String> featureOrder) throws XMLStreamException, UnsupportedModelException {
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			final String attributeValue = reader.getAttributeValue(i);
+			if (attributeName.equals(USER_DEFINED)) {
+				object.setFeatureOrderUserDefined(attributeValue.equals(TRUE));
+			} else if (attributeName.equals(NAME)) {
+				featureReferences.add(new FeatureReference(attributeValue, getLineNumber(reader)));
+				featureOrder.add(attributeValue);
+			} else {
+				throwError("Unknown feature order attribute: " + attributeName, reader);
 			}
 		}
-		if (!order.isEmpty()) {
-			object.setFeatureOrderList(order);
+		while (nextElement(reader)) {
+			parseFeatureOrder(reader, featureOrder);
 		}
 	}
 
-	protected void parseFeatures(NodeList nodeList, IFeature parent) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			final String nodeName = e.getNodeName();
-			switch (nodeName) {
-			case DESCRIPTION:
-				parseDescription(parent, e);
-				break;
+	protected void parseFeatureModelProperties(XMLStreamReader reader) throws XMLStreamException {
+		while (nextElement(reader)) {
+			switch (reader.getLocalName()) {
 			case GRAPHICS:
-				parseProperty(parent.getCustomProperties(), e, GRAPHICS);
+				parseProperty(object.getProperty(), reader, GRAPHICS);
 				break;
-			case PROPERTY:
-				parseProperty(parent.getCustomProperties(), e, null);
+			case CALCULATIONS:
+				parseProperty(object.getProperty(), reader, CALCULATIONS);
 				break;
-			case AND:
-			case OR:
-			case ALT:
-			case FEATURE:
-				parseFeature(parent, e, nodeName);
+			case PROPERTY:
+				parseProperty(object.getProperty(), reader, null);
 				break;
 			default:
-				throwWarning("Unknown feature type: " + nodeName, e);
+				skipElement(reader);
+				break;
 			}
 		}
 	}
 
-	protected void parseFeature(IFeature parent, final Element e, final String nodeName) throws UnsupportedModelException {
-		boolean mandatory = false;
-		boolean _abstract = false;
-		boolean hidden = false;
-		String name = "";
-		// FMPoint featureLocation = null;
-		if (e.hasAttributes()) {
-			final NamedNodeMap nodeMap = e.getAttributes();
-			for (int i = 0; i < nodeMap.getLength(); i++) {
-				final org.w3c.dom.Node node = nodeMap.item(i);
-				final String attributeName = node.getNodeName();
-				final String attributeValue = node.getNodeValue();
-				if (attributeName.equals(ABSTRACT)) {
-					_abstract = attributeValue.equals(TRUE);
-				} else if (attributeName.equals(MANDATORY)) {
-					mandatory = attributeValue.equals(TRUE);
-				} else if (attributeName.equals(NAME)) {
-					name = attributeValue;
-				} else if (attributeName.equals(HIDDEN)) {
-					hidden = attributeValue.equals(TRUE);
-				} else if (attributeName.equals(COORDINATES)) {
-					// Legacy case, for backwards compatibility
-				} else {
-					throwWarning("Unknown feature attribute: " + attributeName, e);
-				}
-
+	protected void parseProperty(IPropertyContainer properties, XMLStreamReader reader, String type) throws XMLStreamException {
+		final String key = reader.getAttributeValue(null, KEY);
+		final String value = reader.getAttributeValue(null, VALUE);
+		if ((key == null) || (value == null)) {
+			throwWarning("Missing one of the required attributes: " + KEY + " or " + VALUE, reader);
+		} else {
+			if (type == null) {
+				final String customType = reader.getAttributeValue(null, TYPE);
+				type = customType != null ? customType : TYPE_CUSTOM;
+			}
+			if (properties.has(key, type)) {
+				throwWarning("Redundant property definition for key: " + key, reader);
+			} else {
+				properties.set(key, type, value);
 			}
 		}
+		skipElement(reader);
+	}
 
-		if (object.getFeature(name) != null) {
-			throwError("Duplicate entry for feature: " + name, e);
-		}
-
-		if ((validator != null) && !validator.isValidFeatureName(name)) {
-			addToProblemsList(name + " is not a valid feature name", e);
-		}
+	/**
+	 * Returns the name of the root element of the document.
+	 *
+	 * @return {@link #FEATURE_MODEL} on default.
+	 */
+	protected String getRootElementName() {
+		return FEATURE_MODEL;
+	}
 
-		final IFeature f = factory.createFeature(object, name);
-		f.getStructure().setMandatory(true);
+	@Override
+	protected void writeStream(IndentingXMLStreamWriter writer) throws XMLStreamException {
+		writer.startElement(getRootElementName());
+		writeProperties(writer);
+		writeFeatures(writer);
+		writeConstraints(writer);
+		writeComments(writer);
+		writeFeatureOrder(writer);
+		writer.endElement();
+	}
 
-		switch (nodeName) {
-		case AND:
-			f.getStructure().setAnd();
-			break;
-		case OR:
-			f.getStructure().setOr();
-			break;
-		case ALT:
-			f.getStructure().setAlternative();
-			break;
-		default:
-			break;
+	protected void writeProperties(IndentingXMLStreamWriter writer) throws XMLStreamException {
+		if (!object.getProperty().getProperties().isEmpty()) {
+			writer.startElement(PROPERTIES);
+			addProperties(writer, object.getProperty());
+			writer.endElement();
 		}
+	}
 
-		f.getStructure().setAbstract(_abstract);
-		f.getStructure().setMandatory(mandatory);
-		f.getStructure().setHidden(hidden);
+	protected void writeFeatures(IndentingXMLStreamWriter writer) throws XMLStreamException {
+		writer.startElement(STRUCT);
+		writeFeatureTreeRec(writer, FeatureUtils.getRoot(object));
+		writer.endElement();
+	}
 
-		object.addFeature(f);
-		if (parent == null) {
-			object.getStructure().setRoot(f.getStructure());
-		} else {
-			parent.getStructure().addChild(f.getStructure());
+	protected void writeConstraints(IndentingXMLStreamWriter writer) throws XMLStreamException {
+		if (!object.getConstraints().isEmpty()) {
+			writer.startElement(CONSTRAINTS);
+			for (final IConstraint constraint : object.getConstraints()) {
+				writer.startElement(RULE);
+				addDescription(writer, constraint.getDescription());
+				addProperties(writer, constraint.getCustomProperties());
+				createPropositionalConstraints(writer, constraint.getNode());
+				writer.endElement();
+			}
+			writer.endElement();
 		}
-		if (e.hasChildNodes()) {
-			parseFeatures(e.getChildNodes(), f);
+	}
+
+	protected void writeComments(IndentingXMLStreamWriter writer) throws XMLStreamException {
+		if (!object.getProperty().getComments().isEmpty()) {
+			writer.startElement(COMMENTS);
+			for (final String comment : object.getProperty().getComments()) {
+				writer.textElement(C, comment);
+			}
+			writer.endElement();
 		}
 	}
 
-	protected void parseProperty(IPropertyContainer properties, final Element e, String type) {
-		if (!e.hasAttribute(KEY) || !e.hasAttribute(VALUE)) {
-			throwWarning("Missing one of the required attributes: " + KEY + " or " + VALUE, e);
-		} else {
-			if (type == null) {
-				type = e.hasAttribute(TYPE) ? e.getAttribute(TYPE) : TYPE_CUSTOM;
+	protected void writeFeatureOrder(IndentingXMLStreamWriter writer) throws XMLStreamException {
+		if (object.isFeatureOrderUserDefined()) {
+			writer.startElement(FEATURE_ORDER);
+			writer.attribute(USER_DEFINED, Boolean.toString(object.isFeatureOrderUserDefined()));
+			Collection<String> featureOrderList = object.getFeatureOrderList();
+
+			if (featureOrderList.isEmpty()) {
+				featureOrderList = FeatureUtils.extractConcreteFeaturesAsStringList(object);
 			}
-			final String key = e.getAttribute(KEY);
-			final String value = e.getAttribute(VALUE);
-			if (properties.has(key, type)) {
-				throwWarning("Redundant property definition for key: " + key, e);
-			} else {
-				properties.set(key, type, value);
+
+			for (final String featureName : featureOrderList) {
+				writer.startElement(FEATURE);
+				writer.attribute(NAME, featureName);
+				writer.endElement();
 			}
+			writer.endElement();
 		}
 	}
 
-	protected void parseDescription(IFeature parent, final Element e) {
-		if (e.getFirstChild() != null) {
-			parent.getProperty().setDescription(getDescription(e.getFirstChild()));
+	/**
+	 * Writes the elements of a propositional constraint.
+	 *
+	 * @param writer the writer
+	 * @param node the propositional node
+	 */
+	protected void createPropositionalConstraints(IndentingXMLStreamWriter writer, org.prop4j.Node node) throws XMLStreamException {
+		if (node == null) {
+			return;
+		}
+
+		final String op;
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			if (!literal.positive) {
+				writer.startElement(NOT);
+				writer.textElement(VAR, String.valueOf(literal.var));
+				writer.endElement();
+			} else {
+				writer.textElement(VAR, String.valueOf(literal.var));
+			}
+			return;
+		} else if (node instanceof Or) {
+			op = DISJ;
+		} else if (node instanceof Equals) {
+			op = EQ;
+		} else if (node instanceof Implies) {
+			op = IMP;
+		} else if (node instanceof And) {
+			op = CONJ;
+		} else if (node instanceof Not) {
+			op = NOT;
+		} else if (node instanceof AtMost) {
+			op = ATMOST1;
+		} else {
+			op = UNKNOWN;
+		}
+		writer.startElement(op);
+		for (final org.prop4j.Node child : node.getChildren()) {
+			createPropositionalConstraints(writer, child);
 		}
+		writer.endElement();
 	}
 
 	/**
-	 * Parse the struct section to add features to the model.
+	 * Writes the feature tree step by step.
+	 *
+	 * @param writer the writer
+	 * @param feat current feature
 	 */
-	protected void parseStruct(List<Element> elements) throws UnsupportedModelException {
-		for (final Element e : elements) {
-			parseFeatures(e.getChildNodes(), null);
-		}
-	}
-
-	protected void parseFeatureModelProperties(List<Element> elements) {
-		for (final Element e : elements) {
-			for (final Element propertyElement : getElements(e.getChildNodes())) {
-				final String nodeName = propertyElement.getNodeName();
-				switch (nodeName) {
-				case GRAPHICS:
-					parseProperty(object.getProperty(), propertyElement, GRAPHICS);
-					break;
-				case CALCULATIONS:
-					parseProperty(object.getProperty(), propertyElement, CALCULATIONS);
-					break;
-				case PROPERTY:
-					parseProperty(object.getProperty(), propertyElement, null);
-					break;
-				}
-			}
+	protected void writeFeatureTreeRec(IndentingXMLStreamWriter writer, IFeature feat) throws XMLStreamException {
+		if (feat == null) {
+			return;
 		}
 
+		final List<IFeature> children = FeatureUtils.convertToFeatureList(feat.getStructure().getChildren());
+		if (children.isEmpty()) {
+			writer.startElement(FEATURE);
+		} else if (feat.getStructure().isAnd()) {
+			writer.startElement(AND);
+		} else if (feat.getStructure().isOr()) {
+			writer.startElement(OR);
+		} else if (feat.getStructure().isAlternative()) {
+			writer.startElement(ALT);
+		} else {
+			writer.startElement(UNKNOWN);
+		}
+		writeFeatureProperties(writer, feat);
+		for (final IFeature feature : children) {
+			writeFeatureTreeRec(writer, feature);
+		}
+		writer.endElement();
 	}
 
-	@Override
-	protected void addProblem(final Problem problem) {
-		localProblems.add(problem);
+	/**
+	 * Writes the attributes, the description, and the properties of a feature. Is called before the sub features are written.
+	 *
+	 * @param writer the writer, whose last started element is the given feature
+	 * @param feat the feature
+	 */
+	protected void writeFeatureProperties(IndentingXMLStreamWriter writer, IFeature feat) throws XMLStreamException {
+		writeAttributes(writer, feat);
+		addDescription(writer, feat.getProperty().getDescription());
+		addProperties(writer, feat.getCustomProperties());
 	}
 
-	protected void writeAttributes(Element node, Element fnod, IFeature feat) {
-		fnod.setAttribute(NAME, feat.getName());
+	/**
+	 * Writes the attributes of a feature in alphabetical order.
+	 */
+	protected void writeAttributes(IndentingXMLStreamWriter writer, IFeature feat) {
+		if (feat.getStructure().isAbstract()) {
+			writer.attribute(ABSTRACT, TRUE);
+		}
 		if (feat.getStructure().isHidden()) {
-			fnod.setAttribute(HIDDEN, TRUE);
+			writer.attribute(HIDDEN, TRUE);
 		}
 		if (feat.getStructure().isMandatory()) {
-			if ((feat.getStructure().getParent() != null) && feat.getStructure().getParent().isAnd()) {
-				fnod.setAttribute(MANDATORY, TRUE);
-			} else if (feat.getStructure().getParent() == null) {
-				fnod.setAttribute(MANDATORY, TRUE);
+			if ((feat.getStructure().getParent() == null) || feat.getStructure().getParent().isAnd()) {
+				writer.attribute(MANDATORY, TRUE);
 			}
 		}
-		if (feat.getStructure().isAbstract()) {
-			fnod.setAttribute(ABSTRACT, TRUE);
+		writer.attribute(NAME, feat.getName());
+	}
+
+	protected void addDescription(IndentingXMLStreamWriter writer, String description) throws XMLStreamException {
+		if ((description != null) && !description.trim().isEmpty()) {
+			writer.textElement(DESCRIPTION, description);
+		}
+	}
+
+	/**
+	 * Writes the properties of the given container. The attributes of each property are written in alphabetical order.
+	 */
+	protected void addProperties(IndentingXMLStreamWriter writer, IPropertyContainer properties) throws XMLStreamException {
+		for (final Entry property : properties.getProperties()) {
+			if (property.getValue() != null) {
+				if (GRAPHICS.equals(property.getType())) {
+					writer.startElement(GRAPHICS);
+				} else if (CALCULATIONS.equals(property.getType())) {
+					writer.startElement(CALCULATIONS);
+				} else {
+					writer.startElement(PROPERTY);
+					writer.attribute(TYPE, property.getType());
+				}
+				writer.attribute(KEY, property.getKey());
+				writer.attribute(VALUE, property.getValue());
+				writer.endElement();
+			}
+		}
+	}
+
+	protected String getDescription(String description) {
+		// NOTE: THe following code is used for backwards compatibility. It replaces spaces and tabs that were added to the XML for indentation, but don't
+		// belong to the actual description.
+		if (description != null) {
+			description = description.replaceAll("(\r\n|\r|\n)\\s*", "\n").replaceAll("\\A\n|\n\\Z", "");
 		}
+		return description;
+	}
 
-		node.appendChild(fnod);
+	@Override
+	protected void addProblem(final Problem problem) {
+		localProblems.add(problem);
 	}
 
 	@Override
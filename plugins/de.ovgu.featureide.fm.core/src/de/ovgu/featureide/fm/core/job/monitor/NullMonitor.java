@@ -29,7 +29,15 @@ import de.ovgu.featureide.fm.core.job.IJob;
  */
 public final class NullMonitor<T> extends AMonitor<T> {
 
-	private boolean cancel = false;
+	private volatile boolean cancel = false;
+
+	public NullMonitor() {
+		super();
+	}
+
+	private NullMonitor(NullMonitor<?> parent) {
+		super(parent);
+	}
 
 	@Override
 	public void cancel() {
@@ -44,11 +52,14 @@ public final class NullMonitor<T> extends AMonitor<T> {
 		if (cancel || Thread.interrupted()) {
 			throw new MethodCancelException();
 		}
+		if (parent != null) {
+			parent.checkCancel();
+		}
 	}
 
 	@Override
 	public <R> IMonitor<R> subTask(int size) {
-		return new NullMonitor<>();
+		return new NullMonitor<>(this);
 	}
 
 	@Override
@@ -0,0 +1,201 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Class for running jobs that depend on each other. A job is started as soon as all jobs it depends on are finished. Independent jobs are executed concurrently
+ * by an {@link ExecutorService}.<br> <br> The result of each job is passed to its consumer in the thread that calls {@link #execute(IMonitor)}, before any
+ * dependent job is started. Thus, consumers do not need to synchronize access to shared data. Each job reports its progress to a sub task of the monitor of
+ * {@link #execute(IMonitor)} and is canceled together with this monitor.
+ *
+ * @author FeatureIDE Team
+ */
+public final class TaskGraph implements LongRunningMethod<Boolean> {
+
+	/**
+	 * A job within a {@link TaskGraph}.
+	 *
+	 * @param <T> Type of the job's result.
+	 */
+	public static final class Task<T> {
+
+		private final LongRunningMethod<T> method;
+		private final Consumer<T> resultConsumer;
+		private final int work;
+
+		private final List<Task<?>> successors = new ArrayList<>();
+		private IMonitor<T> monitor;
+
+		private int missingDependencies = 0;
+		private T result = null;
+
+		private Task(LongRunningMethod<T> method, Consumer<T> resultConsumer, int work) {
+			this.method = method;
+			this.resultConsumer = resultConsumer;
+			this.work = work;
+		}
+
+		public T getResult() {
+			return result;
+		}
+
+		private Task<T> run() throws Exception {
+			result = method.execute(monitor);
+			return this;
+		}
+
+		private void finish() {
+			if (resultConsumer != null) {
+				resultConsumer.accept(result);
+			}
+			monitor.done();
+		}
+
+	}
+
+	private final List<Task<?>> tasks = new ArrayList<>();
+
+	private final ExecutorService executor;
+
+	/**
+	 * @param executor the executor for running the jobs; if {@code null}, all jobs are run consecutively in the calling thread.
+	 */
+	public TaskGraph(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	public <T> Task<T> addTask(int work, LongRunningMethod<T> method, Consumer<T> resultConsumer, Task<?>... dependencies) {
+		return addTask(work, method, resultConsumer, Arrays.asList(dependencies));
+	}
+
+	/**
+	 * Adds a new job to the graph. All dependencies must already be part of this graph, which guarantees that the graph does not contain any cycles.
+	 *
+	 * @param work the amount of work of the job
+	 * @param method the job
+	 * @param resultConsumer function that is called with the result of the job (may be {@code null})
+	 * @param dependencies the jobs that have to be finished before this job is started
+	 * @return the corresponding task
+	 */
+	public <T> Task<T> addTask(int work, LongRunningMethod<T> method, Consumer<T> resultConsumer, Collection<? extends Task<?>> dependencies) {
+		final Task<T> task = new Task<>(method, resultConsumer, work);
+		for (final Task<?> dependency : dependencies) {
+			if (!tasks.contains(dependency)) {
+				throw new IllegalArgumentException("Dependency is not part of this graph");
+			}
+			dependency.successors.add(task);
+			task.missingDependencies++;
+		}
+		tasks.add(task);
+		return task;
+	}
+
+	public int getWork() {
+		int work = 0;
+		for (final Task<?> task : tasks) {
+			work += task.work;
+		}
+		return work;
+	}
+
+	@Override
+	public Boolean execute(IMonitor<Boolean> monitor) throws Exception {
+		monitor.setRemainingWork(getWork());
+		if (executor == null) {
+			// Tasks are stored in topological order
+			for (final Task<?> task : tasks) {
+				monitor.checkCancel();
+				task.monitor = monitor.subTask(task.work);
+				task.run().finish();
+			}
+			return true;
+		}
+
+		final CompletionService<Task<?>> completionService = new ExecutorCompletionService<>(executor);
+		final List<Future<Task<?>>> futures = new ArrayList<>(tasks.size());
+		int remainingTasks = tasks.size();
+		try {
+			for (final Task<?> task : tasks) {
+				if (task.missingDependencies == 0) {
+					submit(completionService, futures, task, monitor);
+				}
+			}
+			while (remainingTasks > 0) {
+				final Future<Task<?>> future = completionService.poll(100, TimeUnit.MILLISECONDS);
+				monitor.checkCancel();
+				if (future != null) {
+					final Task<?> task = getTask(future);
+					task.finish();
+					remainingTasks--;
+					for (final Task<?> successor : task.successors) {
+						if (--successor.missingDependencies == 0) {
+							submit(completionService, futures, successor, monitor);
+						}
+					}
+				}
+			}
+		} finally {
+			if (remainingTasks > 0) {
+				// Interrupting the running jobs lets their monitors throw a cancel exception without canceling the monitor of the caller
+				for (final Future<Task<?>> future : futures) {
+					future.cancel(true);
+				}
+			}
+		}
+		return true;
+	}
+
+	private static void submit(CompletionService<Task<?>> completionService, List<Future<Task<?>>> futures, Task<?> task, IMonitor<?> monitor) {
+		// Sub tasks are created in the calling thread, as monitors do not support concurrent creation of sub tasks
+		task.monitor = monitor.subTask(task.work);
+		futures.add(completionService.submit(task::run));
+	}
+
+	private static Task<?> getTask(Future<Task<?>> future) throws Exception {
+		try {
+			return future.get();
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+
+}
@@ -0,0 +1,302 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates shared instances of structurally equal nodes (hash consing).<br> <br> {@link #intern(Node) Interning} a node returns a node that is equivalent to
+ * the given node and whose sub nodes are also interned. Two nodes that are structurally equal are interned to the same instance. The order of the children is
+ * ignored for all operators except {@link Implies}. In contrast to {@link Node#equals(Object)}, the bounds of cardinality constraints are considered. Thus,
+ * interned nodes can be compared by identity and used as keys of an {@link IdentityHashMap}. The hash of an interned node is computed only once.<br> <br>
+ * Additionally, the {@link #getCNF(Node) conjunctive} and {@link #getDNF(Node) disjunctive} normal form and the {@link #getUniqueContainedFeatures(Node)
+ * contained features} are memoized for each interned node. The normal forms of conjunctions and disjunctions, respectively, are combined from the memoized
+ * normal forms of their children.<br> <br> <b>Interned nodes and all memoized results are shared and must not be modified.</b> The given nodes are not
+ * modified and may be modified after interning. This class is not thread-safe.
+ *
+ * @author FeatureIDE Team
+ */
+public class NodeInterner {
+
+	/**
+	 * Structural key of an interned node. Refers to the interned children by identity.
+	 */
+	private static final class Key {
+
+		private final Class<?> type;
+		private final Object value;
+		private final Node[] children;
+		private final int hashCode;
+
+		private Key(Class<?> type, Object value, Node[] children, int childrenHashCode) {
+			this.type = type;
+			this.value = value;
+			this.children = children;
+			hashCode = (((31 * type.hashCode()) + (value == null ? 0 : value.hashCode())) * 31) + childrenHashCode;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			if ((hashCode != other.hashCode) || (type != other.type) || (children.length != other.children.length)) {
+				return false;
+			}
+			if ((value == null) ? other.value != null : !value.equals(other.value)) {
+				return false;
+			}
+			for (int i = 0; i < children.length; i++) {
+				if (children[i] != other.children[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+	private final Map<Key, Node> nodes = new HashMap<>();
+	private final Map<Node, Key> keys = new IdentityHashMap<>();
+	private final Map<Node, Node> cnfs = new IdentityHashMap<>();
+	private final Map<Node, Node> dnfs = new IdentityHashMap<>();
+	private final Map<Node, Set<String>> containedFeatures = new IdentityHashMap<>();
+
+	private final Comparator<Node> childOrder = new Comparator<Node>() {
+
+		@Override
+		public int compare(Node node1, Node node2) {
+			final int result = Integer.compare(keys.get(node1).hashCode, keys.get(node2).hashCode);
+			return result != 0 ? result : Integer.compare(System.identityHashCode(node1), System.identityHashCode(node2));
+		}
+	};
+
+	/**
+	 * Returns the shared instance of the given node.
+	 *
+	 * @param node the node
+	 * @return an interned node that is structurally equal to the given node; must not be modified
+	 */
+	public Node intern(Node node) {
+		if (keys.containsKey(node)) {
+			return node;
+		}
+		final Key key;
+		final Node[] internedChildren;
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			internedChildren = null;
+			key = new Key(node.getClass(), Arrays.asList(literal.var, literal.positive), new Node[0], 0);
+		} else {
+			final Node[] children = node.getChildren();
+			internedChildren = new Node[children.length];
+			int childrenHashCode = 0;
+			for (int i = 0; i < children.length; i++) {
+				final Node child = intern(children[i]);
+				internedChildren[i] = child;
+				childrenHashCode = (31 * childrenHashCode) + keys.get(child).hashCode;
+			}
+			final Node[] keyChildren;
+			if ((node instanceof Implies) || (node instanceof Not)) {
+				keyChildren = internedChildren;
+			} else {
+				keyChildren = Arrays.copyOf(internedChildren, internedChildren.length);
+				Arrays.sort(keyChildren, childOrder);
+				childrenHashCode = 0;
+				for (final Node child : keyChildren) {
+					childrenHashCode += keys.get(child).hashCode;
+				}
+			}
+			key = new Key(node.getClass(), getValue(node), keyChildren, childrenHashCode);
+		}
+		Node internedNode = nodes.get(key);
+		if (internedNode == null) {
+			internedNode = copy(node, internedChildren);
+			nodes.put(key, internedNode);
+			keys.put(internedNode, key);
+		}
+		return internedNode;
+	}
+
+	private static Object getValue(Node node) {
+		if (node instanceof AtMost) {
+			return ((AtMost) node).max;
+		} else if (node instanceof AtLeast) {
+			return ((AtLeast) node).min;
+		} else if (node instanceof Choose) {
+			return ((Choose) node).n;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates a copy of the given node with the given children, without copying the children.
+	 */
+	private static Node copy(Node node, Node[] children) {
+		if (node instanceof Literal) {
+			return node.clone();
+		}
+		final Node copy;
+		if (node instanceof And) {
+			copy = new And(children);
+		} else if (node instanceof Or) {
+			copy = new Or(children);
+		} else if (node instanceof Not) {
+			copy = new Not(children[0]);
+		} else if (node instanceof Implies) {
+			copy = new Implies(children[0], children[1]);
+		} else if (node instanceof Equals) {
+			copy = new Equals(children[0], children[1]);
+		} else if (node instanceof AtMost) {
+			copy = new AtMost(((AtMost) node).max, children);
+		} else if (node instanceof AtLeast) {
+			copy = new AtLeast(((AtLeast) node).min, children);
+		} else if (node instanceof Choose) {
+			copy = new Choose(((Choose) node).n, children);
+		} else {
+			copy = node.clone();
+			copy.setChildren(children);
+		}
+		return copy;
+	}
+
+	/**
+	 * Returns the regular conjunctive normal form of the given node (see {@link Node#toRegularCNF()}). The result and its clauses are interned.
+	 *
+	 * @param node the node
+	 * @return the memoized conjunctive normal form; must not be modified
+	 */
+	public Node getCNF(Node node) {
+		final Node internedNode = intern(node);
+		Node cnf = cnfs.get(internedNode);
+		if (cnf == null) {
+			final Set<Node> clauses = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+			if (internedNode instanceof And) {
+				for (final Node child : internedNode.getChildren()) {
+					clauses.addAll(Arrays.asList(getCNF(child).getChildren()));
+				}
+			} else {
+				for (final Node clause : internedNode.toRegularCNF().getChildren()) {
+					clauses.add(intern(clause));
+				}
+			}
+			cnf = intern(new And(clauses.toArray(new Node[clauses.size()])));
+			cnfs.put(internedNode, cnf);
+			cnfs.put(cnf, cnf);
+		}
+		return cnf;
+	}
+
+	/**
+	 * Returns the regular disjunctive normal form of the given node (see {@link Node#toRegularDNF()}). The result and its terms are interned.
+	 *
+	 * @param node the node
+	 * @return the memoized disjunctive normal form; must not be modified
+	 */
+	public Node getDNF(Node node) {
+		final Node internedNode = intern(node);
+		Node dnf = dnfs.get(internedNode);
+		if (dnf == null) {
+			final Set<Node> terms = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+			if (internedNode instanceof Or) {
+				for (final Node child : internedNode.getChildren()) {
+					terms.addAll(Arrays.asList(getDNF(child).getChildren()));
+				}
+			} else {
+				for (final Node term : internedNode.toRegularDNF().getChildren()) {
+					terms.add(intern(term));
+				}
+			}
+			dnf = intern(new Or(terms.toArray(new Node[terms.size()])));
+			dnfs.put(internedNode, dnf);
+			dnfs.put(dnf, dnf);
+		}
+		return dnf;
+	}
+
+	/**
+	 * Returns the features contained in the given node (see {@link Node#getUniqueContainedFeatures()}).
+	 *
+	 * @param node the node
+	 * @return the memoized, unmodifiable set of features
+	 */
+	public Set<String> getUniqueContainedFeatures(Node node) {
+		final Node internedNode = intern(node);
+		Set<String> features = containedFeatures.get(internedNode);
+		if (features == null) {
+			if (internedNode instanceof Literal) {
+				features = Collections.unmodifiableSet(internedNode.getUniqueContainedFeatures());
+			} else {
+				final Set<String> featureSet = new LinkedHashSet<>();
+				for (final Node child : internedNode.getChildren()) {
+					featureSet.addAll(getUniqueContainedFeatures(child));
+				}
+				features = Collections.unmodifiableSet(featureSet);
+			}
+			containedFeatures.put(internedNode, features);
+		}
+		return features;
+	}
+
+	/**
+	 * @param node a node
+	 * @return whether the given instance was returned by this interner
+	 */
+	public boolean isInterned(Node node) {
+		return keys.containsKey(node);
+	}
+
+	/**
+	 * @return the number of interned nodes
+	 */
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * Removes all interned nodes and memoized results.
+	 */
+	public void clear() {
+		nodes.clear();
+		keys.clear();
+		cnfs.clear();
+		dnfs.clear();
+		containedFeatures.clear();
+	}
+
+}
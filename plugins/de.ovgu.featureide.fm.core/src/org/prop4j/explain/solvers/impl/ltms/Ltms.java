@@ -20,17 +20,16 @@
  */
 package org.prop4j.explain.solvers.impl.ltms;
 
-import java.util.AbstractList;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeSet;
@@ -47,6 +46,11 @@ import org.prop4j.explain.solvers.impl.AbstractSatProblem;
  *
  * <p> Clauses are referenced by their index in the CNF. </p>
  *
+ * <p> Internally, each variable is mapped to an index once, when it is first used. Literals are encoded as integers ({@code 2 * variable} for positive
+ * literals, {@code 2 * variable + 1} for negative ones), such that truth values, reasons, and the propagation state are kept in plain arrays. Each clause
+ * watches two of its literals. A clause only needs to be visited when one of its watched literals becomes false. Thus, the cost of a propagation step depends
+ * on the clauses that actually change and not on the number of clauses the variable is contained in. </p>
+ *
  * <p> Note that this class does not fulfill the entire contract of each of its interfaces. This is because BCP is inherently incomplete, meaning it does not
  * always find a result. </p>
  *
@@ -55,37 +59,79 @@ import org.prop4j.explain.solvers.impl.AbstractSatProblem;
  */
 public class Ltms extends AbstractSatProblem implements MusExtractor {
 
+	/** Denotes a missing clause index (e.g., the reason of a premise). */
+	private static final int NONE = -1;
+
+	/**
+	 * The indexes of the variables. Redundant map for the sake of performance.
+	 */
+	private final Map<Object, Integer> variableIndexes = new HashMap<>();
+	/**
+	 * The variables by their index.
+	 */
+	private final List<Object> variables = new ArrayList<>();
+	/**
+	 * The encoded literals of each clause. The first two literals of a clause are its watched literals. Tautologies are represented by {@code null}, as they
+	 * can neither be unit-open nor violated.
+	 */
+	private final List<int[]> clauseLiterals = new ArrayList<>();
+	/**
+	 * The clauses each literal is watched by. Clauses consisting of a single literal are watched by this literal only.
+	 */
+	private int[][] watches = new int[0][];
 	/**
-	 * Variables mapped to the clauses they are contained in. Redundant map for the sake of performance.
+	 * The number of clauses in each list of {@link #watches}.
 	 */
-	private final Map<Object, Set<Integer>> variableClauses = new HashMap<>();
+	private int[] watchCounts = new int[0];
 	/**
-	 * The truth value assignments of the variables. If the truth value is true, all positive literals containing the variable evaluate to true and negated ones
-	 * to false. If the truth value is false, all positive literals containing the variable evaluate to false and negated ones to true. If the variable is not
-	 * contained in this map, its truth value is considered unknown.
+	 * The clauses consisting of a single literal. These are unit-open whenever their variable is unknown.
 	 */
-	private final Map<Object, Boolean> variableValues = new HashMap<>();
+	private int[] singletonClauses = new int[0];
+	/**
+	 * The number of clauses in {@link #singletonClauses}.
+	 */
+	private int singletonClauseCount = 0;
+	/**
+	 * The truth value assignments of the variables. A value of {@code 1} means true, {@code -1} false, and {@code 0} unknown.
+	 */
+	private byte[] variableValues = new byte[0];
 	/**
 	 * The reason for a derived truth value, represented by a clause. The literals of this clause are the antecedents of the variable. The antecedents are the
-	 * literals whose values were referenced when deriving a new truth value.
+	 * literals whose values were referenced when deriving a new truth value. Premises and unknown variables have no reason.
+	 */
+	private int[] reasons = new int[0];
+	/**
+	 * The assigned literals in the order of their assignment. The premises come first.
+	 */
+	private int[] trail = new int[0];
+	/**
+	 * The number of literals in {@link #trail}.
+	 */
+	private int trailSize = 0;
+	/**
+	 * The number of premises at the beginning of {@link #trail}.
 	 */
-	private final Map<Object, Integer> reasons = new HashMap<>();
+	private int premiseCount = 0;
 	/**
 	 * The stack to collect unit-open clauses.
 	 */
-	private final Deque<Integer> unitOpenClauses = new LinkedList<>();
+	private int[] unitOpenClauses = new int[0];
+	/**
+	 * The number of clauses in {@link #unitOpenClauses}.
+	 */
+	private int unitOpenClauseCount = 0;
 	/**
-	 * The clause that was violated during the most recent contradiction check.
+	 * Marks the variables that were visited while collecting antecedents.
 	 */
-	private Integer violatedClause;
+	private int[] visited = new int[0];
 	/**
-	 * The clause containing the derived literal.
+	 * The mark for the variables visited during the current collection of antecedents.
 	 */
-	private Integer derivedClause;
+	private int visitMark = 0;
 	/**
-	 * The literal whose truth value was derived during the most recent propagation.
+	 * The variables that are yet to be visited while collecting antecedents.
 	 */
-	private Literal derivedLiteral;
+	private int[] pendingVariables = new int[0];
 
 	/**
 	 * The variables that were assumed in each scope except the current one.
@@ -108,15 +154,8 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 	@Override
 	public int addClause(Node clause) {
 		final int index = super.addClause(clause);
-		for (final Node child : clause.getChildren()) {
-			final Literal literal = (Literal) child;
-			Set<Integer> clauseSet = variableClauses.get(literal.var);
-			if (clauseSet == null) {
-				clauseSet = new HashSet<>();
-				variableClauses.put(literal.var, clauseSet);
-			}
-			clauseSet.add(index);
-		}
+		clauseLiterals.add(getLiterals(clause));
+		watchClause(index);
 		scopeClauseCount++;
 		return index;
 	}
@@ -124,16 +163,156 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 	@Override
 	public Node removeClause(int index) {
 		final Node clause = super.removeClause(index);
-		for (final Node child : clause.getChildren()) {
-			final Literal literal = (Literal) child;
-			final Set<Integer> clauses = variableClauses.get(literal.var);
-			if (clauses.remove(index) && clauses.isEmpty()) {
-				variableClauses.remove(literal.var);
-			}
+		if (index == clauseLiterals.size() - 1) {
+			unwatchClause(index);
+			clauseLiterals.remove(index);
+		} else { // The indexes of all following clauses change.
+			clauseLiterals.remove(index);
+			rewatchClauses();
 		}
 		return clause;
 	}
 
+	/**
+	 * Encodes the literals of the given clause. Duplicate literals are removed.
+	 *
+	 * @param clause clause in conjunctive normal form
+	 * @return the encoded literals or null if the clause is a tautology
+	 */
+	private int[] getLiterals(Node clause) {
+		final Node[] children = clause.getChildren();
+		final int[] literals = new int[children.length];
+		int literalCount = 0;
+		outer: for (final Node child : children) {
+			final int literal = getLiteral((Literal) child);
+			for (int i = 0; i < literalCount; i++) {
+				if (literals[i] == literal) {
+					continue outer;
+				} else if (literals[i] == (literal ^ 1)) {
+					return null;
+				}
+			}
+			literals[literalCount++] = literal;
+		}
+		return literalCount == literals.length ? literals : Arrays.copyOf(literals, literalCount);
+	}
+
+	/**
+	 * Encodes the given literal.
+	 *
+	 * @param literal literal to encode
+	 * @return the encoded literal
+	 */
+	private int getLiteral(Literal literal) {
+		return getLiteral(getVariableIndex(literal.var), literal.positive);
+	}
+
+	private static int getLiteral(int variable, boolean positive) {
+		return (variable << 1) | (positive ? 0 : 1);
+	}
+
+	/**
+	 * Returns the index of the given variable. Allocates a new index if the variable has not been used before.
+	 *
+	 * @param variable variable
+	 * @return the index of the variable
+	 */
+	private int getVariableIndex(Object variable) {
+		Integer index = variableIndexes.get(variable);
+		if (index == null) {
+			index = variables.size();
+			variableIndexes.put(variable, index);
+			variables.add(variable);
+			if (index == variableValues.length) {
+				final int capacity = Math.max(16, index << 1);
+				variableValues = Arrays.copyOf(variableValues, capacity);
+				reasons = Arrays.copyOf(reasons, capacity);
+				trail = Arrays.copyOf(trail, capacity);
+				visited = Arrays.copyOf(visited, capacity);
+				watches = Arrays.copyOf(watches, capacity << 1);
+				watchCounts = Arrays.copyOf(watchCounts, capacity << 1);
+				Arrays.fill(reasons, index, capacity, NONE);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Adds the given clause to the watch lists of its first two literals.
+	 *
+	 * @param clause index of the clause
+	 */
+	private void watchClause(int clause) {
+		final int[] literals = clauseLiterals.get(clause);
+		if (literals == null) {
+			return;
+		}
+		addWatch(literals[0], clause);
+		if (literals.length > 1) {
+			addWatch(literals[1], clause);
+		} else {
+			if (singletonClauseCount == singletonClauses.length) {
+				singletonClauses = Arrays.copyOf(singletonClauses, Math.max(16, singletonClauseCount << 1));
+			}
+			singletonClauses[singletonClauseCount++] = clause;
+		}
+	}
+
+	/**
+	 * Removes the most recently added clause from all watch lists.
+	 *
+	 * @param clause index of the clause
+	 */
+	private void unwatchClause(int clause) {
+		final int[] literals = clauseLiterals.get(clause);
+		if (literals == null) {
+			return;
+		}
+		removeWatch(literals[0], clause);
+		if (literals.length > 1) {
+			removeWatch(literals[1], clause);
+		} else {
+			singletonClauseCount--;
+		}
+	}
+
+	/**
+	 * Rebuilds all watch lists.
+	 */
+	private void rewatchClauses() {
+		Arrays.fill(watchCounts, 0);
+		singletonClauseCount = 0;
+		for (int i = 0; i < clauseLiterals.size(); i++) {
+			watchClause(i);
+		}
+	}
+
+	private void addWatch(int literal, int clause) {
+		int[] watchList = watches[literal];
+		final int count = watchCounts[literal];
+		if (watchList == null) {
+			watchList = new int[4];
+			watches[literal] = watchList;
+		} else if (count == watchList.length) {
+			watchList = Arrays.copyOf(watchList, count << 1);
+			watches[literal] = watchList;
+		}
+		watchList[count] = clause;
+		watchCounts[literal] = count + 1;
+	}
+
+	private void removeWatch(int literal, int clause) {
+		final int[] watchList = watches[literal];
+		final int count = watchCounts[literal];
+		for (int i = count - 1; i >= 0; i--) { // The clause was added recently, thus it is probably at the end.
+			if (watchList[i] == clause) {
+				System.arraycopy(watchList, i + 1, watchList, i, count - i - 1);
+				watchCounts[literal] = count - 1;
+				return;
+			}
+		}
+	}
+
 	@Override
 	public Map<Object, Boolean> getAssumptions() {
 		/*
@@ -165,14 +344,29 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 		return null;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> As BCP is incomplete, this only returns false if the premises lead to a contradiction by propagation alone. </p>
+	 */
 	@Override
 	public boolean isSatisfiable() {
-		return !getAllMinimalUnsatisfiableSubsets().isEmpty();
+		return getAllMinimalUnsatisfiableSubsetIndexes().isEmpty();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> Returns the truth values of the most recent propagation, including the premises. </p>
+	 */
 	@Override
 	public Map<Object, Boolean> getModel() throws IllegalStateException {
-		return variableValues;
+		final Map<Object, Boolean> model = new LinkedHashMap<>();
+		for (int i = 0; i < trailSize; i++) {
+			final int literal = trail[i];
+			model.put(variables.get(literal >>> 1), (literal & 1) == 0);
+		}
+		return model;
 	}
 
 	@Override
@@ -229,230 +423,227 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 	 */
 	@Override
 	public List<Set<Integer>> getAllMinimalUnsatisfiableSubsetIndexes() throws IllegalStateException {
-		reset();
 		final List<Set<Integer>> explanations = new LinkedList<>();
-		if (isContradicted()) { // If the initial truth values already lead to a contradiction...
-			explanations.add(getContradictionExplanation()); // ... explain immediately.
+		unitOpenClauseCount = 0;
+		final int violatedClause = assignPremises();
+		if (violatedClause != NONE) { // If the initial truth values already lead to a contradiction...
+			explanations.add(getContradictionExplanation(violatedClause, NONE)); // ... explain immediately.
 			return explanations;
 		}
-		unitOpenClauses.clear();
-		pushUnitOpenClauses(); // Start iterating over the first unit-open clauses using the initial truth value assumptions.
-		while (!unitOpenClauses.isEmpty()) {
-			derivedClause = unitOpenClauses.removeLast();
-			derivedLiteral = getUnboundLiteral(derivedClause);
-			if (derivedLiteral == null) { // not actually unit-open
+		while (unitOpenClauseCount > 0) {
+			final int derivedClause = unitOpenClauses[--unitOpenClauseCount];
+			final int derivedLiteral = getUnboundLiteral(derivedClause);
+			if (derivedLiteral == NONE) { // not actually unit-open
 				continue;
 			}
-			propagate(); // Propagate the truth values by deriving a new truth value.
-			pushUnitOpenClauses();
-			if (isContradicted()) { // If the propagation lead to a contradiction...
-				explanations.add(getContradictionExplanation()); // ... explain the reason for the contradiction.
+			// Propagate the truth values by deriving a new truth value.
+			assign(derivedLiteral, derivedClause);
+			final int violated = propagate(derivedLiteral ^ 1);
+			if (violated != NONE) { // If the propagation lead to a contradiction...
+				explanations.add(getContradictionExplanation(violated, derivedLiteral)); // ... explain the reason for the contradiction.
 				/*
 				 * At this point, the found explanation could already be returned. Instead, keep generating new explanations as there might be a shorter one
 				 * among them. To this end, reset the derived truth values (but not the premises) and keep iterating.
 				 */
-				reset();
+				reset(premiseCount);
 			}
 		}
 		return explanations;
 	}
 
 	/**
-	 * Clears the internal state for a new explanation. Adds the premises to the variable values.
-	 */
-	private void reset() {
-		violatedClause = null;
-		derivedClause = null;
-		derivedLiteral = null;
-		reasons.clear();
-		variableValues.clear();
-		variableValues.putAll(getAssumptions());
-	}
-
-	/**
-	 * Pushes the unit-open clauses to stack.
-	 */
-	private void pushUnitOpenClauses() {
-		unitOpenClauses.addAll(getUnitOpenClauses());
-	}
-
-	/**
-	 * Returns the unit-open clauses.
+	 * Clears all truth values and assigns the premises. Collects the clauses that are unit-open under the premises.
 	 *
-	 * @return the unit-open clauses
+	 * @return the smallest index of a clause that is violated by the premises or {@link #NONE}
 	 */
-	private Set<Integer> getUnitOpenClauses() {
-		final Set<Integer> unitOpenClauses = new LinkedHashSet<>(); // linked to maintain order and determinism during iteration later
-		for (final int clause : getDirtyClauses()) {
-			if (isUnitOpenClause(clause)) {
-				unitOpenClauses.add(clause);
+	private int assignPremises() {
+		reset(0);
+		for (final Entry<Object, Boolean> assumption : getAssumptions().entrySet()) {
+			final int literal = getLiteral(getVariableIndex(assumption.getKey()), assumption.getValue());
+			if (getValue(literal) == 0) {
+				assign(literal, NONE);
 			}
 		}
-		return unitOpenClauses;
+		premiseCount = trailSize;
+
+		int violatedClause = NONE;
+		for (int i = 0; i < premiseCount; i++) {
+			final int violated = propagate(trail[i] ^ 1);
+			if ((violated != NONE) && ((violatedClause == NONE) || (violated < violatedClause))) {
+				violatedClause = violated;
+			}
+		}
+		for (int i = 0; i < singletonClauseCount; i++) {
+			final int clause = singletonClauses[i];
+			if (getValue(clauseLiterals.get(clause)[0]) == 0) {
+				pushUnitOpenClause(clause);
+			}
+		}
+		// Visit the initially unit-open clauses in descending order, like a stack that was filled in ascending order.
+		Arrays.sort(unitOpenClauses, 0, unitOpenClauseCount);
+		return violatedClause;
 	}
 
 	/**
-	 * Returns true iff the given clause is unit-open. A CNF clause is unit-open iff one of the contained literals evaluates to unknown and all others to false.
+	 * Resets all truth values that were assigned after the given number of assignments.
 	 *
-	 * @param clause clause in conjunctive normal form
-	 * @return true iff the given clause is unit-open
+	 * @param size the number of assignments to keep
 	 */
-	private boolean isUnitOpenClause(int clause) {
-		return getUnboundLiteral(clause) != null;
+	private void reset(int size) {
+		while (trailSize > size) {
+			final int variable = trail[--trailSize] >>> 1;
+			variableValues[variable] = 0;
+			reasons[variable] = NONE;
+		}
 	}
 
 	/**
-	 * Returns the unbound literal in the given clause or null if no such literal exists. A literal is unbound iff it evaluates to unknown while all other
-	 * literals in the same CNF clause evaluate to false. Such a literal is critical for the satisfiability of the clause and as such the entire CNF.
+	 * Returns the truth value of the given literal.
 	 *
-	 * @param clause clause in conjunctive normal form
-	 * @return the unbound literal in the given clause or null if no such literal exists
-	 */
-	private Literal getUnboundLiteral(int clause) {
-		Literal unboundLiteral = null;
-		for (final Node child : getClause(clause).getChildren()) {
-			final Literal literal = (Literal) child;
-			if (!variableValues.containsKey(literal.var)) { // unknown value
-				if (unboundLiteral == null) {
-					unboundLiteral = literal;
-				} else { // more than one unknown literal found, thus actually a non-unit-open clause
-					return null;
-				}
-			} else if (literal.getValue(variableValues)) { // true value
-				return null;
-			} else { // false value
-				// irrelevant
-			}
-		}
-		return unboundLiteral;
+	 * @param literal encoded literal
+	 * @return {@code 1} if the literal is true, {@code -1} if it is false, and {@code 0} if it is unknown
+	 */
+	private int getValue(int literal) {
+		final int value = variableValues[literal >>> 1];
+		return (literal & 1) == 0 ? value : -value;
 	}
 
 	/**
-	 * Returns true iff the conjunctive normal form evaluates to false. A CNF evaluates to false iff any of its clauses evaluates to false.
+	 * Satisfies the given literal and sets its reason.
 	 *
-	 * @return true iff the conjunctive normal form evaluates to false
+	 * @param literal encoded literal
+	 * @param reason clause containing the literal or {@link #NONE} for a premise
 	 */
-	private boolean isContradicted() {
-		for (final int clause : getDirtyClauses()) {
-			if (isViolatedClause(clause)) {
-				violatedClause = clause;
-				return true;
-			}
-		}
-		return false;
+	private void assign(int literal, int reason) {
+		final int variable = literal >>> 1;
+		variableValues[variable] = (byte) (((literal & 1) == 0) ? 1 : -1);
+		reasons[variable] = reason;
+		trail[trailSize++] = literal;
 	}
 
 	/**
-	 * Returns the dirty clauses. A clause is dirty if it needs to be checked for a possible change in its truth value. At the beginning of the algorithm, all
-	 * clauses are dirty. After propagating, only the clauses containing the variable of the derived literal are dirty.
+	 * Visits all clauses watching the given literal, which just became false. Each clause either watches another literal that is not false, is satisfied,
+	 * becomes unit-open, or is violated. Unit-open clauses are pushed to the stack.
 	 *
-	 * @return the dirty clauses
+	 * @param falseLiteral encoded literal that became false
+	 * @return the first violated clause or {@link #NONE}
 	 */
-	private Collection<Integer> getDirtyClauses() {
-		if (derivedLiteral == null) {
-			final int size = getClauseCount();
-			return new AbstractList<Integer>() {
-
-				@Override
-				public Integer get(int index) {
-					return index;
+	private int propagate(int falseLiteral) {
+		int violatedClause = NONE;
+		final int[] watchList = watches[falseLiteral];
+		final int count = watchCounts[falseLiteral];
+		int keptCount = 0;
+		clauses: for (int i = 0; i < count; i++) {
+			final int clause = watchList[i];
+			final int[] literals = clauseLiterals.get(clause);
+			if (literals.length == 1) {
+				watchList[keptCount++] = clause;
+				if (violatedClause == NONE) {
+					violatedClause = clause;
 				}
-
-				@Override
-				public int size() {
-					return size;
+				continue;
+			}
+			if (literals[0] == falseLiteral) {
+				literals[0] = literals[1];
+				literals[1] = falseLiteral;
+			}
+			final int otherValue = getValue(literals[0]);
+			if (otherValue <= 0) {
+				for (int j = 2; j < literals.length; j++) {
+					final int literal = literals[j];
+					if (getValue(literal) >= 0) {
+						literals[1] = literal;
+						literals[j] = falseLiteral;
+						addWatch(literal, clause);
+						continue clauses;
+					}
+				}
+				if (otherValue == 0) {
+					pushUnitOpenClause(clause);
+				} else if (violatedClause == NONE) {
+					violatedClause = clause;
 				}
-			};
-		}
-		return variableClauses.get(derivedLiteral.var);
-	}
-
-	/**
-	 * Returns true iff the given CNF clause evaluates to false. A CNF clause evaluates to false iff all of its literals evaluate to false.
-	 *
-	 * @param clause clause in conjunctive normal form
-	 * @return true iff the given CNF clause evaluates to false
-	 */
-	private boolean isViolatedClause(int clause) {
-		for (final Node child : getClause(clause).getChildren()) {
-			final Literal literal = (Literal) child;
-			if (!variableValues.containsKey(literal.var)) { // unknown value
-				return false;
-			} else if (literal.getValue(variableValues)) { // true value
-				return false;
-			} else { // false value
-				// irrelevant
 			}
+			watchList[keptCount++] = clause;
 		}
-		return true;
+		watchCounts[falseLiteral] = keptCount;
+		return violatedClause;
 	}
 
-	/**
-	 * Does one iteration of BCP. Changes the assignment of a literal's variable from unknown to whatever makes it evaluate to true in the current clause. Also
-	 * sets its reason and antecedents.
-	 */
-	private void propagate() {
-		deriveValue();
-		justify(derivedLiteral.var, derivedClause);
-	}
-
-	/**
-	 * Satisfies the current unit-open clause by making its unbound literal true or negated false.
-	 */
-	private void deriveValue() {
-		variableValues.put(derivedLiteral.var, derivedLiteral.positive);
+	private void pushUnitOpenClause(int clause) {
+		if (unitOpenClauseCount == unitOpenClauses.length) {
+			unitOpenClauses = Arrays.copyOf(unitOpenClauses, Math.max(16, unitOpenClauseCount << 1));
+		}
+		unitOpenClauses[unitOpenClauseCount++] = clause;
 	}
 
 	/**
-	 * Sets a variable's reason and antecedents.
+	 * Returns the unbound literal in the given clause or {@link #NONE} if no such literal exists. A literal is unbound iff it evaluates to unknown while all
+	 * other literals in the same CNF clause evaluate to false. Such a literal is critical for the satisfiability of the clause and as such the entire CNF.
 	 *
-	 * @param variable variable to set
-	 * @param cnfClause clause containing the literal
+	 * @param clause clause in conjunctive normal form
+	 * @return the unbound literal in the given clause or {@link #NONE} if no such literal exists
 	 */
-	private void justify(Object variable, int cnfClause) {
-		reasons.put(variable, cnfClause);
+	private int getUnboundLiteral(int clause) {
+		int unboundLiteral = NONE;
+		for (final int literal : clauseLiterals.get(clause)) {
+			final int value = getValue(literal);
+			if (value == 0) { // unknown value
+				if (unboundLiteral == NONE) {
+					unboundLiteral = literal;
+				} else { // more than one unknown literal found, thus actually a non-unit-open clause
+					return NONE;
+				}
+			} else if (value > 0) { // true value
+				return NONE;
+			}
+		}
+		return unboundLiteral;
 	}
 
 	/**
-	 * Returns an explanation why the premises lead to a contradiction.
+	 * Returns an explanation why the premises lead to a contradiction. The explanation consists of the violated clause and all antecedents of its variables
+	 * and of the derived variable, recursively.
 	 *
+	 * @param violatedClause the violated clause
+	 * @param derivedLiteral the literal whose truth value was derived during the most recent propagation or {@link #NONE}
 	 * @return indexes of clauses that serve as an explanation
 	 */
-	private Set<Integer> getContradictionExplanation() {
+	private Set<Integer> getContradictionExplanation(int violatedClause, int derivedLiteral) {
 		final Set<Integer> explanation = new TreeSet<>();
 		explanation.add(violatedClause);
-		final Map<Object, Integer> antecedents = new LinkedHashMap<>();
-		if (derivedLiteral != null) {
-			getAntecedents(derivedLiteral.var, antecedents);
+		if (++visitMark == 0) {
+			Arrays.fill(visited, 0);
+			visitMark = 1;
 		}
-		for (final Node child : getClause(violatedClause).getChildren()) {
-			final Literal literal = (Literal) child;
-			getAntecedents(literal.var, antecedents);
+		int pendingCount = 0;
+		if (derivedLiteral != NONE) {
+			pendingVariables = ensureCapacity(pendingVariables, 1);
+			pendingVariables[pendingCount++] = derivedLiteral >>> 1;
+		}
+		int clause = violatedClause;
+		while (true) {
+			final int[] literals = clauseLiterals.get(clause);
+			pendingVariables = ensureCapacity(pendingVariables, pendingCount + literals.length);
+			for (final int literal : literals) {
+				pendingVariables[pendingCount++] = literal >>> 1;
+			}
+			clause = NONE;
+			while ((pendingCount > 0) && (clause == NONE)) {
+				final int variable = pendingVariables[--pendingCount];
+				if (visited[variable] != visitMark) { // not explained yet
+					visited[variable] = visitMark;
+					clause = reasons[variable]; // none for premises
+				}
+			}
+			if (clause == NONE) {
+				return explanation;
+			}
+			explanation.add(clause);
 		}
-		explanation.addAll(antecedents.values());
-		return explanation;
 	}
 
-	/**
-	 * Returns all antecedents of the given variable recursively. The antecedents explain why the variable was assigned a certain truth value.
-	 *
-	 * @param variable variable with possible antecedents
-	 * @param antecedents out variable; not null
-	 * @return all antecedents of the given variable recursively; not null
-	 */
-	private Map<Object, Integer> getAntecedents(Object variable, Map<Object, Integer> antecedents) {
-		if (antecedents.containsKey(variable)) { // already explained
-			return antecedents;
-		}
-		final Integer reason = reasons.get(variable);
-		if (reason == null) { // premise
-			return antecedents;
-		}
-		antecedents.put(variable, reason);
-		for (final Node child : getClause(reason).getChildren()) {
-			final Literal antecedent = (Literal) child;
-			getAntecedents(antecedent.var, antecedents);
-		}
-		return antecedents;
+	private static int[] ensureCapacity(int[] array, int capacity) {
+		return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length << 1));
 	}
 }
@@ -0,0 +1,272 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * Caches the results of the {@link JavaCompiler} for variants with identical source files.<br> <br> The key of a compilation is a hash of the relative paths
+ * and contents of all source files together with the compiler options (including the classpath). Thus, a variant is only compiled if no variant with the
+ * same sources was compiled before. For a cached compilation, the compiler output is stored independently of the location of the variant, such that the
+ * problem markers can be created for each variant. If a class folder is given, the class files are stored as well and restored into the output folder of the
+ * compiler (e.g., for running tests) as hard links.<br> <br> Single compilation units are not cached, as an unchanged unit can be affected by changes in
+ * other units. This class is thread-safe.
+ *
+ * @author FeatureIDE Team
+ */
+public class CompilationCache {
+
+	private static final String SOURCE_FOLDER = "${sourceFolder}";
+
+	/**
+	 * A cached compilation.
+	 */
+	public static final class Entry {
+
+		private final String output;
+
+		@CheckForNull
+		private final Path classFolder;
+
+		private Entry(String output, Path classFolder) {
+			this.output = output;
+			this.classFolder = classFolder;
+		}
+
+	}
+
+	private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger misses = new AtomicInteger();
+
+	@CheckForNull
+	private final Path classFolder;
+
+	/**
+	 * @param classFolder the folder where the class files of each compilation are stored or {@code null} if class files should not be cached
+	 */
+	public CompilationCache(Path classFolder) {
+		this.classFolder = classFolder;
+	}
+
+	/**
+	 * Computes the key of a compilation.
+	 *
+	 * @param sourceFolder the root folder of the variant
+	 * @param files the compiled source files (all contained in the source folder)
+	 * @param options the compiler options except for the source files and the output folder
+	 * @return the key
+	 * @throws IOException if a source file cannot be read
+	 */
+	public String getKey(Path sourceFolder, Collection<Path> files, Collection<String> options) throws IOException {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		for (final String option : options) {
+			update(digest, option.getBytes(StandardCharsets.UTF_8));
+		}
+		final List<String> relativePaths = new ArrayList<>(files.size());
+		for (final Path file : files) {
+			relativePaths.add(sourceFolder.relativize(file).toString());
+		}
+		Collections.sort(relativePaths);
+		for (final String relativePath : relativePaths) {
+			update(digest, relativePath.getBytes(StandardCharsets.UTF_8));
+			update(digest, Files.readAllBytes(sourceFolder.resolve(relativePath)));
+		}
+
+		final StringBuilder sb = new StringBuilder();
+		for (final byte b : digest.digest()) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+
+	private static void update(MessageDigest digest, byte[] bytes) {
+		final int length = bytes.length;
+		digest.update(new byte[] { (byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length });
+		digest.update(bytes);
+	}
+
+	/**
+	 * Returns the cached compilation for the given key.
+	 *
+	 * @param key the key of the compilation
+	 * @return the cached compilation or {@code null} if the key is unknown
+	 */
+	@CheckForNull
+	public Entry get(String key) {
+		final Entry entry = entries.get(key);
+		if (entry == null) {
+			misses.incrementAndGet();
+		} else {
+			hits.incrementAndGet();
+		}
+		return entry;
+	}
+
+	/**
+	 * Stores a compilation.
+	 *
+	 * @param key the key of the compilation
+	 * @param sourceFolder the root folder of the compiled variant
+	 * @param output the output of the compiler
+	 * @param outputFolder the output folder of the compiler containing the class files
+	 * @throws IOException if the class files cannot be stored
+	 */
+	public void put(String key, Path sourceFolder, String output, Path outputFolder) throws IOException {
+		if (entries.containsKey(key)) {
+			return;
+		}
+		Path cachedClassFolder = null;
+		if (classFolder != null) {
+			Files.createDirectories(classFolder);
+			cachedClassFolder = Files.createTempDirectory(classFolder, key.substring(0, 8));
+			copy(outputFolder, cachedClassFolder, false);
+		}
+		final String normalizedOutput = (output == null) ? "" : output.replace(sourceFolder.toString() + File.separator, SOURCE_FOLDER);
+		if ((entries.putIfAbsent(key, new Entry(normalizedOutput, cachedClassFolder)) != null) && (cachedClassFolder != null)) {
+			delete(cachedClassFolder);
+		}
+	}
+
+	/**
+	 * Returns the cached compiler output for a variant.
+	 *
+	 * @param entry the cached compilation
+	 * @param sourceFolder the root folder of the variant
+	 * @return the compiler output containing the paths of the source files of the given variant
+	 */
+	public String getOutput(Entry entry, Path sourceFolder) {
+		return entry.output.replace(SOURCE_FOLDER, sourceFolder.toString() + File.separator);
+	}
+
+	/**
+	 * Restores the cached class files into the given output folder.
+	 *
+	 * @param entry the cached compilation
+	 * @param outputFolder the output folder
+	 * @return {@code true} if class files were restored, {@code false} if the class files were not cached
+	 * @throws IOException if the class files cannot be restored
+	 */
+	public boolean restoreClassFiles(Entry entry, Path outputFolder) throws IOException {
+		if (entry.classFolder == null) {
+			return false;
+		}
+		copy(entry.classFolder, outputFolder, true);
+		return true;
+	}
+
+	public int getHits() {
+		return hits.get();
+	}
+
+	public int getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Removes all cached compilations.
+	 */
+	public void clear() {
+		entries.clear();
+		if (classFolder != null) {
+			try {
+				delete(classFolder);
+			} catch (final IOException e) {
+				// Stored class files are removed together with the temporary folder
+			}
+		}
+	}
+
+	/**
+	 * Copies all files of the source folder into the target folder. If link is set, files are hard-linked if possible. Thus, linked files in the target
+	 * folder must be deleted instead of overwritten.
+	 */
+	private static void copy(final Path source, final Path target, final boolean link) throws IOException {
+		Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				final Path targetFile = target.resolve(source.relativize(file).toString());
+				Files.deleteIfExists(targetFile);
+				if (link) {
+					try {
+						Files.createLink(targetFile, file);
+						return FileVisitResult.CONTINUE;
+					} catch (IOException | UnsupportedOperationException e) {
+						// Fall back to copying, e.g., if the file system does not support hard links
+					}
+				}
+				Files.copy(file, targetFile);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private static void delete(Path folder) throws IOException {
+		if (!Files.exists(folder)) {
+			return;
+		}
+		Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+}
@@ -25,9 +25,13 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.INCLING;
 import static de.ovgu.featureide.fm.core.localization.StringTable.OF;
 import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
 
+import java.nio.file.Paths;
 import java.security.KeyStore.Builder;
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.CheckForNull;
 
@@ -49,13 +53,15 @@ import org.eclipse.jdt.internal.core.JavaProject;
 import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
-import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
+import de.ovgu.featureide.fm.core.job.IJob;
 import de.ovgu.featureide.fm.core.job.IRunner;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.ProgressMonitor;
+import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 import de.ovgu.featureide.fm.core.localization.StringTable;
 import de.ovgu.featureide.ui.UIPlugin;
+import de.ovgu.featureide.ui.actions.generator.GeneratorStatistics.Stage;
 import de.ovgu.featureide.ui.actions.generator.configuration.AConfigurationGenerator;
 import de.ovgu.featureide.ui.actions.generator.configuration.AllConfigrationsGenerator;
 import de.ovgu.featureide.ui.actions.generator.configuration.CASAConfigurationGenerator;
@@ -79,6 +85,11 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 	private static final UIPlugin LOGGER = UIPlugin.getDefault();
 
+	/**
+	 * The interval in milliseconds in which the progress monitor is updated and checked for cancellation.
+	 */
+	private static final long REFRESH_INTERVAL = 150;
+
 	public IFeatureProject featureProject;
 	private FeatureModelFormula featureModel;
 
@@ -107,6 +118,12 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 */
 	IFolder tmp;
 
+	/**
+	 * Caches the compilations of variants with identical source files.
+	 */
+	@CheckForNull
+	CompilationCache compilationCache;
+
 	/**
 	 * This flag indicates if a new project should be created for each configuration.
 	 */
@@ -127,11 +144,6 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 */
 	protected long time;
 
-	/**
-	 * This flag indicates that no more configurations will be added and the {@link Generator} jobs can finish.
-	 */
-	boolean finish = false;
-
 	/**
 	 * <code>true</code>: all valid configurations should be built.<br> <code>false</code>: all configurations at the configurations folder should be built.
 	 */
@@ -140,7 +152,12 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	/**
 	 * This list contains all {@link Generator} jobs.
 	 */
-	final List<Generator> generatorJobs = new ArrayList<>();
+	final List<Generator> generatorJobs = new CopyOnWriteArrayList<>();
+
+	/**
+	 * The throughput statistics of all {@link Generator} jobs.
+	 */
+	final GeneratorStatistics statistics = new GeneratorStatistics();
 
 	public AbstractConfigurationSorter sorter;
 
@@ -156,16 +173,16 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 * @return The first entry
 	 */
 	@CheckForNull
-	public synchronized BuilderConfiguration getConfiguration() {
+	public BuilderConfiguration getConfiguration() {
 		return sorter.getConfiguration();
 	}
 
 	/**
-	 * Adds the given configuration to configurations.
+	 * Adds the given configuration to configurations.<br> Blocks while the buffer of the sorter is full.
 	 *
 	 * @param configuration to add
 	 */
-	public synchronized void addConfiguration(BuilderConfiguration configuration) {
+	public void addConfiguration(BuilderConfiguration configuration) {
 		sorter.addConfiguration(configuration);
 	}
 
@@ -286,6 +303,22 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 			private IRunner<List<LiteralSet>> configurationBuilderJob;
 
+			private final CountDownLatch configurationsCreated = new CountDownLatch(1);
+
+			/**
+			 * Waits until the configuration generator has finished, but at most for the refresh interval.
+			 *
+			 * @return <code>true</code> if the configuration generator has finished
+			 */
+			private boolean awaitConfigurations() {
+				try {
+					return configurationsCreated.await(REFRESH_INTERVAL, TimeUnit.MILLISECONDS);
+				} catch (final InterruptedException e) {
+					LOGGER.logError(e);
+					return false;
+				}
+			}
+
 			@Override
 			public IStatus run(IProgressMonitor monitor) {
 				try {
@@ -311,6 +344,13 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 						newgeneratorJobs(1);
 					}
 					configurationBuilderJob = LongRunningWrapper.getRunner(configurationGenerator, "Create Configurations " + id++);
+					configurationBuilderJob.addJobFinishedListener(new JobFinishListener<List<LiteralSet>>() {
+
+						@Override
+						public void jobFinished(IJob<List<LiteralSet>> finishedJob) {
+							configurationsCreated.countDown();
+						}
+					});
 					configurationBuilderJob.schedule();
 					showStatistics(monitor);
 					if (!createNewProjects) {
@@ -333,58 +373,43 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 			private void showStatistics(IProgressMonitor monitor) {
 				try {
-					while (configurationBuilderJob.getStatus() == JobStatus.NOT_STARTED) {
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
-					}
-					while (configurationBuilderJob.getStatus() == JobStatus.RUNNING) {
+					while (!awaitConfigurations()) {
 						monitor.setTaskName(getTaskName());
 						if (monitor.isCanceled()) {
 							cancelGenerationJobs();
 							configurationBuilderJob.cancel();
 							return;
 						}
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
 					}
-					System.err.println(configurationBuilderJob.getStatus());
 
 					if (!sorter.isSorted()) {
 						final IMonitor<?> workMonitor = new ProgressMonitor<>(getTaskName(), monitor);
-						configurationNumber = Math.min(configurationNumber, sorter.sortConfigurations(workMonitor));
+						final long startTime = statistics.start();
+						final int numberOfConfigurations = sorter.sortConfigurations(workMonitor);
+						statistics.finished(Stage.SORT, startTime, numberOfConfigurations);
+						configurationNumber = Math.min(configurationNumber, numberOfConfigurations);
 					}
 					finish();
 
 					((SubMonitor) monitor).setWorkRemaining((int) configurationNumber - built);
 					while (!generatorJobs.isEmpty()) {
-						try {
-							if (monitor.isCanceled()) {
-								cancelGenerationJobs();
-								break;
+						if (monitor.isCanceled()) {
+							cancelGenerationJobs();
+							break;
+						}
+						final Iterator<Generator> iterator = generatorJobs.iterator();
+						if (iterator.hasNext()) {
+							final Generator generator = iterator.next();
+							try {
+								generator.join(REFRESH_INTERVAL);
+							} catch (final InterruptedException e) {
+								LOGGER.logError(e);
 							}
-							final Generator generator = generatorJobs.get(0);
-							if (generator == null) {
-								// generator can never be null, however see #416
-								generatorJobs.remove(0);
-							} else if (generator.getState() == Thread.State.TERMINATED) {
-								generatorJobs.remove(generator);
-								if (sorter.getBufferSize() != 0) {
-									createNewGenerator(generator.nr);
-								}
+							if ((generator.getState() == Thread.State.TERMINATED) && generatorJobs.remove(generator) && (sorter.getBufferSize() != 0)) {
+								createNewGenerator(generator.nr);
 							}
-							monitor.setTaskName(getTaskName());
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						} catch (final IndexOutOfBoundsException e) {
-							// nothing here
 						}
+						monitor.setTaskName(getTaskName());
 					}
 
 					final long duration = System.currentTimeMillis() - time;
@@ -397,8 +422,15 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 						built = (int) configurationNumber;
 					}
 					LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t);
+					LOGGER.logInfo("Generation statistics: " + statistics + " (max. " + sorter.getMaxBufferSize() + " buffered)");
+					if (compilationCache != null) {
+						LOGGER.logInfo("Compilation cache: " + compilationCache.getHits() + " hits, " + compilationCache.getMisses() + " misses");
+					}
 				} finally {
 					generatorJobs.clear();
+					if (compilationCache != null) {
+						compilationCache.clear();
+					}
 				}
 			}
 
@@ -444,6 +476,8 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 					LOGGER.logError(e);
 				}
 			}
+			// Class files are only required for running tests
+			compilationCache = new CompilationCache(runTests ? Paths.get(tmp.getRawLocation().toOSString(), COMPILATION_CACHE_FOLDER) : null);
 		} else {
 			try {
 				String identifier;
@@ -546,13 +580,14 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 */
 	public void cancelGenerationJobs() {
 		cancelGeneratorJobs = true;
+		sorter.cancel();
 	}
 
 	/**
 	 * This is called if the main job has finished and no more configurations will be added.
 	 */
 	public void finish() {
-		finish = true;
+		sorter.finish();
 	}
 
 	/**
@@ -570,7 +605,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 		}
 		final long buffer = sorter.getBufferSize();
 		return "Built configurations: " + built + "/" + (configurationNumber == Integer.MAX_VALUE ? COUNTING___ : configurationNumber) + "(" + buffer
-			+ " buffered)" + " Expected time: " + t;
+			+ " buffered, max. " + sorter.getMaxBufferSize() + ")" + " Expected time: " + t;
 	}
 
 	/**
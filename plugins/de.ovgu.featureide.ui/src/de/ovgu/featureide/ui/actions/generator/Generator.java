@@ -54,6 +54,7 @@ import de.ovgu.featureide.core.builder.IComposerExtensionClass;
 import de.ovgu.featureide.core.builder.preprocessor.PPComposerExtensionClass;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.ui.UIPlugin;
+import de.ovgu.featureide.ui.actions.generator.GeneratorStatistics.Stage;
 
 /**
  * This {@link Job} builds all configurations of the corresponding {@link ConfigurationBuilder}
@@ -120,32 +121,16 @@ public class Generator extends Thread implements IConfigurationBuilderBasics {
 	 */
 	@Override
 	public void run() {
+		final GeneratorStatistics statistics = builder.statistics;
 		try {
 			while (true) {
-				synchronized (this) {
-					if (builder.cancelGeneratorJobs) {
-						builder.generatorJobs.remove(this);
-						return;
-					}
-					if (builder.sorter.getBufferSize() == 0) {
-						while ((builder.sorter.getBufferSize() == 0) || !builder.sorter.isSorted()) {
-							/** the job waits for a new configuration to build **/
-							try {
-								Thread.sleep(1000);
-								if (((builder.sorter.getBufferSize() == 0) && builder.finish) || builder.cancelGeneratorJobs) {
-									return;
-								}
-							} catch (final InterruptedException e) {
-								UIPlugin.getDefault().logError(e);
-							}
-						}
-					}
-				}
-				configuration = builder.getConfiguration();
-				if (configuration == null) {
-					continue;
+				/** the job waits for a new configuration to build **/
+				configuration = builder.sorter.takeConfiguration();
+				if ((configuration == null) || builder.cancelGeneratorJobs) {
+					return;
 				}
 				final String name = configuration.getName();
+				final long composeTime = statistics.start();
 				if (builder.createNewProjects) {
 					final String separator;
 					switch (builder.buildType) {
@@ -171,12 +156,17 @@ public class Generator extends Thread implements IConfigurationBuilderBasics {
 				} else {
 					builder.featureProject.getComposer().buildConfiguration(builder.folder.getFolder(name), configuration, name);
 				}
+				statistics.finished(Stage.COMPOSE, composeTime, 1);
 
 				if (compiler != null) {
+					final long compileTime = statistics.start();
 					compiler.compile(configuration);
+					statistics.finished(Stage.COMPILE, compileTime, 1);
 					if (builder.runTests) {
 						if (JUNIT_INSTALLED) {
+							final long testTime = statistics.start();
 							testRunner.runTests(configuration);
+							statistics.finished(Stage.TEST, testTime, 1);
 						}
 					}
 				}
@@ -0,0 +1,114 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects throughput statistics for the stages of the product generation of a {@link ConfigurationBuilder}.<br> For each stage, the number of processed
+ * configurations and the accumulated processing time of all {@link Generator}s are recorded. This class is thread-safe.
+ *
+ * @author FeatureIDE Team
+ */
+public class GeneratorStatistics {
+
+	/**
+	 * The stages a configuration passes after it was sampled.
+	 */
+	public enum Stage {
+		SORT, COMPOSE, COMPILE, TEST
+	}
+
+	private final AtomicLong[] counts = new AtomicLong[Stage.values().length];
+	private final AtomicLong[] times = new AtomicLong[Stage.values().length];
+
+	public GeneratorStatistics() {
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = new AtomicLong();
+			times[i] = new AtomicLong();
+		}
+	}
+
+	/**
+	 * Returns the current time, which is passed to {@link #finished(Stage, long, long)} after a stage was completed.
+	 *
+	 * @return the current value of {@link System#nanoTime()}
+	 */
+	public long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records that the given stage was completed for a number of configurations.
+	 *
+	 * @param stage the stage
+	 * @param startTime the value returned by {@link #start()} when the stage was entered
+	 * @param numberOfConfigurations the number of processed configurations
+	 */
+	public void finished(Stage stage, long startTime, long numberOfConfigurations) {
+		counts[stage.ordinal()].addAndGet(numberOfConfigurations);
+		times[stage.ordinal()].addAndGet(System.nanoTime() - startTime);
+	}
+
+	public long getCount(Stage stage) {
+		return counts[stage.ordinal()].get();
+	}
+
+	/**
+	 * @param stage the stage
+	 * @return the accumulated processing time of the given stage in milliseconds
+	 */
+	public long getTime(Stage stage) {
+		return times[stage.ordinal()].get() / 1_000_000L;
+	}
+
+	/**
+	 * @param stage the stage
+	 * @return the number of configurations processed per second of processing time or {@code 0} if the stage was not entered yet
+	 */
+	public double getThroughput(Stage stage) {
+		final long time = times[stage.ordinal()].get();
+		return time > 0 ? (counts[stage.ordinal()].get() * 1_000_000_000.0) / time : 0;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		for (final Stage stage : Stage.values()) {
+			final long count = getCount(stage);
+			if (count > 0) {
+				if (sb.length() > 0) {
+					sb.append(", ");
+				}
+				sb.append(stage.name().toLowerCase());
+				sb.append(": ");
+				sb.append(count);
+				sb.append(" (");
+				sb.append(getTime(stage));
+				sb.append("ms, ");
+				sb.append(String.format("%.1f", getThroughput(stage)));
+				sb.append("/s)");
+			}
+		}
+		return sb.toString();
+	}
+
+}
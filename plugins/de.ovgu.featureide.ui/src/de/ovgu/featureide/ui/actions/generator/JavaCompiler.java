@@ -27,8 +27,12 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.SYMBOL;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Scanner;
 import java.util.TreeMap;
 import java.util.regex.Matcher;
@@ -89,6 +93,8 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 		} catch (final CoreException e) {
 			UIPlugin.getDefault().logError(e);
 		}
+		// Refresh to also delete class files that were restored from the compilation cache
+		tmp.refreshLocal(IResource.DEPTH_INFINITE, null);
 		for (final IResource file : tmp.members()) {
 			file.delete(true, null);
 		}
@@ -96,26 +102,66 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	}
 
 	/**
-	 * Compiles the built configuration to create error markers. The binary files will be placed into an temporary folder.
+	 * Compiles the built configuration to create error markers. The binary files will be placed into an temporary folder.<br> If a variant with identical
+	 * source files was compiled before, the result is taken from the {@link CompilationCache}.
 	 *
 	 * @param confName
 	 */
 	private void compile(String confName) {
-		final LinkedList<IFile> files = getJavaFiles(generator.builder.folder.getFolder(confName));
+		final IFolder sourceFolder = generator.builder.folder.getFolder(confName);
+		final LinkedList<IFile> files = getJavaFiles(sourceFolder);
+		final LinkedList<String> compilerOptions = new LinkedList<>();
+		compilerOptions.add("-g");
+		compilerOptions.add("-Xlint");
+		compilerOptions.add("-source");
+		compilerOptions.add("1.7");
+		compilerOptions.add("-classpath");
+		compilerOptions.add(generator.builder.classpath);
+
+		final CompilationCache cache = generator.builder.compilationCache;
+		final Path sourcePath = Paths.get(sourceFolder.getRawLocation().toOSString());
+		final Path outputPath = Paths.get(tmp.getRawLocation().toOSString());
+		String key = null;
+		if (cache != null) {
+			final List<Path> filePaths = new ArrayList<>(files.size());
+			for (final IFile file : files) {
+				filePaths.add(Paths.get(file.getRawLocation().toOSString()));
+			}
+			try {
+				key = cache.getKey(sourcePath, filePaths, compilerOptions);
+				final CompilationCache.Entry entry = cache.get(key);
+				if (entry != null) {
+					if (!generator.builder.runTests || cache.restoreClassFiles(entry, outputPath)) {
+						createMarkers(cache.getOutput(entry, sourcePath), files, confName);
+						return;
+					}
+				}
+			} catch (final IOException e) {
+				UIPlugin.getDefault().logError(e);
+				key = null;
+			}
+		}
+
 		final LinkedList<String> options = new LinkedList<>();
 		for (final IFile file : files) {
 			options.add(setupPath(file));
 		}
-		options.add("-g");
-		options.add("-Xlint");
-		options.add("-source");
-		options.add("1.7");
+		options.addAll(compilerOptions);
 		options.add("-d");
-		options.add(setupPath(tmp.getRawLocation().toOSString()));
-		options.add("-classpath");
-		options.add(generator.builder.classpath);
+		options.add(setupPath(outputPath.toString()));
 
 		final String output = process(options);
+		if (key != null) {
+			try {
+				cache.put(key, sourcePath, output, outputPath);
+			} catch (final IOException e) {
+				UIPlugin.getDefault().logError(e);
+			}
+		}
+		createMarkers(output, files, confName);
+	}
+
+	private void createMarkers(String output, LinkedList<IFile> files, String confName) {
 		final LinkedList<IFile> errorFiles = parseJavacOutput(output, files, confName);
 		for (final IFile file : errorFiles) {
 			generator.builder.featureProject.getComposer().postCompile(null, file);
@@ -29,12 +29,20 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.ui.actions.generator.BuilderConfiguration;
 
 /**
- * Sorts configurations.<br> Default implementation, does nothing.
+ * Sorts configurations.<br> Default implementation, does nothing.<br> <br> The sorter also hands over the configurations from the configuration generator
+ * to the {@link de.ovgu.featureide.ui.actions.generator.Generator Generators}. {@link #takeConfiguration()} blocks until a sorted configuration is available.
+ * As long as the configurations are sorted, {@link #addConfiguration(BuilderConfiguration)} blocks if the buffer is full, such that the configuration
+ * generator cannot run arbitrarily far ahead of the generators. Sorters that need all configurations at once are not bounded.
  *
  * @author Jens Meinicke
  */
 public class AbstractConfigurationSorter {
 
+	/**
+	 * The default maximal number of buffered configurations.
+	 */
+	public static final int DEFAULT_CAPACITY = 256;
+
 	/**
 	 * This list contains all found configurations to built.<br> Use <code>getConfiguration()</code> and <code>setConfiguration(c)</code> for synchronizing.
 	 */
@@ -44,13 +52,21 @@ public class AbstractConfigurationSorter {
 
 	protected boolean sorted = true;
 
+	private int capacity = DEFAULT_CAPACITY;
+	private int maxBufferSize = 0;
+	private boolean finished = false;
+	private boolean canceled = false;
+
 	public AbstractConfigurationSorter(final IFeatureModel featureModel) {
 		concreteFeatures = FeatureUtils.extractConcreteFeaturesAsStringList(featureModel);// TODO move to implementations
 	}
 
 	public int sortConfigurations(final IMonitor<?> monitor) {
 		final int numberOfConfigurations = sort(monitor);
-		sorted = true;
+		synchronized (this) {
+			sorted = true;
+			notifyAll();
+		}
 		return numberOfConfigurations;
 	}
 
@@ -58,21 +74,109 @@ public class AbstractConfigurationSorter {
 		return configurations.size();
 	}
 
+	/**
+	 * Adds a configuration to the buffer. Blocks while the buffer is full and the configurations are already sorted.
+	 *
+	 * @param configuration the configuration
+	 */
 	public synchronized void addConfiguration(BuilderConfiguration configuration) {
+		while (sorted && !canceled && (configurations.size() >= capacity)) {
+			try {
+				wait();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		if (canceled) {
+			return;
+		}
 		configurations.add(configuration);
+		maxBufferSize = Math.max(maxBufferSize, configurations.size());
+		notifyAll();
 	}
 
+	/**
+	 * Returns the next configuration without blocking.
+	 *
+	 * @return the next configuration or {@code null} if there is none or the configurations are not sorted yet
+	 */
 	public synchronized BuilderConfiguration getConfiguration() {
 		if (!sorted || configurations.isEmpty()) {
 			return null;
 		}
-		return configurations.pop();
+		final BuilderConfiguration configuration = configurations.pop();
+		notifyAll();
+		return configuration;
+	}
+
+	/**
+	 * Returns the next configuration. Blocks until a sorted configuration is available.
+	 *
+	 * @return the next configuration or {@code null} if no more configurations will be added (see {@link #finish()}), the generation was canceled, or the
+	 *         current thread was interrupted
+	 */
+	public synchronized BuilderConfiguration takeConfiguration() {
+		while (!canceled && (!sorted || configurations.isEmpty())) {
+			if (finished && sorted) {
+				return null;
+			}
+			try {
+				wait();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+		}
+		if (canceled) {
+			return null;
+		}
+		final BuilderConfiguration configuration = configurations.pop();
+		notifyAll();
+		return configuration;
+	}
+
+	/**
+	 * Indicates that no more configurations will be added. Threads waiting in {@link #takeConfiguration()} return once the buffer is empty.
+	 */
+	public synchronized void finish() {
+		finished = true;
+		notifyAll();
+	}
+
+	/**
+	 * Releases all waiting threads. Afterwards, no configurations are added or returned anymore.
+	 */
+	public synchronized void cancel() {
+		canceled = true;
+		notifyAll();
 	}
 
 	public int getBufferSize() {
 		return configurations.size();
 	}
 
+	/**
+	 * @return the maximal number of configurations that were buffered at the same time
+	 */
+	public synchronized int getMaxBufferSize() {
+		return maxBufferSize;
+	}
+
+	public synchronized int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Sets the maximal number of buffered configurations. Only applies as long as the configurations are sorted.
+	 *
+	 * @param capacity the capacity (at least 1)
+	 */
+	public synchronized void setCapacity(int capacity) {
+		this.capacity = Math.max(1, capacity);
+		notifyAll();
+	}
+
 	public boolean isSorted() {
 		return sorted;
 	}
@@ -0,0 +1,193 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.SatSolver;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.PresenceConditionChecker.Status;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.NodeCreator;
+
+/**
+ * Tests for {@link PresenceConditionChecker}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TPresenceConditionChecker {
+
+	private static final long TIMEOUT = 1000;
+
+	/**
+	 * Checks a presence condition with a new solver for each query.
+	 */
+	private static Status checkWithNodes(Node featureModel, Node[] expressionStack) throws TimeoutException {
+		final Node expression = expressionStack[0];
+		if (!new SatSolver(expression, TIMEOUT).hasSolution()) {
+			return Status.CONTRADICTION;
+		}
+		if (!new SatSolver(new Not(expression), TIMEOUT).hasSolution()) {
+			return Status.TAUTOLOGY;
+		}
+		Node context = featureModel;
+		for (int i = 1; i < expressionStack.length; i++) {
+			context = new And(context, expressionStack[i]);
+		}
+		if (!new SatSolver(new And(context, expression), TIMEOUT).hasSolution()) {
+			return Status.DEAD;
+		}
+		if (!new SatSolver(new And(context, new Not(expression)), TIMEOUT).hasSolution()) {
+			return Status.SUPERFLUOUS;
+		}
+		return Status.NORMAL;
+	}
+
+	private static Node createRandomExpression(Random random, List<String> names, int depth) {
+		if ((depth == 0) || (random.nextInt(3) == 0)) {
+			return new Literal(names.get(random.nextInt(names.size())), random.nextInt(4) != 0);
+		}
+		final Node child1 = createRandomExpression(random, names, depth - 1);
+		final Node child2 = createRandomExpression(random, names, depth - 1);
+		switch (random.nextInt(4)) {
+		case 0:
+			return new And(child1, child2);
+		case 1:
+			return new Or(child1, child2);
+		case 2:
+			return new Implies(child1, child2);
+		default:
+			return new Not(child1);
+		}
+	}
+
+	private static List<Node[]> createRandomExpressionStacks(Random random, List<String> names, int size) {
+		final List<Node[]> expressionStacks = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			final Node[] expressionStack = new Node[1 + random.nextInt(3)];
+			for (int j = 0; j < expressionStack.length; j++) {
+				expressionStack[j] = createRandomExpression(random, names, 2);
+			}
+			expressionStacks.add(expressionStack);
+		}
+		// Structurally equal presence conditions
+		for (int i = 0; i < (size / 4); i++) {
+			final Node[] expressionStack = expressionStacks.get(random.nextInt(expressionStacks.size()));
+			final Node[] copy = new Node[expressionStack.length];
+			for (int j = 0; j < copy.length; j++) {
+				copy[j] = expressionStack[j].clone();
+			}
+			expressionStacks.add(copy);
+		}
+		return expressionStacks;
+	}
+
+	private static List<String> getFeatureNames(IFeatureModel featureModel) {
+		final List<String> names = new ArrayList<>();
+		for (final IFeature feature : featureModel.getFeatures()) {
+			names.add(NodeCreator.getVariable(feature));
+		}
+		return names;
+	}
+
+	@Test
+	public void testRandomPresenceConditions() throws TimeoutException {
+		final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml");
+		final Node featureModelNode = AdvancedNodeCreator.createNodes(featureModel);
+		final List<String> names = getFeatureNames(featureModel);
+
+		final PresenceConditionChecker checker = new PresenceConditionChecker(new FeatureModelFormula(featureModel));
+		assertFalse(checker.isVoidFeatureModel());
+		checker.setNumberOfThreads(4);
+
+		final Random random = new Random(1);
+		final List<Node[]> expressionStacks = createRandomExpressionStacks(random, names, 200);
+		final Node literal = new Literal(names.get(random.nextInt(names.size())));
+		expressionStacks.add(new Node[] { new Or(literal, new Not(literal)) });
+		expressionStacks.add(new Node[] { new Implies(literal, literal), literal });
+		final List<Status> statuses = checker.check(expressionStacks);
+		assertEquals(expressionStacks.size(), statuses.size());
+		assertTrue(checker.getNumberOfCheckedPresenceConditions() <= 202);
+
+		final boolean[] found = new boolean[Status.values().length];
+		for (int i = 0; i < expressionStacks.size(); i++) {
+			final Node[] expressionStack = expressionStacks.get(i);
+			final Status expected = checkWithNodes(featureModelNode, expressionStack);
+			assertEquals(String.valueOf(expressionStack[0]), expected, statuses.get(i));
+			assertEquals(expected, checker.check(expressionStack));
+			found[expected.ordinal()] = true;
+		}
+		for (final Status status : new Status[] { Status.NORMAL, Status.DEAD, Status.SUPERFLUOUS, Status.CONTRADICTION, Status.TAUTOLOGY }) {
+			assertTrue(status.toString(), found[status.ordinal()]);
+		}
+	}
+
+	@Test
+	public void testSpecialLiterals() throws TimeoutException {
+		final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile("car.xml");
+		final Node featureModelNode = AdvancedNodeCreator.createNodes(featureModel);
+		final List<String> names = getFeatureNames(featureModel);
+		final PresenceConditionChecker checker = new PresenceConditionChecker(new FeatureModelFormula(featureModel));
+
+		final Node[][] expressionStacks = { //
+			{ new Literal(NodeCreator.varTrue) }, //
+			{ new Literal(names.get(1)), new Literal(NodeCreator.varTrue) }, //
+			{ new Or(new Literal(names.get(1)), new Literal(NodeCreator.varFalse)) }, //
+			{ new Literal("__unknown__") }, //
+			{ new Literal(names.get(1)), new Literal("__unknown__") }, //
+			{ new And(new Literal("__unknown__"), new Literal(names.get(1))), new Not(new Literal(names.get(1))) }, //
+		};
+		for (final Node[] expressionStack : expressionStacks) {
+			assertEquals(String.valueOf(expressionStack[0]), checkWithNodes(featureModelNode, expressionStack), checker.check(expressionStack));
+		}
+	}
+
+	@Test
+	public void testVoidFeatureModel() {
+		final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile("car.xml");
+		final List<String> names = getFeatureNames(featureModel);
+		final Node root = new Literal(NodeCreator.getVariable(featureModel.getStructure().getRoot().getFeature()));
+		featureModel.addConstraint(FMFactoryManager.getInstance().getFactory(featureModel).createConstraint(featureModel, new Not(root)));
+		final PresenceConditionChecker checker = new PresenceConditionChecker(new FeatureModelFormula(featureModel));
+		assertTrue(checker.isVoidFeatureModel());
+		assertEquals(Status.VOID, checker.check(new Literal(names.get(1))));
+	}
+
+}
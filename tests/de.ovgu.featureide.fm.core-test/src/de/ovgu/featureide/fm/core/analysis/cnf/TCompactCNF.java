@@ -0,0 +1,136 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.Vertex;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link CompactCNF} and the primitive name index of {@link Variables}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TCompactCNF {
+
+	private static final String[] MODELS = { "10-100.xml", "100-100.xml", "200-100-hidden.xml", "berkeley_db_model.xml" };
+
+	@Test
+	public void testConversion() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName)).getCNF();
+			final CompactCNF compactCNF = new CompactCNF(cnf);
+
+			assertEquals(modelName, cnf.getClauses(), compactCNF.getClauses());
+			assertEquals(modelName, cnf.getVariables(), compactCNF.getVariables());
+			assertEquals(modelName, cnf.getClauses().size(), compactCNF.getNumberOfClauses());
+			assertEquals(modelName, compactCNF.getClauses(), compactCNF.clone().getClauses());
+		}
+	}
+
+	@Test
+	public void testAddClause() {
+		final CompactCNF cnf = new CompactCNF(new Variables(Arrays.asList("A", "B", "C")), 1, 1);
+		cnf.addClause(3, -1);
+		cnf.addClause(new LiteralSet(2));
+		cnf.addClause();
+		cnf.addClause(-3, 1, -2);
+
+		assertEquals(4, cnf.getNumberOfClauses());
+		assertEquals(6, cnf.getNumberOfLiterals());
+		assertEquals(0, cnf.getClauseLength(2));
+		assertArrayEquals(new int[] { 3, -1 }, cnf.getClause(0).getLiterals());
+		assertArrayEquals(new int[] { -3, 1, -2 }, cnf.getClause(3).getLiterals());
+		final int[] literals = cnf.getLiteralArray();
+		assertArrayEquals(new int[] { -3, 1, -2 }, Arrays.copyOfRange(literals, cnf.getClauseStart(3), cnf.getClauseEnd(3)));
+
+		cnf.trimToSize();
+		assertEquals(6, cnf.getLiteralArray().length);
+		assertEquals(new LiteralSet(2), cnf.getClause(1));
+	}
+
+	@Test
+	public void testAnalyses() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName)).getCNF();
+			final CompactCNF compactCNF = new CompactCNF(cnf);
+
+			final AdvancedSatSolver solver = new AdvancedSatSolver(compactCNF);
+			assertEquals(modelName, new AdvancedSatSolver(cnf).hasSolution(), solver.hasSolution());
+
+			final LiteralSet expected = LongRunningWrapper.runMethod(new CoreDeadAnalysis(cnf));
+			assertEquals(modelName, expected, LongRunningWrapper.runMethod(new CoreDeadAnalysis(compactCNF)));
+
+			final ModalImplicationGraph expectedMIG = ModalImplicationGraph.build(cnf, true);
+			final ModalImplicationGraph mig = ModalImplicationGraph.build(compactCNF, true);
+			assertEquals(modelName, expectedMIG.getAdjList().size(), mig.getAdjList().size());
+			for (int i = 0; i < mig.getAdjList().size(); i++) {
+				final Vertex expectedVertex = expectedMIG.getAdjList().get(i);
+				final Vertex vertex = mig.getAdjList().get(i);
+				assertEquals(modelName, expectedVertex.isCore(), vertex.isCore());
+				assertEquals(modelName, expectedVertex.isDead(), vertex.isDead());
+				assertArrayEquals(modelName, sorted(expectedVertex.getStrongEdges()), sorted(vertex.getStrongEdges()));
+			}
+			assertEquals(modelName, expectedMIG.getComplexClauses().size(), mig.getComplexClauses().size());
+
+			// Building the graph must not modify the clauses of the CNF
+			assertEquals(modelName, cnf.getClauses(), compactCNF.getClauses());
+		}
+	}
+
+	@Test
+	public void testVariables() {
+		final Variables variables = new Variables(Arrays.asList("A", "B", "C", "D", "E"));
+		assertEquals(1, variables.getVariable("A"));
+		assertEquals(5, variables.getVariable("E"));
+		assertEquals(0, variables.getVariable("F"));
+
+		variables.renameVariable("B", "F");
+		assertEquals(0, variables.getVariable("B"));
+		assertEquals(2, variables.getVariable("F"));
+		assertEquals(3, variables.getVariable("C"));
+		assertEquals("F", variables.getName(2));
+
+		final Variables clonedVariables = variables.clone();
+		assertEquals(2, clonedVariables.getVariable("F"));
+		clonedVariables.renameVariable("F", "G");
+		assertEquals(2, variables.getVariable("F"));
+		assertEquals(0, variables.getVariable("G"));
+	}
+
+	private static int[] sorted(int[] array) {
+		final int[] copy = Arrays.copyOf(array, array.length);
+		Arrays.sort(copy);
+		return copy;
+	}
+
+}
@@ -0,0 +1,141 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.AbstractAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.AtomicSetAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.HasSolutionAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.IndependentRedundancyAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.RemoveRedundancyAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the {@link SolutionPool} and compares the results of analyses with and without a shared pool.
+ *
+ * @author FeatureIDE Team
+ */
+public class TSolutionPool {
+
+	private static final String[] MODELS = { "100-100.xml", "200-100-hidden.xml", "berkeley_db_model.xml" };
+
+	@Test
+	public void testFindSolution() {
+		final SolutionPool pool = new SolutionPool(3);
+		assertEquals(false, pool.containsSolution());
+		pool.add(new int[] { 1, -2, 3 });
+		pool.add(new int[] { -1, -2, -3 });
+
+		assertEquals(2, pool.size());
+		assertEquals(true, pool.containsSolution());
+		assertEquals(true, pool.containsSolution(-2));
+		assertEquals(true, pool.containsSolution(1, 3));
+		assertEquals(false, pool.containsSolution(2));
+		assertEquals(false, pool.containsSolution(1, -3));
+		assertEquals(false, pool.containsSolution(4));
+		assertArrayEquals(new int[] { -1, -2, -3 }, pool.findSolution(-1));
+		assertNull(pool.findSolution(1, -1));
+		assertEquals(2, pool.getSolutions(-2).size());
+		assertArrayEquals(new int[] { -1, -2, -3 }, pool.findSolution(new int[] { -2 }, solution -> solution[0] < 0));
+		assertNull(pool.findSolution(new int[] { 1 }, solution -> solution[1] > 0));
+	}
+
+	@Test
+	public void testCapacity() {
+		final SolutionPool pool = new SolutionPool(2, 3);
+		pool.add(new int[] { 1, 2 });
+		pool.add(new int[] { 1, -2 });
+		pool.add(new int[] { -1, 2 });
+		pool.add(new int[] { -1, -2 });
+		assertEquals(3, pool.size());
+		assertEquals(false, pool.containsSolution(1, 2));
+		assertEquals(true, pool.containsSolution(1, -2));
+		assertEquals(true, pool.containsSolution(-1, -2));
+
+		final SolutionPool largePool = new SolutionPool(2, 130);
+		for (int i = 0; i < 200; i++) {
+			largePool.add(new int[] { (i % 2) == 0 ? 1 : -1, i < 100 ? 2 : -2 });
+		}
+		assertEquals(130, largePool.size());
+		assertEquals(30, largePool.getSolutions(2).size());
+		assertEquals(50, largePool.getSolutions(1, -2).size());
+	}
+
+	private static <T> T analyze(AbstractAnalysis<T> analysis, SolutionPool pool) {
+		analysis.setSolutionPool(pool);
+		return LongRunningWrapper.runMethod(analysis);
+	}
+
+	private static List<LiteralSet> createClauses(CNF cnf, Random random) {
+		final List<LiteralSet> clauses = new ArrayList<>();
+		final int numberOfVariables = cnf.getVariables().size();
+		for (int i = 0; i < 50; i++) {
+			final int a = (random.nextInt(numberOfVariables) + 1) * (random.nextBoolean() ? 1 : -1);
+			final int b = (random.nextInt(numberOfVariables) + 1) * (random.nextBoolean() ? 1 : -1);
+			if (Math.abs(a) != Math.abs(b)) {
+				clauses.add(new LiteralSet(a, b));
+			}
+		}
+		return clauses;
+	}
+
+	@Test
+	public void testSharedPool() {
+		final Random random = new Random(42);
+		for (final String modelName : MODELS) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName)).getCNF();
+			final List<LiteralSet> clauses = createClauses(cnf, random);
+			final SolutionPool pool = new SolutionPool(cnf.getVariables().size());
+
+			assertEquals(modelName, analyze(new HasSolutionAnalysis(cnf), null), analyze(new HasSolutionAnalysis(cnf), pool));
+			assertEquals(modelName, analyze(new CoreDeadAnalysis(cnf), null), analyze(new CoreDeadAnalysis(cnf), pool));
+			assertEquals(modelName, analyze(new AtomicSetAnalysis(cnf), null), analyze(new AtomicSetAnalysis(cnf), pool));
+			assertEquals(modelName, analyze(new IndependentRedundancyAnalysis(cnf, clauses), null),
+					analyze(new IndependentRedundancyAnalysis(cnf, clauses), pool));
+			assertEquals(modelName, analyze(new RemoveRedundancyAnalysis(cnf, clauses), null), analyze(new RemoveRedundancyAnalysis(cnf, clauses), pool));
+			assertTrue(modelName, pool.size() > 0);
+
+			// Analyses with assumptions must only use solutions that satisfy the assumptions
+			for (int var = 2; var <= Math.min(cnf.getVariables().size(), 10); var++) {
+				final LiteralSet assumptions = new LiteralSet(-var);
+				final CoreDeadAnalysis expected = new CoreDeadAnalysis(cnf);
+				expected.setAssumptions(assumptions);
+				final CoreDeadAnalysis actual = new CoreDeadAnalysis(cnf);
+				actual.setAssumptions(assumptions);
+				assertEquals(modelName + ": " + var, analyze(expected, null), analyze(actual, pool));
+			}
+		}
+	}
+
+}
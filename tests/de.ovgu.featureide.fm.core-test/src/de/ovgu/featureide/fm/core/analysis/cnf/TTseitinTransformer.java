@@ -0,0 +1,275 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.AtLeast;
+import org.prop4j.AtMost;
+import org.prop4j.Choose;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.TseitinCNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.RandomConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.CDCLSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link TseitinTransformer} and {@link TseitinCNFCreator}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TTseitinTransformer {
+
+	private static final int NUMBER_OF_VARIABLES = 6;
+
+	private static Variables createVariables(int numberOfVariables) {
+		final List<String> names = new ArrayList<>(numberOfVariables);
+		for (int i = 1; i <= numberOfVariables; i++) {
+			names.add("x" + i);
+		}
+		return new Variables(names);
+	}
+
+	private static Node createNode(Random random, int depth) {
+		final int type = depth == 0 ? 0 : random.nextInt(9);
+		switch (type) {
+		case 0:
+			return new Literal("x" + (1 + random.nextInt(NUMBER_OF_VARIABLES)), random.nextBoolean());
+		case 1:
+			return new Not(createNode(random, depth - 1));
+		case 2:
+			return new Implies(createNode(random, depth - 1), createNode(random, depth - 1));
+		case 3:
+			return new Equals(createNode(random, depth - 1), createNode(random, depth - 1));
+		default:
+			final Node[] children = new Node[1 + random.nextInt(4)];
+			for (int i = 0; i < children.length; i++) {
+				children[i] = createNode(random, depth - 1);
+			}
+			final int bound = random.nextInt(children.length + 2) - 1;
+			switch (type) {
+			case 4:
+				return new And(children);
+			case 5:
+				return new Or(children);
+			case 6:
+				return new AtMost(bound, children);
+			case 7:
+				return new AtLeast(bound, children);
+			default:
+				return new Choose(bound, children);
+			}
+		}
+	}
+
+	/**
+	 * Evaluates the given formula. In contrast to {@link Choose#getValue(Map)}, a {@link Choose} node requires exactly n true children, as in its conjunctive
+	 * normal form.
+	 */
+	private static boolean evaluate(Node node, Map<Object, Boolean> assignment) {
+		if (node instanceof Literal) {
+			return assignment.get(((Literal) node).var) == ((Literal) node).positive;
+		}
+		final Node[] children = node.getChildren();
+		if (node instanceof Not) {
+			return !evaluate(children[0], assignment);
+		} else if (node instanceof Implies) {
+			return !evaluate(children[0], assignment) || evaluate(children[1], assignment);
+		} else if (node instanceof Equals) {
+			return evaluate(children[0], assignment) == evaluate(children[1], assignment);
+		}
+		int trueCount = 0;
+		for (final Node child : children) {
+			if (evaluate(child, assignment)) {
+				trueCount++;
+			}
+		}
+		if (node instanceof And) {
+			return trueCount == children.length;
+		} else if (node instanceof Or) {
+			return trueCount > 0;
+		} else if (node instanceof AtMost) {
+			return trueCount <= ((AtMost) node).max;
+		} else if (node instanceof AtLeast) {
+			return trueCount >= ((AtLeast) node).min;
+		} else {
+			return trueCount == ((Choose) node).n;
+		}
+	}
+
+	/**
+	 * Checks that the given CNF has a solution for exactly those assignments of the regular variables that satisfy the formula.
+	 */
+	private static void checkEquivalence(String message, Node node, CNF cnf) {
+		final Variables variables = (Variables) cnf.getVariables();
+		final ISatSolver[] solvers = { new AdvancedSatSolver(cnf), new CDCLSatSolver(cnf) };
+		final Map<Object, Boolean> assignment = new HashMap<>();
+		final int[] literals = new int[variables.size()];
+		for (int i = 0; i < (1 << literals.length); i++) {
+			for (int j = 0; j < literals.length; j++) {
+				final boolean value = ((i >> j) & 1) != 0;
+				literals[j] = value ? j + 1 : -(j + 1);
+				assignment.put(variables.getName(j + 1), value);
+			}
+			final SatResult expected = evaluate(node, assignment) ? SatResult.TRUE : SatResult.FALSE;
+			for (final ISatSolver solver : solvers) {
+				assertEquals(message, expected, solver.hasSolution(literals));
+			}
+		}
+		for (final ISatSolver solver : solvers) {
+			final int[] solution = solver.findSolution();
+			if (solution != null) {
+				assertEquals(message, variables.size(), solution.length);
+				for (int j = 0; j < solution.length; j++) {
+					assignment.put(variables.getName(j + 1), solution[j] > 0);
+				}
+				assertTrue(message, evaluate(node, assignment));
+			}
+		}
+	}
+
+	@Test
+	public void testRandomFormulas() {
+		final Random random = new Random(42);
+		for (int i = 0; i < 300; i++) {
+			final Node node = createNode(random, 1 + random.nextInt(4));
+			final TseitinTransformer transformer = new TseitinTransformer(createVariables(NUMBER_OF_VARIABLES));
+			transformer.setMaximumNumberOfClauses(-1);
+			transformer.addFormula(node);
+			checkEquivalence(node.toString(), node, transformer.createCNF());
+		}
+	}
+
+	@Test
+	public void testThreshold() {
+		final Node smallNode = new Implies(new Literal("x1"), new Or(new Literal("x2"), new Literal("x3")));
+		TseitinTransformer transformer = new TseitinTransformer(createVariables(NUMBER_OF_VARIABLES));
+		transformer.addFormula(smallNode);
+		assertEquals(0, transformer.getNumberOfAuxiliaryVariables());
+		assertFalse(transformer.createCNF() instanceof AuxiliaryCNF);
+		assertEquals(Nodes.convert(createVariables(NUMBER_OF_VARIABLES), smallNode), transformer.createCNF().getClauses());
+
+		final Node largeNode = new Choose(3, new Literal("x1"), new Literal("x2"), new Literal("x3"), new Literal("x4"), new Literal("x5"), new Literal("x6"));
+		transformer = new TseitinTransformer(createVariables(NUMBER_OF_VARIABLES));
+		transformer.setMaximumNumberOfClauses(TseitinTransformer.estimateNumberOfClauses(largeNode) - 1);
+		transformer.addFormula(largeNode);
+		final CNF cnf = transformer.createCNF();
+		assertTrue(cnf instanceof AuxiliaryCNF);
+		assertEquals(NUMBER_OF_VARIABLES, cnf.getVariables().size());
+		assertEquals(NUMBER_OF_VARIABLES + transformer.getNumberOfAuxiliaryVariables(), cnf.getInternalVariables().size());
+		checkEquivalence(largeNode.toString(), largeNode, cnf);
+	}
+
+	@Test
+	public void testLinearSize() {
+		final int numberOfVariables = 16;
+		final Node[] literals = new Node[numberOfVariables];
+		for (int i = 0; i < numberOfVariables; i++) {
+			literals[i] = new Literal("x" + (i + 1));
+		}
+		Node equals = literals[0];
+		for (int i = 1; i < numberOfVariables; i++) {
+			equals = new Equals(equals, literals[i]);
+		}
+		final Node choose = new Choose(numberOfVariables / 2, literals);
+		for (final Node node : new Node[] { equals, choose, new Not(choose), new Or(equals, choose) }) {
+			final TseitinTransformer transformer = new TseitinTransformer(createVariables(numberOfVariables));
+			transformer.addFormula(node);
+			final CNF cnf = transformer.createCNF();
+			assertTrue(TseitinTransformer.estimateNumberOfClauses(node) > 10_000);
+			assertTrue(cnf.getClauses().size() < (numberOfVariables * numberOfVariables * 4));
+
+			final Random random = new Random(0);
+			final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+			final Map<Object, Boolean> assignment = new HashMap<>();
+			final int[] assumptions = new int[numberOfVariables];
+			for (int i = 0; i < 200; i++) {
+				for (int j = 0; j < numberOfVariables; j++) {
+					final boolean value = random.nextBoolean();
+					assumptions[j] = value ? j + 1 : -(j + 1);
+					assignment.put("x" + (j + 1), value);
+				}
+				assertEquals(evaluate(node, assignment) ? SatResult.TRUE : SatResult.FALSE, solver.hasSolution(assumptions));
+			}
+		}
+	}
+
+	@Test
+	public void testFeatureModel() {
+		final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml");
+		final List<Node> featureLiterals = new ArrayList<>();
+		for (final IFeature feature : featureModel.getFeatures()) {
+			if (feature.getStructure().hasChildren()) {
+				featureLiterals.add(new Literal(feature.getName()));
+			}
+		}
+		final Node[] children = featureLiterals.toArray(new Node[featureLiterals.size()]);
+		featureModel.addConstraint(FMFactoryManager.getInstance().getFactory(featureModel).createConstraint(featureModel,
+				new Implies(children[1], new AtMost(children.length / 2, children))));
+
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+		final CNF cnf = formula.getCNF();
+		final CNF tseitinCNF = formula.getElement(new TseitinCNFCreator());
+		assertTrue(tseitinCNF instanceof AuxiliaryCNF);
+		assertEquals(cnf.getVariables(), tseitinCNF.getVariables());
+		assertTrue(tseitinCNF.getClauses().size() < cnf.getClauses().size());
+
+		assertEquals(LongRunningWrapper.runMethod(new CoreDeadAnalysis(cnf)), LongRunningWrapper.runMethod(new CoreDeadAnalysis(tseitinCNF)));
+
+		final RandomConfigurationGenerator generator = new RandomConfigurationGenerator(tseitinCNF, 20);
+		generator.setRandom(new Random(0));
+		final List<LiteralSet> sample = LongRunningWrapper.runMethod(generator);
+		assertNotNull(sample);
+		assertFalse(sample.isEmpty());
+		final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+		for (final LiteralSet configuration : sample) {
+			assertEquals(cnf.getVariables().size(), configuration.size());
+			assertEquals(SatResult.TRUE, solver.hasSolution(configuration.getLiterals()));
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ModalImplicationGraphCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the {@link AtomicSetAnalysis} against a pairwise check of all variables and compares the results of different configurations of the analysis.
+ *
+ * @author FeatureIDE Team
+ */
+public class TAtomicSetAnalysis {
+
+	private static final String[] MODELS = { "10-100.xml", "100-100.xml", "200-100-hidden.xml", "berkeley_db_model.xml" };
+
+	private static List<LiteralSet> analyze(CNF cnf, int numberOfThreads, ModalImplicationGraph mig) {
+		final AtomicSetAnalysis analysis = new AtomicSetAnalysis(cnf);
+		analysis.setNumberOfThreads(numberOfThreads);
+		analysis.setModalImplicationGraph(mig);
+		return LongRunningWrapper.runMethod(analysis);
+	}
+
+	/**
+	 * Checks whether all variables of each atomic set are equivalent and whether variables of different atomic sets are not equivalent.
+	 */
+	private static void checkAtomicSets(String message, CNF cnf, List<LiteralSet> atomicSets) {
+		final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+		final LiteralSet coreDead = LongRunningWrapper.runMethod(new CoreDeadAnalysis(cnf));
+		assertEquals(message, coreDead, atomicSets.get(0));
+
+		final int[] representatives = new int[atomicSets.size() - 1];
+		int numberOfVariables = coreDead.size();
+		for (int i = 1; i < atomicSets.size(); i++) {
+			final int[] literals = atomicSets.get(i).getLiterals();
+			numberOfVariables += literals.length;
+			representatives[i - 1] = literals[0];
+			for (int j = 1; j < literals.length; j++) {
+				assertEquals(message + ": " + literals[0] + " -> " + literals[j], SatResult.FALSE, solver.hasSolution(literals[0], -literals[j]));
+				assertEquals(message + ": " + literals[j] + " -> " + literals[0], SatResult.FALSE, solver.hasSolution(-literals[0], literals[j]));
+			}
+		}
+		assertEquals(message, cnf.getVariables().size(), numberOfVariables);
+
+		for (int i = 0; i < representatives.length; i++) {
+			for (int j = i + 1; j < representatives.length; j++) {
+				final boolean positive = (solver.hasSolution(representatives[i], -representatives[j]) == SatResult.FALSE)
+					&& (solver.hasSolution(-representatives[i], representatives[j]) == SatResult.FALSE);
+				final boolean negative = (solver.hasSolution(representatives[i], representatives[j]) == SatResult.FALSE)
+					&& (solver.hasSolution(-representatives[i], -representatives[j]) == SatResult.FALSE);
+				assertEquals(message + ": " + representatives[i] + " <-> " + representatives[j], false, positive || negative);
+			}
+		}
+	}
+
+	@Test
+	public void testAtomicSets() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName)).getCNF();
+			checkAtomicSets(modelName, cnf, analyze(cnf, 1, null));
+		}
+	}
+
+	@Test
+	public void testParallelAtomicSets() {
+		for (final String modelName : MODELS) {
+			final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName));
+			final CNF cnf = formula.getCNF();
+			final List<LiteralSet> expected = analyze(cnf, 1, null);
+			assertEquals(modelName, expected, analyze(cnf, 4, null));
+			final ModalImplicationGraph mig = formula.getElement(new ModalImplicationGraphCreator());
+			assertEquals(modelName, expected, analyze(cnf, 1, mig));
+			assertEquals(modelName, expected, analyze(cnf, 4, mig));
+		}
+	}
+
+	@Test
+	public void testKnownAndCandidateAtomicSets() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName)).getCNF();
+			final List<LiteralSet> expected = analyze(cnf, 1, null);
+
+			final AtomicSetAnalysis knownAnalysis = new AtomicSetAnalysis(cnf);
+			knownAnalysis.setKnownAtomicSets(expected.subList(1, expected.size()));
+			assertEquals(modelName, expected, LongRunningWrapper.runMethod(knownAnalysis));
+
+			// All variables in one candidate set
+			final int[] allVariables = new int[cnf.getVariables().size()];
+			for (int var = 1; var <= allVariables.length; var++) {
+				allVariables[var - 1] = var;
+			}
+			final AtomicSetAnalysis candidateAnalysis = new AtomicSetAnalysis(cnf);
+			candidateAnalysis.setCandidateAtomicSets(Collections.singletonList(new LiteralSet(allVariables)));
+			assertEquals(modelName, expected, LongRunningWrapper.runMethod(candidateAnalysis));
+
+			final AtomicSetAnalysis exactCandidateAnalysis = new AtomicSetAnalysis(cnf);
+			exactCandidateAnalysis.setCandidateAtomicSets(expected);
+			assertEquals(modelName, expected, LongRunningWrapper.runMethod(exactCandidateAnalysis));
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compares the results of the sequential and the parallel {@link CoreDeadAnalysis}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TCoreDeadAnalysis {
+
+	private static final String[] MODELS = { "10-100.xml", "100-100.xml", "200-100-hidden.xml", "1000-100.xml", "berkeley_db_model.xml" };
+
+	private static LiteralSet analyze(CNF cnf, LiteralSet assumptions, int numberOfThreads) {
+		final CoreDeadAnalysis analysis = new CoreDeadAnalysis(cnf);
+		analysis.setNumberOfThreads(numberOfThreads);
+		analysis.setAssumptions(assumptions);
+		return LongRunningWrapper.runMethod(analysis);
+	}
+
+	@Test
+	public void testParallelCoreDead() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName)).getCNF();
+			final LiteralSet expected = analyze(cnf, null, 1);
+			assertEquals(modelName, expected, analyze(cnf, null, 2));
+			assertEquals(modelName, expected, analyze(cnf, null, 8));
+		}
+	}
+
+	@Test
+	public void testParallelCoreDeadWithAssumptions() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName)).getCNF();
+			for (int var = 2; var <= Math.min(cnf.getVariables().size(), 20); var++) {
+				final LiteralSet assumptions = new LiteralSet(var);
+				final LiteralSet expected = analyze(cnf, assumptions, 1);
+				assertEquals(modelName + ": " + var, expected, analyze(cnf, assumptions, 4));
+			}
+		}
+	}
+
+	@Test
+	public void testParallelCoreDeadWithCustomExecutor() {
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			for (final String modelName : MODELS) {
+				final CNF cnf = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName)).getCNF();
+				final LiteralSet expected = analyze(cnf, null, 1);
+				final CoreDeadAnalysis analysis = new CoreDeadAnalysis(cnf);
+				analysis.setNumberOfThreads(4);
+				analysis.setExecutor(executor);
+				assertEquals(modelName, expected, LongRunningWrapper.runMethod(analysis));
+				assertFalse(modelName, executor.isShutdown());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,226 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.prop4j.Literal;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGBinaryFormat;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.Vertex;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+
+/**
+ * Tests for {@link FormulaArtifactCache}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TFormulaArtifactCache {
+
+	private static final String[] MODELS = { "100-100.xml", "200-100-hidden.xml", "berkeley_db_model.xml" };
+
+	private Path directory;
+	private FormulaArtifactCache cache;
+
+	@Before
+	public void createCache() throws IOException {
+		directory = Files.createTempDirectory("formula-cache");
+		cache = new FormulaArtifactCache(directory);
+	}
+
+	@After
+	public void deleteCache() throws IOException {
+		final List<Path> files = new ArrayList<>();
+		Files.walk(directory).forEach(files::add);
+		Collections.reverse(files);
+		for (final Path file : files) {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private FeatureModelFormula analyze(IFeatureModel featureModel, FormulaArtifactCache cache) {
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+		formula.setArtifactCache(cache);
+		final FeatureModelAnalyzer analyzer = formula.getAnalyzer();
+		analyzer.getCoreFeatures(null);
+		analyzer.getAtomicSets(null);
+		formula.getElement(new ModalImplicationGraphCreator());
+		return formula;
+	}
+
+	private static List<String> getNames(List<IFeature> features) {
+		final List<String> names = new ArrayList<>(features.size());
+		for (final IFeature feature : features) {
+			names.add(feature.getName());
+		}
+		return names;
+	}
+
+	private static void compare(String message, FeatureModelFormula expectedFormula, FeatureModelFormula formula) {
+		final CNF expectedCNF = expectedFormula.getCNF();
+		final CNF cnf = formula.getCNF();
+		assertEquals(message, expectedCNF.getVariables(), cnf.getVariables());
+		assertEquals(message, expectedCNF.getClauses(), cnf.getClauses());
+
+		final FeatureModelAnalyzer expectedAnalyzer = expectedFormula.getAnalyzer();
+		final FeatureModelAnalyzer analyzer = formula.getAnalyzer();
+		assertEquals(message, getNames(expectedAnalyzer.getCoreFeatures(null)), getNames(analyzer.getCoreFeatures(null)));
+		assertEquals(message, getNames(expectedAnalyzer.getDeadFeatures(null)), getNames(analyzer.getDeadFeatures(null)));
+		final List<List<IFeature>> expectedAtomicSets = expectedAnalyzer.getAtomicSets(null);
+		final List<List<IFeature>> atomicSets = analyzer.getAtomicSets(null);
+		assertEquals(message, expectedAtomicSets.size(), atomicSets.size());
+		for (int i = 0; i < atomicSets.size(); i++) {
+			assertEquals(message, getNames(expectedAtomicSets.get(i)), getNames(atomicSets.get(i)));
+		}
+
+		final ModalImplicationGraph expectedMig = expectedFormula.getElement(new ModalImplicationGraphCreator());
+		final ModalImplicationGraph mig = formula.getElement(new ModalImplicationGraphCreator());
+		assertEquals(message, expectedMig.getComplexClauses(), mig.getComplexClauses());
+		final List<Vertex> expectedAdjList = expectedMig.getAdjList();
+		final List<Vertex> adjList = mig.getAdjList();
+		assertEquals(message, expectedAdjList.size(), adjList.size());
+		for (int i = 0; i < adjList.size(); i++) {
+			final Vertex expectedVertex = expectedAdjList.get(i);
+			final Vertex vertex = adjList.get(i);
+			assertEquals(message, expectedVertex.getVar(), vertex.getVar());
+			assertEquals(message, expectedVertex.getId(), vertex.getId());
+			assertEquals(message, expectedVertex.isCore(), vertex.isCore());
+			assertEquals(message, expectedVertex.isDead(), vertex.isDead());
+			assertEquals(message, toList(expectedVertex.getStrongEdges()), toList(vertex.getStrongEdges()));
+			assertEquals(message, toList(expectedVertex.getComplexClauses()), toList(vertex.getComplexClauses()));
+		}
+	}
+
+	private static List<Integer> toList(int[] array) {
+		final List<Integer> list = new ArrayList<>(array.length);
+		for (final int value : array) {
+			list.add(value);
+		}
+		return list;
+	}
+
+	@Test
+	public void testCacheHit() {
+		for (final String modelName : MODELS) {
+			final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile(modelName);
+			final FeatureModelFormula expectedFormula = analyze(featureModel, null);
+
+			analyze(featureModel, cache);
+			final String key = FormulaArtifactCache.computeKey(featureModel);
+			assertNotNull(modelName, cache.load(key, FormulaArtifactCache.CNF));
+			assertNotNull(modelName, cache.load(key, FormulaArtifactCache.CORE_DEAD));
+			assertNotNull(modelName, cache.load(key, FormulaArtifactCache.ATOMIC_SETS));
+			assertNotNull(modelName, cache.load(key, new MIGBinaryFormat(false)));
+
+			compare(modelName, expectedFormula, analyze(featureModel.clone(), cache));
+		}
+	}
+
+	@Test
+	public void testCorruptedFile() throws IOException {
+		for (final String modelName : MODELS) {
+			final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile(modelName);
+			final FeatureModelFormula expectedFormula = analyze(featureModel, null);
+			analyze(featureModel, cache);
+
+			final Path keyDirectory = directory.resolve(FormulaArtifactCache.computeKey(featureModel));
+			final Path cnfFile = keyDirectory.resolve(FormulaArtifactCache.CNF.getName() + ".bin");
+			final byte[] cnfBytes = Files.readAllBytes(cnfFile);
+			cnfBytes[cnfBytes.length / 2] ^= 1;
+			Files.write(cnfFile, cnfBytes);
+			final Path migFile = keyDirectory.resolve(new MIGBinaryFormat(false).getName() + ".bin");
+			final byte[] migBytes = Files.readAllBytes(migFile);
+			Files.write(migFile, new byte[migBytes.length / 2]);
+
+			compare(modelName, expectedFormula, analyze(featureModel, cache));
+			assertTrue(modelName, Files.isRegularFile(cnfFile));
+			assertTrue(modelName, Files.isRegularFile(migFile));
+		}
+	}
+
+	@Test
+	public void testReloadCorruptedFile() throws IOException {
+		final LiteralSet literalSet = new LiteralSet(1, -2, 3);
+		cache.store("key", FormulaArtifactCache.CORE_DEAD, literalSet);
+		final Path file = directory.resolve("key").resolve(FormulaArtifactCache.CORE_DEAD.getName() + ".bin");
+		final byte[] bytes = Files.readAllBytes(file);
+		bytes[bytes.length - 1] ^= 1;
+		Files.write(file, bytes);
+
+		assertNull(cache.load("key", FormulaArtifactCache.CORE_DEAD));
+		assertFalse(Files.exists(file));
+
+		cache.store("key", FormulaArtifactCache.CORE_DEAD, literalSet);
+		assertEquals(literalSet, cache.load("key", FormulaArtifactCache.CORE_DEAD));
+	}
+
+	@Test
+	public void testMissingFile() {
+		final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile(MODELS[0]);
+		final String key = FormulaArtifactCache.computeKey(featureModel);
+		assertNull(cache.load(key, FormulaArtifactCache.CNF));
+		assertFalse(Files.exists(directory.resolve(key)));
+	}
+
+	@Test
+	public void testKey() {
+		for (final String modelName : MODELS) {
+			final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile(modelName);
+			final String key = FormulaArtifactCache.computeKey(featureModel);
+			assertEquals(modelName, key, FormulaArtifactCache.computeKey(featureModel.clone()));
+			assertEquals(modelName, key, FormulaArtifactCache.computeKey(Commons.loadBenchmarkFeatureModelFromFile(modelName)));
+
+			final IFeatureModel newFeatureModel = featureModel.clone();
+			final List<IFeature> features = new ArrayList<>(newFeatureModel.getFeatures());
+			newFeatureModel.addConstraint(DefaultFeatureModelFactory.getInstance().createConstraint(newFeatureModel,
+					new Or(new Literal(features.get(1).getName()), new Literal(features.get(2).getName()))));
+			assertFalse(modelName, key.equals(FormulaArtifactCache.computeKey(newFeatureModel)));
+
+			final IFeatureModel abstractFeatureModel = featureModel.clone();
+			final IFeature feature = abstractFeatureModel.getFeature(features.get(1).getName());
+			feature.getStructure().setAbstract(!feature.getStructure().isAbstract());
+			assertFalse(modelName, key.equals(FormulaArtifactCache.computeKey(abstractFeatureModel)));
+		}
+	}
+
+}
@@ -0,0 +1,231 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseDelta;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.Vertex;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compares the results of a {@link FeatureModelFormula} that is derived from a previous formula with the results of a new formula.
+ *
+ * @author FeatureIDE Team
+ */
+public class TIncrementalFormula {
+
+	private static final String[] MODELS = { "100-100.xml", "200-100-hidden.xml", "berkeley_db_model.xml" };
+
+	private static FeatureModelFormula analyze(IFeatureModel featureModel, FeatureModelFormula previousFormula) {
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel, previousFormula);
+		final FeatureModelAnalyzer analyzer = formula.getAnalyzer();
+		analyzer.isValid(null);
+		analyzer.getCoreFeatures(null);
+		analyzer.getAtomicSets(null);
+		analyzer.getRedundantConstraints(null);
+		formula.getElement(new ModalImplicationGraphCreator());
+		return formula;
+	}
+
+	private static IFeatureModel addConstraint(IFeatureModel featureModel, Node node) {
+		final IFeatureModel newFeatureModel = featureModel.clone();
+		newFeatureModel.addConstraint(DefaultFeatureModelFactory.getInstance().createConstraint(newFeatureModel, node));
+		return newFeatureModel;
+	}
+
+	private static IFeatureModel removeConstraint(IFeatureModel featureModel, int index) {
+		final IFeatureModel newFeatureModel = featureModel.clone();
+		newFeatureModel.removeConstraint(index);
+		return newFeatureModel;
+	}
+
+	private static List<String> getNames(List<IFeature> features) {
+		final List<String> names = new ArrayList<>(features.size());
+		for (final IFeature feature : features) {
+			names.add(feature.getName());
+		}
+		return names;
+	}
+
+	private static List<List<String>> getSetNames(List<List<IFeature>> featureSets) {
+		final List<List<String>> names = new ArrayList<>(featureSets.size());
+		for (final List<IFeature> features : featureSets) {
+			names.add(getNames(features));
+		}
+		return names;
+	}
+
+	private static List<String> getNonRootFeatureNames(IFeatureModel featureModel) {
+		final List<String> names = new ArrayList<>();
+		for (final IFeature feature : featureModel.getFeatures()) {
+			if (!feature.getStructure().isRoot()) {
+				names.add(feature.getName());
+			}
+		}
+		return names;
+	}
+
+	private static void compare(String message, FeatureModelFormula incrementalFormula) {
+		final FeatureModelFormula expectedFormula = analyze(incrementalFormula.getFeatureModel(), null);
+		final FeatureModelAnalyzer expectedAnalyzer = expectedFormula.getAnalyzer();
+		final FeatureModelAnalyzer incrementalAnalyzer = incrementalFormula.getAnalyzer();
+
+		assertEquals(message, expectedAnalyzer.isValid(null), incrementalAnalyzer.isValid(null));
+		assertEquals(message, getNames(expectedAnalyzer.getCoreFeatures(null)), getNames(incrementalAnalyzer.getCoreFeatures(null)));
+		assertEquals(message, getNames(expectedAnalyzer.getDeadFeatures(null)), getNames(incrementalAnalyzer.getDeadFeatures(null)));
+		assertEquals(message, getSetNames(expectedAnalyzer.getAtomicSets(null)), getSetNames(incrementalAnalyzer.getAtomicSets(null)));
+
+		final CNF cnf = incrementalFormula.getCNF();
+		final ModalImplicationGraph mig = incrementalFormula.getElement(new ModalImplicationGraphCreator());
+		if (expectedAnalyzer.isValid(null)) {
+			assertNotNull(message, mig);
+			checkMIG(message, cnf, mig);
+		}
+	}
+
+	/**
+	 * Checks whether all strong edges of the graph are implied by the formula and whether all core and dead features are marked.
+	 */
+	private static void checkMIG(String message, CNF cnf, ModalImplicationGraph mig) {
+		final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+		for (final Vertex vertex : mig.getAdjList()) {
+			for (final int strongEdge : vertex.getStrongEdges()) {
+				assertEquals(message + ": " + vertex.getVar() + " -> " + strongEdge, SatResult.FALSE, solver.hasSolution(vertex.getVar(), -strongEdge));
+			}
+		}
+
+		final List<Integer> coreLiterals = new ArrayList<>();
+		for (final Vertex vertex : mig.getAdjList()) {
+			if (vertex.isCore()) {
+				coreLiterals.add(vertex.getVar());
+			}
+		}
+		final LiteralSet expectedCoreLiterals = LongRunningWrapper.runMethod(new CoreDeadAnalysis(cnf));
+		final int[] literals = new int[coreLiterals.size()];
+		for (int i = 0; i < literals.length; i++) {
+			literals[i] = coreLiterals.get(i);
+		}
+		assertEquals(message, expectedCoreLiterals, new LiteralSet(literals));
+	}
+
+	@Test
+	public void testUnchangedFormula() {
+		for (final String modelName : MODELS) {
+			final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile(modelName);
+			final FeatureModelFormula formula = analyze(featureModel, null);
+			final FeatureModelFormula newFormula = new FeatureModelFormula(featureModel.clone(), formula);
+
+			final ClauseDelta delta = newFormula.getElement(new ClauseDeltaCreator());
+			assertNotNull(modelName, delta);
+			assertEquals(modelName, true, delta.isEmpty());
+			assertSame(modelName, formula.getElement(new ModalImplicationGraphCreator()), newFormula.getElement(new ModalImplicationGraphCreator()));
+			compare(modelName, newFormula);
+		}
+	}
+
+	@Test
+	public void testAddedConstraints() {
+		final Random random = new Random(123);
+		for (final String modelName : MODELS) {
+			IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile(modelName);
+			FeatureModelFormula formula = analyze(featureModel, null);
+			final List<String> names = getNonRootFeatureNames(featureModel);
+			for (int i = 0; i < 10; i++) {
+				final Literal a = new Literal(names.get(random.nextInt(names.size())), random.nextBoolean());
+				final Literal b = new Literal(names.get(random.nextInt(names.size())), random.nextBoolean());
+				final Literal c = new Literal(names.get(random.nextInt(names.size())), random.nextBoolean());
+				final Node constraint = (i % 2) == 0 ? new Implies(a, b) : new Implies(a, new Or(b, c));
+				featureModel = addConstraint(featureModel, constraint);
+
+				final FeatureModelFormula newFormula = analyze(featureModel, formula);
+				final ClauseDelta delta = newFormula.getElement(new ClauseDeltaCreator());
+				assertNotNull(modelName, delta);
+				assertEquals(modelName, true, delta.isAdditionOnly());
+				compare(modelName + ": " + constraint, newFormula);
+				formula = newFormula;
+			}
+		}
+	}
+
+	@Test
+	public void testRemovedConstraints() {
+		for (final String modelName : MODELS) {
+			IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile(modelName);
+			FeatureModelFormula formula = analyze(featureModel, null);
+			while (!featureModel.getConstraints().isEmpty()) {
+				final IConstraint constraint = featureModel.getConstraints().get(featureModel.getConstraintCount() - 1);
+				featureModel = removeConstraint(featureModel, featureModel.getConstraintCount() - 1);
+
+				final FeatureModelFormula newFormula = analyze(featureModel, formula);
+				final ClauseDelta delta = newFormula.getElement(new ClauseDeltaCreator());
+				assertNotNull(modelName, delta);
+				assertEquals(modelName, true, delta.isRemovalOnly());
+				compare(modelName + ": " + constraint, newFormula);
+				formula = newFormula;
+			}
+		}
+	}
+
+	@Test
+	public void testReplacedConstraints() {
+		final Random random = new Random(321);
+		for (final String modelName : MODELS) {
+			IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile(modelName);
+			FeatureModelFormula formula = analyze(featureModel, null);
+			final List<String> names = getNonRootFeatureNames(featureModel);
+			for (int i = 0; i < Math.min(5, featureModel.getConstraintCount()); i++) {
+				final Literal a = new Literal(names.get(random.nextInt(names.size())), random.nextBoolean());
+				final Literal b = new Literal(names.get(random.nextInt(names.size())), random.nextBoolean());
+				featureModel = addConstraint(removeConstraint(featureModel, 0), new Implies(a, b));
+
+				final FeatureModelFormula newFormula = analyze(featureModel, formula);
+				compare(modelName + ": " + i, newFormula);
+				formula = newFormula;
+			}
+		}
+	}
+
+}
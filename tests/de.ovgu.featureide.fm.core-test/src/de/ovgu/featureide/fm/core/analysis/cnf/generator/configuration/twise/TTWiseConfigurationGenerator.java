@@ -0,0 +1,76 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.sat4j.minisat.orders.RandomLiteralSelectionStrategy;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.UniformRandomSelectionStrategy;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compares the samples of the sequential and the parallel {@link TWiseConfigurationGenerator}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TTWiseConfigurationGenerator {
+
+	private static final String[] MODELS = { "10-100.xml", "100-100.xml", "200-100-hidden.xml", "berkeley_db_model.xml" };
+
+	private static List<LiteralSet> sample(CNF cnf, int t, int numberOfThreads) {
+		// The random sample used by the generator depends on these global random generators
+		RandomLiteralSelectionStrategy.RAND.setSeed(123456789);
+		UniformRandomSelectionStrategy.RAND.setSeed(123456789);
+		final TWiseConfigurationGenerator generator = new TWiseConfigurationGenerator(cnf, t);
+		generator.setNumberOfThreads(numberOfThreads);
+		generator.setIterations(2);
+		return LongRunningWrapper.runMethod(generator);
+	}
+
+	@Test
+	public void testParallelSampling() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName)).getCNF();
+			final List<LiteralSet> expected = sample(cnf, 2, 1);
+			assertTrue(modelName, !expected.isEmpty());
+			assertEquals(modelName, expected, sample(cnf, 2, 2));
+			assertEquals(modelName, expected, sample(cnf, 2, 4));
+		}
+	}
+
+	@Test
+	public void testParallelSamplingT1() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName)).getCNF();
+			assertEquals(modelName, sample(cnf, 1, 1), sample(cnf, 1, 3));
+		}
+	}
+
+}
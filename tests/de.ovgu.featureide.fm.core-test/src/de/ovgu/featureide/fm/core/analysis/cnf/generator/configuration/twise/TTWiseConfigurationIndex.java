@@ -0,0 +1,117 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+
+/**
+ * Compares the coverage computed by {@link TWiseConfigurationIndex} with a simple check of each configuration.
+ *
+ * @author FeatureIDE Team
+ */
+public class TTWiseConfigurationIndex {
+
+	private static final int NUMBER_OF_VARIABLES = 20;
+
+	private static LiteralSet randomConfiguration(Random random) {
+		final int[] literals = new int[NUMBER_OF_VARIABLES];
+		for (int i = 0; i < literals.length; i++) {
+			// partial configurations contain undefined variables
+			final int value = random.nextInt(5);
+			literals[i] = value == 0 ? 0 : value % 2 == 0 ? i + 1 : -(i + 1);
+		}
+		return new LiteralSet(literals, Order.INDEX, false);
+	}
+
+	private static LiteralSet randomLiterals(Random random) {
+		final int[] literals = new int[1 + random.nextInt(3)];
+		for (int i = 0; i < literals.length; i++) {
+			literals[i] = (random.nextInt(NUMBER_OF_VARIABLES) + 1) * (random.nextBoolean() ? 1 : -1);
+		}
+		return new LiteralSet(literals);
+	}
+
+	@Test
+	public void testCoverage() {
+		final Random random = new Random(0);
+		for (final int numberOfConfigurations : new int[] { 0, 1, 63, 64, 65, 200 }) {
+			final List<LiteralSet> configurations = new ArrayList<>();
+			for (int i = 0; i < numberOfConfigurations; i++) {
+				configurations.add(randomConfiguration(random));
+			}
+			final TWiseConfigurationIndex index = new TWiseConfigurationIndex(NUMBER_OF_VARIABLES, configurations);
+			assertEquals(numberOfConfigurations, index.size());
+			assertEquals(numberOfConfigurations, TWiseConfigurationIndex.cardinality(index.getAllConfigurations()));
+
+			for (int i = 0; i < 500; i++) {
+				final ClauseList condition = new ClauseList();
+				for (int j = random.nextInt(3); j >= 0; j--) {
+					condition.add(randomLiterals(random));
+				}
+				assertEquals(condition.toString(), TWiseConfigurationUtil.isCovered(condition, configurations), index.isCovered(condition));
+
+				final long[] coveringConfigurations = index.getCoveringConfigurations(condition);
+				for (int k = 0; k < numberOfConfigurations; k++) {
+					final boolean expected = TWiseConfigurationUtil.isCovered(condition, configurations.subList(k, k + 1));
+					assertEquals(condition.toString(), expected, (coveringConfigurations[k >>> 6] & (1L << k)) != 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testModification() {
+		final Random random = new Random(1);
+		final TWiseConfigurationIndex index = new TWiseConfigurationIndex(NUMBER_OF_VARIABLES, 1);
+		final List<LiteralSet> configurations = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			final LiteralSet configuration = randomConfiguration(random);
+			configurations.add(configuration);
+			assertEquals(i, index.add(configuration.getLiterals()));
+		}
+		for (int i = 0; i < 1000; i++) {
+			final int id = random.nextInt(configurations.size());
+			final int[] literals = configurations.get(id).getLiterals();
+			final int var = random.nextInt(NUMBER_OF_VARIABLES);
+			if (literals[var] == 0) {
+				literals[var] = random.nextBoolean() ? var + 1 : -(var + 1);
+				index.set(id, literals[var]);
+			} else {
+				index.unset(id, literals[var]);
+				literals[var] = 0;
+			}
+			final ClauseList condition = new ClauseList();
+			condition.add(randomLiterals(random));
+			assertEquals(condition.toString(), TWiseConfigurationUtil.isCovered(condition, configurations), index.isCovered(condition));
+		}
+	}
+
+}
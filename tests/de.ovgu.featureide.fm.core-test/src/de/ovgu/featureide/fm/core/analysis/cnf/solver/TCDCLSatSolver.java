@@ -0,0 +1,271 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sat4j.specs.IConstr;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.AtomicSetAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.IndependentRedundancyAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.RemoveRedundancyAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compares the results of the {@link CDCLSatSolver} with the results of the SAT4J solver.
+ *
+ * @author FeatureIDE Team
+ */
+public class TCDCLSatSolver {
+
+	private static final String[] MODELS = { "100-100.xml", "200-100-hidden.xml", "berkeley_db_model.xml", "1000-100.xml" };
+
+	private static CNF loadCNF(String modelName) {
+		return new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName)).getCNF();
+	}
+
+	private static CNF createRandomCNF(Random random, int numberOfVariables, int numberOfClauses) {
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= numberOfVariables; i++) {
+			names.add("x" + i);
+		}
+		final CNF cnf = new CNF(new Variables(names));
+		for (int i = 0; i < numberOfClauses; i++) {
+			final int[] literals = new int[3];
+			for (int j = 0; j < literals.length; j++) {
+				final int var = random.nextInt(numberOfVariables) + 1;
+				literals[j] = random.nextBoolean() ? var : -var;
+			}
+			cnf.addClause(new LiteralSet(literals));
+		}
+		return cnf;
+	}
+
+	private static void checkSolution(String message, CNF cnf, int[] assumptions, int[] solution) {
+		assertNotNull(message, solution);
+		final LiteralSet solutionSet = new LiteralSet(solution);
+		for (final LiteralSet clause : cnf.getClauses()) {
+			assertTrue(message + ": " + clause, clause.hasDuplicates(solutionSet));
+		}
+		for (final int assumption : assumptions) {
+			assertTrue(message + ": " + assumption, solutionSet.containsAll(new LiteralSet(assumption)));
+		}
+	}
+
+	/**
+	 * Compares the results of both solvers for random assumptions. Consecutive queries share a prefix of their assumptions to test the reuse of decision
+	 * levels.
+	 */
+	private static void compareQueries(String message, CNF cnf, Random random, int numberOfQueries, int maxAssumptions) {
+		final AdvancedSatSolver sat4jSolver = new AdvancedSatSolver(cnf);
+		final CDCLSatSolver cdclSolver = new CDCLSatSolver(cnf);
+		final int numberOfVariables = cnf.getVariables().size();
+		for (int i = 0; i < numberOfQueries; i++) {
+			final int keep = random.nextInt(cdclSolver.getAssignmentSize() + 1);
+			cdclSolver.assignmentClear(keep);
+			sat4jSolver.assignmentClear(keep);
+			while (cdclSolver.getAssignmentSize() < (random.nextInt(maxAssumptions) + 1)) {
+				final int var = random.nextInt(numberOfVariables) + 1;
+				final int literal = random.nextBoolean() ? var : -var;
+				cdclSolver.assignmentPush(literal);
+				sat4jSolver.assignmentPush(literal);
+			}
+			final int[] assumptions = cdclSolver.getAssignmentArray();
+			final String queryMessage = message + ": " + new LiteralSet(assumptions);
+
+			final SatResult result = cdclSolver.hasSolution();
+			assertEquals(queryMessage, sat4jSolver.hasSolution(), result);
+			if (result == SatResult.TRUE) {
+				checkSolution(queryMessage, cnf, assumptions, cdclSolver.getSolution());
+			} else {
+				final int[] contradictoryAssignment = cdclSolver.getContradictoryAssignment();
+				assertTrue(queryMessage, new LiteralSet(assumptions).containsAll(new LiteralSet(contradictoryAssignment)));
+				assertEquals(queryMessage, SatResult.FALSE, new AdvancedSatSolver(cnf).hasSolution(contradictoryAssignment));
+			}
+		}
+	}
+
+	/**
+	 * @return the variables of each atomic set (the sign of the literals depends on the solution that is found by the solver).
+	 */
+	private static List<LiteralSet> getVariables(List<LiteralSet> atomicSets) {
+		final List<LiteralSet> variables = new ArrayList<>();
+		for (final LiteralSet atomicSet : atomicSets) {
+			variables.add(atomicSet.getVariables());
+		}
+		return variables;
+	}
+
+	@Test
+	public void testFeatureModelQueries() {
+		final Random random = new Random(123);
+		for (final String modelName : MODELS) {
+			compareQueries(modelName, loadCNF(modelName), random, 500, 8);
+		}
+	}
+
+	@Test
+	public void testRandomCNFQueries() {
+		final Random random = new Random(321);
+		for (int i = 0; i < 20; i++) {
+			// Random 3-SAT close to the phase transition
+			compareQueries("random " + i, createRandomCNF(random, 80, 340), random, 20, 4);
+		}
+	}
+
+	@Test
+	public void testUnsatisfiableCNF() {
+		final CNF cnf = createRandomCNF(new Random(42), 20, 200);
+		assertEquals(SatResult.FALSE, new AdvancedSatSolver(cnf).hasSolution());
+		final CDCLSatSolver solver = new CDCLSatSolver(cnf);
+		assertEquals(SatResult.FALSE, solver.hasSolution());
+		assertEquals(SatResult.FALSE, solver.hasSolution(1));
+		assertEquals(0, solver.getContradictoryAssignment().length);
+	}
+
+	@Test
+	public void testRemoveClauses() {
+		final CNF cnf = loadCNF(MODELS[0]);
+		final CDCLSatSolver solver = new CDCLSatSolver(cnf);
+		final LiteralSet coreBefore = LongRunningWrapper.runMethod(new CoreDeadAnalysis(solver));
+
+		final int numberOfVariables = cnf.getVariables().size();
+		final List<LiteralSet> clauses = new ArrayList<>();
+		for (int i = 2; i < numberOfVariables; i += 7) {
+			final LiteralSet clause = new LiteralSet(-i, -(i + 1));
+			if (!coreBefore.hasDuplicates(clause.negate())) {
+				clauses.add(clause);
+			}
+		}
+		solver.addClauses(clauses);
+		final CNF extendedCNF = cnf.clone();
+		extendedCNF.addClauses(clauses);
+		final SatResult extendedResult = new AdvancedSatSolver(extendedCNF).hasSolution();
+		assertEquals(extendedResult, solver.hasSolution());
+		if (extendedResult == SatResult.TRUE) {
+			assertEquals(LongRunningWrapper.runMethod(new CoreDeadAnalysis(extendedCNF)), LongRunningWrapper.runMethod(new CoreDeadAnalysis(solver)));
+		}
+
+		solver.removeLastClauses(clauses.size());
+		assertEquals(SatResult.TRUE, solver.hasSolution());
+		assertEquals(coreBefore, LongRunningWrapper.runMethod(new CoreDeadAnalysis(solver)));
+
+		final int[] core = coreBefore.getLiterals();
+		if (core.length > 1) {
+			final IConstr satisfiedClause = solver.addClause(new LiteralSet(-core[0], core[1]));
+			try {
+				solver.addClause(new LiteralSet(-core[0]));
+				fail();
+			} catch (final RuntimeContradictionException e) {}
+			solver.removeClause(satisfiedClause);
+			assertEquals(coreBefore, LongRunningWrapper.runMethod(new CoreDeadAnalysis(solver)));
+		}
+	}
+
+	@Test
+	public void testSelectionStrategies() {
+		final CNF cnf = loadCNF(MODELS[2]);
+		final CDCLSatSolver solver = new CDCLSatSolver(cnf);
+		final int[] assumptions = new int[0];
+		for (final SelectionStrategy strategy : new SelectionStrategy[] { SelectionStrategy.POSITIVE, SelectionStrategy.NEGATIVE, SelectionStrategy.RANDOM,
+			SelectionStrategy.ORG }) {
+			solver.setSelectionStrategy(strategy);
+			assertEquals(strategy, solver.getSelectionStrategy());
+			checkSolution(strategy.toString(), cnf, assumptions, solver.findSolution());
+		}
+
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		final int[] positiveSolution = solver.findSolution();
+		solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+		final int[] negativeSolution = solver.findSolution();
+		assertTrue(new LiteralSet(positiveSolution).countNegative() <= new LiteralSet(negativeSolution).countNegative());
+
+		solver.setSelectionStrategy(positiveSolution, true);
+		assertEquals(SelectionStrategy.FIXED, solver.getSelectionStrategy());
+		checkSolution("fixed", cnf, assumptions, solver.findSolution());
+
+		final List<LiteralSet> sample = new ArrayList<>();
+		sample.add(new LiteralSet(positiveSolution));
+		sample.add(new LiteralSet(negativeSolution));
+		solver.setSelectionStrategy(sample);
+		assertEquals(SelectionStrategy.UNIFORM_RANDOM, solver.getSelectionStrategy());
+		checkSolution("uniform", cnf, assumptions, solver.findSolution());
+
+		final CDCLSatSolver clone = solver.clone();
+		clone.setSelectionStrategy(SelectionStrategy.ORG);
+		checkSolution("clone", cnf, assumptions, clone.findSolution());
+	}
+
+	@Test
+	public void testAnalyses() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = loadCNF(modelName);
+			final List<LiteralSet> clauses = cnf.getClauses().subList(Math.max(0, cnf.getClauses().size() - 50), cnf.getClauses().size());
+
+			final LiteralSet expectedCore = LongRunningWrapper.runMethod(new CoreDeadAnalysis(cnf));
+			final List<LiteralSet> expectedAtomicSets = LongRunningWrapper.runMethod(new AtomicSetAnalysis(cnf));
+			final List<LiteralSet> expectedIndependent = LongRunningWrapper.runMethod(new IndependentRedundancyAnalysis(cnf, clauses));
+			final List<LiteralSet> expectedRemoved = LongRunningWrapper.runMethod(new RemoveRedundancyAnalysis(cnf, clauses));
+
+			final ISatSolverBackend defaultBackend = SatSolverBackends.getDefault();
+			SatSolverBackends.setDefault(CDCLSatSolverBackend.getInstance());
+			try {
+				assertEquals(modelName, expectedCore, LongRunningWrapper.runMethod(new CoreDeadAnalysis(cnf)));
+				assertEquals(modelName, getVariables(expectedAtomicSets), getVariables(LongRunningWrapper.runMethod(new AtomicSetAnalysis(cnf))));
+				assertEquals(modelName, expectedIndependent, LongRunningWrapper.runMethod(new IndependentRedundancyAnalysis(cnf, clauses)));
+				assertEquals(modelName, expectedRemoved, LongRunningWrapper.runMethod(new RemoveRedundancyAnalysis(cnf, clauses)));
+			} finally {
+				SatSolverBackends.setDefault(defaultBackend);
+			}
+
+			final CoreDeadAnalysis parallelAnalysis = new CoreDeadAnalysis(CDCLSatSolverBackend.getInstance().createSolver(cnf));
+			parallelAnalysis.setNumberOfThreads(4);
+			assertEquals(modelName, expectedCore, LongRunningWrapper.runMethod(parallelAnalysis));
+		}
+	}
+
+	@Test
+	public void testBackends() {
+		assertEquals(Sat4JSatSolverBackend.getInstance(), SatSolverBackends.getDefault());
+		assertEquals(CDCLSatSolverBackend.getInstance(), SatSolverBackends.getBackend(CDCLSatSolverBackend.NAME));
+		assertEquals(Sat4JSatSolverBackend.getInstance(), SatSolverBackends.getBackend(Sat4JSatSolverBackend.NAME));
+		assertArrayEquals(new Object[] { Sat4JSatSolverBackend.getInstance(), CDCLSatSolverBackend.getInstance() },
+				SatSolverBackends.getBackends().toArray());
+	}
+
+}
@@ -0,0 +1,232 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.SatSolver;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelElement;
+import de.ovgu.featureide.fm.core.explanations.Explanation;
+import de.ovgu.featureide.fm.core.explanations.Reason;
+
+/**
+ * Tests for {@link GroupMusExtractor} and the explanation of all anomalies of a feature model.
+ *
+ * @author FeatureIDE Team
+ */
+public class TGroupMusExtractor {
+
+	private static final String[] MODELS = { "car.xml", "false_optional_test.xml", "gpl_medium_model.xml" };
+
+	private static Variables createVariables(int numberOfVariables) {
+		final List<String> names = new ArrayList<>(numberOfVariables);
+		for (int i = 1; i <= numberOfVariables; i++) {
+			names.add("x" + i);
+		}
+		return new Variables(names);
+	}
+
+	private static List<List<LiteralSet>> createGroups(Random random, int numberOfVariables, int numberOfGroups) {
+		final List<List<LiteralSet>> groups = new ArrayList<>(numberOfGroups);
+		for (int i = 0; i < numberOfGroups; i++) {
+			final List<LiteralSet> group = new ArrayList<>();
+			final int numberOfClauses = 1 + random.nextInt(3);
+			for (int j = 0; j < numberOfClauses; j++) {
+				final int[] literals = new int[1 + random.nextInt(3)];
+				for (int k = 0; k < literals.length; k++) {
+					final int variable = 1 + random.nextInt(numberOfVariables);
+					literals[k] = random.nextBoolean() ? variable : -variable;
+				}
+				group.add(new LiteralSet(literals));
+			}
+			groups.add(group);
+		}
+		return groups;
+	}
+
+	private static SatResult hasSolution(Variables variables, List<List<LiteralSet>> groups, Set<Integer> selectedGroups, int[] assumptions) {
+		final List<LiteralSet> clauses = new ArrayList<>();
+		for (final Integer group : selectedGroups) {
+			clauses.addAll(groups.get(group));
+		}
+		final AdvancedSatSolver solver = new AdvancedSatSolver(new CNF(variables, clauses));
+		return solver.hasSolution(assumptions);
+	}
+
+	private static Set<Integer> toSet(int[] groups) {
+		final Set<Integer> set = new HashSet<>();
+		for (final int group : groups) {
+			set.add(group);
+		}
+		return set;
+	}
+
+	@Test
+	public void testRandomGroups() {
+		final Random random = new Random(42);
+		final int numberOfVariables = 12;
+		for (int i = 0; i < 50; i++) {
+			final Variables variables = createVariables(numberOfVariables);
+			final List<List<LiteralSet>> groups = createGroups(random, numberOfVariables, 30);
+			final GroupMusExtractor extractor = new GroupMusExtractor(new CNF(variables), groups);
+			assertEquals(groups.size(), extractor.getNumberOfGroups());
+
+			final Set<Integer> allGroups = new HashSet<>();
+			for (int j = 0; j < groups.size(); j++) {
+				allGroups.add(j);
+			}
+			for (int j = 0; j < 5; j++) {
+				final int variable = 1 + random.nextInt(numberOfVariables);
+				final int[] assumptions = j == 0 ? new int[0] : new int[] { random.nextBoolean() ? variable : -variable };
+				final int[] mus = extractor.getMinimalUnsatisfiableSubset(assumptions);
+				if (hasSolution(variables, groups, allGroups, assumptions) == SatResult.TRUE) {
+					assertNull(mus);
+				} else {
+					assertNotNull(mus);
+					final Set<Integer> musGroups = toSet(mus);
+					assertEquals(SatResult.FALSE, hasSolution(variables, groups, musGroups, assumptions));
+					for (final int group : mus) {
+						final Set<Integer> subset = new HashSet<>(musGroups);
+						subset.remove(group);
+						assertEquals(SatResult.TRUE, hasSolution(variables, groups, subset, assumptions));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testExcludedGroups() {
+		final Variables variables = createVariables(2);
+		final List<List<LiteralSet>> groups = new ArrayList<>();
+		for (final int[] clause : new int[][] { { 1 }, { -1 }, { 2 }, { -2, -1 }, { -2 } }) {
+			final List<LiteralSet> group = new ArrayList<>();
+			group.add(new LiteralSet(clause));
+			groups.add(group);
+		}
+		final GroupMusExtractor extractor = new GroupMusExtractor(new CNF(variables), groups);
+
+		final int[] mus = extractor.getMinimalUnsatisfiableSubset(new int[0], new int[] { 0 });
+		assertNotNull(mus);
+		assertFalse(toSet(mus).contains(0));
+		assertEquals(toSet(new int[] { 2, 4 }), toSet(mus));
+
+		assertNull(extractor.getMinimalUnsatisfiableSubset(new int[0], new int[] { 0, 4 }));
+		assertEquals(toSet(new int[] { 0, 2, 3 }), toSet(extractor.getMinimalUnsatisfiableSubset(new int[0], new int[] { 1, 4 })));
+	}
+
+	@Test
+	public void testHardClauses() {
+		final Variables variables = createVariables(3);
+		final List<List<LiteralSet>> groups = new ArrayList<>();
+		for (final int[] clause : new int[][] { { 1 }, { 2 } }) {
+			final List<LiteralSet> group = new ArrayList<>();
+			group.add(new LiteralSet(clause));
+			groups.add(group);
+		}
+		final GroupMusExtractor extractor = new GroupMusExtractor(new CNF(variables), groups);
+		assertNull(extractor.getMinimalUnsatisfiableSubset());
+
+		// Clause that is only active if variable 3 is assumed
+		final List<LiteralSet> clauses = new ArrayList<>();
+		clauses.add(new LiteralSet(-1, -2, -3));
+		extractor.addClauses(clauses);
+		assertNull(extractor.getMinimalUnsatisfiableSubset());
+		assertEquals(toSet(new int[] { 0, 1 }), toSet(extractor.getMinimalUnsatisfiableSubset(3)));
+
+		clauses.clear();
+		clauses.add(new LiteralSet(-2));
+		extractor.addClauses(clauses);
+		assertEquals(toSet(new int[] { 1 }), toSet(extractor.getMinimalUnsatisfiableSubset()));
+		extractor.removeLastClauses(1);
+		assertNull(extractor.getMinimalUnsatisfiableSubset());
+	}
+
+	private static boolean isUnsatisfiable(Node node) {
+		try {
+			return !new SatSolver(node, 1000).hasSolution();
+		} catch (final TimeoutException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Test
+	public void testFeatureModelAnomalies() {
+		for (final String modelName : MODELS) {
+			final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile(modelName);
+			final FeatureModelAnalyzer analyzer = new FeatureModelFormula(featureModel).getAnalyzer();
+			analyzer.analyzeFeatureModel(null);
+
+			final Map<IFeatureModelElement, Explanation<?>> explanations = analyzer.explainAnomalies(null);
+			final int numberOfAnomalies = analyzer.getDeadFeatures(null).size() + analyzer.getFalseOptionalFeatures(null).size()
+				+ analyzer.getRedundantConstraints(null).size();
+			assertEquals(modelName, numberOfAnomalies, explanations.size());
+
+			for (final Entry<IFeatureModelElement, Explanation<?>> entry : explanations.entrySet()) {
+				final Explanation<?> explanation = entry.getValue();
+				assertNotNull(modelName + ": " + entry.getKey(), explanation);
+				assertSame(modelName, explanation, analyzer.getExplanation(entry.getKey()));
+
+				// Explanation implies the anomaly and is minimal
+				final Node negatedImplication = new Not(explanation.getImplication());
+				assertTrue(modelName + ": " + explanation, isUnsatisfiable(new And(explanation.toNode(), negatedImplication)));
+				for (final Reason<?> omittedReason : explanation.getReasons()) {
+					final List<Node> nodes = new ArrayList<>();
+					for (final Reason<?> reason : explanation.getReasons()) {
+						if (reason != omittedReason) {
+							nodes.add(reason.toNode());
+						}
+					}
+					nodes.add(negatedImplication);
+					assertFalse(modelName + ": " + explanation, isUnsatisfiable(new And(nodes.toArray(new Node[nodes.size()]))));
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,221 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.SatSolverPoolCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationPropagator;
+import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the {@link SatSolverPool} and compares the results of pooled solvers with the results of new solvers.
+ *
+ * @author FeatureIDE Team
+ */
+public class TSatSolverPool {
+
+	private static final String[] MODELS = { "100-100.xml", "200-100-hidden.xml", "berkeley_db_model.xml" };
+
+	private static CNF loadCNF(String modelName) {
+		return new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName)).getCNF();
+	}
+
+	private static LiteralSet getRandomAssumptions(Random random, CNF cnf, int size) {
+		final int[] literals = new int[size];
+		for (int i = 0; i < literals.length; i++) {
+			final int var = random.nextInt(cnf.getVariables().size()) + 1;
+			literals[i] = random.nextBoolean() ? var : -var;
+		}
+		return new LiteralSet(literals);
+	}
+
+	@Test
+	public void testReuse() {
+		final SatSolverPool pool = new SatSolverPool(loadCNF(MODELS[0]), 1);
+		final AdvancedSatSolver solver1 = pool.acquire();
+		assertEquals(1, pool.getNumberOfActiveSolvers());
+		pool.release(solver1);
+		assertEquals(0, pool.getNumberOfActiveSolvers());
+		assertEquals(1, pool.getNumberOfIdleSolvers());
+
+		final AdvancedSatSolver solver2 = pool.acquire();
+		assertSame(solver1, solver2);
+		final AdvancedSatSolver solver3 = pool.acquire();
+		assertNotSame(solver2, solver3);
+		assertEquals(2, pool.getNumberOfCreatedSolvers());
+		assertEquals(1, pool.getNumberOfReusedSolvers());
+
+		pool.release(solver2);
+		pool.release(solver3);
+		assertEquals(1, pool.getNumberOfIdleSolvers());
+		assertEquals(1, pool.getNumberOfDiscardedSolvers());
+		assertEquals(0, pool.getNumberOfLeakedSolvers());
+	}
+
+	@Test
+	public void testDiscardModifiedSolver() {
+		final CNF cnf = loadCNF(MODELS[0]);
+		final SatSolverPool pool = new SatSolverPool(cnf);
+		final AdvancedSatSolver solver = pool.acquire();
+		solver.addClause(new LiteralSet(1));
+		pool.release(solver);
+		assertEquals(0, pool.getNumberOfIdleSolvers());
+		assertEquals(1, pool.getNumberOfDiscardedSolvers());
+		assertNotSame(solver, pool.acquire());
+	}
+
+	@Test
+	public void testInvalidRelease() {
+		final CNF cnf = loadCNF(MODELS[0]);
+		final SatSolverPool pool = new SatSolverPool(cnf);
+		final AdvancedSatSolver solver = pool.acquire();
+		pool.release(solver);
+		try {
+			pool.release(solver);
+			fail();
+		} catch (final IllegalStateException e) {}
+		try {
+			pool.release(new AdvancedSatSolver(cnf));
+			fail();
+		} catch (final IllegalArgumentException e) {}
+		try {
+			new SatSolverPool(cnf).release(pool.acquire());
+			fail();
+		} catch (final IllegalArgumentException e) {}
+	}
+
+	@Test
+	public void testLeakDetection() throws InterruptedException {
+		final SatSolverPool pool = new SatSolverPool(loadCNF(MODELS[0]));
+		pool.acquire();
+		for (int i = 0; (i < 50) && (pool.getNumberOfLeakedSolvers() == 0); i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertEquals(1, pool.getNumberOfLeakedSolvers());
+		assertEquals(0, pool.getNumberOfActiveSolvers());
+	}
+
+	@Test
+	public void testCleanState() {
+		final Random random = new Random(123);
+		for (final String modelName : MODELS) {
+			final CNF cnf = loadCNF(modelName);
+			final SatSolverPool pool = new SatSolverPool(cnf, 1);
+			final AdvancedSatSolver newSolver = new AdvancedSatSolver(cnf);
+			for (int i = 0; i < 20; i++) {
+				final AdvancedSatSolver solver = pool.acquire();
+				assertEquals(modelName, 0, solver.getAssignmentSize());
+				assertEquals(modelName, SelectionStrategy.ORG, solver.getSelectionStrategy());
+
+				final LiteralSet assumptions = getRandomAssumptions(random, cnf, 3);
+				newSolver.assignmentPushAll(assumptions.getLiterals());
+				solver.assignmentPushAll(assumptions.getLiterals());
+				assertEquals(modelName + ": " + assumptions, newSolver.hasSolution(), solver.hasSolution());
+				newSolver.assignmentClear(0);
+
+				final CoreDeadAnalysis analysis = new CoreDeadAnalysis(solver);
+				analysis.setAssumptions(assumptions);
+				final CoreDeadAnalysis newAnalysis = new CoreDeadAnalysis(cnf);
+				newAnalysis.setAssumptions(assumptions);
+				assertEquals(modelName + ": " + assumptions, LongRunningWrapper.runMethod(newAnalysis), LongRunningWrapper.runMethod(analysis));
+
+				solver.assignmentPushAll(assumptions.getLiterals());
+				solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+				solver.shuffleOrder(random);
+				solver.setTimeout(1);
+				pool.release(solver);
+			}
+			assertEquals(modelName, 1, pool.getNumberOfCreatedSolvers());
+			final AdvancedSatSolver solver = pool.acquire();
+			assertEquals(modelName, SatResult.TRUE, solver.hasSolution());
+			pool.release(solver);
+		}
+	}
+
+	@Test
+	public void testPropagation() {
+		final Random random = new Random(321);
+		for (final String modelName : MODELS) {
+			final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName));
+			final CNF cnf = formula.getCNF();
+			final Configuration configuration = new Configuration(formula);
+			final ConfigurationPropagator propagator = new ConfigurationPropagator(formula, configuration);
+			final List<SelectableFeature> features = new ArrayList<>(configuration.getFeatures());
+			for (int i = 0; i < 10; i++) {
+				final SelectableFeature feature = features.get(random.nextInt(features.size()));
+				if (feature.getAutomatic() == Selection.UNDEFINED) {
+					configuration.setManual(feature, random.nextBoolean() ? Selection.SELECTED : Selection.UNSELECTED);
+				}
+				LongRunningWrapper.runMethod(propagator.update());
+
+				final List<Integer> manualLiterals = new ArrayList<>();
+				for (final SelectableFeature selectableFeature : configuration.getFeatures()) {
+					if (selectableFeature.getManual() != Selection.UNDEFINED) {
+						manualLiterals.add(cnf.getVariables().getVariable(selectableFeature.getName(), selectableFeature.getManual() == Selection.SELECTED));
+					}
+				}
+				final int[] literals = new int[manualLiterals.size()];
+				for (int j = 0; j < literals.length; j++) {
+					literals[j] = manualLiterals.get(j);
+				}
+				final CoreDeadAnalysis analysis = new CoreDeadAnalysis(cnf);
+				analysis.setAssumptions(new LiteralSet(literals));
+				final LiteralSet expectedLiterals = LongRunningWrapper.runMethod(analysis);
+				if (expectedLiterals != null) {
+					for (final int literal : expectedLiterals.getLiterals()) {
+						final SelectableFeature selectableFeature = configuration.getSelectableFeature(cnf.getVariables().getName(literal));
+						assertEquals(modelName + ": " + selectableFeature.getName(), literal > 0 ? Selection.SELECTED : Selection.UNSELECTED,
+								selectableFeature.getSelection());
+					}
+				}
+				assertEquals(modelName, expectedLiterals != null, LongRunningWrapper.runMethod(propagator.new IsValidMethod(false, true)));
+			}
+			final SatSolverPool pool = formula.getElement(new SatSolverPoolCreator());
+			assertNotNull(modelName, pool);
+			assertEquals(modelName, 0, pool.getNumberOfActiveSolvers());
+			assertEquals(modelName, 1, pool.getNumberOfCreatedSolvers());
+			assertEquals(modelName, 19, pool.getNumberOfReusedSolvers());
+		}
+	}
+
+}
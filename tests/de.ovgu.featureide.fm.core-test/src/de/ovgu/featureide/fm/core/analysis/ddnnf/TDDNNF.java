@@ -0,0 +1,122 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.ddnnf;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.DDNNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AllConfigurationGenerator;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compares the results of a compiled {@link DDNNF} with an enumeration of all solutions.
+ *
+ * @author FeatureIDE Team
+ */
+public class TDDNNF {
+
+	private static final String[] MODELS = { "10-100.xml", "20-100.xml", "20-100-hidden.xml", "issue_264_model_alternative.xml", "issue_264_model_optional.xml" };
+
+	@Test
+	public void testCountSolutions() {
+		for (final String modelName : MODELS) {
+			final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName));
+			final DDNNF ddnnf = formula.getElement(new DDNNFCreator());
+			final List<LiteralSet> solutions = LongRunningWrapper.runMethod(new AllConfigurationGenerator(formula.getCNF()));
+			assertEquals(modelName, BigInteger.valueOf(solutions.size()), ddnnf.countSolutions());
+		}
+	}
+
+	@Test
+	public void testCountSolutionsWithAssumptions() {
+		for (final String modelName : MODELS) {
+			final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName));
+			final CNF cnf = formula.getCNF();
+			final DDNNF ddnnf = formula.getElement(new DDNNFCreator());
+			final List<LiteralSet> solutions = LongRunningWrapper.runMethod(new AllConfigurationGenerator(cnf));
+			for (int var = 1; var <= cnf.getVariables().size(); var++) {
+				final LiteralSet assumption = new LiteralSet(-var);
+				final long expected = solutions.stream().filter(solution -> solution.containsAll(assumption)).count();
+				assertEquals(modelName, BigInteger.valueOf(expected), ddnnf.countSolutions(assumption));
+			}
+		}
+	}
+
+	@Test
+	public void testCountVariableSolutions() {
+		for (final String modelName : MODELS) {
+			final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName));
+			final CNF cnf = formula.getCNF();
+			final DDNNF ddnnf = formula.getElement(new DDNNFCreator());
+			final List<LiteralSet> solutions = LongRunningWrapper.runMethod(new AllConfigurationGenerator(cnf));
+			final BigInteger[] variableSolutions = ddnnf.countVariableSolutions(null);
+			for (int var = 1; var <= cnf.getVariables().size(); var++) {
+				final LiteralSet assumption = new LiteralSet(var);
+				final long expected = solutions.stream().filter(solution -> solution.containsAll(assumption)).count();
+				assertEquals(modelName + ": " + cnf.getVariables().getName(var), BigInteger.valueOf(expected), variableSolutions[var]);
+			}
+		}
+	}
+
+	/**
+	 * Compiles a chain of clauses that requires one decision level per variable in a thread with a small stack.
+	 */
+	@Test
+	public void testDeepCompilation() throws Exception {
+		final int numberOfVariables = 2000;
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= numberOfVariables; i++) {
+			names.add("x" + i);
+		}
+		// No three consecutive variables are deselected
+		final CNF cnf = new CNF(new Variables(names));
+		for (int i = 1; i <= (numberOfVariables - 2); i++) {
+			cnf.addClause(new LiteralSet(i, i + 1, i + 2));
+		}
+
+		final AtomicReference<DDNNF> ddnnf = new AtomicReference<>();
+		final Thread thread = new Thread(null, () -> ddnnf.set(LongRunningWrapper.runMethod(new DDNNFBuilder(cnf))), "DDNNFBuilder", 1 << 16);
+		thread.start();
+		thread.join();
+
+		BigInteger a = BigInteger.ONE, b = BigInteger.valueOf(2), c = BigInteger.valueOf(4);
+		for (int i = 3; i <= numberOfVariables; i++) {
+			final BigInteger d = a.add(b).add(c);
+			a = b;
+			b = c;
+			c = d;
+		}
+		assertEquals(c, ddnnf.get().countSolutions());
+	}
+
+}
@@ -0,0 +1,158 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.MIGPropagatorCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SatSolverPool;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link MIGPropagator}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TMIGPropagator {
+
+	private static final String[] MODELS = { "100-100.xml", "200-100-hidden.xml", "berkeley_db_model.xml" };
+
+	private static int[] toArray(List<Integer> literals) {
+		final int[] array = new int[literals.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = literals.get(i);
+		}
+		return array;
+	}
+
+	private static int[] sort(LiteralSet literalSet) {
+		final int[] literals = Arrays.copyOf(literalSet.getLiterals(), literalSet.size());
+		Arrays.sort(literals);
+		return literals;
+	}
+
+	/**
+	 * Selects and deselects random features and compares the result of each propagation with a {@link CoreDeadAnalysis}.
+	 */
+	@Test
+	public void testRandomSelections() {
+		final Random random = new Random(123);
+		for (final String modelName : MODELS) {
+			final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName));
+			final CNF cnf = formula.getCNF();
+			final MIGPropagator propagator = formula.getElement(new MIGPropagatorCreator());
+			assertNotNull(modelName, propagator);
+			assertSame(modelName, propagator, formula.getElement(new MIGPropagatorCreator()));
+
+			final List<Integer> assumptions = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				if (!assumptions.isEmpty() && (random.nextInt(4) == 0)) {
+					assumptions.remove(random.nextInt(assumptions.size()));
+				} else {
+					final int var = 1 + random.nextInt(cnf.getVariables().size());
+					if (!assumptions.contains(var) && !assumptions.contains(-var)) {
+						assumptions.add(random.nextBoolean() ? var : -var);
+					}
+				}
+				final int[] literals = toArray(assumptions);
+				final LiteralSet impliedLiterals = propagator.propagate(literals);
+
+				final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+				solver.assignmentPushAll(literals);
+				if (solver.hasSolution() == SatResult.FALSE) {
+					assertNull(modelName, impliedLiterals);
+					// Undo the contradictory selection
+					assumptions.remove(assumptions.size() - 1);
+				} else {
+					final CoreDeadAnalysis analysis = new CoreDeadAnalysis(cnf);
+					analysis.setAssumptions(new LiteralSet(literals));
+					final LiteralSet expectedLiterals = LongRunningWrapper.runMethod(analysis);
+					assertNotNull(modelName, impliedLiterals);
+					assertArrayEquals(modelName + " " + assumptions, sort(expectedLiterals), sort(impliedLiterals));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCoreDead() {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml"));
+		final MIGPropagator propagator = formula.getElement(new MIGPropagatorCreator());
+		final LiteralSet expectedLiterals = LongRunningWrapper.runMethod(new CoreDeadAnalysis(formula.getCNF()));
+		assertArrayEquals(sort(expectedLiterals), sort(propagator.propagate()));
+
+		// Propagating the same assumptions again does not require the solver
+		final long numberOfSolverCalls = propagator.getNumberOfSolverCalls();
+		assertArrayEquals(sort(expectedLiterals), sort(propagator.propagate()));
+		assertEquals(numberOfSolverCalls, propagator.getNumberOfSolverCalls());
+	}
+
+	@Test
+	public void testContradictoryAssumptions() {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml"));
+		final MIGPropagator propagator = formula.getElement(new MIGPropagatorCreator());
+		assertNull(propagator.propagate(2, -2));
+		final LiteralSet coreDead = propagator.propagate();
+		assertNotNull(coreDead);
+		if (coreDead.size() > 0) {
+			assertNull(propagator.propagate(-coreDead.getLiterals()[0]));
+		}
+	}
+
+	/**
+	 * Assumptions that contradict each other via the graph are detected, even if neither of them was assumed before.
+	 */
+	@Test
+	public void testContradictoryImpliedAssumptions() {
+		// A => !B, B => C
+		final CNF cnf = new CNF(new Variables(Arrays.asList("A", "B", "C")));
+		cnf.addClause(new LiteralSet(-1, -2));
+		cnf.addClause(new LiteralSet(-2, 3));
+		final ModalImplicationGraph mig = LongRunningWrapper.runMethod(new MIGBuilder(cnf, false));
+		final MIGPropagator propagator = new MIGPropagator(mig, new SatSolverPool(cnf));
+
+		assertNull(propagator.propagate(1, 2));
+		assertNull(propagator.propagate(1, 2));
+		assertArrayEquals(new int[] { -2 }, sort(propagator.propagate(1)));
+		assertNull(propagator.propagate(1, 2));
+		assertArrayEquals(new int[] { -1, 3 }, sort(propagator.propagate(2)));
+	}
+
+}
@@ -0,0 +1,154 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ModalImplicationGraphCreator;
+
+/**
+ * Tests adding and removing clauses to and from a {@link ModalImplicationGraph}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TModalImplicationGraph {
+
+	private static ModalImplicationGraph loadMIG() {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml"));
+		return formula.getElement(new ModalImplicationGraphCreator());
+	}
+
+	private static int[] getSortedStrongEdges(Vertex vertex) {
+		final int[] strongEdges = Arrays.copyOf(vertex.getStrongEdges(), vertex.getStrongEdges().length);
+		Arrays.sort(strongEdges);
+		return strongEdges;
+	}
+
+	private static void assertEqualGraphs(ModalImplicationGraph expected, ModalImplicationGraph actual) {
+		assertEquals(expected.getComplexClauses(), actual.getComplexClauses());
+		assertEquals(expected.getAdjList().size(), actual.getAdjList().size());
+		for (int i = 0; i < expected.getAdjList().size(); i++) {
+			final Vertex expectedVertex = expected.getAdjList().get(i);
+			final Vertex actualVertex = actual.getAdjList().get(i);
+			assertEquals(expectedVertex.isCore(), actualVertex.isCore());
+			assertEquals(expectedVertex.isDead(), actualVertex.isDead());
+			assertArrayEquals(getSortedStrongEdges(expectedVertex), getSortedStrongEdges(actualVertex));
+			assertArrayEquals(expectedVertex.getComplexClauses(), actualVertex.getComplexClauses());
+		}
+	}
+
+	private static int getFreeVariable(ModalImplicationGraph mig, int start) {
+		for (int var = start; var <= (mig.getAdjList().size() >> 1); var++) {
+			if (!mig.getVertex(var).isCore() && !mig.getVertex(var).isDead()) {
+				return var;
+			}
+		}
+		throw new AssertionError();
+	}
+
+	@Test
+	public void testAddAndRemoveComplexClause() {
+		final ModalImplicationGraph mig = loadMIG();
+		final ModalImplicationGraph copy = new ModalImplicationGraph(mig);
+		final int a = getFreeVariable(mig, 1);
+		final int b = getFreeVariable(mig, a + 1);
+		final int c = getFreeVariable(mig, b + 1);
+
+		final LiteralSet clause = new LiteralSet(-a, b, c);
+		copy.addClause(clause);
+		assertEquals(mig.getComplexClauses().size() + 1, copy.getComplexClauses().size());
+		assertEquals(mig.getVertex(a).getComplexClauses().length + 1, copy.getVertex(a).getComplexClauses().length);
+		assertEquals(mig.getVertex(-b).getComplexClauses().length + 1, copy.getVertex(-b).getComplexClauses().length);
+
+		copy.removeClause(clause);
+		assertEqualGraphs(mig, copy);
+
+		if (!mig.getComplexClauses().isEmpty()) {
+			// Removing the first clause moves the indices of all other clauses
+			final LiteralSet firstClause = mig.getComplexClauses().get(0);
+			copy.removeClause(firstClause);
+			copy.addClause(firstClause);
+			assertEquals(mig.getComplexClauses().size(), copy.getComplexClauses().size());
+			for (final Vertex vertex : copy.getAdjList()) {
+				for (final int index : vertex.getComplexClauses()) {
+					assertEquals(true, copy.getComplexClauses().get(index).containsLiteral(-vertex.getVar()));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testAddAndRemoveUnitClause() {
+		final ModalImplicationGraph mig = loadMIG();
+		final ModalImplicationGraph copy = new ModalImplicationGraph(mig);
+		final int a = getFreeVariable(mig, 1);
+
+		copy.addClause(new LiteralSet(-a));
+		assertEquals(true, copy.getVertex(-a).isCore());
+		assertEquals(true, copy.getVertex(a).isDead());
+		assertEquals(false, mig.getVertex(-a).isCore());
+
+		copy.removeClause(new LiteralSet(-a));
+		assertEqualGraphs(mig, copy);
+	}
+
+	@Test
+	public void testAddStrongEdge() {
+		final ModalImplicationGraph mig = loadMIG();
+		final ModalImplicationGraph copy = new ModalImplicationGraph(mig);
+		final int a = getFreeVariable(mig, 1);
+		final int b = getFreeVariable(mig, a + 1);
+
+		// a implies b and, thus, everything that is implied by b
+		copy.addClause(new LiteralSet(-a, b));
+		assertEquals(true, contains(copy.getVertex(a).getStrongEdges(), b));
+		assertEquals(true, contains(copy.getVertex(-b).getStrongEdges(), -a));
+		for (final int literal : mig.getVertex(b).getStrongEdges()) {
+			if (literal != -a) {
+				assertEquals(true, contains(copy.getVertex(a).getStrongEdges(), literal));
+				assertEquals(true, contains(copy.getVertex(-literal).getStrongEdges(), -a));
+			}
+		}
+		assertEquals(mig.getVertex(-a).getStrongEdges().length, copy.getVertex(-a).getStrongEdges().length);
+
+		copy.removeClause(new LiteralSet(-a, b));
+		assertEquals(contains(mig.getVertex(a).getStrongEdges(), b), contains(copy.getVertex(a).getStrongEdges(), b));
+		assertEquals(contains(mig.getVertex(-b).getStrongEdges(), -a), contains(copy.getVertex(-b).getStrongEdges(), -a));
+	}
+
+	private static boolean contains(int[] literals, int literal) {
+		for (final int l : literals) {
+			if (l == literal) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
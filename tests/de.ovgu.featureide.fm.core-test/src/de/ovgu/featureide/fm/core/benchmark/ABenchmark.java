@@ -0,0 +1,75 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Abstract benchmark for a single operation on a feature model.<br> <br> For each model, the {@link BenchmarkRunner} calls {@link #setUp(BenchmarkModel)}
+ * once, then measures the time of repeated calls of {@link #run()}, and finally calls {@link #tearDown()}. Thus, {@link #run()} must not depend on the
+ * state left by a previous call.
+ *
+ * @author FeatureIDE Team
+ */
+public abstract class ABenchmark {
+
+	private final String name;
+
+	protected ABenchmark(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return additional parameters of this benchmark (e.g., the value of t for t-wise sampling).
+	 */
+	public Map<String, String> getParameters() {
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * Prepares the operation for the given model. The time of this method is not measured.
+	 *
+	 * @param model the model
+	 * @throws Exception if the benchmark cannot be executed for the model
+	 */
+	public void setUp(BenchmarkModel model) throws Exception {}
+
+	/**
+	 * Executes the operation once.
+	 *
+	 * @return the result of the operation, which is consumed by the runner to prevent dead code elimination.
+	 * @throws Exception if the operation fails
+	 */
+	public abstract Object run() throws Exception;
+
+	public void tearDown() throws Exception {}
+
+	@Override
+	public String toString() {
+		return getParameters().isEmpty() ? name : name + getParameters();
+	}
+
+}
@@ -0,0 +1,179 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+
+/**
+ * A feature model that is used as input of a {@link ABenchmark}.
+ *
+ * @author FeatureIDE Team
+ */
+public class BenchmarkModel {
+
+	/**
+	 * Loads a model from a file.
+	 *
+	 * @param name the name of the model in the benchmark results
+	 * @param file the model file
+	 * @return the model or {@code null} if the file could not be loaded.
+	 */
+	public static BenchmarkModel load(String name, Path file) {
+		final IFeatureModel featureModel = FeatureModelManager.load(file);
+		return featureModel == null ? null : new BenchmarkModel(name, featureModel);
+	}
+
+	private static final int MAX_CHILDREN = 6;
+
+	/**
+	 * Generates a random, valid model. Each inner feature is abstract and has between 1 and {@value #MAX_CHILDREN} children, which form an and-group (with
+	 * optional and mandatory features), an or-group, or an alternative-group. The number of constraints is a tenth of the number of features. Each constraint
+	 * is either a requires, an excludes, or an implication of a disjunction of two features. Constraints that would make the model void are skipped.
+	 *
+	 * @param seed the seed for the generator
+	 * @param numberOfFeatures the number of features
+	 * @return the model
+	 */
+	public static BenchmarkModel generate(long seed, int numberOfFeatures) {
+		final Random random = new Random(seed);
+		final IFeatureModelFactory factory = DefaultFeatureModelFactory.getInstance();
+		final IFeatureModel featureModel = factory.create();
+
+		final List<IFeature> features = new ArrayList<>(numberOfFeatures);
+		final IFeature root = factory.createFeature(featureModel, "F0");
+		featureModel.addFeature(root);
+		featureModel.getStructure().setRoot(root.getStructure());
+		features.add(root);
+
+		final List<IFeature> leaves = new ArrayList<>();
+		leaves.add(root);
+		while (features.size() < numberOfFeatures) {
+			final IFeature parent = leaves.remove(random.nextInt(leaves.size()));
+			final IFeatureStructure parentStructure = parent.getStructure();
+			parentStructure.setAbstract(true);
+			final int numberOfChildren = Math.min(random.nextInt(MAX_CHILDREN) + 1, numberOfFeatures - features.size());
+			for (int i = 0; i < numberOfChildren; i++) {
+				final IFeature child = factory.createFeature(featureModel, "F" + features.size());
+				featureModel.addFeature(child);
+				parentStructure.addChild(child.getStructure());
+				features.add(child);
+				leaves.add(child);
+			}
+			switch (numberOfChildren > 1 ? random.nextInt(3) : 0) {
+			case 0:
+				parentStructure.changeToAnd();
+				for (final IFeatureStructure child : parentStructure.getChildren()) {
+					child.setMandatory(random.nextInt(4) == 0);
+				}
+				break;
+			case 1:
+				parentStructure.changeToOr();
+				break;
+			default:
+				parentStructure.changeToAlternative();
+				break;
+			}
+		}
+
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+		formula.setArtifactCache(null);
+		final CNF cnf = formula.getCNF();
+		final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+		final int numberOfConstraints = numberOfFeatures / 10;
+		for (int i = 0, attempts = 0; (i < numberOfConstraints) && (attempts < (numberOfConstraints * 10)); attempts++) {
+			final Literal literal1 = new Literal(features.get(random.nextInt(features.size())).getName());
+			final Literal literal2 = new Literal(features.get(random.nextInt(features.size())).getName(), random.nextBoolean());
+			final Node node;
+			if (random.nextInt(3) == 0) {
+				node = new Implies(literal1, new Or(literal2, new Literal(features.get(random.nextInt(features.size())).getName())));
+			} else {
+				node = new Implies(literal1, literal2);
+			}
+			final List<LiteralSet> clauses = Nodes.convert(cnf.getVariables(), node);
+			int addedClauses = 0;
+			try {
+				for (final LiteralSet clause : clauses) {
+					solver.addClause(clause);
+					addedClauses++;
+				}
+				if (solver.hasSolution() == SatResult.TRUE) {
+					featureModel.addConstraint(factory.createConstraint(featureModel, node));
+					i++;
+					continue;
+				}
+			} catch (final RuntimeContradictionException e) {}
+			solver.removeLastClauses(addedClauses);
+		}
+		return new BenchmarkModel("generated-" + numberOfFeatures + "-" + seed, featureModel);
+	}
+
+	private final String name;
+	private final IFeatureModel featureModel;
+
+	public BenchmarkModel(String name, IFeatureModel featureModel) {
+		this.name = name;
+		this.featureModel = featureModel;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public IFeatureModel getFeatureModel() {
+		return featureModel;
+	}
+
+	public int getNumberOfFeatures() {
+		return featureModel.getNumberOfFeatures();
+	}
+
+	public int getNumberOfConstraints() {
+		return featureModel.getConstraintCount();
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+}
@@ -0,0 +1,100 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.Map;
+
+/**
+ * The measured times of one {@link ABenchmark benchmark} for one {@link BenchmarkModel model}.
+ *
+ * @author FeatureIDE Team
+ */
+public class BenchmarkResult {
+
+	private final String benchmark;
+	private final Map<String, String> parameters;
+	private final double[] scores;
+	private final String error;
+
+	/**
+	 * @param benchmark the name of the benchmark
+	 * @param parameters the parameters including the model
+	 * @param scores the average time per operation in each measurement iteration in milliseconds
+	 * @param error the message of the exception that stopped the benchmark or {@code null}
+	 */
+	public BenchmarkResult(String benchmark, Map<String, String> parameters, double[] scores, String error) {
+		this.benchmark = benchmark;
+		this.parameters = parameters;
+		this.scores = scores;
+		this.error = error;
+	}
+
+	public String getBenchmark() {
+		return benchmark;
+	}
+
+	public Map<String, String> getParameters() {
+		return parameters;
+	}
+
+	public double[] getScores() {
+		return scores;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * @return the mean time per operation in milliseconds or {@link Double#NaN} if there are no measurements.
+	 */
+	public double getScore() {
+		if (scores.length == 0) {
+			return Double.NaN;
+		}
+		double sum = 0;
+		for (final double score : scores) {
+			sum += score;
+		}
+		return sum / scores.length;
+	}
+
+	/**
+	 * @return the standard deviation of the measurements in milliseconds or {@link Double#NaN} if there are less than two measurements.
+	 */
+	public double getScoreError() {
+		if (scores.length < 2) {
+			return Double.NaN;
+		}
+		final double mean = getScore();
+		double sum = 0;
+		for (final double score : scores) {
+			sum += (score - mean) * (score - mean);
+		}
+		return Math.sqrt(sum / (scores.length - 1));
+	}
+
+	@Override
+	public String toString() {
+		return benchmark + parameters + ": " + (error != null ? error : String.format("%.3f ms/op", getScore()));
+	}
+
+}
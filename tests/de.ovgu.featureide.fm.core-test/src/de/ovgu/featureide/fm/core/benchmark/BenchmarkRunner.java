@@ -0,0 +1,416 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Pattern;
+
+import de.ovgu.featureide.fm.core.init.FMCoreLibrary;
+import de.ovgu.featureide.fm.core.init.LibraryManager;
+
+/**
+ * Measures the average time per operation of {@link ABenchmark benchmarks} for several {@link BenchmarkModel models}.<br> <br> Each benchmark is executed
+ * for a number of warm-up iterations and measurement iterations. In each iteration, the operation is repeated until the iteration time has elapsed. The
+ * results can be written as CSV or as JSON. The JSON output uses the layout of JMH result files (with the standard deviation as score error), such that it
+ * can be processed by the same tools.<br> <br> Usage (from the directory of the test plug-in):
+ *
+ * <pre>
+ * java de.ovgu.featureide.fm.core.benchmark.BenchmarkRunner [options]
+ *   -modelDir &lt;dir&gt;        directory with models (default: ../../featuremodels)
+ *   -models &lt;regex&gt;        only models whose names match (default: all)
+ *   -generated &lt;n,n,...&gt;   sizes of additional generated models (default: 1000,2000)
+ *   -seed &lt;long&gt;           seed for generated models (default: 0)
+ *   -include &lt;regex&gt;       only benchmarks whose names match (default: all)
+ *   -exclude &lt;regex&gt;       skip benchmarks whose names match
+ *   -warmup &lt;n&gt;            number of warm-up iterations (default: 2)
+ *   -iterations &lt;n&gt;        number of measurement iterations (default: 5)
+ *   -time &lt;ms&gt;             minimum time of each iteration (default: 1000)
+ *   -format json|csv        output format (default: json)
+ *   -output &lt;file&gt;         output file (default: standard output)
+ * </pre>
+ *
+ * @author FeatureIDE Team
+ *
+ * @see FMCoreBenchmarks
+ */
+public class BenchmarkRunner {
+
+	private static volatile int sink;
+
+	private int warmupIterations = 2;
+	private int measurementIterations = 5;
+	private long iterationTime = 1000;
+	private Pattern include = null;
+	private Pattern exclude = null;
+
+	public int getWarmupIterations() {
+		return warmupIterations;
+	}
+
+	public void setWarmupIterations(int warmupIterations) {
+		this.warmupIterations = warmupIterations;
+	}
+
+	public int getMeasurementIterations() {
+		return measurementIterations;
+	}
+
+	public void setMeasurementIterations(int measurementIterations) {
+		this.measurementIterations = measurementIterations;
+	}
+
+	public long getIterationTime() {
+		return iterationTime;
+	}
+
+	/**
+	 * Sets the minimum time of each iteration. If the time is zero, the operation is executed exactly once per iteration.
+	 *
+	 * @param iterationTime the time in milliseconds
+	 */
+	public void setIterationTime(long iterationTime) {
+		this.iterationTime = iterationTime;
+	}
+
+	public void setInclude(Pattern include) {
+		this.include = include;
+	}
+
+	public void setExclude(Pattern exclude) {
+		this.exclude = exclude;
+	}
+
+	private boolean isSelected(ABenchmark benchmark) {
+		final String name = benchmark.getName();
+		return ((include == null) || include.matcher(name).find()) && ((exclude == null) || !exclude.matcher(name).find());
+	}
+
+	/**
+	 * Runs all selected benchmarks for all models. A benchmark that throws an exception is stopped for the current model and the exception is recorded in its
+	 * result.
+	 *
+	 * @param benchmarks the benchmarks
+	 * @param models the models
+	 * @return the results in the order of execution
+	 */
+	public List<BenchmarkResult> run(List<ABenchmark> benchmarks, List<BenchmarkModel> models) {
+		final List<BenchmarkResult> results = new ArrayList<>();
+		for (final BenchmarkModel model : models) {
+			for (final ABenchmark benchmark : benchmarks) {
+				if (isSelected(benchmark)) {
+					System.err.println("Running " + benchmark + " on " + model);
+					final BenchmarkResult result = run(benchmark, model);
+					System.err.println("\t" + result);
+					results.add(result);
+				}
+			}
+		}
+		return results;
+	}
+
+	private BenchmarkResult run(ABenchmark benchmark, BenchmarkModel model) {
+		final Map<String, String> parameters = new LinkedHashMap<>();
+		parameters.put("model", model.getName());
+		parameters.put("features", Integer.toString(model.getNumberOfFeatures()));
+		parameters.put("constraints", Integer.toString(model.getNumberOfConstraints()));
+		parameters.putAll(benchmark.getParameters());
+
+		final double[] scores = new double[measurementIterations];
+		String error = null;
+		try {
+			benchmark.setUp(model);
+			try {
+				for (int i = 0; i < warmupIterations; i++) {
+					measure(benchmark);
+				}
+				for (int i = 0; i < measurementIterations; i++) {
+					scores[i] = measure(benchmark);
+				}
+			} finally {
+				benchmark.tearDown();
+			}
+		} catch (final Exception | StackOverflowError | OutOfMemoryError e) {
+			error = e.toString();
+		}
+		return new BenchmarkResult(benchmark.getName(), parameters, error == null ? scores : new double[0], error);
+	}
+
+	private double measure(ABenchmark benchmark) throws Exception {
+		final long minTime = iterationTime * 1_000_000L;
+		final long start = System.nanoTime();
+		long operations = 0;
+		long elapsedTime;
+		do {
+			final Object result = benchmark.run();
+			sink += System.identityHashCode(result);
+			operations++;
+			elapsedTime = System.nanoTime() - start;
+		} while (elapsedTime < minTime);
+		return elapsedTime / (operations * 1_000_000.0);
+	}
+
+	public static void writeCSV(List<BenchmarkResult> results, Appendable out) throws IOException {
+		out.append("benchmark,model,features,constraints,parameters,score,scoreError,unit,rawData,error\n");
+		for (final BenchmarkResult result : results) {
+			final Map<String, String> parameters = new LinkedHashMap<>(result.getParameters());
+			out.append(escapeCSV(result.getBenchmark())).append(',');
+			out.append(escapeCSV(parameters.remove("model"))).append(',');
+			out.append(escapeCSV(parameters.remove("features"))).append(',');
+			out.append(escapeCSV(parameters.remove("constraints"))).append(',');
+			final StringBuilder otherParameters = new StringBuilder();
+			for (final Entry<String, String> entry : parameters.entrySet()) {
+				if (otherParameters.length() > 0) {
+					otherParameters.append(';');
+				}
+				otherParameters.append(entry.getKey()).append('=').append(entry.getValue());
+			}
+			out.append(escapeCSV(otherParameters.toString())).append(',');
+			out.append(formatNumber(result.getScore())).append(',');
+			out.append(formatNumber(result.getScoreError())).append(',');
+			out.append("ms/op,");
+			final StringBuilder rawData = new StringBuilder();
+			for (final double score : result.getScores()) {
+				if (rawData.length() > 0) {
+					rawData.append(';');
+				}
+				rawData.append(formatNumber(score));
+			}
+			out.append(rawData).append(',');
+			out.append(escapeCSV(result.getError())).append('\n');
+		}
+	}
+
+	public void writeJSON(List<BenchmarkResult> results, Appendable out) throws IOException {
+		out.append("[\n");
+		for (int i = 0; i < results.size(); i++) {
+			final BenchmarkResult result = results.get(i);
+			out.append("  {\n");
+			out.append("    \"benchmark\" : ").append(escapeJSON(result.getBenchmark())).append(",\n");
+			out.append("    \"mode\" : \"avgt\",\n");
+			out.append("    \"threads\" : 1,\n");
+			out.append("    \"forks\" : 0,\n");
+			out.append("    \"warmupIterations\" : ").append(Integer.toString(warmupIterations)).append(",\n");
+			out.append("    \"warmupTime\" : \"").append(Long.toString(iterationTime)).append(" ms\",\n");
+			out.append("    \"measurementIterations\" : ").append(Integer.toString(measurementIterations)).append(",\n");
+			out.append("    \"measurementTime\" : \"").append(Long.toString(iterationTime)).append(" ms\",\n");
+			out.append("    \"params\" : {\n");
+			int j = 0;
+			for (final Entry<String, String> entry : result.getParameters().entrySet()) {
+				out.append("      ").append(escapeJSON(entry.getKey())).append(" : ").append(escapeJSON(entry.getValue()));
+				out.append(++j < result.getParameters().size() ? ",\n" : "\n");
+			}
+			out.append("    },\n");
+			if (result.getError() != null) {
+				out.append("    \"error\" : ").append(escapeJSON(result.getError())).append(",\n");
+			}
+			out.append("    \"primaryMetric\" : {\n");
+			out.append("      \"score\" : ").append(formatJSONNumber(result.getScore())).append(",\n");
+			out.append("      \"scoreError\" : ").append(formatJSONNumber(result.getScoreError())).append(",\n");
+			out.append("      \"scoreUnit\" : \"ms/op\",\n");
+			out.append("      \"rawData\" : [ [");
+			final double[] scores = result.getScores();
+			for (int k = 0; k < scores.length; k++) {
+				out.append(k == 0 ? " " : ", ").append(formatNumber(scores[k]));
+			}
+			out.append(" ] ]\n");
+			out.append("    }\n");
+			out.append(i < (results.size() - 1) ? "  },\n" : "  }\n");
+		}
+		out.append("]\n");
+	}
+
+	private static String formatNumber(double number) {
+		return Double.isNaN(number) ? "" : String.format(Locale.ENGLISH, "%.6f", number);
+	}
+
+	private static String formatJSONNumber(double number) {
+		return Double.isNaN(number) ? "\"NaN\"" : formatNumber(number);
+	}
+
+	private static String escapeCSV(String value) {
+		if (value == null) {
+			return "";
+		}
+		if ((value.indexOf(',') >= 0) || (value.indexOf('"') >= 0) || (value.indexOf('\n') >= 0)) {
+			return '"' + value.replace("\"", "\"\"") + '"';
+		}
+		return value;
+	}
+
+	private static String escapeJSON(String value) {
+		final StringBuilder sb = new StringBuilder(value.length() + 2);
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+				break;
+			}
+		}
+		return sb.append('"').toString();
+	}
+
+	/**
+	 * Loads all models in the given directory. A model is either an XML file within the directory or a file named {@code model.xml} within a subdirectory.
+	 *
+	 * @param directory the directory
+	 * @param filter only models whose names match are loaded (may be {@code null})
+	 * @return the models sorted by name
+	 */
+	public static List<BenchmarkModel> loadModels(Path directory, Pattern filter) {
+		final List<BenchmarkModel> models = new ArrayList<>();
+		final File[] files = directory.toFile().listFiles();
+		if (files == null) {
+			System.err.println("Model directory not found: " + directory);
+			return models;
+		}
+		Arrays.sort(files);
+		for (final File file : files) {
+			final Path modelFile;
+			if (file.isDirectory()) {
+				modelFile = file.toPath().resolve("model.xml");
+			} else if (file.getName().endsWith(".xml")) {
+				modelFile = file.toPath();
+			} else {
+				continue;
+			}
+			final String name = file.getName();
+			if (Files.isRegularFile(modelFile) && ((filter == null) || filter.matcher(name).find())) {
+				final BenchmarkModel model = BenchmarkModel.load(name, modelFile);
+				if (model != null) {
+					models.add(model);
+				} else {
+					System.err.println("Could not load model " + modelFile);
+				}
+			}
+		}
+		return models;
+	}
+
+	public static void main(String[] args) throws IOException {
+		LibraryManager.registerLibrary(FMCoreLibrary.getInstance());
+
+		final BenchmarkRunner runner = new BenchmarkRunner();
+		Path modelDirectory = Paths.get("../../featuremodels");
+		Pattern modelFilter = null;
+		String generatedSizes = "1000,2000";
+		long seed = 0;
+		boolean csv = false;
+		Path output = null;
+		for (int i = 0; i < args.length; i++) {
+			final String option = args[i];
+			if ((i + 1) >= args.length) {
+				throw new IllegalArgumentException("Missing value for option " + option);
+			}
+			final String value = args[++i];
+			switch (option) {
+			case "-modelDir":
+				modelDirectory = Paths.get(value);
+				break;
+			case "-models":
+				modelFilter = Pattern.compile(value);
+				break;
+			case "-generated":
+				generatedSizes = value;
+				break;
+			case "-seed":
+				seed = Long.parseLong(value);
+				break;
+			case "-include":
+				runner.setInclude(Pattern.compile(value));
+				break;
+			case "-exclude":
+				runner.setExclude(Pattern.compile(value));
+				break;
+			case "-warmup":
+				runner.setWarmupIterations(Integer.parseInt(value));
+				break;
+			case "-iterations":
+				runner.setMeasurementIterations(Integer.parseInt(value));
+				break;
+			case "-time":
+				runner.setIterationTime(Long.parseLong(value));
+				break;
+			case "-format":
+				csv = "csv".equalsIgnoreCase(value);
+				break;
+			case "-output":
+				output = Paths.get(value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option " + option);
+			}
+		}
+
+		final List<BenchmarkModel> models = loadModels(modelDirectory, modelFilter);
+		for (final String size : generatedSizes.split(",")) {
+			if (!size.trim().isEmpty()) {
+				models.add(BenchmarkModel.generate(seed, Integer.parseInt(size.trim())));
+			}
+		}
+
+		final List<BenchmarkResult> results = runner.run(FMCoreBenchmarks.getAll(), models);
+
+		try (Writer out = output != null ? Files.newBufferedWriter(output, StandardCharsets.UTF_8)
+			: new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+			if (csv) {
+				writeCSV(results, out);
+			} else {
+				runner.writeJSON(results, out);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,498 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.AtomicSetAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.IndependentRedundancyAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.CDCLSatSolverBackend;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolverBackend;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.Sat4JSatSolverBackend;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGBuilder;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationPropagator;
+import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.explanations.config.AutomaticSelectionExplanation;
+import de.ovgu.featureide.fm.core.explanations.config.AutomaticSelectionExplanationCreator;
+import de.ovgu.featureide.fm.core.explanations.config.impl.ltms.LtmsConfigurationExplanationCreatorFactory;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsStreamReader;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsWriter;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Benchmarks for the analyses, samplers, and formats of the feature model core.
+ *
+ * @author FeatureIDE Team
+ *
+ * @see BenchmarkRunner
+ */
+public final class FMCoreBenchmarks {
+
+	private FMCoreBenchmarks() {}
+
+	/**
+	 * @return new instances of all benchmarks.
+	 */
+	public static List<ABenchmark> getAll() {
+		return new ArrayList<>(Arrays.asList( //
+				new XmlReadBenchmark(), //
+				new DimacsReadBenchmark(), //
+				new CNFBenchmark(), //
+				new CoreDeadBenchmark(), //
+				new SatBackendCoreDeadBenchmark(Sat4JSatSolverBackend.getInstance()), //
+				new SatBackendCoreDeadBenchmark(CDCLSatSolverBackend.getInstance()), //
+				new SatBackendQueryBenchmark(Sat4JSatSolverBackend.getInstance()), //
+				new SatBackendQueryBenchmark(CDCLSatSolverBackend.getInstance()), //
+				new AtomicSetBenchmark(), //
+				new FalseOptionalBenchmark(), //
+				new MIGBuilderBenchmark(), //
+				new ConfigurationPropagatorBenchmark(), //
+				new ExplainAnomaliesBenchmark(), //
+				new AutomaticSelectionExplanationBenchmark(), //
+				new TWiseBenchmark(1), //
+				new TWiseBenchmark(2), //
+				new TWiseBenchmark(3)));
+	}
+
+	/**
+	 * Creates a new formula without an artifact cache, such that all elements are computed.
+	 */
+	private static FeatureModelFormula createFormula(IFeatureModel featureModel) {
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+		formula.setArtifactCache(null);
+		return formula;
+	}
+
+	/**
+	 * Reads a feature model from its XML representation.
+	 */
+	public static class XmlReadBenchmark extends ABenchmark {
+
+		private String xml;
+
+		public XmlReadBenchmark() {
+			super("XmlFeatureModelFormat.read");
+		}
+
+		@Override
+		public void setUp(BenchmarkModel model) {
+			xml = new XmlFeatureModelFormat().write(model.getFeatureModel());
+		}
+
+		@Override
+		public Object run() {
+			final IFeatureModel featureModel = DefaultFeatureModelFactory.getInstance().create();
+			new XmlFeatureModelFormat().read(featureModel, xml);
+			return featureModel;
+		}
+
+		@Override
+		public void tearDown() {
+			xml = null;
+		}
+	}
+
+	/**
+	 * Reads the CNF of a feature model from its DIMACS representation.
+	 */
+	public static class DimacsReadBenchmark extends ABenchmark {
+
+		private String dimacs;
+
+		public DimacsReadBenchmark() {
+			super("DimacsStreamReader.read");
+		}
+
+		@Override
+		public void setUp(BenchmarkModel model) {
+			dimacs = new DimacsWriter(createFormula(model.getFeatureModel()).getCNF()).write();
+		}
+
+		@Override
+		public Object run() throws Exception {
+			return new DimacsStreamReader().read(dimacs);
+		}
+
+		@Override
+		public void tearDown() {
+			dimacs = null;
+		}
+	}
+
+	/**
+	 * Creates the CNF of a feature model (including the transformation of all constraints).
+	 */
+	public static class CNFBenchmark extends ABenchmark {
+
+		private IFeatureModel featureModel;
+
+		public CNFBenchmark() {
+			super("CNFCreator");
+		}
+
+		@Override
+		public void setUp(BenchmarkModel model) {
+			featureModel = model.getFeatureModel();
+		}
+
+		@Override
+		public Object run() {
+			return createFormula(featureModel).getCNF();
+		}
+
+		@Override
+		public void tearDown() {
+			featureModel = null;
+		}
+	}
+
+	/**
+	 * Abstract benchmark for an operation on the CNF of a feature model.
+	 */
+	public abstract static class ACNFBenchmark extends ABenchmark {
+
+		protected FeatureModelFormula formula;
+		protected CNF cnf;
+
+		protected ACNFBenchmark(String name) {
+			super(name);
+		}
+
+		@Override
+		public void setUp(BenchmarkModel model) throws Exception {
+			formula = createFormula(model.getFeatureModel());
+			cnf = formula.getCNF();
+		}
+
+		@Override
+		public void tearDown() {
+			formula = null;
+			cnf = null;
+		}
+	}
+
+	public static class CoreDeadBenchmark extends ACNFBenchmark {
+
+		public CoreDeadBenchmark() {
+			super("CoreDeadAnalysis");
+		}
+
+		@Override
+		public Object run() {
+			return LongRunningWrapper.runMethod(new CoreDeadAnalysis(cnf));
+		}
+	}
+
+	/**
+	 * Computes core and dead features with a solver of the given {@link ISatSolverBackend}, including the creation of the solver.
+	 */
+	public static class SatBackendCoreDeadBenchmark extends ACNFBenchmark {
+
+		private final ISatSolverBackend backend;
+
+		public SatBackendCoreDeadBenchmark(ISatSolverBackend backend) {
+			super("SatBackendCoreDead");
+			this.backend = backend;
+		}
+
+		@Override
+		public Map<String, String> getParameters() {
+			return Collections.singletonMap("backend", backend.getName());
+		}
+
+		@Override
+		public Object run() {
+			return LongRunningWrapper.runMethod(new CoreDeadAnalysis(backend.createModifiableSolver(cnf)));
+		}
+	}
+
+	/**
+	 * Answers a sequence of satisfiability queries with a single solver of the given {@link ISatSolverBackend}. Consecutive queries share a prefix of
+	 * their assumptions, as it is common for configuration propagation.
+	 */
+	public static class SatBackendQueryBenchmark extends ACNFBenchmark {
+
+		private final ISatSolverBackend backend;
+		private ISatSolver solver;
+
+		public SatBackendQueryBenchmark(ISatSolverBackend backend) {
+			super("SatBackendQueries");
+			this.backend = backend;
+		}
+
+		@Override
+		public Map<String, String> getParameters() {
+			return Collections.singletonMap("backend", backend.getName());
+		}
+
+		@Override
+		public void setUp(BenchmarkModel model) throws Exception {
+			super.setUp(model);
+			solver = backend.createSolver(cnf);
+		}
+
+		@Override
+		public Object run() {
+			int satisfiable = 0;
+			final int numberOfVariables = cnf.getVariables().size();
+			for (int i = 1; i <= numberOfVariables; i++) {
+				solver.assignmentPush(i);
+				for (int j = i + 1; j <= numberOfVariables; j += 7) {
+					solver.assignmentPush(-j);
+					if (solver.hasSolution() == SatResult.TRUE) {
+						satisfiable++;
+					}
+					solver.assignmentPop();
+				}
+				solver.assignmentPop();
+			}
+			return satisfiable;
+		}
+
+		@Override
+		public void tearDown() {
+			super.tearDown();
+			solver = null;
+		}
+	}
+
+	public static class AtomicSetBenchmark extends ACNFBenchmark {
+
+		public AtomicSetBenchmark() {
+			super("AtomicSetAnalysis");
+		}
+
+		@Override
+		public Object run() {
+			return LongRunningWrapper.runMethod(new AtomicSetAnalysis(cnf));
+		}
+	}
+
+	/**
+	 * Detects false-optional features with an {@link IndependentRedundancyAnalysis} (as done by the feature model analyzer).
+	 */
+	public static class FalseOptionalBenchmark extends ACNFBenchmark {
+
+		private List<LiteralSet> clauses;
+
+		public FalseOptionalBenchmark() {
+			super("IndependentRedundancyAnalysis");
+		}
+
+		@Override
+		public void setUp(BenchmarkModel model) throws Exception {
+			super.setUp(model);
+			clauses = new ArrayList<>();
+			final IVariables variables = cnf.getVariables();
+			for (final IFeature feature : model.getFeatureModel().getFeatures()) {
+				if (!feature.getStructure().isRoot() && !feature.getStructure().isMandatory()) {
+					clauses.add(new LiteralSet(variables.getVariable(FeatureUtils.getParent(feature).getName(), false),
+							variables.getVariable(feature.getName(), true)));
+				}
+			}
+		}
+
+		@Override
+		public Object run() {
+			return LongRunningWrapper.runMethod(new IndependentRedundancyAnalysis(cnf, clauses));
+		}
+
+		@Override
+		public void tearDown() {
+			super.tearDown();
+			clauses = null;
+		}
+	}
+
+	public static class MIGBuilderBenchmark extends ACNFBenchmark {
+
+		public MIGBuilderBenchmark() {
+			super("MIGBuilder");
+		}
+
+		@Override
+		public Object run() {
+			return LongRunningWrapper.runMethod(new MIGBuilder(cnf, false));
+		}
+	}
+
+	/**
+	 * Updates a configuration in which one feature is selected manually (i.e., decision propagation).
+	 */
+	public static class ConfigurationPropagatorBenchmark extends ACNFBenchmark {
+
+		private ConfigurationPropagator propagator;
+
+		public ConfigurationPropagatorBenchmark() {
+			super("ConfigurationPropagator.UpdateMethod");
+		}
+
+		@Override
+		public void setUp(BenchmarkModel model) throws Exception {
+			super.setUp(model);
+			final Configuration configuration = new Configuration(formula);
+			propagator = new ConfigurationPropagator(formula, configuration);
+			propagator.update(false).execute(new NullMonitor<>());
+
+			final List<SelectableFeature> undefinedFeatures = new ArrayList<>();
+			for (final SelectableFeature feature : configuration.getFeatures()) {
+				if (feature.getSelection() == Selection.UNDEFINED) {
+					undefinedFeatures.add(feature);
+				}
+			}
+			if (!undefinedFeatures.isEmpty()) {
+				configuration.setManual(undefinedFeatures.get(undefinedFeatures.size() / 2), Selection.SELECTED);
+			}
+		}
+
+		@Override
+		public Object run() throws Exception {
+			return propagator.update(false).execute(new NullMonitor<>());
+		}
+
+		@Override
+		public void tearDown() {
+			super.tearDown();
+			propagator = null;
+		}
+	}
+
+	/**
+	 * Explains all dead features, false-optional features, and redundant constraints of an analyzed feature model.
+	 */
+	public static class ExplainAnomaliesBenchmark extends ACNFBenchmark {
+
+		private FeatureModelAnalyzer analyzer;
+
+		public ExplainAnomaliesBenchmark() {
+			super("ExplainAnomalies");
+		}
+
+		@Override
+		public void setUp(BenchmarkModel model) throws Exception {
+			super.setUp(model);
+			analyzer = formula.getAnalyzer();
+			analyzer.analyzeFeatureModel(null);
+		}
+
+		@Override
+		public Object run() {
+			return analyzer.explainAnomalies(null);
+		}
+
+		@Override
+		public void tearDown() {
+			super.tearDown();
+			analyzer = null;
+		}
+	}
+
+	/**
+	 * Explains each automatically selected or deselected feature of a configuration in which one feature is selected manually, using the LTMS.
+	 */
+	public static class AutomaticSelectionExplanationBenchmark extends ACNFBenchmark {
+
+		private AutomaticSelectionExplanationCreator creator;
+		private List<SelectableFeature> automaticFeatures;
+
+		public AutomaticSelectionExplanationBenchmark() {
+			super("LtmsAutomaticSelectionExplanationCreator");
+		}
+
+		@Override
+		public void setUp(BenchmarkModel model) throws Exception {
+			super.setUp(model);
+			final Configuration configuration = new Configuration(formula);
+			final ConfigurationPropagator propagator = new ConfigurationPropagator(formula, configuration);
+			propagator.update(false).execute(new NullMonitor<>());
+			for (final SelectableFeature feature : configuration.getFeatures()) {
+				if (feature.getSelection() == Selection.UNDEFINED) {
+					configuration.setManual(feature, Selection.SELECTED);
+					break;
+				}
+			}
+			propagator.update(false).execute(new NullMonitor<>());
+			automaticFeatures = configuration.getAutomaticFeatures();
+
+			creator = new LtmsConfigurationExplanationCreatorFactory().getAutomaticSelectionExplanationCreator();
+			creator.setConfiguration(configuration);
+		}
+
+		@Override
+		public Object run() {
+			final List<AutomaticSelectionExplanation> explanations = new ArrayList<>(automaticFeatures.size());
+			for (final SelectableFeature feature : automaticFeatures) {
+				creator.setSubject(feature);
+				explanations.add(creator.getExplanation());
+			}
+			return explanations;
+		}
+
+		@Override
+		public void tearDown() {
+			super.tearDown();
+			creator = null;
+			automaticFeatures = null;
+		}
+	}
+
+	public static class TWiseBenchmark extends ACNFBenchmark {
+
+		private final int t;
+
+		public TWiseBenchmark(int t) {
+			super("TWiseConfigurationGenerator");
+			this.t = t;
+		}
+
+		@Override
+		public Map<String, String> getParameters() {
+			return Collections.singletonMap("t", Integer.toString(t));
+		}
+
+		@Override
+		public Object run() {
+			return LongRunningWrapper.runMethod(new TWiseConfigurationGenerator(cnf, t));
+		}
+	}
+
+}
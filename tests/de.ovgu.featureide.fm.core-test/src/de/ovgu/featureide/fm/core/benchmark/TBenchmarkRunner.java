@@ -0,0 +1,106 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+
+/**
+ * Executes one of the {@link FMCoreBenchmarks benchmarks} of each category (formats, analyses, samplers) once on a small model to ensure that the benchmark
+ * suite keeps working. The measured times are not checked. The complete suite is executed by {@link BenchmarkRunner#main(String[])}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TBenchmarkRunner {
+
+	private static List<BenchmarkModel> getModels() {
+		return Arrays.asList(new BenchmarkModel("10-100.xml", Commons.loadBenchmarkFeatureModelFromFile("10-100.xml")));
+	}
+
+	private static List<ABenchmark> getBenchmarks() {
+		return Arrays.asList(new FMCoreBenchmarks.XmlReadBenchmark(), new FMCoreBenchmarks.CoreDeadBenchmark(), new FMCoreBenchmarks.TWiseBenchmark(1));
+	}
+
+	@Test
+	public void testRun() throws IOException {
+		final BenchmarkRunner runner = new BenchmarkRunner();
+		runner.setWarmupIterations(0);
+		runner.setMeasurementIterations(1);
+		runner.setIterationTime(0);
+		final List<ABenchmark> benchmarks = getBenchmarks();
+		final List<BenchmarkModel> models = getModels();
+		final List<BenchmarkResult> results = runner.run(benchmarks, models);
+
+		assertEquals(benchmarks.size() * models.size(), results.size());
+		for (final BenchmarkResult result : results) {
+			assertNull(result.toString(), result.getError());
+			assertEquals(result.toString(), 1, result.getScores().length);
+			assertTrue(result.toString(), result.getScore() > 0);
+		}
+
+		final StringBuilder csv = new StringBuilder();
+		BenchmarkRunner.writeCSV(results, csv);
+		final String[] lines = csv.toString().split("\n");
+		assertEquals(results.size() + 1, lines.length);
+		assertTrue(lines[1], lines[1].startsWith(results.get(0).getBenchmark() + ",10-100.xml,"));
+
+		final StringBuilder json = new StringBuilder();
+		runner.writeJSON(results, json);
+		for (final ABenchmark benchmark : benchmarks) {
+			assertTrue(benchmark.getName(), json.indexOf("\"benchmark\" : \"" + benchmark.getName() + "\"") >= 0);
+		}
+	}
+
+	@Test
+	public void testGenerate() {
+		for (int seed = 0; seed < 5; seed++) {
+			final BenchmarkModel model = BenchmarkModel.generate(seed, 200);
+			assertEquals(200, model.getNumberOfFeatures());
+			assertEquals(20, model.getNumberOfConstraints());
+			assertTrue(new FeatureModelFormula(model.getFeatureModel()).getAnalyzer().isValid(null));
+		}
+	}
+
+	@Test
+	public void testSelection() {
+		final BenchmarkRunner runner = new BenchmarkRunner();
+		runner.setWarmupIterations(0);
+		runner.setMeasurementIterations(1);
+		runner.setIterationTime(0);
+		runner.setInclude(Pattern.compile("^CoreDead|^TWise"));
+		runner.setExclude(Pattern.compile("TWise"));
+		final List<BenchmarkResult> results = runner.run(getBenchmarks(), getModels());
+		assertEquals(1, results.size());
+		assertEquals("CoreDeadAnalysis", results.get(0).getBenchmark());
+	}
+
+}
@@ -21,11 +21,18 @@
 package de.ovgu.featureide.fm.core.configuration;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
 
 import org.junit.Test;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.DDNNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.NoAbstractNoHiddenCNFCreator;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 
 /**
  * Tests about the calculation of the number of valid configurations.
@@ -224,4 +231,44 @@ public class TNumberOfConfigurations extends AbstractConfigurationTest {
 		assertEquals(3, number(fm, false));
 	}
 
+	/**
+	 * Creates a model with many optional features and random cross-tree constraints with three literals each, whose compilation takes far longer than the
+	 * timeout.
+	 */
+	private static IFeatureModel createHardModel(int numberOfFeatures) {
+		final Random random = new Random(0);
+		final StringBuilder features = new StringBuilder("<and abstract=\"true\" mandatory=\"true\" name=\"S\">");
+		for (int i = 0; i < numberOfFeatures; i++) {
+			features.append("<feature name=\"F" + i + "\"/>");
+		}
+		features.append("</and>");
+		final StringBuilder constraints = new StringBuilder();
+		for (int i = 0; i < (3 * numberOfFeatures); i++) {
+			constraints.append("<rule><disj>");
+			for (int j = 0; j < 3; j++) {
+				final String variable = "<var>F" + random.nextInt(numberOfFeatures) + "</var>";
+				constraints.append(random.nextBoolean() ? variable : "<not>" + variable + "</not>");
+			}
+			constraints.append("</disj></rule>");
+		}
+		return loadXML(features.toString(), constraints.toString());
+	}
+
+	@Test
+	public void testTimeout() {
+		final FeatureModelFormula formula = new FeatureModelFormula(createHardModel(150));
+		final ConfigurationPropagator propagator = new ConfigurationPropagator(formula, new Configuration(formula));
+		propagator.setIncludeAbstractFeatures(false);
+
+		long time = System.currentTimeMillis();
+		final long number = LongRunningWrapper.runMethod(propagator.number(250));
+		time = System.currentTimeMillis() - time;
+
+		// Lower bound encoding -(n + 1)
+		assertTrue(String.valueOf(number), number < 0);
+		assertTrue(String.valueOf(time), time < 10000);
+		// Compilation was aborted and is not cached
+		assertNull(formula.getCachedElement(new DDNNFCreator(new NoAbstractNoHiddenCNFCreator())));
+	}
+
 }
@@ -0,0 +1,256 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.configuration.io.ConfigurationLoader;
+import de.ovgu.featureide.fm.core.configuration.io.IConfigurationLoaderCallback;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+
+/**
+ * Tests for {@link SelectionMatrix} and the parallel {@link ConfigurationLoader}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TSelectionMatrix {
+
+	private static final int NUMBER_OF_CONFIGURATIONS = 60;
+
+	private FeatureModelFormula formula;
+	private Path directory;
+	private final List<Set<String>> selections = new ArrayList<>();
+
+	@Before
+	public void setUp() throws IOException {
+		formula = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("car.xml"));
+		directory = Files.createTempDirectory("configurations");
+
+		final String[] names = formula.getCNF().getVariables().getNames();
+		final Random random = new Random(0);
+		for (int i = 0; i < NUMBER_OF_CONFIGURATIONS; i++) {
+			final Configuration configuration = new Configuration();
+			final Set<String> selection = new HashSet<>();
+			for (int j = 1; j < names.length; j++) {
+				final boolean selected = random.nextBoolean();
+				configuration.setManual(names[j], selected ? Selection.SELECTED : Selection.UNSELECTED);
+				if (selected) {
+					selection.add(names[j]);
+				}
+			}
+			selections.add(selection);
+			if ((i % 2) == 0) {
+				SimpleFileHandler.save(directory.resolve(String.format("%03d.config", i)), configuration, new DefaultFormat());
+			} else {
+				SimpleFileHandler.save(directory.resolve(String.format("%03d.xml", i)), configuration, new XMLConfFormat());
+			}
+		}
+		// Files that are skipped
+		Files.write(directory.resolve("invalid.xml"), "<invalid>".getBytes(StandardCharsets.UTF_8));
+		Files.write(directory.resolve("000.xml"), "<configuration/>".getBytes(StandardCharsets.UTF_8));
+		Files.write(directory.resolve("excluded.config"), "Car".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		for (final Path file : Files.newDirectoryStream(directory)) {
+			Files.delete(file);
+		}
+		Files.delete(directory);
+	}
+
+	private static Set<String> getSelectedFeatureNames(SelectionMatrix matrix, int configuration) {
+		final Set<String> selectedFeatureNames = new HashSet<>();
+		for (int i = 0; i < matrix.getNumberOfFeatures(); i++) {
+			if (matrix.isSelected(configuration, i)) {
+				selectedFeatureNames.add(matrix.getFeatureNames().get(i));
+			}
+		}
+		return selectedFeatureNames;
+	}
+
+	private void assertMatrix(SelectionMatrix matrix) {
+		assertEquals(NUMBER_OF_CONFIGURATIONS, matrix.getNumberOfConfigurations());
+		for (int i = 0; i < NUMBER_OF_CONFIGURATIONS; i++) {
+			final String name = matrix.getConfigurationNames().get(i);
+			assertEquals(name, selections.get(Integer.parseInt(name)), getSelectedFeatureNames(matrix, i));
+		}
+	}
+
+	/**
+	 * @return the loaded configurations ordered by their names
+	 */
+	private List<Configuration> loadConfigurations(int numberOfThreads) {
+		final Configuration[] configurations = new Configuration[NUMBER_OF_CONFIGURATIONS];
+		final ConfigurationLoader loader = new ConfigurationLoader(new IConfigurationLoaderCallback() {
+
+			@Override
+			public void onLoadingStarted() {}
+
+			@Override
+			public void onConfigurationLoaded(Configuration configuration, Path path) {
+				final String fileName = path.getFileName().toString();
+				configurations[Integer.parseInt(fileName.substring(0, fileName.indexOf('.')))] = configuration;
+			}
+
+			@Override
+			public void onLoadingFinished() {}
+
+			@Override
+			public void onLoadingError(IOException exception) {}
+		});
+		loader.setNumberOfThreads(numberOfThreads);
+		assertEquals(NUMBER_OF_CONFIGURATIONS, loader.loadConfigurations(formula, directory, "excluded.config").size());
+		return Arrays.asList(configurations);
+	}
+
+	@Test
+	public void testLoadConfigurations() {
+		for (final int numberOfThreads : new int[] { 1, 4 }) {
+			final List<Configuration> configurations = loadConfigurations(numberOfThreads);
+			for (int i = 0; i < NUMBER_OF_CONFIGURATIONS; i++) {
+				assertEquals(selections.get(i), configurations.get(i).getSelectedFeatureNames());
+			}
+		}
+	}
+
+	@Test
+	public void testLoadSelectionMatrix() {
+		final ConfigurationLoader loader = new ConfigurationLoader();
+		final SelectionMatrix matrix = loader.loadSelectionMatrix(formula, directory, "excluded.config");
+		assertEquals(formula.getCNF().getVariables().size(), matrix.getNumberOfFeatures());
+		assertMatrix(matrix);
+
+		loader.setNumberOfThreads(1);
+		assertMatrix(loader.loadSelectionMatrix(formula, directory, "excluded.config"));
+	}
+
+	@Test
+	public void testMap() throws IOException {
+		final SelectionMatrix matrix = new ConfigurationLoader().loadSelectionMatrix(formula, directory, "excluded.config");
+		final Path file = Files.createTempFile("matrix", ".bin");
+		try {
+			matrix.write(file);
+			final SelectionMatrix mappedMatrix = SelectionMatrix.map(file);
+			assertEquals(matrix.getFeatureNames(), mappedMatrix.getFeatureNames());
+			assertMatrix(mappedMatrix);
+			for (int i = 0; i < matrix.getNumberOfConfigurations(); i++) {
+				assertEquals(matrix.getNumberOfFeatures(), mappedMatrix.countEqualSelections(i, matrix.getRow(i)));
+			}
+			try {
+				mappedMatrix.setSelected(0, 0, true);
+				fail();
+			} catch (final ReadOnlyBufferException e) {}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testCheckValidity() {
+		final SelectionMatrix matrix = new ConfigurationLoader().loadSelectionMatrix(formula, directory, "excluded.config");
+		final CNF cnf = formula.getCNF();
+		final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+		final BitSet expectedValid = new BitSet();
+		for (int i = 0; i < selections.size(); i++) {
+			final int[] literals = new int[cnf.getVariables().size()];
+			for (int j = 0; j < literals.length; j++) {
+				final String name = cnf.getVariables().getName(j + 1);
+				literals[j] = selections.get(i).contains(name) ? j + 1 : -(j + 1);
+			}
+			if (solver.hasSolution(literals) == SatResult.TRUE) {
+				expectedValid.set(i);
+			}
+		}
+		// Set a valid configuration, as random configurations are most likely invalid
+		final int[] solution = solver.findSolution();
+		for (final int literal : solution) {
+			matrix.setSelected(0, Math.abs(literal) - 1, literal > 0);
+		}
+		expectedValid.set(0);
+
+		assertFalse(expectedValid.cardinality() == selections.size());
+		assertEquals(expectedValid, matrix.checkValidity(formula, 1));
+		assertEquals(expectedValid, matrix.checkValidity(formula, 4));
+	}
+
+	@Test
+	public void testRecommendation() {
+		final List<Configuration> configurations = loadConfigurations(1);
+		final Configuration configuration = configurations.get(1);
+		final ConfigurationMatrix configurationMatrix = new ConfigurationMatrix(formula, directory);
+		configurationMatrix.readConfigurations("excluded.config");
+		configurationMatrix.calcRec(configuration);
+		final double[] rec = configurationMatrix.getRec();
+		assertEquals(configuration.getFeatures().size(), rec.length);
+
+		// Weighted share of configurations that select each feature, weighted by the number of features with the same selection
+		final int[] weights = new int[configurations.size()];
+		int weightSum = 0;
+		for (int j = 0; j < weights.length; j++) {
+			for (final SelectableFeature feature : configuration.getFeatures()) {
+				if ((feature.getSelection() == Selection.SELECTED) == (configurations.get(j).getSelectableFeature(feature.getName())
+					.getSelection() == Selection.SELECTED)) {
+					weights[j]++;
+				}
+			}
+			weightSum += weights[j];
+		}
+		int i = 0;
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			int selectedSum = 0;
+			for (int j = 0; j < weights.length; j++) {
+				if (configurations.get(j).getSelectableFeature(feature.getName()).getSelection() == Selection.SELECTED) {
+					selectedSum += weights[j];
+				}
+			}
+			final double expected = ((double) selectedSum) / weightSum;
+			assertEquals(feature.getName(), feature.getSelection() == Selection.SELECTED ? 1 - expected : expected, rec[i++], 1e-9);
+		}
+		assertTrue(rec.length > 0);
+	}
+
+}
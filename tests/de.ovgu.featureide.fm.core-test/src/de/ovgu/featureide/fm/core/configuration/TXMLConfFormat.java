@@ -0,0 +1,90 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.io.ProblemList;
+
+/**
+ * Tests for {@link XMLConfFormat}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TXMLConfFormat {
+
+	private static final String CONTENT = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" //
+		+ "<configuration>\n" //
+		+ "\t<feature automatic=\"selected\" name=\"Root\"/>\n" //
+		+ "\t<feature manual=\"selected\" name=\"A\"/>\n" //
+		+ "\t<feature automatic=\"unselected\" manual=\"undefined\" name=\"B &amp; C\"/>\n" //
+		+ "\t<feature name=\"D\"/>\n" //
+		+ "</configuration>\n";
+
+	@Test
+	public void testRead() {
+		final Configuration configuration = new Configuration();
+		final ProblemList problems = new XMLConfFormat().read(configuration, new StringReader(CONTENT));
+		assertFalse(problems.containsError());
+		assertEquals(4, configuration.getFeatures().size());
+		assertEquals(Selection.SELECTED, configuration.getSelectableFeature("Root").getAutomatic());
+		assertEquals(Selection.UNDEFINED, configuration.getSelectableFeature("Root").getManual());
+		assertEquals(Selection.SELECTED, configuration.getSelectableFeature("A").getManual());
+		assertNotNull(configuration.getSelectableFeature("B & C"));
+		assertEquals(Selection.UNSELECTED, configuration.getSelectableFeature("B & C").getAutomatic());
+		assertEquals(Selection.UNDEFINED, configuration.getSelectableFeature("D").getSelection());
+	}
+
+	@Test
+	public void testWrite() throws IOException {
+		final Configuration configuration = new Configuration();
+		new XMLConfFormat().read(configuration, CONTENT);
+
+		final String expectedContent = CONTENT.replace(" manual=\"undefined\"", "");
+		assertEquals(expectedContent, new XMLConfFormat().write(configuration));
+		final StringWriter writer = new StringWriter();
+		new XMLConfFormat().write(configuration, writer);
+		assertEquals(expectedContent, writer.toString());
+	}
+
+	@Test
+	public void testProblems() {
+		final String content = "<configuration>\n" //
+			+ "\t<feature manual=\"selected\"/>\n" //
+			+ "\t<feature name=\"A\" selected=\"true\"/>\n" //
+			+ "</configuration>\n";
+		final ProblemList problems = new XMLConfFormat().read(new Configuration(), content);
+		assertEquals(2, problems.size());
+		assertEquals(2, problems.getErrors().get(0).getLine());
+		assertEquals(3, problems.getWarnings().get(0).getLine());
+
+		assertEquals(1, new XMLConfFormat().read(new Configuration(), "<featureModel/>").getErrors().size());
+	}
+
+}
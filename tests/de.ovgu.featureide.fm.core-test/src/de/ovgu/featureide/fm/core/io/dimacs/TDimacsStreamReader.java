@@ -0,0 +1,116 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactCNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+
+/**
+ * Tests for {@link DimacsStreamReader} and the streaming methods of {@link DimacsWriter}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TDimacsStreamReader {
+
+	private static final String[] MODELS = { "10-100.xml", "100-100.xml", "200-100-hidden.xml", "berkeley_db_model.xml" };
+
+	@Test
+	public void testFileRoundTrip() throws IOException, ParseException {
+		for (final String modelName : MODELS) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName)).getCNF();
+			final Path file = Files.createTempFile("cnf", ".dimacs");
+			try {
+				final DimacsWriter writer = new DimacsWriter(cnf);
+				writer.setWritingVariableDirectory(true);
+				writer.write(file);
+				assertEquals(modelName, writer.write(), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+
+				final DimacsStreamReader reader = new DimacsStreamReader();
+				reader.setReadingVariableDirectory(true);
+				final CompactCNF readCNF = reader.read(file);
+				assertEquals(modelName, cnf.getVariables(), readCNF.getVariables());
+				assertEquals(modelName, cnf.getClauses(), readCNF.getClauses());
+
+				final DimacsWriter compactWriter = new DimacsWriter(readCNF);
+				compactWriter.setWritingVariableDirectory(true);
+				assertEquals(modelName, writer.write(), compactWriter.write());
+			} finally {
+				Files.delete(file);
+			}
+		}
+	}
+
+	@Test
+	public void testVariableOrder() throws ParseException {
+		final CompactCNF cnf = new DimacsStreamReader().read("p cnf 3 2\n" + "12 -20 0\n" + "20 -7 12 0\n");
+		assertArrayEquals(new String[] { null, "12", "20", "7" }, cnf.getVariables().getNames());
+		assertArrayEquals(new int[] { 1, -2 }, cnf.getClause(0).getLiterals());
+		assertArrayEquals(new int[] { 2, -3, 1 }, cnf.getClause(1).getLiterals());
+	}
+
+	@Test
+	public void testVariableDirectory() throws ParseException {
+		final DimacsStreamReader reader = new DimacsStreamReader();
+		reader.setReadingVariableDirectory(true);
+		final CompactCNF cnf = reader.read("c 2 Bar\r\n" + "c 1 Foo\r\n" + "p cnf 3 2\r\n" + "1 -3 0\r\n" + "2 3 -1 0\r\n");
+		assertArrayEquals(new String[] { null, "Bar", "Foo", "3" }, cnf.getVariables().getNames());
+		assertArrayEquals(new int[] { 2, -3 }, cnf.getClause(0).getLiterals());
+		assertArrayEquals(new int[] { 1, 3, -2 }, cnf.getClause(1).getLiterals());
+	}
+
+	@Test(expected = ParseException.class)
+	public void testLargeIndex() throws ParseException {
+		new DimacsStreamReader().read("p cnf 2 1\n" + "2147483647 -1 0\n" + "2147483648 0\n");
+	}
+
+	@Test
+	public void testHandler() throws ParseException {
+		final int[] counts = new int[3];
+		new DimacsStreamReader().read("p cnf 2 2\n" + "1 -2 0 2 0", new DimacsStreamReader.ClauseHandler() {
+
+			@Override
+			public void handleProblem(int variableCount, int clauseCount) {
+				counts[0] = clauseCount;
+			}
+
+			@Override
+			public void handleClause(int[] literals, int length) {
+				counts[1]++;
+				counts[2] += length;
+			}
+		});
+		assertArrayEquals(new int[] { 2, 2, 3 }, counts);
+	}
+
+}
@@ -0,0 +1,122 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+
+/**
+ * Tests for the snapshots of the {@link FeatureModelManager}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TFeatureModelManager {
+
+	private Path file;
+	private FeatureModelManager manager;
+
+	@Before
+	public void setUp() throws IOException {
+		file = Files.createTempFile("model", ".xml");
+		Files.copy(Paths.get(Commons.getRemoteOrLocalFolder("testFeatureModels/car.xml").getPath()), file, StandardCopyOption.REPLACE_EXISTING);
+		manager = FeatureModelManager.getInstance(file);
+		assertNotNull(manager);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		FeatureModelManager.removeInstance(file, FeatureModelManager.class);
+		Files.deleteIfExists(file);
+	}
+
+	private static void assertCopy(IFeatureModel original, IFeatureModel copy) {
+		assertNotSame(original, copy);
+		assertEquals(original.getNumberOfFeatures(), copy.getNumberOfFeatures());
+		assertEquals(original.getConstraintCount(), copy.getConstraintCount());
+		for (final IFeature feature : copy.getFeatures()) {
+			assertSame(copy, feature.getFeatureModel());
+		}
+		for (int i = 0; i < copy.getConstraintCount(); i++) {
+			final IConstraint originalConstraint = original.getConstraints().get(i);
+			final IConstraint constraint = copy.getConstraints().get(i);
+			assertSame(copy, constraint.getFeatureModel());
+			assertNotSame(originalConstraint.getNode(), constraint.getNode());
+			assertEquals(originalConstraint.getNode(), constraint.getNode());
+			assertEquals(originalConstraint.getContainedFeatures().size(), constraint.getContainedFeatures().size());
+			for (final IFeature feature : constraint.getContainedFeatures()) {
+				assertSame(copy.getFeature(feature.getName()), feature);
+			}
+		}
+	}
+
+	@Test
+	public void testClone() {
+		final IFeatureModel featureModel = manager.getVarObject();
+		assertCopy(featureModel, featureModel.clone());
+	}
+
+	@Test
+	public void testSnapshot() {
+		final IFeatureModel snapshot = manager.getSnapshot();
+		assertCopy(manager.getVarObject(), snapshot);
+		assertSame(snapshot, manager.getSnapshot());
+
+		// Unchanged model
+		manager.editObject(featureModel -> {}, FeatureModelManager.CHANGE_NOTHING);
+		assertSame(snapshot, manager.getSnapshot());
+
+		// Changed properties
+		manager.editObject(featureModel -> featureModel.getProperty().set("key", "type", "value"), FeatureModelManager.CHANGE_MODEL_PROPERTY);
+		assertSame(snapshot, manager.getSnapshot());
+		assertEquals("value", snapshot.getProperty().get("key", "type", null));
+
+		// Changed constraints
+		manager.editObject(featureModel -> {
+			final Implies node = new Implies(new Literal("Navigation"), new Literal("Europe"));
+			featureModel.addConstraint(FMFactoryManager.getInstance().getFactory(featureModel).createConstraint(featureModel, node));
+		}, FeatureModelManager.CHANGE_DEPENDENCIES);
+		final IFeatureModel newSnapshot = manager.getSnapshot();
+		assertNotSame(snapshot, newSnapshot);
+		assertEquals(snapshot.getConstraintCount() + 1, newSnapshot.getConstraintCount());
+		assertCopy(manager.getVarObject(), newSnapshot);
+	}
+
+}
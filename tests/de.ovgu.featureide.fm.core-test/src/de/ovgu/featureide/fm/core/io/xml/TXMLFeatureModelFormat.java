@@ -21,8 +21,15 @@
 package de.ovgu.featureide.fm.core.io.xml;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.junit.Test;
 import org.prop4j.Node;
@@ -35,8 +42,12 @@ import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
 import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
 import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.Problem.Severity;
+import de.ovgu.featureide.fm.core.io.ProblemList;
 import de.ovgu.featureide.fm.core.io.TAbstractFeatureModelReaderWriter;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
 
 /**
  * Class to test the collapse feature of XmlFeatureModelFormat.java
@@ -155,6 +166,66 @@ public class TXMLFeatureModelFormat extends TAbstractFeatureModelReaderWriter {
 		}
 	}
 
+	@Test
+	public void testStreamedWrite() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new XmlFeatureModelFormat().write(origFm, out);
+		final String content = new String(out.toByteArray(), SimpleFileHandler.DEFAULT_CHARSET);
+		assertEquals(failureMessage, new XmlFeatureModelFormat().write(origFm), content);
+
+		final IFeatureModel fm = DefaultFeatureModelFactory.getInstance().create();
+		final ProblemList problems = new XmlFeatureModelFormat().read(fm, new StringReader(content));
+		assertFalse(failureMessage, problems.containsError());
+		assertEquals(failureMessage, origFm.getNumberOfFeatures(), fm.getNumberOfFeatures());
+		assertEquals(failureMessage, origFm.getConstraintCount(), fm.getConstraintCount());
+	}
+
+	@Test
+	public void testStreamedFileHandler() throws IOException {
+		final Path path = Files.createTempFile("model", ".xml");
+		try {
+			assertFalse(failureMessage, SimpleFileHandler.save(path, origFm, new XmlFeatureModelFormat()).containsError());
+			final String content = new String(Files.readAllBytes(path), SimpleFileHandler.DEFAULT_CHARSET);
+			assertEquals(failureMessage, new XmlFeatureModelFormat().write(origFm), content);
+
+			final IFeatureModel fm = DefaultFeatureModelFactory.getInstance().create();
+			assertFalse(failureMessage, SimpleFileHandler.load(path, fm, new XmlFeatureModelFormat()).containsError());
+			assertEquals(failureMessage, content, new XmlFeatureModelFormat().write(fm));
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void testProblemLineNumbers() {
+		final String content = "<featureModel>\n" //
+			+ "\t<constraints>\n" //
+			+ "\t\t<rule>\n" //
+			+ "\t\t\t<var>A</var>\n" //
+			+ "\t\t</rule>\n" //
+			+ "\t</constraints>\n" //
+			+ "\t<struct>\n" //
+			+ "\t\t<and name=\"Root\">\n" //
+			+ "\t\t\t<feature name=\"A\" unknown=\"true\"/>\n" //
+			+ "\t\t</and>\n" //
+			+ "\t</struct>\n" //
+			+ "</featureModel>\n";
+		IFeatureModel fm = DefaultFeatureModelFactory.getInstance().create();
+		ProblemList problems = new XmlFeatureModelFormat().read(fm, content);
+		assertFalse(problems.containsError());
+		assertEquals(1, problems.size());
+		assertEquals(Severity.WARNING, problems.get(0).getSeverity());
+		assertEquals(9, problems.get(0).getLine());
+		// Constraints may precede the features they reference
+		assertEquals(1, fm.getConstraintCount());
+
+		fm = DefaultFeatureModelFactory.getInstance().create();
+		problems = new XmlFeatureModelFormat().read(fm, content.replace("<var>A</var>", "<var>B</var>"));
+		assertTrue(problems.containsError());
+		final Problem error = problems.getErrors().get(0);
+		assertEquals(4, error.getLine());
+	}
+
 	/*
 	 * @see de.ovgu.featureide.fm.core.io.TAbstractFeatureModelReaderWriter#getFormat()
 	 */
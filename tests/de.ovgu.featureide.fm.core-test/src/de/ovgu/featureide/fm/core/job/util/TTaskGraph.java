@@ -0,0 +1,161 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.job.monitor.ConsoleMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+import de.ovgu.featureide.fm.core.job.util.TaskGraph.Task;
+
+/**
+ * Tests for {@link TaskGraph}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TTaskGraph {
+
+	private static final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterClass
+	public static void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private static void testDependencies(ExecutorService executor) throws Exception {
+		final Thread callingThread = Thread.currentThread();
+		final List<String> finished = Collections.synchronizedList(new ArrayList<String>());
+		final TaskGraph taskGraph = new TaskGraph(executor);
+		final Task<Integer> a = taskGraph.addTask(1, m -> 1, r -> {
+			assertSame(callingThread, Thread.currentThread());
+			finished.add("a");
+		});
+		final Task<Integer> b = taskGraph.addTask(1, m -> 2, r -> {
+			assertSame(callingThread, Thread.currentThread());
+			finished.add("b");
+		});
+		final Task<Integer> c = taskGraph.addTask(1, m -> {
+			assertTrue(finished.contains("a"));
+			return a.getResult() + 10;
+		}, r -> finished.add("c"), a);
+		final Task<Integer> d = taskGraph.addTask(1, m -> {
+			assertTrue(finished.contains("b") && finished.contains("c"));
+			return b.getResult() + c.getResult();
+		}, r -> finished.add("d"), b, c);
+
+		assertEquals(4, taskGraph.getWork());
+		taskGraph.execute(new NullMonitor<>());
+
+		assertEquals(4, finished.size());
+		assertEquals("d", finished.get(3));
+		assertEquals(Integer.valueOf(13), d.getResult());
+	}
+
+	@Test
+	public void testDependencies() throws Exception {
+		testDependencies(executor);
+	}
+
+	@Test
+	public void testDependenciesWithoutExecutor() throws Exception {
+		testDependencies(null);
+	}
+
+	@Test
+	public void testConcurrentExecution() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(2);
+		final TaskGraph taskGraph = new TaskGraph(executor);
+		for (int i = 0; i < 2; i++) {
+			// Each task waits for the other one
+			taskGraph.<Boolean> addTask(1, m -> {
+				latch.countDown();
+				return latch.await(10, TimeUnit.SECONDS);
+			}, r -> assertTrue(r));
+		}
+		taskGraph.execute(new NullMonitor<>());
+	}
+
+	@Test
+	public void testException() throws Exception {
+		final TaskGraph taskGraph = new TaskGraph(executor);
+		final Task<Integer> a = taskGraph.addTask(1, m -> {
+			throw new IllegalStateException();
+		}, null);
+		taskGraph.addTask(1, m -> 0, r -> fail(), a);
+		try {
+			taskGraph.execute(new NullMonitor<>());
+			fail();
+		} catch (final IllegalStateException e) {}
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		final TaskGraph taskGraph = new TaskGraph(executor);
+		final Task<Boolean> a = taskGraph.addTask(1, m -> {
+			while (true) {
+				m.checkCancel();
+				Thread.sleep(10);
+			}
+		}, null);
+		taskGraph.addTask(1, m -> 0, r -> fail(), a);
+		final NullMonitor<Boolean> monitor = new NullMonitor<>();
+		monitor.cancel();
+		try {
+			taskGraph.execute(monitor);
+			fail();
+		} catch (final MethodCancelException e) {}
+	}
+
+	@Test
+	public void testProgress() throws Exception {
+		final TaskGraph taskGraph = new TaskGraph(executor);
+		for (int i = 0; i < 2; i++) {
+			// Each task reports its progress to a sub task of the caller's monitor
+			taskGraph.<String> addTask(1, m -> m.getTaskName(), r -> assertTrue(r, r.startsWith("graph - ")));
+		}
+		final ConsoleMonitor<Boolean> monitor = new ConsoleMonitor<>(false);
+		monitor.setTaskName("graph");
+		taskGraph.execute(monitor);
+		assertEquals(0, monitor.getRemainingWork());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testForeignDependency() {
+		final Task<Integer> a = new TaskGraph(null).addTask(1, m -> 0, null);
+		new TaskGraph(null).addTask(1, m -> 0, null, a);
+	}
+
+}
@@ -0,0 +1,159 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link NodeInterner}.
+ *
+ * @author FeatureIDE Team
+ */
+public class NodeInternerTests {
+
+	private static final int NUMBER_OF_VARIABLES = 5;
+
+	@Test
+	public void testSharing() {
+		final NodeInterner interner = new NodeInterner();
+		final Node node1 = new And(new Or("a", new Not("b")), new Implies("a", "c"));
+		final Node node2 = new And(new Implies("a", "c"), new Or(new Not("b"), "a"));
+		final Node interned1 = interner.intern(node1);
+		final Node interned2 = interner.intern(node2);
+
+		assertSame(interned1, interned2);
+		assertSame(interned1, interner.intern(interned1));
+		assertTrue(interner.isInterned(interned1));
+		assertFalse(interner.isInterned(node1));
+		assertEquals(node1, interned1);
+		assertSame(interned1.getChildren()[0], interner.intern(new Or(new Not(new Literal("b")), new Literal("a"))));
+
+		// Given nodes are not modified
+		assertTrue(node1.getChildren()[0] instanceof Or);
+		assertNotSame(node1.getChildren()[0], interned1.getChildren()[0]);
+	}
+
+	@Test
+	public void testDistinction() {
+		final NodeInterner interner = new NodeInterner();
+		assertNotSame(interner.intern(new Implies("a", "b")), interner.intern(new Implies("b", "a")));
+		assertNotSame(interner.intern(new Literal("a", true)), interner.intern(new Literal("a", false)));
+		assertNotSame(interner.intern(new And("a", "b")), interner.intern(new Or("a", "b")));
+		assertNotSame(interner.intern(new AtMost(1, "a", "b", "c")), interner.intern(new AtMost(2, "a", "b", "c")));
+		assertSame(interner.intern(new Choose(1, "a", "b", "c")), interner.intern(new Choose(1, "c", "a", "b")));
+
+		final int size = interner.size();
+		interner.clear();
+		assertTrue(size > 0);
+		assertEquals(0, interner.size());
+	}
+
+	private static Node createRandomNode(Random random, int depth) {
+		if ((depth == 0) || (random.nextInt(4) == 0)) {
+			return new Literal("x" + random.nextInt(NUMBER_OF_VARIABLES), random.nextBoolean());
+		}
+		final Node[] children = new Node[2 + random.nextInt(2)];
+		for (int i = 0; i < children.length; i++) {
+			children[i] = createRandomNode(random, depth - 1);
+		}
+		switch (random.nextInt(6)) {
+		case 0:
+			return new And(children);
+		case 1:
+			return new Or(children);
+		case 2:
+			return new Not(children[0]);
+		case 3:
+			return new Implies(children[0], children[1]);
+		case 4:
+			return new Equals(children[0], children[1]);
+		default:
+			// The transformation of cardinality constraints requires literals as children
+			for (int i = 0; i < children.length; i++) {
+				children[i] = createRandomNode(random, 0);
+			}
+			return new AtMost(1, children);
+		}
+	}
+
+	private static boolean isEquivalent(Node node1, Node node2) {
+		final Map<Object, Boolean> assignment = new HashMap<>();
+		for (int i = 0; i < (1 << NUMBER_OF_VARIABLES); i++) {
+			for (int j = 0; j < NUMBER_OF_VARIABLES; j++) {
+				assignment.put("x" + j, (i & (1 << j)) != 0);
+			}
+			if (node1.getValue(assignment) != node2.getValue(assignment)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Test
+	public void testNormalForms() {
+		final Random random = new Random(0);
+		final NodeInterner interner = new NodeInterner();
+		for (int i = 0; i < 100; i++) {
+			final Node node = new And(createRandomNode(random, 3), createRandomNode(random, 3));
+			final Node copy = node.clone();
+
+			final Node cnf = interner.getCNF(node);
+			assertSame(cnf, interner.getCNF(node.clone()));
+			assertSame(cnf, interner.getCNF(cnf));
+			assertTrue(cnf.isRegularConjunctiveNormalForm());
+			assertTrue(node.toString(), isEquivalent(node, cnf));
+
+			final Node dnf = interner.getDNF(node);
+			assertSame(dnf, interner.getDNF(node.clone()));
+			assertTrue(node.toString(), isEquivalent(node.toRegularDNF(), dnf));
+
+			assertEquals(new HashSet<>(node.getUniqueContainedFeatures()), interner.getUniqueContainedFeatures(node));
+			assertEquals(copy, node);
+			assertEquals(copy.toString(), node.toString());
+		}
+	}
+
+	@Test
+	public void testCombinedNormalForm() {
+		final NodeInterner interner = new NodeInterner();
+		final Node child1 = new Or("a", new And("b", "c"));
+		final Node child2 = new Implies("c", "d");
+		final Node cnf1 = interner.getCNF(child1);
+		final Node cnf2 = interner.getCNF(child2);
+		final Node cnf = interner.getCNF(new And(child1, child2));
+		assertEquals(cnf1.getChildren().length + cnf2.getChildren().length, cnf.getChildren().length);
+		assertTrue(Arrays.asList(cnf.getChildren()).containsAll(Arrays.asList(cnf1.getChildren())));
+		assertTrue(Arrays.asList(cnf.getChildren()).containsAll(Arrays.asList(cnf2.getChildren())));
+	}
+
+}
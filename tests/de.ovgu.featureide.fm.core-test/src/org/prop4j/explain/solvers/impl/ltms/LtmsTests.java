@@ -0,0 +1,221 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.explain.solvers.impl.ltms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.SatSolver;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * Tests for {@link Ltms}.
+ *
+ * @author FeatureIDE Team
+ */
+public class LtmsTests {
+
+	private static Set<Integer> toSet(Integer... indexes) {
+		return new TreeSet<>(Arrays.asList(indexes));
+	}
+
+	@Test
+	public void testChain() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And("A", new Implies("A", "B"), new Implies("B", "C"), new Or("D", "E")));
+		assertTrue(ltms.isSatisfiable());
+		ltms.addAssumption("C", false);
+		assertEquals(toSet(0, 1, 2), ltms.getMinimalUnsatisfiableSubsetIndexes());
+		assertFalse(ltms.isSatisfiable());
+	}
+
+	@Test
+	public void testPremiseContradiction() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And(new Or("A", "B"), new Or(new Not("A"), "B")));
+		ltms.addAssumption("A", true);
+		ltms.addAssumption("B", false);
+		assertEquals(Arrays.asList(toSet(1)), ltms.getAllMinimalUnsatisfiableSubsetIndexes());
+	}
+
+	@Test
+	public void testModel() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And(new Implies("A", "B"), new Implies("B", "C"), new Or("C", "D")));
+		ltms.addAssumption("A", true);
+		assertTrue(ltms.getAllMinimalUnsatisfiableSubsetIndexes().isEmpty());
+		final Map<Object, Boolean> expected = new HashMap<>();
+		expected.put("A", true);
+		expected.put("B", true);
+		expected.put("C", true);
+		assertEquals(expected, ltms.getModel());
+	}
+
+	@Test
+	public void testMultipleExplanations() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And(new Implies("P", "A"), new Implies("A", "X"), new Implies("P", "B"), new Implies("B", "C"), new Implies("C", "X")));
+		ltms.addAssumption("P", true);
+		ltms.addAssumption("X", false);
+		final Set<Set<Integer>> explanations = new HashSet<>(ltms.getAllMinimalUnsatisfiableSubsetIndexes());
+		assertTrue(explanations.contains(toSet(0, 1)));
+		assertTrue(explanations.contains(toSet(2, 3, 4)));
+		assertEquals(toSet(0, 1), ltms.getMinimalUnsatisfiableSubsetIndexes());
+	}
+
+	@Test
+	public void testPushPop() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And(new Implies("A", "B"), new Implies("B", "C")));
+		ltms.push();
+		ltms.addFormula(new And("A", new Not("C")));
+		ltms.addAssumption("D", true);
+		assertEquals(toSet(0, 1, 2, 3), ltms.getMinimalUnsatisfiableSubsetIndexes());
+		ltms.pop();
+		assertEquals(2, ltms.getClauseCount());
+		assertTrue(ltms.getAssumptions().isEmpty());
+		assertTrue(ltms.getAllMinimalUnsatisfiableSubsetIndexes().isEmpty());
+		ltms.push();
+		ltms.addFormula(new Literal("A"));
+		ltms.addAssumption("C", false);
+		assertEquals(toSet(0, 1, 2), ltms.getMinimalUnsatisfiableSubsetIndexes());
+		ltms.pop();
+		assertTrue(ltms.getAllMinimalUnsatisfiableSubsetIndexes().isEmpty());
+	}
+
+	@Test
+	public void testRemoveClause() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And(new Implies("A", "B"), new Implies("B", "C"), new Implies("A", "C")));
+		ltms.addAssumption("A", true);
+		ltms.addAssumption("C", false);
+		ltms.removeClause(1);
+		assertEquals(Arrays.asList(toSet(1)), ltms.getAllMinimalUnsatisfiableSubsetIndexes());
+		ltms.removeClause(1);
+		assertTrue(ltms.getAllMinimalUnsatisfiableSubsetIndexes().isEmpty());
+	}
+
+	@Test
+	public void testTautology() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And(new Or("A", new Not("A")), new Or("B", "B")));
+		ltms.addAssumption("A", false);
+		assertTrue(ltms.getAllMinimalUnsatisfiableSubsetIndexes().isEmpty());
+		ltms.addAssumption("B", false);
+		assertEquals(Arrays.asList(toSet(1)), ltms.getAllMinimalUnsatisfiableSubsetIndexes());
+	}
+
+	/**
+	 * Checks the explanations against plain unit propagation and a SAT solver on random formulas.
+	 */
+	@Test
+	public void testRandomFormulas() throws TimeoutException {
+		final Random random = new Random(42);
+		final int numberOfVariables = 8;
+		for (int i = 0; i < 300; i++) {
+			final List<Node> clauses = new ArrayList<>();
+			final int numberOfClauses = 4 + random.nextInt(16);
+			for (int j = 0; j < numberOfClauses; j++) {
+				final Node[] literals = new Node[1 + random.nextInt(3)];
+				for (int k = 0; k < literals.length; k++) {
+					literals[k] = new Literal("x" + random.nextInt(numberOfVariables), random.nextBoolean());
+				}
+				clauses.add(new Or(literals));
+			}
+			final Map<Object, Boolean> assumptions = new HashMap<>();
+			for (int j = random.nextInt(3); j > 0; j--) {
+				assumptions.put("x" + random.nextInt(numberOfVariables), random.nextBoolean());
+			}
+
+			final Ltms ltms = new Ltms();
+			for (final Node clause : clauses) {
+				ltms.addClause(clause);
+			}
+			ltms.addAssumptions(assumptions);
+			final List<Set<Integer>> explanations = ltms.getAllMinimalUnsatisfiableSubsetIndexes();
+			assertEquals(isRefutedByPropagation(clauses, assumptions), !explanations.isEmpty());
+			for (final Set<Integer> explanation : explanations) {
+				final List<Node> nodes = new ArrayList<>();
+				for (final Integer index : explanation) {
+					nodes.add(clauses.get(index));
+				}
+				for (final Entry<Object, Boolean> assumption : assumptions.entrySet()) {
+					nodes.add(new Literal(assumption.getKey(), assumption.getValue()));
+				}
+				assertFalse(explanation.toString(), new SatSolver(new And(nodes.toArray(new Node[nodes.size()])), 1000).hasSolution());
+			}
+		}
+	}
+
+	private static boolean isRefutedByPropagation(List<Node> clauses, Map<Object, Boolean> assumptions) {
+		final Map<Object, Boolean> values = new HashMap<>(assumptions);
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (final Node clause : clauses) {
+				Literal unknownLiteral = null;
+				int unknownCount = 0;
+				boolean satisfied = false;
+				for (final Node child : clause.getChildren()) {
+					final Literal literal = (Literal) child;
+					final Boolean value = values.get(literal.var);
+					if (value == null) {
+						if ((unknownLiteral == null) || !unknownLiteral.equals(literal)) {
+							unknownCount++;
+						}
+						unknownLiteral = literal;
+					} else if (value == literal.positive) {
+						satisfied = true;
+					}
+				}
+				if (!satisfied) {
+					if (unknownCount == 0) {
+						return true;
+					} else if (unknownCount == 1) {
+						values.put(unknownLiteral.var, unknownLiteral.positive);
+						changed = true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+}